@@ -0,0 +1,100 @@
+package bench;
+
+import controller.PetActor;
+import controller.PetActorSystem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+import pet.model.mystery.MysteryBoxSystem;
+
+/**
+ * Hosts a large population of pet actors and floods them with commands from several sender
+ * threads, then reports throughput, mailbox depth and latency.
+ *
+ * <p>Usage: {@code java bench.ActorBenchmark [pets] [commandsPerPet] [threads] [batch]}.
+ * A million pets need a heap of roughly 2 GB.
+ */
+public class ActorBenchmark {
+  private static final int DEFAULT_PETS = 100_000;
+  private static final int DEFAULT_COMMANDS = 20;
+  private static final int MAILBOX_CAPACITY = 64;
+  private static final int DEFAULT_BATCH = 16;
+  private static final int SENDERS = 2;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the pet count, commands per pet, pool threads and batch size
+   * @throws Exception if a sender fails or the wait is interrupted
+   */
+  public static void main(String[] args) throws Exception {
+    int pets = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PETS;
+    int commands = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_COMMANDS;
+    int threads = (args.length > 2) ? Integer.parseInt(args[2]) : 0;
+    int batch = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_BATCH;
+
+    PetActorSystem system = new PetActorSystem(threads, MAILBOX_CAPACITY, batch);
+    long spawnStart = System.nanoTime();
+    PetActor[] actors = new PetActor[pets];
+    for (int i = 0; i < pets; i++) {
+      actors[i] = system.spawn(new Pet("Pet " + i));
+    }
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    System.out.printf("spawned %d actors in %d ms, heap %d MB%n", pets,
+        (System.nanoTime() - spawnStart) / 1_000_000,
+        (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+
+    long sendStart = System.nanoTime();
+    List<Thread> senders = new ArrayList<>();
+    for (int s = 0; s < SENDERS; s++) {
+      int first = s;
+      Thread sender = new Thread(() -> send(actors, first, commands), "pet-sender-" + s);
+      senders.add(sender);
+      sender.start();
+    }
+    for (Thread sender : senders) {
+      sender.join();
+    }
+    long sent = (long) pets * commands;
+    while (system.getProcessedCount() + system.getRejectedCount() < sent) {
+      Thread.sleep(1);
+    }
+    long elapsed = System.nanoTime() - sendStart;
+
+    // Queries are ordered behind everything already sent to the same pet
+    CompletableFuture<PetSnapshot> sample = actors[pets / 2].query();
+    System.out.printf("%d commands in %d ms, %.0f commands/s%n", sent, elapsed / 1_000_000,
+        sent * 1e9 / elapsed);
+    System.out.println(system.describe());
+    System.out.println("sample " + sample.get(1, TimeUnit.SECONDS));
+    system.close();
+  }
+
+  /**
+   * Sends every pet its commands, interleaving pets so mailboxes fill concurrently.
+   */
+  private static void send(PetActor[] actors, int first, int commands) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    MysteryBoxSystem boxes = new MysteryBoxSystem();
+    for (int round = 0; round < commands; round++) {
+      for (int i = first; i < actors.length; i += SENDERS) {
+        int roll = random.nextInt(100);
+        if (roll < 25) {
+          actors[i].tellSteps(1);
+        } else if (roll < 95) {
+          actors[i].tell(Action.values()[roll % 3]);
+        } else if (roll < 98) {
+          actors[i].openBox(boxes.generateRandomBox());
+        } else {
+          actors[i].query();
+        }
+      }
+    }
+  }
+}
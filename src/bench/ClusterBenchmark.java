@@ -0,0 +1,137 @@
+package bench;
+
+import controller.EngineProcess;
+import controller.PetClusterRouter;
+import controller.PetClusterRouter.Batch;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import pet.enums.Action;
+import pet.model.PetSnapshot;
+
+/**
+ * Runs clusters of 1, 2, 4 ... pet engines, each in its own JVM on this machine, behind one
+ * {@link PetClusterRouter}, and reports the aggregate commands per second of pipelined mixed
+ * batches. The largest cluster then gains one more engine, and the benchmark reports how many
+ * pets moved, how long it took, and whether their state survived.
+ *
+ * <p>Usage: {@code java bench.ClusterBenchmark [max engines] [pets] [seconds]}.
+ * Aggregate throughput can only grow with the process count on a machine with cores to spare.
+ */
+public class ClusterBenchmark {
+  private static final int DEFAULT_MAX_ENGINES = 4;
+  private static final int DEFAULT_PETS = 100_000;
+  private static final int DEFAULT_SECONDS = 5;
+  private static final int BATCH_SIZE = 8192;
+  private static final int ENGINE_HEAP_MEGABYTES = 256;
+  private static final int SAMPLES = 1000;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the largest engine count, the pet count and the duration of each
+   *             run in seconds
+   * @throws IOException if an engine cannot be started or reached
+   */
+  public static void main(String[] args) throws IOException {
+    int maxEngines = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_MAX_ENGINES;
+    int pets = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PETS;
+    int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+
+    System.out.printf("%d pets, batches of %d commands, %d cores%n", pets, BATCH_SIZE,
+        Runtime.getRuntime().availableProcessors());
+    for (int engines = 1; engines <= maxEngines; engines *= 2) {
+      run(engines, pets, seconds, engines * 2 > maxEngines);
+    }
+  }
+
+  private static void run(int engineCount, int pets, int seconds, boolean rebalance)
+      throws IOException {
+    List<EngineProcess> engines = new ArrayList<>();
+    try {
+      List<InetSocketAddress> addresses = new ArrayList<>();
+      for (int i = 0; i < engineCount; i++) {
+        EngineProcess engine = new EngineProcess(ENGINE_HEAP_MEGABYTES);
+        engines.add(engine);
+        addresses.add(engine.getAddress());
+      }
+      try (PetClusterRouter router = new PetClusterRouter(addresses)) {
+        long start = System.nanoTime();
+        router.createPets(pets);
+        double createMillis = (System.nanoTime() - start) / 1e6;
+
+        // Warm up the engines before measuring
+        drive(router, pets, 1);
+        long commands = drive(router, pets, seconds);
+        System.out.printf("%d engine(s): %,.0f commands/s (created %,d pets in %.0f ms)%n",
+            engineCount, commands / (double) seconds, pets, createMillis);
+
+        if (rebalance) {
+          rebalance(router, engines, pets);
+        }
+      }
+    } finally {
+      for (EngineProcess engine : engines) {
+        engine.close();
+      }
+    }
+  }
+
+  /**
+   * Sends batches of random actions and steps until the time is up.
+   */
+  private static long drive(PetClusterRouter router, int pets, int seconds) throws IOException {
+    Random random = new Random(42);
+    Action[] actions = Action.values();
+    Batch batch = new Batch(BATCH_SIZE);
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    long commands = 0;
+    while (System.nanoTime() < deadline) {
+      batch.clear();
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        int petId = random.nextInt(pets);
+        if (random.nextInt(4) == 0) {
+          batch.step(petId, 1);
+        } else {
+          batch.act(petId, actions[random.nextInt(actions.length)]);
+        }
+      }
+      router.execute(batch);
+      commands += batch.size();
+    }
+    return commands;
+  }
+
+  private static void rebalance(PetClusterRouter router, List<EngineProcess> engines, int pets)
+      throws IOException {
+    Random random = new Random(7);
+    int[] sample = new int[Math.min(SAMPLES, pets)];
+    PetSnapshot[] before = new PetSnapshot[sample.length];
+    for (int i = 0; i < sample.length; i++) {
+      sample[i] = random.nextInt(pets);
+      before[i] = router.getPet(sample[i]);
+    }
+
+    EngineProcess added = new EngineProcess(ENGINE_HEAP_MEGABYTES);
+    engines.add(added);
+    long start = System.nanoTime();
+    int moved = router.addEngine(added.getAddress());
+    double millis = (System.nanoTime() - start) / 1e6;
+
+    int preserved = 0;
+    for (int i = 0; i < sample.length; i++) {
+      PetSnapshot after = router.getPet(sample[i]);
+      if (after != null && after.getTick() == before[i].getTick()
+          && after.getMood() == before[i].getMood()
+          && after.getHealth().getHunger() == before[i].getHealth().getHunger()
+          && after.getHealth().getSleep() == before[i].getHealth().getSleep()) {
+        preserved++;
+      }
+    }
+    System.out.printf("Added engine %d: moved %,d pets (%.1f%%) in %.0f ms, "
+            + "%d/%d sampled pets unchanged%n", engines.size(), moved, 100.0 * moved / pets,
+        millis, preserved, sample.length);
+  }
+}
@@ -0,0 +1,151 @@
+package bench;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import pet.enums.Action;
+import pet.model.ConcurrentPet;
+import pet.model.Pet;
+
+/**
+ * Measures contended throughput on one shared pet, comparing the lock-free
+ * {@link ConcurrentPet} with a {@link Pet} guarded by {@code synchronized}.
+ * Every thread hammers the same pet with a mix of steps, interactions and health changes.
+ *
+ * <p>Usage: {@code java bench.ConcurrentPetBenchmark [threads] [millis]}. For each thread
+ * count from one up to the given number the harness prints the operations per second of both
+ * variants.
+ */
+public class ConcurrentPetBenchmark {
+  private static final int DEFAULT_THREADS = 4;
+  private static final int DEFAULT_MILLIS = 1000;
+  private static final int WARMUP_MILLIS = 500;
+  private static final Action[] CARE = {Action.FEED, Action.PLAY, Action.CLEAN};
+
+  /**
+   * The operations the benchmark runs against either pet.
+   */
+  private interface SharedPet {
+    void step();
+
+    void interactWith(Action action);
+
+    void applyHealthImpact(int hungerChange, int hygieneChange, int socialChange,
+                           int sleepChange);
+  }
+
+  /**
+   * The baseline: a plain pet where every call holds the pet's monitor.
+   */
+  private static final class SynchronizedPet implements SharedPet {
+    private final Pet pet = new Pet("Shared");
+
+    @Override
+    public synchronized void step() {
+      pet.step();
+    }
+
+    @Override
+    public synchronized void interactWith(Action action) {
+      pet.interactWith(action);
+    }
+
+    @Override
+    public synchronized void applyHealthImpact(int hungerChange, int hygieneChange,
+                                               int socialChange, int sleepChange) {
+      pet.applyHealthImpact(hungerChange, hygieneChange, socialChange, sleepChange);
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the maximum number of threads and the milliseconds per run
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+    int millis = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_MILLIS;
+
+    System.out.printf("%-8s %16s %16s %8s%n", "threads", "synchronized/s", "lock-free/s",
+        "ratio");
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      run(new SynchronizedPet(), threads, WARMUP_MILLIS);
+      double locked = run(new SynchronizedPet(), threads, millis);
+      run(lockFree(), threads, WARMUP_MILLIS);
+      double lockFree = run(lockFree(), threads, millis);
+      System.out.printf("%-8d %16.0f %16.0f %8.2f%n", threads, locked, lockFree,
+          lockFree / locked);
+    }
+  }
+
+  private static SharedPet lockFree() {
+    ConcurrentPet pet = new ConcurrentPet("Shared");
+    return new SharedPet() {
+      @Override
+      public void step() {
+        pet.step();
+      }
+
+      @Override
+      public void interactWith(Action action) {
+        pet.interactWith(action);
+      }
+
+      @Override
+      public void applyHealthImpact(int hungerChange, int hygieneChange, int socialChange,
+                                    int sleepChange) {
+        pet.applyHealthImpact(hungerChange, hygieneChange, socialChange, sleepChange);
+      }
+    };
+  }
+
+  /**
+   * Runs the given number of threads against one pet for a fixed time.
+   *
+   * @return the operations per second across all threads
+   */
+  private static double run(SharedPet pet, int threads, int millis)
+      throws InterruptedException {
+    LongAdder operations = new LongAdder();
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] workers = new Thread[threads];
+    long[] deadline = new long[1];
+
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long done = 0;
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        while (System.nanoTime() < deadline[0]) {
+          for (int n = 0; n < 64; n++) {
+            int roll = random.nextInt(8);
+            if (roll == 0) {
+              pet.step();
+            } else if (roll == 1) {
+              pet.applyHealthImpact(random.nextInt(-2, 3), random.nextInt(-2, 3), 0, 0);
+            } else {
+              pet.interactWith(CARE[roll % CARE.length]);
+            }
+          }
+          done += 64;
+        }
+        operations.add(done);
+      }, "pet-bench-" + i);
+      workers[i].start();
+    }
+
+    long began = System.nanoTime();
+    deadline[0] = began + millis * 1_000_000L;
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - began;
+    return operations.sum() * 1e9 / elapsed;
+  }
+}
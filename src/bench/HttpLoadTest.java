@@ -0,0 +1,193 @@
+package bench;
+
+import controller.PetHttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the pet HTTP API on localhost from many client threads and reports requests per
+ * second and latency percentiles for each kind of request. Clients reuse keep-alive
+ * connections, as a real caller would.
+ *
+ * <p>Usage: {@code java bench.HttpLoadTest [clients] [seconds] [port]}. Without a port the
+ * test starts its own server in the same JVM; with one it targets a running
+ * {@code main.PetServerMain}.
+ */
+public class HttpLoadTest {
+  private static final int DEFAULT_CLIENTS = 16;
+  private static final int DEFAULT_SECONDS = 10;
+  private static final int PETS = 1000;
+  private static final int BULK_SIZE = 50;
+  private static final String[] KINDS = {"get", "act", "step", "bulk act"};
+  private static final String[] ACTIONS = {"FEED", "PLAY", "CLEAN"};
+
+  /**
+   * Latencies recorded by one client, per kind of request.
+   */
+  private static final class Recorder {
+    private final long[][] nanos = new long[KINDS.length][1024];
+    private final int[] counts = new int[KINDS.length];
+    private int errors;
+
+    void record(int kind, long elapsed) {
+      if (counts[kind] == nanos[kind].length) {
+        nanos[kind] = Arrays.copyOf(nanos[kind], counts[kind] * 2);
+      }
+      nanos[kind][counts[kind]++] = elapsed;
+    }
+  }
+
+  /**
+   * Runs the load test.
+   *
+   * @param args Optionally the number of clients, the duration in seconds and a server port
+   * @throws Exception if the server cannot be started or a client fails to set up
+   */
+  public static void main(String[] args) throws Exception {
+    int clients = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+    int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+    PetHttpServer server = null;
+    int port;
+    if (args.length > 2) {
+      port = Integer.parseInt(args[2]);
+    } else {
+      server = new PetHttpServer(0, clients, 0);
+      server.start();
+      port = server.getPort();
+    }
+    String base = "http://localhost:" + port + "/pets";
+
+    int[] ids = new int[PETS];
+    for (int i = 0; i < PETS; i++) {
+      String body = request("POST", base + "?name=Load" + i, null);
+      ids[i] = Integer.parseInt(body.substring(body.indexOf(':') + 1, body.indexOf(',')));
+    }
+
+    // Warm up both sides before measuring
+    runClients(base, ids, clients, Math.min(2, seconds));
+    long start = System.nanoTime();
+    List<Recorder> recorders = runClients(base, ids, clients, seconds);
+    double elapsed = (System.nanoTime() - start) / 1e9;
+
+    long total = 0;
+    int errors = 0;
+    System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "request", "count", "p50 us",
+        "p90 us", "p99 us", "max us");
+    for (int kind = 0; kind < KINDS.length; kind++) {
+      int count = 0;
+      for (Recorder recorder : recorders) {
+        count += recorder.counts[kind];
+      }
+      long[] merged = new long[count];
+      int offset = 0;
+      for (Recorder recorder : recorders) {
+        System.arraycopy(recorder.nanos[kind], 0, merged, offset, recorder.counts[kind]);
+        offset += recorder.counts[kind];
+      }
+      Arrays.sort(merged);
+      total += count;
+      if (count > 0) {
+        System.out.printf("%-10s %10d %10d %10d %10d %10d%n", KINDS[kind], count,
+            percentile(merged, 50) / 1000, percentile(merged, 90) / 1000,
+            percentile(merged, 99) / 1000, merged[count - 1] / 1000);
+      }
+    }
+    for (Recorder recorder : recorders) {
+      errors += recorder.errors;
+    }
+    System.out.printf("%d clients, %.0f requests/s, %d errors%n", clients, total / elapsed,
+        errors);
+
+    if (server != null) {
+      server.stop();
+    }
+  }
+
+  private static List<Recorder> runClients(String base, int[] ids, int clients, int seconds)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    List<Recorder> recorders = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int c = 0; c < clients; c++) {
+      Recorder recorder = new Recorder();
+      recorders.add(recorder);
+      Thread thread = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+          int roll = random.nextInt(100);
+          int kind = (roll < 50) ? 0 : (roll < 90) ? 1 : (roll < 98) ? 2 : 3;
+          int id = ids[random.nextInt(ids.length)];
+          String action = ACTIONS[random.nextInt(ACTIONS.length)];
+          long begin = System.nanoTime();
+          try {
+            switch (kind) {
+              case 0:
+                request("GET", base + "/" + id, null);
+                break;
+              case 1:
+                request("POST", base + "/" + id + "/act?action=" + action, null);
+                break;
+              case 2:
+                request("POST", base + "/" + id + "/step?steps=1", null);
+                break;
+              default:
+                StringBuilder body = new StringBuilder();
+                int first = random.nextInt(ids.length - BULK_SIZE);
+                for (int i = 0; i < BULK_SIZE; i++) {
+                  body.append(ids[first + i]).append(',');
+                }
+                request("POST", base + "/act?action=" + action, body.toString());
+                break;
+            }
+            recorder.record(kind, System.nanoTime() - begin);
+          } catch (IOException e) {
+            recorder.errors++;
+          }
+        }
+      }, "pet-load-" + c);
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return recorders;
+  }
+
+  /**
+   * Sends one request and reads the whole response, leaving the connection for reuse.
+   */
+  private static String request(String method, String url, String body) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+    connection.setRequestMethod(method);
+    if (body != null) {
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.US_ASCII));
+      }
+    }
+    int status = connection.getResponseCode();
+    InputStream in = (status < 400) ? connection.getInputStream() : connection.getErrorStream();
+    String response;
+    try (InputStream stream = in) {
+      response = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    if (status != 200) {
+      throw new IOException(method + " " + url + " answered " + status + ": " + response);
+    }
+    return response;
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
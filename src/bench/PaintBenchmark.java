@@ -0,0 +1,207 @@
+package bench;
+
+import com.sun.management.ThreadMXBean;
+import controller.PetController;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import pet.enums.Action;
+import pet.enums.ActivityType;
+import pet.enums.MoodEnum;
+import pet.model.ActivityEvent;
+import pet.model.Pet;
+import view.components.ActivityLogPanel;
+import view.components.BackgroundPanel;
+import view.components.HealthPanel;
+import view.components.PetImagePanel;
+import view.components.SpeechBubble;
+
+/**
+ * Paints the main view components offscreen and reports their rendering cost.
+ * Each component is built without a window, driven through realistic state changes and
+ * painted repeatedly into a {@link BufferedImage}. Runs with {@code java.awt.headless=true}.
+ *
+ * <p>Usage: {@code java bench.PaintBenchmark [frames]}. For every component the harness
+ * prints the mean and p99 nanoseconds per frame and the bytes allocated per frame on the
+ * painting thread.
+ */
+public class PaintBenchmark {
+  private static final int DEFAULT_FRAMES = 2000;
+  private static final int WARMUP_FRAMES = 500;
+  private static final String[] MESSAGES = {
+      "I'm hungry!", "Let's play!", "I need a bath...", "So sleepy...", "I love you!"
+  };
+
+  private final Pet pet = new Pet("Benchy");
+  private final PetController controller = new PetController(pet);
+  private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /**
+   * A component to paint and the state change applied before each frame.
+   */
+  private static final class Scenario {
+    private final String name;
+    private final JComponent component;
+    private final FrameAction update;
+
+    Scenario(String name, JComponent component, int width, int height, FrameAction update) {
+      this.name = name;
+      this.component = component;
+      this.update = update;
+      component.setBounds(0, 0, width, height);
+      layoutTree(component);
+    }
+  }
+
+  /**
+   * Changes component state before a frame is painted.
+   */
+  private interface FrameAction {
+    void apply(int frame);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the number of measured frames per component
+   * @throws Exception if the benchmark cannot run on the event dispatch thread
+   */
+  public static void main(String[] args) throws Exception {
+    System.setProperty("java.awt.headless", "true");
+    int frames = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+
+    PaintBenchmark benchmark = new PaintBenchmark();
+    List<Scenario> scenarios = new ArrayList<>();
+    SwingUtilities.invokeAndWait(() -> scenarios.addAll(benchmark.createScenarios()));
+
+    System.out.printf("%-16s %12s %12s %14s%n", "component", "ns/frame", "p99 ns", "bytes/frame");
+    for (Scenario scenario : scenarios) {
+      benchmark.run(scenario, frames);
+    }
+  }
+
+  /**
+   * Builds the components with the sizes they have in the pet view.
+   */
+  private List<Scenario> createScenarios() {
+    List<Scenario> scenarios = new ArrayList<>();
+
+    HealthPanel healthPanel = new HealthPanel(controller);
+    scenarios.add(new Scenario("HealthPanel", healthPanel, 300, 250, frame -> {
+      // The model changes every few frames, as it would with steps and actions
+      if (frame % 4 == 0) {
+        changePet(frame);
+        healthPanel.updateHealthStatus();
+      }
+    }));
+
+    ActivityLogPanel logPanel = new ActivityLogPanel();
+    logPanel.setController(controller);
+    scenarios.add(new Scenario("ActivityLogPanel", logPanel, 300, 250, frame -> {
+      if (frame % 4 == 0) {
+        logPanel.addEvent(new ActivityEvent(frame, pet.getId(), ActivityType.ACTION,
+            Action.values()[frame / 4 % 4].ordinal(), MoodEnum.NEUTRAL, MoodEnum.HAPPY));
+      }
+    }));
+
+    PetImagePanel imagePanel = new PetImagePanel(controller);
+    scenarios.add(new Scenario("PetImagePanel", imagePanel, 640, 460, frame -> {
+      if (frame % 30 == 0) {
+        imagePanel.showActionImage(Action.values()[frame / 30 % 4]);
+      } else if (frame % 30 == 15) {
+        imagePanel.clearActionImage();
+      }
+    }));
+
+    SpeechBubble bubble = new SpeechBubble();
+    scenarios.add(new Scenario("SpeechBubble", bubble, 150, 80, frame -> {
+      if (frame % 60 == 0) {
+        bubble.showMessage(MESSAGES[frame / 60 % MESSAGES.length], 4000, new Point(120, 70));
+      }
+    }));
+
+    BackgroundPanel background = new BackgroundPanel("res/images/background.png");
+    scenarios.add(new Scenario("BackgroundPanel", background, 1000, 700, frame -> { }));
+    return scenarios;
+  }
+
+  /**
+   * Steps or cares for the pet so its health and mood keep changing.
+   */
+  private void changePet(int frame) {
+    if (!pet.isAlive() || pet.isAsleep()) {
+      pet.interactWith(Action.SLEEP);
+    }
+    if (frame % 8 == 0) {
+      pet.step();
+    } else {
+      pet.interactWith(Action.values()[frame / 8 % 3]);
+    }
+    controller.refresh();
+  }
+
+  /**
+   * Paints a component for the warmup and measured frames and prints its results.
+   * Each frame runs as its own event so animation timers still fire between frames.
+   */
+  private void run(Scenario scenario, int frames) throws InterruptedException,
+      InvocationTargetException {
+    Component component = scenario.component;
+    BufferedImage target = new BufferedImage(component.getWidth(), component.getHeight(),
+        BufferedImage.TYPE_INT_ARGB_PRE);
+    long[] nanos = new long[frames];
+    long[] bytes = new long[1];
+
+    for (int frame = 0; frame < WARMUP_FRAMES + frames; frame++) {
+      int index = frame;
+      SwingUtilities.invokeAndWait(() -> {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        scenario.update.apply(index);
+        Graphics2D g2d = target.createGraphics();
+        component.paint(g2d);
+        g2d.dispose();
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (index >= WARMUP_FRAMES) {
+          nanos[index - WARMUP_FRAMES] = elapsed;
+          bytes[0] += allocated;
+        }
+      });
+    }
+
+    long total = 0;
+    for (long value : nanos) {
+      total += value;
+    }
+    long[] sorted = nanos.clone();
+    Arrays.sort(sorted);
+    System.out.printf("%-16s %12d %12d %14d%n", scenario.name, total / frames,
+        sorted[Math.min(frames - 1, (int) Math.ceil(frames * 0.99) - 1)], bytes[0] / frames);
+  }
+
+  /**
+   * Lays out a component tree that has no window, which Swing would otherwise skip.
+   */
+  private static void layoutTree(Component component) {
+    if (component instanceof Container) {
+      Container container = (Container) component;
+      container.doLayout();
+      for (Component child : container.getComponents()) {
+        layoutTree(child);
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package bench;
+
+import controller.CommandPipeline;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import pet.enums.Action;
+import pet.enums.ActivityType;
+import pet.enums.MoodEnum;
+import pet.model.ActivityEvent;
+import pet.model.Pet;
+import pet.model.history.ActivityHistory;
+
+/**
+ * Pushes commands from several producer threads through a {@link CommandPipeline} with a real
+ * on-disk journal and a deliberately slow view listener, and compares it with applying,
+ * journaling, flushing and notifying inline for every command.
+ *
+ * <p>Usage: {@code java bench.PipelineBenchmark [commands] [producers] [viewMillis]}.
+ */
+public class PipelineBenchmark {
+  private static final int DEFAULT_COMMANDS = 1_000_000;
+  private static final int DEFAULT_PRODUCERS = 2;
+  private static final int DEFAULT_VIEW_MILLIS = 5;
+  private static final int RING_SIZE = 16 * 1024;
+  private static final int INLINE_COMMANDS = 2_000;
+  private static final Action[] ACTIONS = {Action.FEED, Action.PLAY, Action.CLEAN};
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the command count, producer count and view delay in milliseconds
+   * @throws Exception if the journal cannot be written
+   */
+  public static void main(String[] args) throws Exception {
+    int commands = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_COMMANDS;
+    int producers = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PRODUCERS;
+    int viewMillis = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_VIEW_MILLIS;
+
+    File directory = Files.createTempDirectory("pipeline-bench").toFile();
+    try {
+      inline(new File(directory, "inline"), viewMillis);
+      pipelined(new File(directory, "warmup"), commands / 10, producers, viewMillis);
+      pipelined(new File(directory, "pipeline"), commands, producers, viewMillis);
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Applies, journals, flushes and shows every command before taking the next one.
+   */
+  private static void inline(File directory, int viewMillis) throws IOException {
+    CommandPipeline.Listener view = slowView(viewMillis);
+    try (ActivityHistory journal = new ActivityHistory(directory)) {
+      Pet pet = new Pet();
+      List<ActivityEvent> events = new ArrayList<>(1);
+      long start = System.nanoTime();
+      for (int i = 0; i < INLINE_COMMANDS; i++) {
+        Action action = ACTIONS[i % ACTIONS.length];
+        pet.interactWith(action);
+        ActivityEvent event = new ActivityEvent(pet.getTick(), pet.getId(),
+            ActivityType.ACTION, action.ordinal(), pet.getMood(), pet.getMood());
+        journal.append(event);
+        journal.flush();
+        events.clear();
+        events.add(event);
+        view.onBatch(events);
+      }
+      double elapsed = (System.nanoTime() - start) / 1e9;
+      System.out.printf("inline:    %d commands in %.2fs, %.0f commands/s%n",
+          INLINE_COMMANDS, elapsed, INLINE_COMMANDS / elapsed);
+    }
+  }
+
+  private static void pipelined(File directory, int commands, int producers, int viewMillis)
+      throws Exception {
+    try (ActivityHistory journal = new ActivityHistory(directory)) {
+      Pet pet = new Pet();
+      CommandPipeline pipeline = new CommandPipeline(RING_SIZE, 0, null, slowView(viewMillis));
+      pipeline.setJournal(journal);
+      pipeline.start();
+
+      int perProducer = commands / producers;
+      List<Thread> threads = new ArrayList<>();
+      long start = System.nanoTime();
+      for (int p = 0; p < producers; p++) {
+        Thread thread = new Thread(() -> {
+          for (int i = 0; i < perProducer; i++) {
+            if (i % 4 == 0) {
+              pipeline.publish(() -> {
+                MoodEnum moodBefore = pet.getMood();
+                pet.step();
+                pipeline.emit(new ActivityEvent(pet.getTick(), pet.getId(), ActivityType.STEP,
+                    ActivityEvent.NO_DETAIL, moodBefore, pet.getMood()));
+              });
+            } else {
+              Action action = ACTIONS[i % ACTIONS.length];
+              pipeline.publish(() -> {
+                MoodEnum moodBefore = pet.getMood();
+                pet.interactWith(action);
+                pipeline.emit(new ActivityEvent(pet.getTick(), pet.getId(),
+                    ActivityType.ACTION, action.ordinal(), moodBefore, pet.getMood()));
+              });
+            }
+          }
+        }, "pipeline-producer-" + p);
+        threads.add(thread);
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      long total = (long) perProducer * producers;
+      while (pipeline.getProcessedCount(CommandPipeline.Stage.MODEL) < total) {
+        Thread.yield();
+      }
+      double modelElapsed = (System.nanoTime() - start) / 1e9;
+      pipeline.close();
+      double elapsed = (System.nanoTime() - start) / 1e9;
+
+      System.out.printf("pipeline:  %d commands from %d producers, model %.0f commands/s, "
+              + "all stages %.0f commands/s%n", total, producers, total / modelElapsed,
+          total / elapsed);
+      System.out.print(pipeline.describe());
+      System.out.printf("journal holds %d events%n", journal.size());
+    }
+  }
+
+  /**
+   * Creates a listener that takes a fixed time per update, like a repaint.
+   */
+  private static CommandPipeline.Listener slowView(int millis) {
+    return events -> {
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -0,0 +1,201 @@
+package bench;
+
+import controller.PetProtocol;
+import controller.PetProtocolServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Drives the binary pet protocol on localhost with pipelined clients and reports commands per
+ * second and the round-trip time of each pipelined batch.
+ *
+ * <p>Usage: {@code java bench.ProtocolBenchmark [connections] [seconds] [pipeline] [port]}.
+ * Without a port the benchmark starts its own {@link PetProtocolServer} in the same JVM.
+ */
+public class ProtocolBenchmark {
+  private static final int DEFAULT_CONNECTIONS = 4;
+  private static final int DEFAULT_SECONDS = 5;
+  private static final int DEFAULT_PIPELINE = 1024;
+  private static final int PETS_PER_CONNECTION = 256;
+
+  /**
+   * The results of one client connection.
+   */
+  private static final class Client implements Runnable {
+    private final InetSocketAddress address;
+    private final int pipeline;
+    private final long deadline;
+    private final ByteBuffer out;
+    private final ByteBuffer in;
+    private long[] roundTrips = new long[1024];
+    private int batches;
+    private long commands;
+    private long errors;
+    private IOException failure;
+
+    Client(InetSocketAddress address, int pipeline, long deadline) {
+      this.address = address;
+      this.pipeline = pipeline;
+      this.deadline = deadline;
+      int frames = Math.max(pipeline, PETS_PER_CONNECTION);
+      this.out = ByteBuffer.allocateDirect(frames * PetProtocol.REQUEST_SIZE);
+      this.in = ByteBuffer.allocateDirect(frames * PetProtocol.RESPONSE_SIZE);
+    }
+
+    @Override
+    public void run() {
+      try (SocketChannel channel = SocketChannel.open(address)) {
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        int[] pets = new int[PETS_PER_CONNECTION];
+        out.clear();
+        for (int i = 0; i < pets.length; i++) {
+          PetProtocol.putRequest(out, PetProtocol.OP_CREATE, 0, i, 0);
+        }
+        exchange(channel, pets.length);
+        for (int i = 0; i < pets.length; i++) {
+          pets[i] = PetProtocol.value(in, i * PetProtocol.RESPONSE_SIZE);
+        }
+
+        int next = 0;
+        while (System.nanoTime() < deadline) {
+          out.clear();
+          for (int i = 0; i < pipeline; i++) {
+            int pet = pets[next++ % pets.length];
+            if (i % 16 == 0) {
+              PetProtocol.putRequest(out, PetProtocol.OP_STEP, 1, i, pet);
+            } else if (i % 16 == 1) {
+              PetProtocol.putRequest(out, PetProtocol.OP_GET, 0, i, pet);
+            } else {
+              PetProtocol.putRequest(out, PetProtocol.OP_ACT, i % 3, i, pet);
+            }
+          }
+          long start = System.nanoTime();
+          exchange(channel, pipeline);
+          long elapsed = System.nanoTime() - start;
+          for (int i = 0; i < pipeline; i++) {
+            int index = i * PetProtocol.RESPONSE_SIZE;
+            if (PetProtocol.status(in, index) != PetProtocol.STATUS_OK
+                || PetProtocol.tag(in, index) != i) {
+              errors++;
+            }
+          }
+          if (batches == roundTrips.length) {
+            roundTrips = Arrays.copyOf(roundTrips, batches * 2);
+          }
+          roundTrips[batches++] = elapsed;
+          commands += pipeline;
+        }
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+
+    /**
+     * Writes the prepared requests and reads back one response for each.
+     */
+    private void exchange(SocketChannel channel, int count) throws IOException {
+      out.flip();
+      in.clear().limit(count * PetProtocol.RESPONSE_SIZE);
+      // Write and read in turns so neither side stalls on a full socket buffer
+      channel.configureBlocking(false);
+      while (out.hasRemaining() || in.hasRemaining()) {
+        int moved = channel.write(out);
+        int read = channel.read(in);
+        if (read < 0) {
+          throw new IOException("Server closed the connection");
+        }
+        if (moved == 0 && read == 0) {
+          // Let the server run; spinning would starve it when cores are scarce
+          Thread.yield();
+        }
+      }
+      in.flip();
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the connection count, duration in seconds, pipeline depth and port
+   * @throws Exception if the server cannot be started or a client fails
+   */
+  public static void main(String[] args) throws Exception {
+    int connections = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_CONNECTIONS;
+    int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+    int pipeline = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_PIPELINE;
+    PetProtocolServer server = null;
+    int port;
+    if (args.length > 3) {
+      port = Integer.parseInt(args[3]);
+    } else {
+      server = new PetProtocolServer(0);
+      server.start();
+      port = server.getPort();
+    }
+    InetSocketAddress address = new InetSocketAddress("localhost", port);
+
+    // A short unreported run warms up the JIT on both sides
+    run(address, connections, pipeline, 1);
+    long serverBefore = (server != null) ? server.getCommandCount() : 0;
+    long start = System.nanoTime();
+    List<Client> clients = run(address, connections, pipeline, seconds);
+    double elapsed = (System.nanoTime() - start) / 1e9;
+
+    long commands = 0;
+    long errors = 0;
+    int batches = 0;
+    for (Client client : clients) {
+      if (client.failure != null) {
+        throw client.failure;
+      }
+      commands += client.commands;
+      errors += client.errors;
+      batches += client.batches;
+    }
+    long[] roundTrips = new long[batches];
+    int offset = 0;
+    for (Client client : clients) {
+      System.arraycopy(client.roundTrips, 0, roundTrips, offset, client.batches);
+      offset += client.batches;
+    }
+    Arrays.sort(roundTrips);
+    System.out.printf("%d connections, pipeline %d: %.0f commands/s, %d errors%n",
+        connections, pipeline, commands / elapsed, errors);
+    if (batches > 0) {
+      System.out.printf("batch round trip p50 %d us, p99 %d us, max %d us%n",
+          roundTrips[batches / 2] / 1000,
+          roundTrips[Math.min(batches - 1, (int) (batches * 0.99))] / 1000,
+          roundTrips[batches - 1] / 1000);
+    }
+
+    if (server != null) {
+      System.out.printf("server applied %d commands%n",
+          server.getCommandCount() - serverBefore);
+      server.close();
+    }
+  }
+
+  private static List<Client> run(InetSocketAddress address, int connections, int pipeline,
+                                  int seconds) throws InterruptedException {
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    List<Client> clients = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int c = 0; c < connections; c++) {
+      Client client = new Client(address, pipeline, deadline);
+      clients.add(client);
+      Thread thread = new Thread(client, "pet-protocol-client-" + c);
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return clients;
+  }
+}
@@ -0,0 +1,99 @@
+package bench;
+
+import controller.ShardedPetExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import pet.enums.Action;
+import pet.model.Pet;
+
+/**
+ * Measures how {@link ShardedPetExecutor} throughput scales with the number of shards.
+ * For each shard count it times two workloads on independent pets: broadcast ticks, where
+ * every shard steps its own pets, and per-pet actions sent by one sender thread per shard.
+ *
+ * <p>Usage: {@code java bench.ShardedBenchmark [maxShards] [pets] [rounds]}. Shard counts
+ * double from one up to the maximum, which defaults to the number of processors.
+ */
+public class ShardedBenchmark {
+  private static final int DEFAULT_PETS = 20_000;
+  private static final int DEFAULT_ROUNDS = 50;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the maximum shard count, the pet count and the rounds per workload
+   * @throws InterruptedException if interrupted while waiting for the shards
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int maxShards = (args.length > 0) ? Integer.parseInt(args[0])
+        : Runtime.getRuntime().availableProcessors();
+    int pets = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PETS;
+    int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_ROUNDS;
+
+    System.out.printf("%d processors%n", Runtime.getRuntime().availableProcessors());
+    System.out.printf("%-8s %16s %16s%n", "shards", "pet steps/s", "actions/s");
+    for (int shards = 1; shards <= maxShards; shards *= 2) {
+      // The first pass warms up the JIT and is not reported
+      run(shards, pets, rounds);
+      double[] result = run(shards, pets, rounds);
+      System.out.printf("%-8d %16.0f %16.0f%n", shards, result[0], result[1]);
+    }
+  }
+
+  /**
+   * Runs both workloads on a fresh executor.
+   *
+   * @return the pet steps per second and the actions per second
+   */
+  private static double[] run(int shardCount, int petCount, int rounds)
+      throws InterruptedException {
+    ShardedPetExecutor executor = new ShardedPetExecutor(shardCount);
+    int[] ids = new int[petCount];
+    for (int i = 0; i < petCount; i++) {
+      Pet pet = new Pet("Pet " + i);
+      ids[i] = pet.getId();
+      executor.add(pet);
+    }
+    awaitIdle(executor);
+
+    long start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      executor.stepAll(1);
+    }
+    awaitIdle(executor);
+    double steps = (double) petCount * rounds * 1e9 / (System.nanoTime() - start);
+
+    start = System.nanoTime();
+    List<Thread> senders = new ArrayList<>();
+    for (int s = 0; s < shardCount; s++) {
+      int first = s;
+      Thread sender = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int round = 0; round < rounds; round++) {
+          for (int i = first; i < ids.length; i += shardCount) {
+            executor.interact(ids[i], Action.values()[random.nextInt(3)]);
+          }
+        }
+      }, "pet-sender-" + s);
+      senders.add(sender);
+      sender.start();
+    }
+    for (Thread sender : senders) {
+      sender.join();
+    }
+    awaitIdle(executor);
+    double actions = (double) petCount * rounds * 1e9 / (System.nanoTime() - start);
+
+    executor.close();
+    return new double[] {steps, actions};
+  }
+
+  private static void awaitIdle(ShardedPetExecutor executor) throws InterruptedException {
+    for (int shard = 0; shard < executor.getShardCount(); shard++) {
+      while (executor.getQueuedCount(shard) > 0) {
+        Thread.sleep(1);
+      }
+    }
+  }
+}
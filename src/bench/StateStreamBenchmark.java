@@ -0,0 +1,111 @@
+package bench;
+
+import controller.ShardedPetExecutor;
+import controller.StateStream;
+import controller.StateStream.OverflowPolicy;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.LockSupport;
+import pet.model.Pet;
+import pet.model.PetStateChange;
+
+/**
+ * Ticks a large population on a {@link ShardedPetExecutor} while one deliberately slow
+ * subscriber consumes its state stream, once for each overflow policy. Reports how fast the
+ * population still ticks and how many changes were delivered, dropped and conflated.
+ *
+ * <p>Usage: {@code java bench.StateStreamBenchmark [pets] [seconds]}.
+ */
+public class StateStreamBenchmark {
+  private static final int DEFAULT_PETS = 2_000;
+  private static final int DEFAULT_SECONDS = 3;
+  private static final int REQUEST_BATCH = 64;
+  // The subscriber pauses this long after every request batch
+  private static final long CONSUMER_PAUSE_NANOS = 200_000;
+
+  /**
+   * Requests changes in small batches and pauses between them, like a dashboard or a
+   * logger writing to a slow sink.
+   */
+  private static final class SlowSubscriber implements Flow.Subscriber<PetStateChange> {
+    private Flow.Subscription subscription;
+    private int outstanding;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      outstanding = REQUEST_BATCH;
+      subscription.request(REQUEST_BATCH);
+    }
+
+    @Override
+    public void onNext(PetStateChange item) {
+      if (--outstanding == 0) {
+        LockSupport.parkNanos(CONSUMER_PAUSE_NANOS);
+        outstanding = REQUEST_BATCH;
+        subscription.request(REQUEST_BATCH);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      System.err.println("Subscriber failed: " + throwable);
+    }
+
+    @Override
+    public void onComplete() {
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Optionally the pet count and the duration of each run in seconds
+   */
+  public static void main(String[] args) {
+    int pets = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PETS;
+    int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+
+    run(pets, 1, null);
+    run(pets, seconds, null);
+    for (OverflowPolicy policy : OverflowPolicy.values()) {
+      run(pets, seconds, policy);
+    }
+  }
+
+  private static void run(int pets, int seconds, OverflowPolicy policy) {
+    ShardedPetExecutor executor = new ShardedPetExecutor(0);
+    for (int i = 0; i < pets; i++) {
+      executor.add(new Pet());
+    }
+    StateStream states = executor.getStates();
+    if (policy != null) {
+      states.subscribe(new SlowSubscriber(), StateStream.ALL_PETS, policy);
+    }
+
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    long start = System.nanoTime();
+    long rounds = 0;
+    while (System.nanoTime() < deadline) {
+      executor.stepAll(1);
+      rounds++;
+      // Keep at most a few rounds queued, so the count reflects ticks actually applied
+      while (executor.getQueuedCount(0) > 4) {
+        Thread.yield();
+      }
+    }
+    while (executor.getQueuedCount(0) > 0) {
+      Thread.yield();
+    }
+    double millis = (System.nanoTime() - start) / 1e6;
+    String description = states.describe();
+    executor.close();
+
+    if (seconds > 1 || policy != null) {
+      System.out.printf("%-12s %,.0f pet ticks/ms%n",
+          (policy == null) ? "no stream" : policy, rounds * pets / millis);
+      if (policy != null) {
+        System.out.print(description);
+      }
+    }
+  }
+}
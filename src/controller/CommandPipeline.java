@@ -0,0 +1,533 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import pet.model.ActivityEvent;
+import pet.model.history.ActivityHistory;
+
+/**
+ * Carries commands from any number of sources through three stages over one preallocated
+ * ring buffer, in the style of the LMAX Disruptor.
+ * Sources (buttons, the simulation loop, scripts) claim a slot with one atomic increment,
+ * fill it in and publish it. The model stage runs each command on its own thread, which is
+ * the only thread that touches the model; a command reports what happened with
+ * {@link #emit}, which stores the events in its slot. The journal stage appends those events
+ * to the {@link ActivityHistory} and the view stage hands them to a {@link Listener}; both
+ * only follow the model stage, so neither waits for the other.
+ *
+ * <p>There are no locks: every stage owns a sequence number and reads the sequence it
+ * follows. A stage that falls behind picks up everything available in one batch, so a slow
+ * disk pays one flush and a slow view one update per batch rather than per command. The
+ * model keeps running while they catch up, until they are a whole ring behind. An idle
+ * stage spins briefly, then parks until the stage it follows wakes it.
+ */
+public class CommandPipeline implements Closeable {
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 100;
+  private static final long PARK_NANOS = 50_000;
+  // Only a safety net; an idle stage is woken as soon as there is work for it
+  private static final long IDLE_PARK_NANOS = 100_000_000L;
+
+  /**
+   * Receives the activity of each batch on the view stage.
+   */
+  public interface Listener {
+    /**
+     * Called on the view stage thread once per batch, after the model stage finished it.
+     *
+     * @param events the events of the batch, oldest first; only valid during the call
+     */
+    void onBatch(List<ActivityEvent> events);
+  }
+
+  /**
+   * The stages of the pipeline, in the order a command passes through them.
+   */
+  public enum Stage {
+    MODEL,
+    JOURNAL,
+    VIEW
+  }
+
+  /**
+   * A preallocated ring entry, reused every time the ring wraps.
+   */
+  private static final class Slot {
+    private Runnable command;
+    private long publishedNanos;
+    // Written by the model stage
+    private final List<ActivityEvent> events = new ArrayList<>(2);
+  }
+
+  private final long batchIntervalNanos;
+  private volatile ActivityHistory journal;
+
+  private final Slot[] ring;
+  private final int mask;
+  private final int indexShift;
+  // For each slot, the lap of the sequence last published into it
+  private final AtomicIntegerArray published;
+  private final AtomicLong claimed = new AtomicLong(-1);
+  private final AtomicLong maxDepth = new AtomicLong();
+  private final Map<Stage, StageRunner> stages = new EnumMap<>(Stage.class);
+  private final StageRunner model;
+  private volatile boolean running;
+  // Model stage only: the slot whose command is running
+  private Slot current;
+
+  /**
+   * A stage thread and its progress through the ring.
+   */
+  private abstract class StageRunner implements Runnable {
+    private final AtomicLong sequence = new AtomicLong(-1);
+    private final Thread thread;
+    private volatile boolean parked;
+    private volatile long batches;
+    private volatile long items;
+    private volatile long maxBatch;
+    private volatile long totalLatencyNanos;
+
+    StageRunner(String name) {
+      thread = new Thread(this, "pet-" + name);
+      thread.setDaemon(true);
+    }
+
+    /**
+     * Gets the highest sequence this stage may process.
+     */
+    abstract long available(long next);
+
+    abstract void process(long from, long to);
+
+    /**
+     * Wakes the stage if it is parked waiting for work.
+     */
+    void signal() {
+      if (parked) {
+        LockSupport.unpark(thread);
+      }
+    }
+
+    @Override
+    public void run() {
+      int idle = 0;
+      while (running) {
+        long next = sequence.get() + 1;
+        long last = available(next);
+        if (last < next) {
+          idle = awaitWork(next, idle);
+          continue;
+        }
+        idle = 0;
+        if (this == model && batchIntervalNanos > 0) {
+          // Let the rest of the interval's commands arrive, then take them as one batch
+          awaitBoundary();
+          last = available(next);
+        }
+        process(next, last);
+
+        long now = System.nanoTime();
+        long latency = 0;
+        for (long seq = next; seq <= last; seq++) {
+          latency += now - ring[(int) seq & mask].publishedNanos;
+        }
+        long size = last - next + 1;
+        batches++;
+        items += size;
+        totalLatencyNanos += latency;
+        if (size > maxBatch) {
+          maxBatch = size;
+        }
+        sequence.set(last);
+        if (this == model) {
+          stages.get(Stage.JOURNAL).signal();
+          stages.get(Stage.VIEW).signal();
+        }
+      }
+    }
+
+    /**
+     * Spins, then yields, then parks until woken. The flag is set before the last check, and
+     * a waker publishes before reading it, so a wake-up is never lost.
+     */
+    private int awaitWork(long next, int idle) {
+      if (idle < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        parked = true;
+        if (running && available(next) < next) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        parked = false;
+      }
+      return idle + 1;
+    }
+  }
+
+  /**
+   * Creates a pipeline. Call {@link #start()} before publishing.
+   *
+   * @param ringSize           The number of slots, a power of two
+   * @param batchIntervalNanos The interval the model stage aligns its batches to, such as
+   *                           one animation frame, or 0 to run commands as soon as they
+   *                           arrive
+   * @param onModelBatch       Run on the model stage after each batch, or null for nothing
+   * @param listener           The listener for the view stage, or null for none
+   */
+  public CommandPipeline(int ringSize, long batchIntervalNanos, Runnable onModelBatch,
+                         Listener listener) {
+    if (ringSize < 2 || Integer.bitCount(ringSize) != 1) {
+      throw new IllegalArgumentException("Ring size must be a power of two: " + ringSize);
+    }
+    this.batchIntervalNanos = batchIntervalNanos;
+    this.ring = new Slot[ringSize];
+    for (int i = 0; i < ringSize; i++) {
+      ring[i] = new Slot();
+    }
+    this.mask = ringSize - 1;
+    this.indexShift = Integer.numberOfTrailingZeros(ringSize);
+    this.published = new AtomicIntegerArray(ringSize);
+    for (int i = 0; i < ringSize; i++) {
+      published.set(i, -1);
+    }
+
+    model = new StageRunner("model") {
+      @Override
+      long available(long next) {
+        return highestPublished(next, claimed.get());
+      }
+
+      @Override
+      void process(long from, long to) {
+        for (long seq = from; seq <= to; seq++) {
+          apply(ring[(int) seq & mask]);
+        }
+        if (onModelBatch != null) {
+          try {
+            onModelBatch.run();
+          } catch (RuntimeException e) {
+            System.err.println("Failed to finish a command batch: " + e);
+          }
+        }
+      }
+    };
+    StageRunner journalStage = new StageRunner("journal") {
+      @Override
+      long available(long next) {
+        return model.sequence.get();
+      }
+
+      @Override
+      void process(long from, long to) {
+        journal(from, to);
+      }
+    };
+    List<ActivityEvent> batch = new ArrayList<>();
+    StageRunner view = new StageRunner("view") {
+      @Override
+      long available(long next) {
+        return model.sequence.get();
+      }
+
+      @Override
+      void process(long from, long to) {
+        if (listener == null) {
+          return;
+        }
+        batch.clear();
+        for (long seq = from; seq <= to; seq++) {
+          batch.addAll(ring[(int) seq & mask].events);
+        }
+        try {
+          listener.onBatch(batch);
+        } catch (RuntimeException e) {
+          System.err.println("Pipeline listener failed: " + e);
+        }
+      }
+    };
+    stages.put(Stage.MODEL, model);
+    stages.put(Stage.JOURNAL, journalStage);
+    stages.put(Stage.VIEW, view);
+  }
+
+  /**
+   * Starts the stage threads.
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    for (StageRunner stage : stages.values()) {
+      stage.thread.start();
+    }
+  }
+
+  /**
+   * Waits until every published command has passed all stages, then stops the threads.
+   * Commands published afterwards are never run.
+   */
+  @Override
+  public void close() {
+    awaitIdle();
+    running = false;
+    for (StageRunner stage : stages.values()) {
+      LockSupport.unpark(stage.thread);
+      try {
+        stage.thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Sets the history the journal stage appends events to.
+   *
+   * @param journal the history, or null to stop journaling
+   */
+  public void setJournal(ActivityHistory journal) {
+    this.journal = journal;
+  }
+
+  /**
+   * Gets the history the journal stage appends events to.
+   *
+   * @return the history, or null if none is set or writing to it failed
+   */
+  public ActivityHistory getJournal() {
+    return journal;
+  }
+
+  /**
+   * Publishes a command for the model stage. Safe to call from any thread; waits only while
+   * the ring is full.
+   *
+   * @param command the command to run on the model stage
+   */
+  public void publish(Runnable command) {
+    long seq = claim();
+    Slot slot = ring[(int) seq & mask];
+    slot.command = command;
+    slot.publishedNanos = System.nanoTime();
+    // A full write, so it cannot pass the read of the model stage's parked flag
+    published.set((int) seq & mask, (int) (seq >>> indexShift));
+    maxDepth.accumulateAndGet(seq - model.sequence.get(), Math::max);
+    model.signal();
+  }
+
+  /**
+   * Records an event produced by the running command, for the journal and view stages.
+   * Must only be called by a command running on the model stage.
+   *
+   * @param event the event
+   */
+  public void emit(ActivityEvent event) {
+    if (current == null || Thread.currentThread() != model.thread) {
+      throw new IllegalStateException("Events can only be emitted by a running command");
+    }
+    current.events.add(event);
+  }
+
+  /**
+   * Gets the number of commands published so far.
+   *
+   * @return the published command count
+   */
+  public long getPublishedCount() {
+    return claimed.get() + 1;
+  }
+
+  /**
+   * Gets the number of commands published but not yet run by the model stage.
+   *
+   * @return the queue depth
+   */
+  public long getQueuedCount() {
+    return Math.max(0, claimed.get() - model.sequence.get());
+  }
+
+  /**
+   * Gets the deepest the model stage's queue has been.
+   *
+   * @return the largest queue depth seen
+   */
+  public long getMaxQueuedCount() {
+    return maxDepth.get();
+  }
+
+  /**
+   * Gets the number of commands a stage has finished.
+   *
+   * @param stage the stage
+   * @return the processed command count
+   */
+  public long getProcessedCount(Stage stage) {
+    return stages.get(stage).sequence.get() + 1;
+  }
+
+  /**
+   * Gets the number of batches a stage has run.
+   *
+   * @param stage the stage
+   * @return the batch count
+   */
+  public long getBatchCount(Stage stage) {
+    return stages.get(stage).batches;
+  }
+
+  /**
+   * Gets the largest batch a stage has run.
+   *
+   * @param stage the stage
+   * @return the largest batch size
+   */
+  public long getMaxBatchSize(Stage stage) {
+    return stages.get(stage).maxBatch;
+  }
+
+  /**
+   * Gets the mean time from publishing a command to a stage finishing it.
+   *
+   * @param stage the stage
+   * @return the mean latency in nanoseconds, or 0 before the first batch
+   */
+  public long getMeanLatencyNanos(Stage stage) {
+    StageRunner runner = stages.get(stage);
+    long items = runner.items;
+    return (items == 0) ? 0 : runner.totalLatencyNanos / items;
+  }
+
+  /**
+   * Describes the batching of every stage, one line per stage.
+   *
+   * @return the description
+   */
+  public String describe() {
+    StringBuilder text = new StringBuilder();
+    for (Stage stage : Stage.values()) {
+      StageRunner runner = stages.get(stage);
+      long batches = runner.batches;
+      text.append(String.format("%-8s %10d commands %8d batches, mean %.1f max %d, "
+              + "latency %d us%n", stage, runner.items, batches,
+          (batches == 0) ? 0.0 : runner.items / (double) batches, runner.maxBatch,
+          getMeanLatencyNanos(stage) / 1000));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Waits until every command published so far has passed all stages.
+   */
+  public void awaitIdle() {
+    long target = claimed.get();
+    int idle = 0;
+    while (running && (stages.get(Stage.JOURNAL).sequence.get() < target
+        || stages.get(Stage.VIEW).sequence.get() < target)) {
+      idle = idle(idle);
+    }
+  }
+
+  /**
+   * Claims the next sequence, waiting until the slowest stage has freed its slot.
+   */
+  private long claim() {
+    long seq = claimed.incrementAndGet();
+    long wrapPoint = seq - ring.length;
+    int idle = 0;
+    while (wrapPoint > Math.min(stages.get(Stage.JOURNAL).sequence.get(),
+        stages.get(Stage.VIEW).sequence.get())) {
+      idle = idle(idle);
+    }
+    return seq;
+  }
+
+  /**
+   * Finds the end of the run of published slots starting at a sequence. Producers may
+   * publish out of order, so the model stage stops at the first gap.
+   */
+  private long highestPublished(long from, long claimedUpTo) {
+    long seq = from;
+    while (seq <= claimedUpTo
+        && published.get((int) seq & mask) == (int) (seq >>> indexShift)) {
+      seq++;
+    }
+    return seq - 1;
+  }
+
+  /**
+   * Runs one command, collecting the events it emits in its slot.
+   */
+  private void apply(Slot slot) {
+    slot.events.clear();
+    current = slot;
+    try {
+      slot.command.run();
+    } catch (RuntimeException e) {
+      System.err.println("Failed to apply a command: " + e);
+    } finally {
+      current = null;
+      slot.command = null;
+    }
+  }
+
+  /**
+   * Sleeps the model stage until the next multiple of the batch interval.
+   */
+  private void awaitBoundary() {
+    long deadline = System.nanoTime();
+    deadline += batchIntervalNanos - deadline % batchIntervalNanos;
+    long remaining;
+    while (running && (remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(this, remaining);
+    }
+  }
+
+  /**
+   * Appends a batch of events and flushes the journal once.
+   */
+  private void journal(long from, long to) {
+    ActivityHistory target = journal;
+    if (target == null) {
+      return;
+    }
+    long time = System.currentTimeMillis();
+    try {
+      for (long seq = from; seq <= to; seq++) {
+        for (ActivityEvent event : ring[(int) seq & mask].events) {
+          target.append(event, time);
+        }
+      }
+      target.flush();
+    } catch (IOException e) {
+      System.err.println("Failed to record activity history: " + e.getMessage());
+      journal = null;
+    }
+  }
+
+  /**
+   * Backs off while a producer waits for room: spins first, then yields, then parks briefly.
+   *
+   * @return the updated idle count
+   */
+  private static int idle(int idle) {
+    if (idle < SPIN_TRIES) {
+      Thread.onSpinWait();
+    } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(PARK_NANOS);
+    }
+    return idle + 1;
+  }
+}
@@ -0,0 +1,51 @@
+package controller;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of equally sized direct buffers for socket I/O.
+ * Direct buffers are expensive to allocate and are only freed by the garbage collector, so
+ * connections borrow them and give them back instead. Not thread-safe: a pool belongs to
+ * one event loop.
+ */
+class DirectBufferPool {
+  private final int bufferSize;
+  private final int maxPooled;
+  private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+  private int allocated;
+
+  DirectBufferPool(int bufferSize, int maxPooled) {
+    this.bufferSize = bufferSize;
+    this.maxPooled = maxPooled;
+  }
+
+  /**
+   * Borrows a cleared buffer, allocating one if the pool is empty.
+   */
+  ByteBuffer acquire() {
+    ByteBuffer buffer = free.pollFirst();
+    if (buffer == null) {
+      allocated++;
+      return ByteBuffer.allocateDirect(bufferSize);
+    }
+    return buffer;
+  }
+
+  /**
+   * Returns a buffer. Beyond the pool's limit the buffer is left to the garbage collector.
+   */
+  void release(ByteBuffer buffer) {
+    if (buffer != null && free.size() < maxPooled) {
+      buffer.clear();
+      free.offerFirst(buffer);
+    }
+  }
+
+  /**
+   * Gets the number of buffers allocated over the pool's lifetime.
+   */
+  int getAllocatedCount() {
+    return allocated;
+  }
+}
@@ -0,0 +1,77 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pet engine running in its own JVM on this machine, started with the same class path as
+ * the current one. Used to build a local cluster behind a {@link PetClusterRouter}.
+ */
+public class EngineProcess implements Closeable {
+  private static final String MAIN_CLASS = "main.PetEngineMain";
+
+  private final Process process;
+  private final InetSocketAddress address;
+
+  /**
+   * Starts an engine and waits until it is listening.
+   *
+   * @param heapMegabytes The engine's maximum heap, or 0 for the JVM default
+   * @throws IOException if the engine cannot be started
+   */
+  public EngineProcess(int heapMegabytes) throws IOException {
+    String java = System.getProperty("java.home") + File.separator + "bin" + File.separator
+        + "java";
+    ProcessBuilder builder = (heapMegabytes > 0)
+        ? new ProcessBuilder(java, "-Xmx" + heapMegabytes + "m", "-cp",
+            System.getProperty("java.class.path"), MAIN_CLASS, "0")
+        : new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), MAIN_CLASS,
+            "0");
+    builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+    process = builder.start();
+
+    BufferedReader reader = new BufferedReader(
+        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    String line = reader.readLine();
+    if (line == null) {
+      process.destroy();
+      throw new IOException("Pet engine exited before listening");
+    }
+    int port = Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1));
+    address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+  }
+
+  /**
+   * Gets the address the engine listens on.
+   *
+   * @return the address
+   */
+  public InetSocketAddress getAddress() {
+    return address;
+  }
+
+  /**
+   * Stops the engine by closing its input, and kills it if it does not exit promptly.
+   */
+  @Override
+  public void close() {
+    try {
+      process.getOutputStream().close();
+      if (!process.waitFor(5, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    } catch (IOException e) {
+      process.destroyForcibly();
+    } catch (InterruptedException e) {
+      process.destroyForcibly();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring that maps pet ids to nodes.
+ * Every node is placed on the ring at many pseudo-random points, and a pet belongs to the
+ * first point at or after its own hash. Adding or removing a node therefore only moves the
+ * pets between that node's points and their neighbours, about 1/N of all pets.
+ *
+ * @param <T> the node type
+ */
+public class HashRing<T> {
+  private final int pointsPerNode;
+  private final TreeMap<Integer, T> points = new TreeMap<>();
+  private final Map<String, T> nodes = new TreeMap<>();
+
+  /**
+   * Creates an empty ring.
+   *
+   * @param pointsPerNode The number of points each node gets; more points spread pets more
+   *                      evenly
+   */
+  public HashRing(int pointsPerNode) {
+    if (pointsPerNode < 1) {
+      throw new IllegalArgumentException("Points per node must be positive: " + pointsPerNode);
+    }
+    this.pointsPerNode = pointsPerNode;
+  }
+
+  /**
+   * Adds a node. Its points only depend on its name, so every ring built from the same
+   * names assigns pets the same way.
+   *
+   * @param name the node's unique name
+   * @param node the node
+   */
+  public void add(String name, T node) {
+    if (nodes.putIfAbsent(name, node) != null) {
+      throw new IllegalArgumentException("Node already on the ring: " + name);
+    }
+    for (int i = 0; i < pointsPerNode; i++) {
+      points.put(point(name, i), node);
+    }
+  }
+
+  /**
+   * Removes a node.
+   *
+   * @param name the node's name
+   * @return the node, or null if there was no node with that name
+   */
+  public T remove(String name) {
+    T node = nodes.remove(name);
+    if (node != null) {
+      for (int i = 0; i < pointsPerNode; i++) {
+        points.remove(point(name, i), node);
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Gets the node a pet belongs to.
+   *
+   * @param petId the pet id
+   * @return the node, or null if the ring is empty
+   */
+  public T owner(int petId) {
+    if (points.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Integer, T> entry = points.ceilingEntry(mix(petId));
+    return (entry != null) ? entry.getValue() : points.firstEntry().getValue();
+  }
+
+  /**
+   * Gets the nodes on the ring, ordered by name.
+   *
+   * @return the nodes
+   */
+  public List<T> getNodes() {
+    return Collections.unmodifiableList(new ArrayList<>(nodes.values()));
+  }
+
+  public int size() {
+    return nodes.size();
+  }
+
+  private static int point(String name, int index) {
+    return mix(name.hashCode() * 31 + mix(index));
+  }
+
+  /**
+   * Scrambles a value so that neighbouring ids land far apart on the ring.
+   */
+  private static int mix(int value) {
+    // The finalizer of MurmurHash3
+    int hash = value;
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+}
@@ -0,0 +1,194 @@
+package controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import pet.model.HealthStatus;
+import pet.model.PetSnapshot;
+
+/**
+ * Reusable byte buffer that writes small JSON documents straight to UTF-8 bytes.
+ * Numbers and enum names are written digit by digit and character by character, so
+ * serializing a pet allocates nothing once the buffer has grown to size. One buffer is
+ * meant to be reused by one thread for many responses.
+ */
+class JsonBuffer {
+  private static final byte[] DIGITS = "0123456789".getBytes();
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private byte[] bytes = new byte[512];
+  private int length;
+  // Whether the next value in the current object or array needs a leading comma
+  private boolean needsComma;
+
+  /**
+   * Empties the buffer for the next document.
+   */
+  JsonBuffer reset() {
+    length = 0;
+    needsComma = false;
+    return this;
+  }
+
+  int length() {
+    return length;
+  }
+
+  void writeTo(OutputStream out) throws IOException {
+    out.write(bytes, 0, length);
+  }
+
+  JsonBuffer beginObject() {
+    separate();
+    put('{');
+    needsComma = false;
+    return this;
+  }
+
+  JsonBuffer endObject() {
+    put('}');
+    needsComma = true;
+    return this;
+  }
+
+  JsonBuffer beginArray(String name) {
+    name(name);
+    put('[');
+    needsComma = false;
+    return this;
+  }
+
+  JsonBuffer endArray() {
+    put(']');
+    needsComma = true;
+    return this;
+  }
+
+  JsonBuffer field(String name, long value) {
+    name(name);
+    putLong(value);
+    needsComma = true;
+    return this;
+  }
+
+  JsonBuffer field(String name, boolean value) {
+    name(name);
+    putAscii(value ? "true" : "false");
+    needsComma = true;
+    return this;
+  }
+
+  JsonBuffer field(String name, String value) {
+    name(name);
+    putString(value);
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Writes a pet's state as an object.
+   */
+  JsonBuffer pet(PetSnapshot snapshot) {
+    HealthStatus health = snapshot.getHealth();
+    return beginObject()
+        .field("id", snapshot.getId())
+        .field("name", snapshot.getName())
+        .field("tick", snapshot.getTick())
+        .field("hunger", health.getHunger())
+        .field("hygiene", health.getHygiene())
+        .field("social", health.getSocial())
+        .field("sleep", health.getSleep())
+        .field("mood", snapshot.getMood().name())
+        .field("alive", snapshot.isAlive())
+        .field("asleep", snapshot.isAsleep())
+        .endObject();
+  }
+
+  /**
+   * Writes the name of the next field, whose value is then written as an object or array.
+   */
+  JsonBuffer name(String name) {
+    separate();
+    putString(name);
+    put(':');
+    needsComma = false;
+    return this;
+  }
+
+  private void separate() {
+    if (needsComma) {
+      put(',');
+    }
+  }
+
+  private void putString(String value) {
+    put('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        put('\\');
+        put(c);
+      } else if (c < 0x20) {
+        putAscii("\\u00");
+        put(HEX[c >> 4]);
+        put(HEX[c & 0xF]);
+      } else if (c < 0x80) {
+        put(c);
+      } else if (c < 0x800) {
+        put(0xC0 | (c >> 6));
+        put(0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        put(0xF0 | (codePoint >> 18));
+        put(0x80 | ((codePoint >> 12) & 0x3F));
+        put(0x80 | ((codePoint >> 6) & 0x3F));
+        put(0x80 | (codePoint & 0x3F));
+      } else {
+        put(0xE0 | (c >> 12));
+        put(0x80 | ((c >> 6) & 0x3F));
+        put(0x80 | (c & 0x3F));
+      }
+    }
+    put('"');
+  }
+
+  private void putAscii(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      put(value.charAt(i));
+    }
+  }
+
+  private void putLong(long value) {
+    if (value < 0) {
+      put('-');
+      if (value == Long.MIN_VALUE) {
+        putAscii("9223372036854775808");
+        return;
+      }
+      value = -value;
+    }
+    ensureCapacity(20);
+    // Write the digits backwards into place, then the buffer is already in order
+    int digits = 1;
+    for (long rest = value / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    int position = length + digits;
+    do {
+      bytes[--position] = DIGITS[(int) (value % 10)];
+      value /= 10;
+    } while (value > 0);
+    length += digits;
+  }
+
+  private void put(int b) {
+    ensureCapacity(1);
+    bytes[length++] = (byte) b;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package controller;
+
+import java.awt.event.ActionEvent;
+import java.util.Arrays;
+
+/**
+ * Opt-in tracer measuring the time from a button press to the first repaint that shows its
+ * result. Enable it with {@code -Dpet.traceLatency=true}; when disabled every call returns
+ * immediately.
+ *
+ * <p>A trace opens when an input event is stamped and records a span for each stage of the
+ * input path it passes through. The model applies the input on its own thread, so the trace
+ * is armed only once the view has been updated with the result; the next paint of the pet
+ * image after that closes it and adds the end-to-end latency to a rolling window, from which
+ * the debug overlay reads p50 and p99. Must only be used on the event dispatch thread.
+ */
+public final class LatencyTracer {
+  private static final boolean ENABLED = Boolean.getBoolean("pet.traceLatency");
+  private static final int WINDOW = 512;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /**
+   * The stages of the path from an input event to the repaint.
+   */
+  public enum Stage {
+    HANDLE_ACTION("handleAction"),
+    MODEL("model"),
+    UPDATE_VIEW("updateView"),
+    HEALTH_PANEL("updateHealthStatus"),
+    PET_IMAGE("updateImage");
+
+    private final String label;
+
+    Stage(String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return label;
+    }
+  }
+
+  private static boolean tracing;
+  // Set once the view holds the traced input's result; only then may a paint close the trace
+  private static boolean resultRendered;
+  private static long traceStart;
+  private static final long[] stageNanos = new long[Stage.values().length];
+  private static final long[] lastStageNanos = new long[Stage.values().length];
+
+  // Rolling window of end-to-end latencies in nanoseconds
+  private static final long[] latencies = new long[WINDOW];
+  private static int latencyCount;
+  private static int nextLatency;
+
+  private LatencyTracer() {
+  }
+
+  /**
+   * Returns whether tracing was switched on for this run.
+   *
+   * @return true if the tracer records latencies
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * Opens a trace for an input event unless one is already waiting for its repaint.
+   * The trace starts when the event was created, so time spent queued counts too.
+   *
+   * @param event the input event
+   */
+  public static void begin(ActionEvent event) {
+    if (!ENABLED || tracing) {
+      return;
+    }
+    long queuedMillis = Math.max(0, System.currentTimeMillis() - event.getWhen());
+    traceStart = System.nanoTime() - queuedMillis * 1_000_000L;
+    Arrays.fill(stageNanos, 0);
+    resultRendered = false;
+    tracing = true;
+  }
+
+  /**
+   * Marks the start of a stage.
+   *
+   * @return the start time to pass to {@link #end}, or 0 when no trace is open
+   */
+  public static long start() {
+    return (ENABLED && tracing) ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the span of a stage in the open trace.
+   *
+   * @param stage the stage that finished
+   * @param start the value returned by {@link #start()}
+   */
+  public static void end(Stage stage, long start) {
+    if (start != 0 && tracing) {
+      stageNanos[stage.ordinal()] += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Arms the open trace after the view was updated with the traced input's result, so the
+   * next {@link #framePainted()} closes it. Paints before this, such as an unrelated
+   * animation frame, leave the trace open.
+   */
+  public static void resultRendered() {
+    if (ENABLED && tracing) {
+      resultRendered = true;
+    }
+  }
+
+  /**
+   * Closes the open trace once a frame showing its result has been painted.
+   *
+   * @return true if a trace was closed
+   */
+  public static boolean framePainted() {
+    if (!ENABLED || !tracing || !resultRendered) {
+      return false;
+    }
+    latencies[nextLatency] = System.nanoTime() - traceStart;
+    nextLatency = (nextLatency + 1) % WINDOW;
+    latencyCount = Math.min(WINDOW, latencyCount + 1);
+    System.arraycopy(stageNanos, 0, lastStageNanos, 0, stageNanos.length);
+    resultRendered = false;
+    tracing = false;
+    return true;
+  }
+
+  /**
+   * Gets a percentile of the end-to-end latencies in the rolling window.
+   *
+   * @param percentile the percentile between 0 and 100
+   * @return the latency in milliseconds, or 0 if nothing was recorded
+   */
+  public static double getPercentile(double percentile) {
+    if (latencyCount == 0) {
+      return 0;
+    }
+    long[] sorted = Arrays.copyOf(latencies, latencyCount);
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile / 100.0 * latencyCount) - 1;
+    return sorted[Math.max(0, Math.min(latencyCount - 1, index))] / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Describes the latency distribution and the stage spans of the last trace.
+   *
+   * @return the overlay lines
+   */
+  public static String[] describe() {
+    StringBuilder stages = new StringBuilder();
+    for (Stage stage : Stage.values()) {
+      if (stages.length() > 0) {
+        stages.append("  ");
+      }
+      stages.append(String.format("%s %.2f", stage,
+          lastStageNanos[stage.ordinal()] / NANOS_PER_MILLI));
+    }
+    return new String[] {
+        String.format("click to pixel p50 %.1f ms  p99 %.1f ms  (n=%d)",
+            getPercentile(50), getPercentile(99), latencyCount),
+        stages.toString()
+    };
+  }
+}
@@ -0,0 +1,71 @@
+package controller;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free queue for many producers and a single consumer.
+ * A producer swaps itself in as the new tail with one atomic exchange and then links the old
+ * tail to it; the consumer follows the links from its private head without any atomic
+ * read-modify-write. Between those two producer steps the newest node is briefly
+ * unreachable, so {@link #poll()} may report empty while an offer is still completing.
+ *
+ * @param <T> the element type
+ */
+class MpscQueue<T> {
+  private final AtomicReference<Node<T>> tail;
+  // Only the consumer reads or writes head
+  private Node<T> head;
+
+  /**
+   * A queued element and the link to the next one.
+   */
+  private static final class Node<T> {
+    private T value;
+    private volatile Node<T> next;
+
+    Node(T value) {
+      this.value = value;
+    }
+  }
+
+  MpscQueue() {
+    Node<T> stub = new Node<>(null);
+    head = stub;
+    tail = new AtomicReference<>(stub);
+  }
+
+  /**
+   * Adds an element. Safe to call from any thread.
+   */
+  void offer(T value) {
+    Node<T> node = new Node<>(value);
+    Node<T> previous = tail.getAndSet(node);
+    previous.next = node;
+  }
+
+  /**
+   * Removes the oldest element. Must only be called from the consumer thread.
+   *
+   * @return the element, or null if none is visible yet
+   */
+  T poll() {
+    Node<T> next = head.next;
+    if (next == null) {
+      return null;
+    }
+    T value = next.value;
+    // The node becomes the new stub; drop its value so it can be collected
+    next.value = null;
+    head = next;
+    return value;
+  }
+
+  /**
+   * Returns whether no offer has started since the last poll. Unlike {@link #poll()} this
+   * also sees an offer that is still linking its node. Must only be called from the
+   * consumer thread.
+   */
+  boolean isEmpty() {
+    return tail.get() == head;
+  }
+}
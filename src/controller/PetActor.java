@@ -0,0 +1,230 @@
+package controller;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+import pet.model.mystery.MysteryBox;
+
+/**
+ * A pet that is only ever touched through its mailbox.
+ * Commands from any thread are queued in a bounded mailbox and applied one at a time by
+ * whichever pool thread the {@link PetActorSystem} hands the actor to, so the {@link Pet}
+ * itself stays single-threaded. An actor holds no thread while its mailbox is empty.
+ *
+ * <p>A full mailbox rejects new commands instead of blocking the sender: the {@code tell}
+ * methods return false and the {@code ask} methods return a future that has already failed
+ * with a {@link RejectedExecutionException}.
+ */
+public class PetActor {
+  private final Pet pet;
+  private final PetActorSystem system;
+  private final int capacity;
+  private final Queue<Envelope> mailbox = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger depth = new AtomicInteger();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  // Written only while draining, which never happens on two threads at once
+  private volatile long processed;
+  private volatile long totalLatencyNanos;
+  private volatile long maxLatencyNanos;
+  private volatile int maxDepth;
+
+  /**
+   * A queued command and the time it was sent.
+   */
+  private static final class Envelope {
+    private final Consumer<Pet> command;
+    private final long sentNanos;
+
+    Envelope(Consumer<Pet> command) {
+      this.command = command;
+      this.sentNanos = System.nanoTime();
+    }
+  }
+
+  PetActor(Pet pet, PetActorSystem system, int capacity) {
+    this.pet = pet;
+    this.system = system;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Gets the id of the pet this actor owns.
+   *
+   * @return the pet id
+   */
+  public int getPetId() {
+    return pet.getId();
+  }
+
+  /**
+   * Queues an action for the pet.
+   *
+   * @param action the action to perform
+   * @return false if the mailbox was full and the action was dropped
+   */
+  public boolean tell(Action action) {
+    return offer(new Envelope(target -> target.interactWith(action)));
+  }
+
+  /**
+   * Queues a number of time steps for the pet.
+   *
+   * @param steps the number of steps
+   * @return false if the mailbox was full and the steps were dropped
+   */
+  public boolean tellSteps(int steps) {
+    return offer(new Envelope(target -> {
+      for (int i = 0; i < steps; i++) {
+        target.step();
+      }
+    }));
+  }
+
+  /**
+   * Opens a mystery box for the pet. Like the GUI, a sleeping or dead pet cannot open one.
+   *
+   * @param box the box to open
+   * @return a future with the description of the outcome, failed with an
+   *     {@link IllegalStateException} if the pet is asleep or dead
+   */
+  public CompletableFuture<String> openBox(MysteryBox box) {
+    return ask(target -> {
+      if (!target.isAlive() || target.isAsleep()) {
+        throw new IllegalStateException("Pet " + target.getId()
+            + (target.isAlive() ? " is asleep" : " is dead"));
+      }
+      return box.open(target);
+    });
+  }
+
+  /**
+   * Asks for the pet's current state. The snapshot reflects every command sent before it.
+   *
+   * @return a future with the snapshot
+   */
+  public CompletableFuture<PetSnapshot> query() {
+    return ask(PetSnapshot::of);
+  }
+
+  /**
+   * Gets the number of commands waiting in the mailbox.
+   *
+   * @return the mailbox depth
+   */
+  public int getMailboxDepth() {
+    return depth.get();
+  }
+
+  /**
+   * Gets the deepest the mailbox has been when a drain started.
+   *
+   * @return the maximum mailbox depth
+   */
+  public int getMaxMailboxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Gets the number of commands applied so far.
+   *
+   * @return the processed command count
+   */
+  public long getProcessedCount() {
+    return processed;
+  }
+
+  /**
+   * Gets the mean time from sending a command to applying it.
+   *
+   * @return the mean latency in nanoseconds, or 0 before the first command
+   */
+  public long getMeanLatencyNanos() {
+    long count = processed;
+    return (count == 0) ? 0 : totalLatencyNanos / count;
+  }
+
+  /**
+   * Gets the longest time from sending a command to applying it.
+   *
+   * @return the maximum latency in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos;
+  }
+
+  private <T> CompletableFuture<T> ask(Function<Pet, T> question) {
+    CompletableFuture<T> reply = new CompletableFuture<>();
+    boolean queued = offer(new Envelope(target -> {
+      try {
+        reply.complete(question.apply(target));
+      } catch (RuntimeException e) {
+        reply.completeExceptionally(e);
+      }
+    }));
+    if (!queued) {
+      reply.completeExceptionally(
+          new RejectedExecutionException("Mailbox of pet " + getPetId() + " is full"));
+    }
+    return reply;
+  }
+
+  private boolean offer(Envelope envelope) {
+    if (depth.incrementAndGet() > capacity) {
+      depth.decrementAndGet();
+      system.recordRejected();
+      return false;
+    }
+    mailbox.offer(envelope);
+    system.recordQueued();
+    if (scheduled.compareAndSet(false, true)) {
+      system.schedule(this);
+    }
+    return true;
+  }
+
+  /**
+   * Applies up to one batch of commands, then hands the thread back to the pool. Runs on a
+   * pool thread; the scheduled flag guarantees only one drain at a time.
+   */
+  void drain(int batchSize) {
+    int waiting = depth.get();
+    if (waiting > maxDepth) {
+      maxDepth = waiting;
+    }
+    system.recordDepth(waiting);
+
+    int handled = 0;
+    Envelope envelope;
+    while (handled < batchSize && (envelope = mailbox.poll()) != null) {
+      depth.decrementAndGet();
+      try {
+        envelope.command.accept(pet);
+      } catch (RuntimeException e) {
+        System.err.println("Pet actor " + getPetId() + " failed a command: " + e);
+      }
+      long latency = System.nanoTime() - envelope.sentNanos;
+      processed++;
+      totalLatencyNanos += latency;
+      if (latency > maxLatencyNanos) {
+        maxLatencyNanos = latency;
+      }
+      system.recordProcessed(latency);
+      handled++;
+    }
+
+    scheduled.set(false);
+    // A sender may have queued a command after the poll but before the flag was cleared
+    if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+      system.schedule(this);
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package controller;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import pet.model.Pet;
+
+/**
+ * Hosts many {@link PetActor}s on a small pool of threads.
+ * An actor with queued commands is scheduled once, drains at most one batch and is
+ * rescheduled behind the other actors if more commands remain, so a busy pet cannot starve
+ * the rest and scheduling is paid once per batch rather than once per command. An idle
+ * actor costs only its pet and an empty queue, so a million pets fit in one JVM.
+ *
+ * <p>The system keeps counters for queued, processed and rejected commands, the deepest
+ * mailbox seen, and a histogram of send-to-apply latency across all actors.
+ */
+public class PetActorSystem implements Closeable {
+  // Latency histogram buckets are powers of two nanoseconds
+  private static final int LATENCY_BUCKETS = 64;
+
+  private final int mailboxCapacity;
+  private final int batchSize;
+  private final ExecutorService executor;
+  private final Map<Integer, PetActor> actors = new ConcurrentHashMap<>();
+
+  private final LongAdder queued = new LongAdder();
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder totalLatencyNanos = new LongAdder();
+  private final AtomicInteger maxMailboxDepth = new AtomicInteger();
+  private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS);
+
+  /**
+   * Creates a new actor system.
+   *
+   * @param threads         The number of pool threads, or 0 for one per processor
+   * @param mailboxCapacity The most commands an actor may have waiting
+   * @param batchSize       The most commands an actor applies before yielding its thread
+   */
+  public PetActorSystem(int threads, int mailboxCapacity, int batchSize) {
+    if (mailboxCapacity < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Mailbox capacity and batch size must be positive");
+    }
+    this.mailboxCapacity = mailboxCapacity;
+    this.batchSize = batchSize;
+    int poolSize = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+      Thread thread = new Thread(runnable, "pet-actor-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Creates an actor for a pet. The pet must not be touched directly afterwards.
+   *
+   * @param pet the pet to own
+   * @return the actor
+   */
+  public PetActor spawn(Pet pet) {
+    PetActor actor = new PetActor(pet, this, mailboxCapacity);
+    if (actors.putIfAbsent(pet.getId(), actor) != null) {
+      throw new IllegalArgumentException("Pet " + pet.getId() + " already has an actor");
+    }
+    return actor;
+  }
+
+  /**
+   * Gets the actor for a pet.
+   *
+   * @param petId the pet id
+   * @return the actor, or null if the pet has none
+   */
+  public PetActor getActor(int petId) {
+    return actors.get(petId);
+  }
+
+  /**
+   * Gets the number of actors in the system.
+   *
+   * @return the actor count
+   */
+  public int getActorCount() {
+    return actors.size();
+  }
+
+  /**
+   * Gets the number of commands waiting in all mailboxes.
+   *
+   * @return the queued command count
+   */
+  public long getQueuedCount() {
+    return queued.sum();
+  }
+
+  /**
+   * Gets the number of commands applied by all actors.
+   *
+   * @return the processed command count
+   */
+  public long getProcessedCount() {
+    return processed.sum();
+  }
+
+  /**
+   * Gets the number of commands dropped because a mailbox was full.
+   *
+   * @return the rejected command count
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Gets the deepest any mailbox has been when a drain started.
+   *
+   * @return the maximum mailbox depth
+   */
+  public int getMaxMailboxDepth() {
+    return maxMailboxDepth.get();
+  }
+
+  /**
+   * Gets the mean time from sending a command to applying it, across all actors.
+   *
+   * @return the mean latency in nanoseconds, or 0 before the first command
+   */
+  public long getMeanLatencyNanos() {
+    long count = processed.sum();
+    return (count == 0) ? 0 : totalLatencyNanos.sum() / count;
+  }
+
+  /**
+   * Gets a latency percentile across all actors, accurate to a power of two.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the upper bound of the bucket holding the percentile, in nanoseconds
+   */
+  public long getLatencyPercentile(double percentile) {
+    long[] counts = new long[LATENCY_BUCKETS];
+    long total = 0;
+    for (int i = 0; i < LATENCY_BUCKETS; i++) {
+      counts[i] = latencyBuckets.get(i);
+      total += counts[i];
+    }
+    long rank = (long) Math.ceil(total * percentile / 100.0);
+    long seen = 0;
+    for (int i = 0; i < LATENCY_BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank && seen > 0) {
+        return (i == LATENCY_BUCKETS - 1) ? Long.MAX_VALUE : (1L << i) - 1;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Describes the system's counters on one line.
+   *
+   * @return the description
+   */
+  public String describe() {
+    return String.format("actors %d, processed %d, queued %d, rejected %d, max depth %d, "
+            + "latency mean %d us p50 %d us p99 %d us",
+        getActorCount(), getProcessedCount(), getQueuedCount(), getRejectedCount(),
+        getMaxMailboxDepth(), getMeanLatencyNanos() / 1000,
+        getLatencyPercentile(50) / 1000, getLatencyPercentile(99) / 1000);
+  }
+
+  /**
+   * Stops the pool threads once the actors already scheduled have drained their batch.
+   * Commands sent afterwards are never applied.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * Waits for the pool to finish after {@link #close()}.
+   *
+   * @param timeout the longest time to wait
+   * @param unit    the unit of the timeout
+   * @return true if the pool finished in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return executor.awaitTermination(timeout, unit);
+  }
+
+  void schedule(PetActor actor) {
+    try {
+      executor.execute(() -> actor.drain(batchSize));
+    } catch (RejectedExecutionException e) {
+      // The system is closed; the commands stay queued and are never applied
+    }
+  }
+
+  void recordQueued() {
+    queued.increment();
+  }
+
+  void recordRejected() {
+    rejected.increment();
+  }
+
+  void recordDepth(int depth) {
+    // Read first so the common case does not contend on the shared counter
+    if (depth > maxMailboxDepth.get()) {
+      maxMailboxDepth.accumulateAndGet(depth, Math::max);
+    }
+  }
+
+  void recordProcessed(long latencyNanos) {
+    queued.decrement();
+    processed.increment();
+    totalLatencyNanos.add(latencyNanos);
+    int bucket = LATENCY_BUCKETS - Long.numberOfLeadingZeros(Math.max(0, latencyNanos));
+    latencyBuckets.incrementAndGet(Math.min(LATENCY_BUCKETS - 1, bucket));
+  }
+}
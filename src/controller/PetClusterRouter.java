@@ -0,0 +1,590 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import pet.enums.Action;
+import pet.enums.HealthStat;
+import pet.enums.MoodEnum;
+import pet.model.HealthStatus;
+import pet.model.PetSnapshot;
+
+/**
+ * Spreads pets over several {@link PetProtocolServer} engines, usually one per process, and
+ * forwards commands to the engine that owns each pet.
+ * Pets are assigned to engines by a {@link HashRing} of pet ids. The router hands out the ids
+ * itself, so engines in a cluster must only be given pets through it.
+ *
+ * <p>Commands are sent in {@link Batch}es: each engine's share of a batch is pipelined over
+ * its connection, and all engines work on their shares at the same time. When an engine is
+ * added or removed, the pets whose owner changes are exported from their old engine and
+ * imported into the new one in their full state; commands wait while pets move. A failure
+ * in the middle of a move loses the pets in flight, so the cluster is a way past one heap,
+ * not a replicated store. Not thread-safe beyond that: methods are synchronized.
+ */
+public class PetClusterRouter implements Closeable {
+  private static final int POINTS_PER_ENGINE = 128;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MIGRATION_CHUNK = 16 * 1024;
+  private static final long SELECT_MILLIS = 10;
+
+  private final HashRing<Engine> ring = new HashRing<>(POINTS_PER_ENGINE);
+  private final List<Engine> engines = new ArrayList<>();
+  private final Selector selector;
+  private final Batch internal = new Batch(MIGRATION_CHUNK);
+  private final Batch imports = new Batch(MIGRATION_CHUNK);
+
+  // Owner of every pet, indexed by id; ids are handed out in order from 0
+  private Engine[] owners = new Engine[1024];
+  private int petCount;
+  private long migratedCount;
+  // Engine for each entry of the batch being exchanged
+  private Engine[] targets = new Engine[1024];
+
+  /**
+   * A connection to one engine and its share of the batch being exchanged.
+   */
+  private static final class Engine {
+    private final String name;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    // Kept in write mode between calls
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    // Batch indices of this engine's share, in sending order
+    private int[] entries = new int[256];
+    private int entryCount;
+    private int sent;
+    private int received;
+
+    Engine(InetSocketAddress address, Selector selector) throws IOException {
+      this.name = address.getHostString() + ":" + address.getPort();
+      this.channel = SocketChannel.open(address);
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      channel.configureBlocking(false);
+      this.key = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    void reset() {
+      entryCount = 0;
+      sent = 0;
+      received = 0;
+    }
+
+    void addEntry(int index) {
+      if (entryCount == entries.length) {
+        entries = Arrays.copyOf(entries, entryCount * 2);
+      }
+      entries[entryCount++] = index;
+    }
+
+    boolean isDone() {
+      return received == entryCount;
+    }
+
+    /**
+     * Encodes as many unsent requests as fit and writes what the socket takes.
+     */
+    boolean send(Batch batch) throws IOException {
+      while (sent < entryCount) {
+        int index = entries[sent];
+        byte opcode = batch.opcodes[index];
+        if (out.remaining() < PetProtocol.requestSize(opcode)) {
+          break;
+        }
+        PetProtocol.putRequest(out, opcode, batch.arguments[index] & 0xFF, sent,
+            batch.petIds[index]);
+        if (opcode == PetProtocol.OP_IMPORT) {
+          out.put(batch.states, index * PetProtocol.STATE_SIZE, PetProtocol.STATE_SIZE);
+        }
+        sent++;
+      }
+      if (out.position() == 0) {
+        return false;
+      }
+      out.flip();
+      int written = channel.write(out);
+      out.compact();
+      return written > 0;
+    }
+
+    /**
+     * Reads what has arrived and records every complete response in the batch.
+     */
+    boolean receive(Batch batch) throws IOException {
+      int read = channel.read(in);
+      if (read < 0) {
+        throw new IOException("Engine " + name + " closed the connection");
+      }
+      in.flip();
+      while (received < entryCount && in.remaining() >= PetProtocol.RESPONSE_SIZE) {
+        int position = in.position();
+        int index = entries[received];
+        int status = PetProtocol.status(in, position);
+        boolean hasState = batch.opcodes[index] == PetProtocol.OP_EXPORT
+            && status == PetProtocol.STATUS_OK;
+        int size = PetProtocol.RESPONSE_SIZE + (hasState ? PetProtocol.STATE_SIZE : 0);
+        if (in.remaining() < size) {
+          break;
+        }
+        if (PetProtocol.tag(in, position) != (received & 0xFFFF)) {
+          throw new IOException("Engine " + name + " answered out of order");
+        }
+        batch.record(index, in, position);
+        if (hasState) {
+          in.position(position + PetProtocol.RESPONSE_SIZE);
+          in.get(batch.states(), index * PetProtocol.STATE_SIZE, PetProtocol.STATE_SIZE);
+        }
+        in.position(position + size);
+        received++;
+      }
+      in.compact();
+      return read > 0;
+    }
+  }
+
+  /**
+   * A reusable list of commands for the cluster, and their results once executed.
+   * Results are indexed the same way as the commands that were added.
+   */
+  public static final class Batch {
+    private int size;
+    private int[] petIds;
+    private byte[] opcodes;
+    private byte[] arguments;
+    private byte[] statuses;
+    private byte[] flags;
+    private int[] values;
+    private int[] levels;
+    // Full pet states for EXPORT and IMPORT, allocated on first use
+    private byte[] states;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param capacity The initial number of commands it can hold
+     */
+    public Batch(int capacity) {
+      int initial = Math.max(1, capacity);
+      petIds = new int[initial];
+      opcodes = new byte[initial];
+      arguments = new byte[initial];
+      statuses = new byte[initial];
+      flags = new byte[initial];
+      values = new int[initial];
+      levels = new int[initial];
+    }
+
+    /**
+     * Removes every command, keeping the arrays for reuse.
+     */
+    public void clear() {
+      size = 0;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Adds an action.
+     *
+     * @param petId  the pet id
+     * @param action the action
+     * @return the index of the command's result
+     */
+    public int act(int petId, Action action) {
+      return add(PetProtocol.OP_ACT, action.ordinal(), petId);
+    }
+
+    /**
+     * Adds time steps.
+     *
+     * @param petId the pet id
+     * @param steps the number of steps, 1 to 255
+     * @return the index of the command's result
+     */
+    public int step(int petId, int steps) {
+      if (steps < 1 || steps > 255) {
+        throw new IllegalArgumentException("Steps must be between 1 and 255: " + steps);
+      }
+      return add(PetProtocol.OP_STEP, steps, petId);
+    }
+
+    /**
+     * Adds a read of a pet's state.
+     *
+     * @param petId the pet id
+     * @return the index of the command's result
+     */
+    public int get(int petId) {
+      return add(PetProtocol.OP_GET, 0, petId);
+    }
+
+    int add(byte opcode, int argument, int petId) {
+      if (size == petIds.length) {
+        int capacity = size * 2;
+        petIds = Arrays.copyOf(petIds, capacity);
+        opcodes = Arrays.copyOf(opcodes, capacity);
+        arguments = Arrays.copyOf(arguments, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        values = Arrays.copyOf(values, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        if (states != null) {
+          states = Arrays.copyOf(states, capacity * PetProtocol.STATE_SIZE);
+        }
+      }
+      petIds[size] = petId;
+      opcodes[size] = opcode;
+      arguments[size] = (byte) argument;
+      statuses[size] = PetProtocol.STATUS_NO_PET;
+      return size++;
+    }
+
+    byte[] states() {
+      if (states == null || states.length < petIds.length * PetProtocol.STATE_SIZE) {
+        states = (states == null) ? new byte[petIds.length * PetProtocol.STATE_SIZE]
+            : Arrays.copyOf(states, petIds.length * PetProtocol.STATE_SIZE);
+      }
+      return states;
+    }
+
+    void record(int index, ByteBuffer buffer, int position) {
+      statuses[index] = (byte) PetProtocol.status(buffer, position);
+      flags[index] = buffer.get(position + 1);
+      values[index] = PetProtocol.value(buffer, position);
+      levels[index] = buffer.getInt(position + 8);
+    }
+
+    /**
+     * Gets the status of a command.
+     *
+     * @param index the command's index
+     * @return one of the {@link PetProtocol} statuses
+     */
+    public int getStatus(int index) {
+      return statuses[index];
+    }
+
+    /**
+     * Gets the value answered to a command, usually the pet's tick.
+     *
+     * @param index the command's index
+     * @return the value
+     */
+    public int getValue(int index) {
+      return values[index];
+    }
+
+    /**
+     * Gets the pet's state after a successful command. The protocol does not carry names,
+     * so the snapshot has none.
+     *
+     * @param index the command's index
+     * @return the snapshot, or null if the command failed
+     */
+    public PetSnapshot getSnapshot(int index) {
+      if (statuses[index] != PetProtocol.STATUS_OK) {
+        return null;
+      }
+      int packed = levels[index];
+      HealthStatus health = new HealthStatus((byte) (packed >>> 24), (byte) (packed >>> 16),
+          (byte) (packed >>> 8), (byte) packed);
+      int bits = flags[index];
+      return new PetSnapshot(petIds[index], null, values[index], health,
+          MoodEnum.values()[bits & 0x3], (bits & 0x4) != 0, (bits & 0x8) != 0);
+    }
+
+    /**
+     * Gets one health level of the pet after a successful command.
+     *
+     * @param index the command's index
+     * @param stat  the health stat
+     * @return the level
+     */
+    public int getLevel(int index, HealthStat stat) {
+      return (byte) (levels[index] >>> (24 - 8 * stat.ordinal()));
+    }
+  }
+
+  /**
+   * Connects to a set of engines.
+   *
+   * @param addresses The engines' addresses
+   * @throws IOException if an engine cannot be reached
+   */
+  public PetClusterRouter(List<InetSocketAddress> addresses) throws IOException {
+    selector = Selector.open();
+    try {
+      for (InetSocketAddress address : addresses) {
+        Engine engine = new Engine(address, selector);
+        engines.add(engine);
+        ring.add(engine.name, engine);
+      }
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates pets with consecutive ids on the engines that own them.
+   *
+   * @param count the number of pets
+   * @return the id of the first pet
+   * @throws IOException if an engine cannot be reached or refuses a pet
+   */
+  public synchronized int createPets(int count) throws IOException {
+    if (ring.size() == 0) {
+      throw new IllegalStateException("No engines in the cluster");
+    }
+    int first = petCount;
+    int end = first + count;
+    if (end > owners.length) {
+      owners = Arrays.copyOf(owners, Math.max(owners.length * 2, end));
+    }
+    for (int start = first; start < end; start += MIGRATION_CHUNK) {
+      internal.clear();
+      int stop = Math.min(end, start + MIGRATION_CHUNK);
+      for (int id = start; id < stop; id++) {
+        int index = internal.add(PetProtocol.OP_CREATE, PetProtocol.CREATE_WITH_ID, id);
+        target(index, ring.owner(id));
+      }
+      exchange(internal);
+      for (int index = 0; index < internal.size(); index++) {
+        if (internal.getStatus(index) != PetProtocol.STATUS_OK) {
+          throw new IOException("Engine refused pet " + internal.petIds[index]);
+        }
+        owners[internal.petIds[index]] = targets[index];
+      }
+      petCount = stop;
+    }
+    return first;
+  }
+
+  /**
+   * Sends every command in a batch to the engine owning its pet and waits for all results.
+   * Commands for unknown pets fail with {@link PetProtocol#STATUS_NO_PET} without being sent.
+   *
+   * @param batch the commands
+   * @throws IOException if an engine cannot be reached
+   */
+  public synchronized void execute(Batch batch) throws IOException {
+    for (int index = 0; index < batch.size(); index++) {
+      int petId = batch.petIds[index];
+      target(index, (petId >= 0 && petId < petCount) ? owners[petId] : null);
+    }
+    exchange(batch);
+  }
+
+  /**
+   * Gets the current state of one pet.
+   *
+   * @param petId the pet id
+   * @return the snapshot, without a name, or null if there is no such pet
+   * @throws IOException if the engine cannot be reached
+   */
+  public synchronized PetSnapshot getPet(int petId) throws IOException {
+    internal.clear();
+    int index = internal.get(petId);
+    execute(internal);
+    return internal.getSnapshot(index);
+  }
+
+  /**
+   * Adds an engine and moves the pets it now owns onto it.
+   *
+   * @param address the engine's address
+   * @return the number of pets moved
+   * @throws IOException if an engine cannot be reached
+   */
+  public synchronized int addEngine(InetSocketAddress address) throws IOException {
+    Engine engine = new Engine(address, selector);
+    engines.add(engine);
+    ring.add(engine.name, engine);
+    return rebalance();
+  }
+
+  /**
+   * Moves every pet off an engine and disconnects from it. The engine itself keeps running.
+   *
+   * @param address the engine's address
+   * @return the number of pets moved
+   * @throws IOException if an engine cannot be reached
+   */
+  public synchronized int removeEngine(InetSocketAddress address) throws IOException {
+    Engine engine = ring.remove(address.getHostString() + ":" + address.getPort());
+    if (engine == null) {
+      throw new IllegalArgumentException("Not in the cluster: " + address);
+    }
+    if (ring.size() == 0) {
+      ring.add(engine.name, engine);
+      throw new IllegalStateException("Cannot remove the last engine");
+    }
+    int moved = rebalance();
+    engines.remove(engine);
+    engine.key.cancel();
+    engine.channel.close();
+    return moved;
+  }
+
+  /**
+   * Moves every pet whose owner on the ring is not the engine holding it, in chunks.
+   */
+  private int rebalance() throws IOException {
+    int moved = 0;
+    for (int start = 0; start < petCount; start += MIGRATION_CHUNK) {
+      int stop = Math.min(petCount, start + MIGRATION_CHUNK);
+      internal.clear();
+      for (int id = start; id < stop; id++) {
+        if (ring.owner(id) != owners[id]) {
+          target(internal.add(PetProtocol.OP_EXPORT, 0, id), owners[id]);
+        }
+      }
+      if (internal.size() == 0) {
+        continue;
+      }
+      exchange(internal);
+
+      imports.clear();
+      byte[] exported = internal.states();
+      for (int index = 0; index < internal.size(); index++) {
+        if (internal.getStatus(index) != PetProtocol.STATUS_OK) {
+          continue;
+        }
+        int petId = internal.petIds[index];
+        int slot = imports.add(PetProtocol.OP_IMPORT, 0, petId);
+        System.arraycopy(exported, index * PetProtocol.STATE_SIZE, imports.states(),
+            slot * PetProtocol.STATE_SIZE, PetProtocol.STATE_SIZE);
+        target(slot, ring.owner(petId));
+      }
+      exchange(imports);
+      for (int index = 0; index < imports.size(); index++) {
+        if (imports.getStatus(index) != PetProtocol.STATUS_OK) {
+          throw new IOException("Engine refused moved pet " + imports.petIds[index]);
+        }
+        owners[imports.petIds[index]] = targets[index];
+        moved++;
+      }
+    }
+    migratedCount += moved;
+    return moved;
+  }
+
+  private void target(int index, Engine engine) {
+    if (index >= targets.length) {
+      targets = Arrays.copyOf(targets, Math.max(targets.length * 2, index + 1));
+    }
+    targets[index] = engine;
+  }
+
+  /**
+   * Pipelines each engine's share of a batch over its connection until every response is
+   * back. The batch's entries must already have their targets.
+   */
+  private void exchange(Batch batch) throws IOException {
+    for (Engine engine : engines) {
+      engine.reset();
+    }
+    for (int index = 0; index < batch.size(); index++) {
+      if (targets[index] != null) {
+        targets[index].addEntry(index);
+      }
+    }
+
+    boolean done = false;
+    while (!done) {
+      done = true;
+      boolean progress = false;
+      for (Engine engine : engines) {
+        if (engine.isDone()) {
+          continue;
+        }
+        progress |= engine.send(batch);
+        progress |= engine.receive(batch);
+        if (!engine.isDone()) {
+          done = false;
+          engine.key.interestOps(engine.out.position() > 0
+              ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+      }
+      if (!done && !progress) {
+        selector.select(SELECT_MILLIS);
+        selector.selectedKeys().clear();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of pets created through this router.
+   *
+   * @return the pet count
+   */
+  public synchronized int getPetCount() {
+    return petCount;
+  }
+
+  /**
+   * Gets the number of engines in the cluster.
+   *
+   * @return the engine count
+   */
+  public synchronized int getEngineCount() {
+    return engines.size();
+  }
+
+  /**
+   * Counts the pets an engine owns.
+   *
+   * @param address the engine's address
+   * @return the pet count, or 0 if the engine is not in the cluster
+   */
+  public synchronized int countPets(InetSocketAddress address) {
+    String name = address.getHostString() + ":" + address.getPort();
+    int count = 0;
+    for (int id = 0; id < petCount; id++) {
+      if (owners[id].name.equals(name)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of pets moved between engines so far.
+   *
+   * @return the migrated pet count
+   */
+  public synchronized long getMigratedCount() {
+    return migratedCount;
+  }
+
+  /**
+   * Disconnects from every engine. The engines keep running.
+   */
+  @Override
+  public synchronized void close() {
+    for (Engine engine : engines) {
+      try {
+        engine.channel.close();
+      } catch (IOException e) {
+        // Already gone
+      }
+    }
+    engines.clear();
+    try {
+      selector.close();
+    } catch (IOException e) {
+      System.err.println("Error closing cluster router: " + e.getMessage());
+    }
+  }
+}
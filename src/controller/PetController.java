@@ -1,22 +1,89 @@
 package controller;
 
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
 import pet.enums.Action;
+import pet.enums.ActivityType;
 import pet.enums.MoodEnum;
+import pet.enums.SimulationSpeed;
+import pet.model.ActivityEvent;
+import pet.model.HealthHistory;
 import pet.model.HealthStatus;
 import pet.model.Pet;
+import pet.model.PetSnapshot;
+import pet.model.PetStateChange;
+import pet.model.history.ActivityHistory;
 import pet.model.mystery.MysteryBox;
 import pet.model.mystery.MysteryBoxSystem;
 import view.PetView;
+import view.components.Animation;
+import view.components.AnimationClock;
+import view.components.SpeechPriority;
 
 /**
  * Controller for the Virtual Pet.
  * Handles user actions and serves as the intermediary between Model and View
  * Directly attaches action listeners to view components
+ *
+ * <p>The pet lives on the model stage of a {@link CommandPipeline}. Listeners on the event
+ * dispatch thread only publish commands into its ring, and the model stage applies
+ * everything published within one animation frame as a batch, in order, then publishes an
+ * immutable {@link PetSnapshot}. The events of the batch are appended to the activity
+ * history by the journal stage and handed to the view by the view stage, which asks for one
+ * repaint, so a burst of clicks costs one snapshot, one disk flush and one view refresh, and
+ * neither a slow disk nor a busy view holds back the model. However many snapshots are
+ * published before that repaint runs, the view renders only the latest.
  */
 public class PetController {
+  private static final int FRAMES_PER_SECOND = 60;
+  private static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+  private static final int STATE_STREAM_CAPACITY = 256;
+  private static final int RING_SIZE = 1024;
+
   private final Pet pet;
   private final PetView view;
+  // Recorded only for the pet a controller shows, for the health chart and GIF export
+  private final HealthHistory healthHistory;
   private final MysteryBoxSystem mysteryBoxSystem;
+  // Written to directly only without a view; otherwise the journal stage owns the appends
+  private volatile ActivityHistory history;
+  // Sequence number of the first history event recorded for this pet
+  private long historyStart;
+
+  // Its model stage owns the pet; the EDT sees it only through published snapshots and events
+  private final CommandPipeline pipeline;
+  private volatile PetSnapshot snapshot;
+  private final ConcurrentLinkedQueue<ActivityEvent> pendingEvents =
+      new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean renderScheduled = new AtomicBoolean();
+  private final StateStream states =
+      new StateStream(STATE_STREAM_CAPACITY, StateStream.OverflowPolicy.CONFLATE);
+  // Start of the traced command's trip through the model thread, EDT only
+  private long modelTraceStart;
+  // Set by the model thread once a snapshot including the traced command is published
+  private volatile boolean tracedCommandPublished;
+  // Model thread only: the traced command has run and awaits the batch's publish
+  private boolean tracedCommandApplied;
+
+  // Real-time mode: ticks requested by the simulation thread, applied on the model thread
+  private final AtomicInteger pendingTicks = new AtomicInteger();
+  private final AtomicLong appliedTicks = new AtomicLong();
+  private SimulationLoop simulationLoop;
+
+  // Time compression: the runner owns the pet while active, the view pulls one frame at a time
+  private volatile TimeCompressionRunner compressionRunner;
+  private final Animation compressionFrame = this::pumpCompression;
+  private long statsStartTime;
+  private long statsStartTick;
 
   /**
    * Creates a new pet controller with both model and view references.
@@ -27,84 +94,169 @@ public class PetController {
   public PetController(Pet pet, PetView view) {
     this.pet = pet;
     this.view = view;
+    this.healthHistory = pet.recordHealthHistory();
     this.mysteryBoxSystem = new MysteryBoxSystem();
+    this.pipeline = new CommandPipeline(RING_SIZE, FRAME_NANOS, this::publish, this::onBatch);
+    this.snapshot = PetSnapshot.of(pet);
 
     // Attach action listeners to view buttons
     attachViewListeners();
 
     // Initialize the view with current model state
-    updateView();
+    renderSnapshot(snapshot);
+    pipeline.start();
+  }
+
+  /**
+   * Creates a controller without a window, so view components can read the pet's state
+   * while being painted offscreen (for example by benchmarks on a headless machine).
+   * The pet is changed directly and published with {@link #refresh()}.
+   *
+   * @param pet The pet model
+   */
+  public PetController(Pet pet) {
+    this.pet = pet;
+    this.view = null;
+    this.healthHistory = pet.recordHealthHistory();
+    this.pipeline = null;
+    this.mysteryBoxSystem = new MysteryBoxSystem();
+    this.snapshot = PetSnapshot.of(pet);
+  }
+
+  /**
+   * Publishes the pet's current state after it was changed directly,
+   * updating the view if there is one.
+   */
+  public void refresh() {
+    // Every batch ends with a publish, even one holding only an empty command
+    onModel(() -> { });
   }
 
   /**
    * Attaches action listeners to all view components.
    */
   private void attachViewListeners() {
-    view.getFeedButton().addActionListener(e -> handleAction(Action.FEED));
-    view.getPlayButton().addActionListener(e -> handleAction(Action.PLAY));
-    view.getCleanButton().addActionListener(e -> handleAction(Action.CLEAN));
-    view.getSleepButton().addActionListener(e -> handleAction(Action.SLEEP));
-    view.getStepButton().addActionListener(e -> step());
+    view.getFeedButton().addActionListener(actionListener(Action.FEED));
+    view.getPlayButton().addActionListener(actionListener(Action.PLAY));
+    view.getCleanButton().addActionListener(actionListener(Action.CLEAN));
+    view.getSleepButton().addActionListener(actionListener(Action.SLEEP));
+    view.getStepButton().addActionListener(traced(() -> onModel(this::step)));
     view.getMysteryBoxButton().addActionListener(e -> handleMysteryBox());
+    view.getRealTimeToggle().addActionListener(
+        e -> setRealTime(view.getRealTimeToggle().isSelected()));
+    view.getTickRateBox().addActionListener(e -> {
+      if (simulationLoop != null) {
+        simulationLoop.setTicksPerSecond(getSelectedTickRate());
+      }
+    });
+    view.getSpeedBox().addActionListener(
+        e -> setSpeed((SimulationSpeed) view.getSpeedBox().getSelectedItem()));
+  }
+
+  /**
+   * Creates a listener that queues an action for the model thread.
+   *
+   * @param action The action to perform
+   * @return The action listener
+   */
+  private ActionListener actionListener(Action action) {
+    return traced(() -> onModel(() -> handleAction(action)));
+  }
+
+  /**
+   * Wraps an input handler so the latency tracer stamps its event and times it.
+   *
+   * @param handler The handler to run
+   * @return The action listener
+   */
+  private ActionListener traced(Runnable handler) {
+    return e -> {
+      LatencyTracer.begin(e);
+      long start = LatencyTracer.start();
+      handler.run();
+      LatencyTracer.end(LatencyTracer.Stage.HANDLE_ACTION, start);
+    };
+  }
+
+  /**
+   * Publishes a command for the model stage's next batch, which starts at the next frame
+   * boundary. Without a view there is no pipeline and the command runs at once on the
+   * caller's thread.
+   *
+   * @param command The command to run with the pet
+   */
+  private void onModel(Runnable command) {
+    if (pipeline == null) {
+      command.run();
+      publish();
+      return;
+    }
+    if (SwingUtilities.isEventDispatchThread() && modelTraceStart == 0) {
+      modelTraceStart = LatencyTracer.start();
+      if (modelTraceStart != 0) {
+        // Mark when the traced command has run, so only the repaint showing it ends the trace
+        Runnable traced = command;
+        command = () -> {
+          traced.run();
+          tracedCommandApplied = true;
+        };
+      }
+    }
+    pipeline.publish(command);
+  }
+
+  /**
+   * Runs a command on the model stage after every command published so far, and waits for
+   * it. Only for rare hand-overs; the model stage must never wait for the caller in turn.
+   *
+   * @param command The command to run with the pet
+   * @return The command's result, or null if it failed
+   */
+  private <T> T callModel(Callable<T> command) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    pipeline.publish(() -> {
+      try {
+        result.complete(command.call());
+      } catch (Exception e) {
+        result.completeExceptionally(e);
+      }
+    });
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      System.err.println("Model thread failed: " + e.getCause());
+    }
+    return null;
   }
 
   /**
-   * Handles user actions on the pet.
+   * Handles user actions on the pet. Runs on the model thread.
    *
    * @param action The action to perform
    */
   private void handleAction(Action action) {
-    if (pet.isAlive()) {
+    if (pet.isAlive() && !isCompressing()) {
       if (pet.isAsleep() && action != Action.SLEEP) {
-        view.displayMessage(pet.getName() + " is sleeping. Wake them up first!");
+        logEvent(ActivityType.BLOCKED_ASLEEP, action.ordinal(), pet.getMood());
         return;
       }
 
-      boolean wasAsleep = pet.isAsleep();
+      MoodEnum moodBefore = pet.getMood();
 
       // Perform the action
       pet.interactWith(action);
 
-      if (action == Action.SLEEP) {
-        if (wasAsleep && !pet.isAsleep()) {
-          view.clearActionImage();
-        } else if (!wasAsleep && pet.isAsleep()) {
-          view.showActionImage(action);
-        }
-      } else if (!pet.isAsleep()) {
-        view.showActionImage(action);
-      }
-
-      // Log the action based on its type
-      String message;
-      switch (action) {
-        case FEED:
-          message = "Fed " + pet.getName();
-          break;
-        case PLAY:
-          message = "Played with " + pet.getName();
-          break;
-        case CLEAN:
-          message = "Cleaned " + pet.getName();
-          break;
-        case SLEEP:
-          if (pet.isAsleep()) {
-            message = pet.getName() + " is now sleeping";
-          } else {
-            message = pet.getName() + " woke up";
-          }
-          break;
-        default:
-          message = "Unknown action performed";
-          break;
+      // Log the action; waking up is recorded as its own event type
+      if (action == Action.SLEEP && !pet.isAsleep()) {
+        logEvent(ActivityType.WOKE_UP, action.ordinal(), moodBefore);
+      } else {
+        logEvent(ActivityType.ACTION, action.ordinal(), moodBefore);
       }
-      view.displayMessage(message);
 
       // Check if the pet died after the action
       checkPetStatus();
-
-      // Update the view to reflect changes
-      updateView();
     }
   }
 
@@ -112,9 +264,10 @@ public class PetController {
    * Handles the mystery box action.
    */
   private void handleMysteryBox() {
-    if (pet.isAlive()) {
-      if (pet.isAsleep()) {
-        view.displayMessage(pet.getName() + " is sleeping. Wake them up first!");
+    PetSnapshot state = snapshot;
+    if (state.isAlive() && !isCompressing()) {
+      if (state.isAsleep()) {
+        onModel(() -> applyMysteryBox(null));
         return;
       }
 
@@ -123,92 +276,515 @@ public class PetController {
 
       // Ask user if they want to open the box
       boolean openBox = view.displayMysteryBoxDialog(box.getName(), box.getDescription());
+      onModel(() -> applyMysteryBox(openBox ? box : null));
+    }
+  }
 
-      if (openBox) {
+  /**
+   * Opens or declines a mystery box. Runs on the model thread.
+   *
+   * @param box The box to open, or null if the user declined it
+   */
+  private void applyMysteryBox(MysteryBox box) {
+    if (pet.isAlive() && !isCompressing()) {
+      if (pet.isAsleep()) {
+        logEvent(ActivityType.BLOCKED_ASLEEP, ActivityEvent.NO_DETAIL, pet.getMood());
+      } else if (box != null) {
         // Open the box and apply its effects
-        String result = box.open(pet);
-        view.displayMessage(result);
+        MoodEnum moodBefore = pet.getMood();
+        int outcome = box.openOutcome(pet);
+        logEvent(ActivityType.MYSTERY_BOX, ActivityEvent.boxDetail(box.getType(), outcome),
+            moodBefore);
 
         // Check if the pet died after opening the box
         checkPetStatus();
-
-        // Update the view to reflect changes
-        updateView();
       } else {
-        view.displayMessage("You decided not to open the mystery box.");
+        logEvent(ActivityType.BOX_DECLINED, ActivityEvent.NO_DETAIL, pet.getMood());
       }
     }
   }
 
   /**
-   * Advances the pet's state by one time step.
+   * Advances the pet's state by one time step. Runs on the model thread.
    */
   private void step() {
-    if (pet.isAlive()) {
+    if (pet.isAlive() && !isCompressing()) {
+      MoodEnum moodBefore = pet.getMood();
       pet.step();
-      view.displayMessage("Time passed");
+      logEvent(ActivityType.STEP, ActivityEvent.NO_DETAIL, moodBefore);
 
       // Check if the pet died after the step
       checkPetStatus();
+    }
+  }
 
-      // Update the view to reflect changes
-      updateView();
+  /**
+   * Switches real-time mode on or off.
+   *
+   * @param enabled Whether time should advance on its own
+   */
+  private void setRealTime(boolean enabled) {
+    if (enabled && snapshot.isAlive() && !isCompressing()) {
+      if (simulationLoop == null) {
+        simulationLoop = new SimulationLoop(this, view.getPetCanvas(), getSelectedTickRate(),
+            FRAMES_PER_SECOND);
+        view.setRealTimeMode(true);
+        simulationLoop.start();
+      }
+    } else {
+      if (simulationLoop != null) {
+        simulationLoop.stop();
+        simulationLoop = null;
+      }
+      view.setRealTimeMode(false);
+      view.getRealTimeToggle().setSelected(false);
     }
   }
 
   /**
-   * Checks the pet's status and handles any important changes.
+   * Gets the tick rate selected in the view.
+   *
+   * @return The ticks per second
+   */
+  private int getSelectedTickRate() {
+    Integer rate = (Integer) view.getTickRateBox().getSelectedItem();
+    return (rate != null) ? rate : 1;
+  }
+
+  /**
+   * Requests that the pet advance by some ticks. Safe to call from any thread; the ticks
+   * are applied in one batch on the model thread without the caller waiting.
+   *
+   * @param count The number of ticks to add
+   */
+  public void requestTicks(int count) {
+    if (pendingTicks.getAndAdd(count) == 0) {
+      onModel(this::drainTicks);
+    }
+  }
+
+  /**
+   * Applies all pending ticks in one go. Runs on the model thread.
+   */
+  private void drainTicks() {
+    int count = pendingTicks.getAndSet(0);
+    if (count == 0 || !pet.isAlive() || isCompressing()) {
+      return;
+    }
+
+    for (int i = 0; i < count && pet.isAlive(); i++) {
+      MoodEnum moodBefore = pet.getMood();
+      pet.step();
+      appliedTicks.incrementAndGet();
+      logEvent(ActivityType.STEP, ActivityEvent.NO_DETAIL, moodBefore);
+    }
+
+    checkPetStatus();
+  }
+
+  /**
+   * Gets the number of ticks applied through {@link #requestTicks(int)}.
+   *
+   * @return The applied tick count
+   */
+  public long getAppliedTicks() {
+    return appliedTicks.get();
+  }
+
+  /**
+   * Gets the latest published state of the pet. Safe to call from any thread.
+   *
+   * @return The pet snapshot
+   */
+  public PetSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Gets the number of commands waiting for the model stage's next batch.
+   *
+   * @return The queue depth
+   */
+  public long getQueuedCommandCount() {
+    return (pipeline == null) ? 0 : pipeline.getQueuedCount();
+  }
+
+  /**
+   * Gets the deepest the command queue has been.
+   *
+   * @return The largest queue depth seen
+   */
+  public long getMaxQueuedCommandCount() {
+    return (pipeline == null) ? 0 : pipeline.getMaxQueuedCount();
+  }
+
+  /**
+   * Gets the number of commands the model stage has applied.
+   *
+   * @return The applied command count
+   */
+  public long getAppliedCommandCount() {
+    return (pipeline == null) ? 0 : pipeline.getProcessedCount(CommandPipeline.Stage.MODEL);
+  }
+
+  /**
+   * Gets the number of batches the model stage has applied, each ending in one
+   * published snapshot and at most one view refresh.
+   *
+   * @return The batch count
+   */
+  public long getCommandBatchCount() {
+    return (pipeline == null) ? 0 : pipeline.getBatchCount(CommandPipeline.Stage.MODEL);
+  }
+
+  /**
+   * Gets the mean number of commands applied per batch; above 1 when input arrives
+   * faster than frames.
+   *
+   * @return The coalescing ratio, or 0 before the first batch
+   */
+  public double getCoalescingRatio() {
+    long batches = getCommandBatchCount();
+    return (batches == 0) ? 0 : getAppliedCommandCount() / (double) batches;
+  }
+
+  /**
+   * Gets the number of commands whose events the journal stage has not yet written.
+   *
+   * @return The journal's lag behind the model stage
+   */
+  public long getJournalLag() {
+    return (pipeline == null) ? 0 : pipeline.getProcessedCount(CommandPipeline.Stage.MODEL)
+        - pipeline.getProcessedCount(CommandPipeline.Stage.JOURNAL);
+  }
+
+  /**
+   * Describes the command queue for the debug overlay.
+   *
+   * @return The description
+   */
+  public String describeCommandQueue() {
+    return String.format(
+        "commands %d in %d batches (%.2f per refresh)  queued %d  max %d  journal lag %d",
+        getAppliedCommandCount(), getCommandBatchCount(), getCoalescingRatio(),
+        getQueuedCommandCount(), getMaxQueuedCommandCount(), getJournalLag());
+  }
+
+  /**
+   * Gets the stream of the pet's state changes, for consumers outside the view such as
+   * dashboards and loggers. Subscriptions conflate by default, so a slow subscriber never
+   * holds back the model thread.
+   *
+   * @return the state stream
+   */
+  public StateStream getStates() {
+    return states;
+  }
+
+  /**
+   * Changes the time compression speed, starting or stopping the background runner.
+   *
+   * @param speed The new speed
+   */
+  private void setSpeed(SimulationSpeed speed) {
+    if (speed == null || speed == SimulationSpeed.OFF) {
+      stopCompression();
+      return;
+    }
+    if (compressionRunner != null) {
+      compressionRunner.setSpeed(speed);
+      return;
+    }
+    if (!snapshot.isAlive()) {
+      view.getSpeedBox().setSelectedItem(SimulationSpeed.OFF);
+      return;
+    }
+
+    // Only one mode may drive the pet at a time. The model stage creates the runner after
+    // finishing the commands published before, and every later command sees it and does
+    // nothing.
+    setRealTime(false);
+    TimeCompressionRunner runner = callModel(() -> {
+      compressionRunner = new TimeCompressionRunner(pet, speed);
+      return compressionRunner;
+    });
+    if (runner == null) {
+      return;
+    }
+    statsStartTime = AnimationClock.now();
+    statsStartTick = runner.getSnapshot().getTick();
+    runner.start();
+    AnimationClock.getInstance().start(compressionFrame);
+    renderSnapshot(snapshot);
+  }
+
+  /**
+   * Returns whether the time compression runner currently owns the pet.
+   *
+   * @return true while time is being compressed
+   */
+  private boolean isCompressing() {
+    return compressionRunner != null;
+  }
+
+  /**
+   * Pulls the latest compressed state into the view, at most once per animation frame.
+   *
+   * @param now The frame time in milliseconds
+   * @return true while the runner is active
+   */
+  private boolean pumpCompression(long now) {
+    if (compressionRunner == null) {
+      return false;
+    }
+
+    PetSnapshot latest = compressionRunner.getSnapshot();
+    if (latest != snapshot) {
+      if (states.hasSubscribers()) {
+        states.publish(new PetStateChange(snapshot, latest));
+      }
+      snapshot = latest;
+      ActivityEvent summary = compressionRunner.takeSummary();
+      if (summary != null) {
+        recordEvent(summary);
+      }
+      renderSnapshot(latest);
+      updateSpeedStats(now, latest.getTick());
+    }
+
+    if (!compressionRunner.isRunning()) {
+      // The pet died; hand it back to the model thread, which reports the death
+      stopCompression();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Updates the achieved tick rate shown in the view about once per second.
+   *
+   * @param now  The current time in milliseconds
+   * @param tick The latest pet tick
+   */
+  private void updateSpeedStats(long now, long tick) {
+    long elapsed = now - statsStartTime;
+    if (elapsed >= 1000) {
+      long ticksPerSecond = (tick - statsStartTick) * 1000 / elapsed;
+      view.showSpeedStats(String.format("%,d ticks/s", ticksPerSecond));
+      statsStartTime = now;
+      statsStartTick = tick;
+    }
+  }
+
+  /**
+   * Stops the time compression runner and gives the pet back to the model thread.
+   */
+  private void stopCompression() {
+    if (compressionRunner == null) {
+      return;
+    }
+    TimeCompressionRunner runner = compressionRunner;
+    runner.stop();
+    compressionRunner = null;
+    AnimationClock.getInstance().stop(compressionFrame);
+
+    ActivityEvent summary = runner.takeSummary();
+    if (summary != null) {
+      recordEvent(summary);
+    }
+    view.getSpeedBox().setSelectedItem(SimulationSpeed.OFF);
+    view.showSpeedStats("");
+    onModel(this::checkPetStatus);
+  }
+
+  /**
+   * Checks the pet's status and reports a death. Runs on the model thread.
    */
   private void checkPetStatus() {
     // Check if the pet died
     if (!pet.isAlive()) {
-      view.displayMessage(pet.getName() + " has passed away due to neglect");
-      view.displayGameOver();
+      logEvent(ActivityType.DEATH, ActivityEvent.NO_DETAIL, pet.getMood());
+    }
+  }
+
+  /**
+   * Records an activity event for the pet. Runs on the model stage; the journal stage
+   * appends the event to the history and the view shows it with the next repaint.
+   *
+   * @param type       The event type
+   * @param detail     The action or outcome ordinal, or {@link ActivityEvent#NO_DETAIL}
+   * @param moodBefore The pet's mood before the event
+   */
+  private void logEvent(ActivityType type, int detail, MoodEnum moodBefore) {
+    ActivityEvent event = new ActivityEvent(pet.getTick(), pet.getId(), type, detail,
+        moodBefore, pet.getMood());
+    if (pipeline != null) {
+      pipeline.emit(event);
+    } else {
+      appendHistory(event);
+    }
+  }
+
+  /**
+   * Records an event made outside the model stage, such as a time compression summary,
+   * after the commands published so far. Must be called on the event dispatch thread.
+   *
+   * @param event The event to record
+   */
+  private void recordEvent(ActivityEvent event) {
+    onModel(() -> pipeline.emit(event));
+  }
+
+  /**
+   * Appends an event to the persistent history, if one is recorded. Used only without a
+   * view, where there is no journal stage.
+   *
+   * @param event The event to append
+   */
+  private void appendHistory(ActivityEvent event) {
+    ActivityHistory target = history;
+    if (target != null) {
+      try {
+        target.append(event);
+      } catch (IOException e) {
+        System.err.println("Failed to record activity history: " + e.getMessage());
+        history = null;
+      }
+    }
+  }
+
+  /**
+   * Publishes the pet's state. Runs on the model stage at the end of each batch, before
+   * the view stage sees the batch.
+   */
+  private void publish() {
+    if (isCompressing()) {
+      // A late batch, such as ticks requested before the simulation loop stopped, must not
+      // read the pet while the runner changes it, nor replace the runner's snapshot
+      return;
+    }
+    PetSnapshot previous = snapshot;
+    snapshot = PetSnapshot.of(pet);
+    if (tracedCommandApplied) {
+      // Written after the snapshot, so a render that sees it also sees the result
+      tracedCommandApplied = false;
+      tracedCommandPublished = true;
+    }
+    if (states.hasSubscribers()) {
+      states.publish(new PetStateChange(previous, snapshot));
+    }
+  }
+
+  /**
+   * Hands a batch's events to the view and schedules a repaint unless one is already
+   * waiting. Runs on the view stage.
+   *
+   * @param events The events of the batch
+   */
+  private void onBatch(List<ActivityEvent> events) {
+    pendingEvents.addAll(events);
+    if (renderScheduled.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(this::render);
+    }
+  }
+
+  /**
+   * Shows the events recorded since the last repaint and renders the latest snapshot,
+   * skipping any snapshots published in between.
+   */
+  private void render() {
+    // Cleared first, so a snapshot published from here on schedules another repaint
+    renderScheduled.set(false);
+    // Earlier repaints may still show the state from before the traced command
+    boolean tracedResult = tracedCommandPublished;
+    if (tracedResult) {
+      tracedCommandPublished = false;
+      LatencyTracer.end(LatencyTracer.Stage.MODEL, modelTraceStart);
+      modelTraceStart = 0;
+    }
+
+    ActivityEvent event;
+    while ((event = pendingEvents.poll()) != null) {
+      showEvent(event);
+    }
+
+    long start = tracedResult ? LatencyTracer.start() : 0;
+    renderSnapshot(snapshot);
+    LatencyTracer.end(LatencyTracer.Stage.UPDATE_VIEW, start);
+    if (tracedResult) {
+      LatencyTracer.resultRendered();
+    }
+  }
+
+  /**
+   * Shows one event from the model thread in the view.
+   *
+   * @param event The event to show
+   */
+  private void showEvent(ActivityEvent event) {
+    view.logActivity(event);
+    switch (event.getType()) {
+      case ACTION:
+        view.showActionImage(event.getAction());
+        break;
+      case WOKE_UP:
+        view.clearActionImage();
+        break;
+      case DEATH:
+        setRealTime(false);
+        view.displayGameOver();
+        break;
+      default:
+        break;
     }
   }
 
   /**
    * Checks pet conditions and shows appropriate speech bubbles.
+   *
+   * @param health The health to check
    */
-  private void updateSpeechBubble() {
-    if (pet == null || view == null) {
+  private void updateSpeechBubble(HealthStatus health) {
+    if (view == null) {
       return;
     }
 
-    // Check for various conditions
-    if (pet.getHealth().getHunger() > 70) {
-      view.showSpeechBubble("I'm starving!");
-    } else if (pet.getHealth().getHygiene() < 30) {
-      view.showSpeechBubble("I need a bath!");
-    } else if (pet.getHealth().getSocial() < 30) {
-      view.showSpeechBubble("I'm feeling lonely...");
-    } else if (pet.getHealth().getSleep() < 30) {
-      view.showSpeechBubble("*yawn* I'm tired...");
+    // Check for various conditions, most urgent first
+    if (health.getHunger() > 70) {
+      view.showSpeechBubble("I'm starving!", SpeechPriority.URGENT);
+    } else if (health.getHygiene() < 30) {
+      view.showSpeechBubble("I need a bath!", SpeechPriority.HIGH);
+    } else if (health.getSocial() < 30) {
+      view.showSpeechBubble("I'm feeling lonely...", SpeechPriority.NORMAL);
+    } else if (health.getSleep() < 30) {
+      view.showSpeechBubble("*yawn* I'm tired...", SpeechPriority.LOW);
     }
   }
 
   /**
-   * Updates all view elements to reflect the current model state.
+   * Updates all view elements from a snapshot of the pet.
+   *
+   * @param state The pet state to show
    */
-  private void updateView() {
+  private void renderSnapshot(PetSnapshot state) {
     // Update health display
-    HealthStatus health = pet.getHealth();
+    HealthStatus health = state.getHealth();
     view.updateHealth(String.format("Hunger: %d, Hygiene: %d, Social: %d, Sleep: %d",
         health.getHunger(), health.getHygiene(), health.getSocial(), health.getSleep()));
 
     // Update mood display
-    view.updateMood(pet.getMood().name());
+    view.updateMood(state.getMood().name());
 
     // Update image
-    view.updateImage(pet.getMood().name());
+    view.updateImage(state.getMood().name());
 
-    // Update button states based on pet state
-    boolean canInteract = pet.isAlive() && (!pet.isAsleep()); // Allow wake action when asleep
-    view.updateButtonStates(canInteract, canInteract, canInteract,
-        true, true);
+    // Update button states based on pet state; nothing can be done while time is compressed
+    boolean idle = !isCompressing();
+    boolean canInteract = idle && state.isAlive() && (!state.isAsleep());
+    view.updateButtonStates(canInteract, canInteract, canInteract, idle, idle);
 
     // Check and update speech bubble
-    updateSpeechBubble();
+    updateSpeechBubble(health);
   }
 
   /**
@@ -217,8 +793,43 @@ public class PetController {
    * @param mood The mood to set
    */
   public void setMood(MoodEnum mood) {
-    pet.setMood(mood);
-    updateView();
+    onModel(() -> {
+      if (!isCompressing()) {
+        pet.setMood(mood);
+      }
+    });
+  }
+
+  /**
+   * Sets the persistent history that activity events are appended to.
+   *
+   * @param history The activity history, or null to disable recording
+   */
+  public void setHistory(ActivityHistory history) {
+    this.history = history;
+    this.historyStart = (history != null) ? history.size() : 0;
+    if (pipeline != null) {
+      pipeline.setJournal(history);
+    }
+  }
+
+  /**
+   * Gets the sequence number of the first history event belonging to the current pet.
+   * Earlier events were recorded by previous sessions.
+   *
+   * @return The first sequence number of this pet's events
+   */
+  public long getHistoryStart() {
+    return historyStart;
+  }
+
+  /**
+   * Gets the persistent activity history.
+   *
+   * @return The activity history, or null if none is recorded
+   */
+  public ActivityHistory getHistory() {
+    return (pipeline != null) ? pipeline.getJournal() : history;
   }
 
   /**
@@ -227,7 +838,7 @@ public class PetController {
    * @return The pet's name
    */
   public String getPetName() {
-    return pet.getName();
+    return snapshot.getName();
   }
 
   /**
@@ -236,7 +847,17 @@ public class PetController {
    * @return The health status object
    */
   public HealthStatus getPetHealth() {
-    return pet.getHealth();
+    return snapshot.getHealth();
+  }
+
+  /**
+   * Gets the pet's per-tick health history.
+   * Safe to read from the event dispatch thread while the model runs elsewhere.
+   *
+   * @return The health history
+   */
+  public HealthHistory getPetHealthHistory() {
+    return healthHistory;
   }
 
   /**
@@ -245,7 +866,7 @@ public class PetController {
    * @return The pet's mood
    */
   public MoodEnum getPetMood() {
-    return pet.getMood();
+    return snapshot.getMood();
   }
 
   /**
@@ -254,7 +875,7 @@ public class PetController {
    * @return True if the pet is alive, false otherwise
    */
   public boolean isPetAlive() {
-    return pet.isAlive();
+    return snapshot.isAlive();
   }
 
   /**
@@ -263,6 +884,6 @@ public class PetController {
    * @return True if the pet is asleep, false otherwise
    */
   public boolean isPetAsleep() {
-    return pet.isAsleep();
+    return snapshot.isAsleep();
   }
 }
\ No newline at end of file
@@ -0,0 +1,352 @@
+package controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+import pet.model.mystery.MysteryBox;
+import pet.model.mystery.MysteryBoxSystem;
+
+/**
+ * Embedded HTTP server that lets other processes create and care for pets without Swing.
+ * Pets live on a {@link ShardedPetExecutor}; requests are served by a pool of threads and
+ * answered with JSON written into a per-thread reusable buffer.
+ *
+ * <p>Routes, all answering with the pet's state unless noted:
+ * <pre>
+ *   POST /pets?name=Rex               create a pet
+ *   GET  /pets/{id}                   get a pet's state
+ *   POST /pets/{id}/act?action=FEED   perform an action
+ *   POST /pets/{id}/step?steps=3      advance time
+ *   POST /pets/{id}/box               open a random mystery box; answers with the outcome,
+ *                                     or 409 if the pet is asleep or dead
+ *   POST /pets/act?action=FEED        perform an action on every pet id listed in the body
+ *   POST /pets/step?steps=3           advance every pet id listed in the body
+ * </pre>
+ * Bulk bodies are pet ids separated by commas or whitespace; bulk responses hold the states
+ * in the same order. The server only listens on the loopback address.
+ */
+public class PetHttpServer {
+  private static final long REPLY_TIMEOUT_SECONDS = 10;
+  private static final int MAX_STEPS = 100_000;
+
+  private final ShardedPetExecutor pets;
+  private final MysteryBoxSystem boxes = new MysteryBoxSystem();
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final ThreadLocal<JsonBuffer> buffers = ThreadLocal.withInitial(JsonBuffer::new);
+
+  /**
+   * A request that cannot be served, and the status to answer it with.
+   */
+  private static final class RequestException extends Exception {
+    private final int status;
+
+    RequestException(int status, String message) {
+      super(message, null, false, false);
+      this.status = status;
+    }
+  }
+
+  /**
+   * The outcome of opening a box and the pet's state afterwards.
+   */
+  private static final class BoxResult {
+    // Null if the pet was asleep or dead and the box stayed shut
+    private final String outcome;
+    private final PetSnapshot snapshot;
+
+    BoxResult(String outcome, PetSnapshot snapshot) {
+      this.outcome = outcome;
+      this.snapshot = snapshot;
+    }
+  }
+
+  /**
+   * Creates a server bound to a loopback port. Call {@link #start()} to begin serving.
+   *
+   * @param port    The port, or 0 for any free port
+   * @param threads The number of request threads
+   * @param shards  The number of pet shards, or 0 for one per processor
+   * @throws IOException if the port cannot be bound
+   */
+  public PetHttpServer(int port, int threads, int shards) throws IOException {
+    // Responses go out as separate header and body writes; without TCP_NODELAY each one
+    // waits out the client's delayed acknowledgement. Read once, when the first server starts
+    System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+    this.pets = new ShardedPetExecutor(shards);
+    this.server = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "pet-http-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(executor);
+    server.createContext("/pets", this::handle);
+  }
+
+  /**
+   * Starts serving requests.
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Stops serving, waiting up to a second for requests in flight, and stops the pets.
+   */
+  public void stop() {
+    server.stop(1);
+    executor.shutdown();
+    pets.close();
+  }
+
+  /**
+   * Gets the port the server is bound to.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    JsonBuffer json = buffers.get().reset();
+    int status = 200;
+    try {
+      byte[] body;
+      try (InputStream in = exchange.getRequestBody()) {
+        // Read the whole body even when unused, so the connection can be kept alive
+        body = in.readAllBytes();
+      }
+      route(exchange, body, json);
+    } catch (RequestException e) {
+      status = e.status;
+      json.reset().beginObject().field("error", e.getMessage()).endObject();
+    } catch (RuntimeException e) {
+      status = 500;
+      json.reset().beginObject().field("error", String.valueOf(e)).endObject();
+    }
+
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, json.length());
+    try (OutputStream out = exchange.getResponseBody()) {
+      json.writeTo(out);
+    }
+  }
+
+  private void route(HttpExchange exchange, byte[] body, JsonBuffer json)
+      throws RequestException {
+    String method = exchange.getRequestMethod();
+    String path = exchange.getRequestURI().getPath();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (path.length() > 5 && path.charAt(5) != '/') {
+      throw new RequestException(404, "Unknown route " + path);
+    }
+    // Segments after "/pets": none, "{id}", "{id}/verb" or a bulk "verb"
+    String rest = (path.length() > 5) ? path.substring(6) : "";
+    int slash = rest.indexOf('/');
+    String first = (slash < 0) ? rest : rest.substring(0, slash);
+    String verb = (slash < 0) ? "" : rest.substring(slash + 1);
+
+    if (first.isEmpty()) {
+      requireMethod(method, "POST");
+      String name = parameter(query, "name");
+      Pet pet = new Pet((name == null || name.isEmpty()) ? "Buddy" : name);
+      pets.add(pet);
+      json.pet(PetSnapshot.of(pet));
+    } else if (first.equals("act") || first.equals("step")) {
+      requireMethod(method, "POST");
+      bulk(first, query, body, json);
+    } else {
+      int id = parseInt(first, "pet id");
+      PetSnapshot current = pets.getSnapshot(id);
+      if (current == null) {
+        throw new RequestException(404, "No pet with id " + id);
+      }
+      switch (verb) {
+        case "":
+          requireMethod(method, "GET");
+          json.pet(current);
+          break;
+        case "act":
+          requireMethod(method, "POST");
+          json.pet(await(act(id, parseAction(query))));
+          break;
+        case "step":
+          requireMethod(method, "POST");
+          json.pet(await(step(id, parseSteps(query))));
+          break;
+        case "box":
+          requireMethod(method, "POST");
+          MysteryBox box = boxes.generateRandomBox();
+          // Checked on the shard thread, where the pet cannot change in between
+          BoxResult result = await(pets.ask(id, pet -> new BoxResult(
+              (pet.isAlive() && !pet.isAsleep()) ? box.open(pet) : null, PetSnapshot.of(pet))));
+          if (result.outcome == null) {
+            throw new RequestException(409, "Pet " + id
+                + (result.snapshot.isAlive() ? " is asleep" : " is dead"));
+          }
+          json.beginObject().field("box", box.getName()).field("outcome", result.outcome)
+              .name("pet").pet(result.snapshot).endObject();
+          break;
+        default:
+          throw new RequestException(404, "Unknown route " + path);
+      }
+    }
+  }
+
+  /**
+   * Applies one action or step count to every listed pet. All commands are queued before
+   * any reply is awaited, so the shards work on them in parallel.
+   */
+  private void bulk(String verb, String query, byte[] body, JsonBuffer json)
+      throws RequestException {
+    Action action = verb.equals("act") ? parseAction(query) : null;
+    int steps = verb.equals("step") ? parseSteps(query) : 0;
+
+    int count = 0;
+    int[] ids = new int[16];
+    int value = -1;
+    for (int i = 0; i <= body.length; i++) {
+      int c = (i < body.length) ? body[i] : ',';
+      if (c >= '0' && c <= '9') {
+        value = ((value < 0) ? 0 : value * 10) + (c - '0');
+        if (value > 100_000_000) {
+          throw new RequestException(400, "Pet id out of range");
+        }
+      } else if (c == ',' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+        if (value >= 0) {
+          if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+          }
+          ids[count++] = value;
+          value = -1;
+        }
+      } else {
+        throw new RequestException(400, "Body must be pet ids separated by commas");
+      }
+    }
+
+    List<CompletableFuture<PetSnapshot>> replies = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      if (pets.getSnapshot(ids[i]) == null) {
+        throw new RequestException(404, "No pet with id " + ids[i]);
+      }
+    }
+    for (int i = 0; i < count; i++) {
+      replies.add((action != null) ? act(ids[i], action) : step(ids[i], steps));
+    }
+    json.beginObject().beginArray("pets");
+    for (CompletableFuture<PetSnapshot> reply : replies) {
+      json.pet(await(reply));
+    }
+    json.endArray().endObject();
+  }
+
+  private CompletableFuture<PetSnapshot> act(int id, Action action) {
+    return pets.ask(id, pet -> {
+      pet.interactWith(action);
+      return PetSnapshot.of(pet);
+    });
+  }
+
+  private CompletableFuture<PetSnapshot> step(int id, int steps) {
+    return pets.ask(id, pet -> {
+      for (int i = 0; i < steps; i++) {
+        pet.step();
+      }
+      return PetSnapshot.of(pet);
+    });
+  }
+
+  private static <T> T await(CompletableFuture<T> reply) throws RequestException {
+    try {
+      return reply.get(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RequestException(503, "Interrupted");
+    } catch (ExecutionException e) {
+      throw new RequestException(500, String.valueOf(e.getCause()));
+    } catch (TimeoutException e) {
+      throw new RequestException(503, "Pet did not answer in time");
+    }
+  }
+
+  private static void requireMethod(String method, String expected) throws RequestException {
+    if (!method.equals(expected)) {
+      throw new RequestException(405, "Use " + expected);
+    }
+  }
+
+  private static Action parseAction(String query) throws RequestException {
+    String name = parameter(query, "action");
+    if (name != null) {
+      for (Action action : Action.values()) {
+        if (action.name().equalsIgnoreCase(name)) {
+          return action;
+        }
+      }
+    }
+    throw new RequestException(400, "action must be one of FEED, PLAY, CLEAN, SLEEP");
+  }
+
+  private static int parseSteps(String query) throws RequestException {
+    String value = parameter(query, "steps");
+    int steps = (value == null) ? 1 : parseInt(value, "steps");
+    if (steps < 1 || steps > MAX_STEPS) {
+      throw new RequestException(400, "steps must be between 1 and " + MAX_STEPS);
+    }
+    return steps;
+  }
+
+  private static int parseInt(String value, String what) throws RequestException {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new RequestException(400, "Invalid " + what + ": " + value);
+    }
+  }
+
+  /**
+   * Finds a parameter in a raw query string and decodes it.
+   */
+  private static String parameter(String query, String name) throws RequestException {
+    if (query == null) {
+      return null;
+    }
+    for (String pair : query.split("&")) {
+      int equals = pair.indexOf('=');
+      String key = (equals < 0) ? pair : pair.substring(0, equals);
+      if (key.equals(name)) {
+        String value = (equals < 0) ? "" : pair.substring(equals + 1);
+        try {
+          return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+          throw new RequestException(400, "Malformed escape in " + name);
+        }
+      }
+    }
+    return null;
+  }
+}
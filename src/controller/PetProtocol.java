@@ -0,0 +1,251 @@
+package controller;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import pet.enums.HealthStat;
+import pet.enums.MoodEnum;
+import pet.model.HealthStatus;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+
+/**
+ * Frame layout of the binary pet protocol served by {@link PetProtocolServer}.
+ * Every request and every response has a fixed size, so a client may pipeline any number of
+ * requests and read the responses back in the same order. All values are big-endian.
+ *
+ * <p>Request, {@value #REQUEST_SIZE} bytes:
+ * <pre>
+ *   0     opcode
+ *   1     argument: action ordinal for ACT, step count for STEP,
+ *         {@link #CREATE_WITH_ID} for a CREATE that uses the given pet id, otherwise 0
+ *   2-3   tag, echoed back in the response
+ *   4-7   pet id, ignored by a plain CREATE
+ * </pre>
+ *
+ * <p>Response, {@value #RESPONSE_SIZE} bytes:
+ * <pre>
+ *   0     status
+ *   1     flags: mood ordinal in bits 0-1, alive in bit 2, asleep in bit 3
+ *   2-3   tag of the request
+ *   4-7   value: the new pet id for CREATE, box type and outcome for BOX, else the tick
+ *   8-11  hunger, hygiene, social and sleep
+ * </pre>
+ *
+ * <p>EXPORT and IMPORT move a pet between servers. An IMPORT request and a successful
+ * EXPORT response are followed by the pet's full state, {@value #STATE_SIZE} bytes:
+ * <pre>
+ *   0-7   tick
+ *   8-11  hunger, hygiene, social and sleep
+ *   12    mood ordinal
+ *   13    alive in bit 0, asleep in bit 1, fed while sad in bit 2, played while sad in bit 3
+ *   14-15 steps since the last interaction, saturating
+ *   16    name length, then up to {@value #MAX_NAME_BYTES} bytes of UTF-8 name
+ * </pre>
+ * Only these two frames vary in size, and only by that fixed amount.
+ *
+ * <p>A BOX for a pet that is asleep or dead opens nothing and answers {@link #STATUS_BLOCKED}
+ * with the pet's flags, health and tick, the same as a GET.
+ */
+public final class PetProtocol {
+  public static final int REQUEST_SIZE = 8;
+  public static final int RESPONSE_SIZE = 12;
+  public static final int STATE_SIZE = 48;
+  public static final int MAX_NAME_BYTES = STATE_SIZE - 17;
+
+  public static final byte OP_CREATE = 1;
+  public static final byte OP_ACT = 2;
+  public static final byte OP_STEP = 3;
+  public static final byte OP_BOX = 4;
+  public static final byte OP_GET = 5;
+  public static final byte OP_EXPORT = 6;
+  public static final byte OP_IMPORT = 7;
+
+  public static final int CREATE_WITH_ID = 1;
+
+  public static final byte STATUS_OK = 0;
+  public static final byte STATUS_NO_PET = 1;
+  public static final byte STATUS_BAD_REQUEST = 2;
+  public static final byte STATUS_BLOCKED = 3;
+
+  private static final MoodEnum[] MOODS = MoodEnum.values();
+  private static final int MAX_LEVEL = 100;
+
+  private PetProtocol() {
+  }
+
+  /**
+   * Appends a request to a buffer.
+   *
+   * @param buffer   the buffer to write at its position
+   * @param opcode   the opcode
+   * @param argument the argument, 0 to 255
+   * @param tag      the tag, 0 to 65535
+   * @param petId    the pet id
+   */
+  public static void putRequest(ByteBuffer buffer, byte opcode, int argument, int tag,
+                                int petId) {
+    buffer.put(opcode).put((byte) argument).putShort((short) tag).putInt(petId);
+  }
+
+  /**
+   * Gets the status of the response starting at an index.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the response
+   * @return the status
+   */
+  public static int status(ByteBuffer buffer, int index) {
+    return buffer.get(index);
+  }
+
+  /**
+   * Gets the tag of the response starting at an index.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the response
+   * @return the tag
+   */
+  public static int tag(ByteBuffer buffer, int index) {
+    return buffer.getShort(index + 2) & 0xFFFF;
+  }
+
+  /**
+   * Gets the value of the response starting at an index.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the response
+   * @return the value
+   */
+  public static int value(ByteBuffer buffer, int index) {
+    return buffer.getInt(index + 4);
+  }
+
+  /**
+   * Gets the mood in the response starting at an index.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the response
+   * @return the mood
+   */
+  public static MoodEnum mood(ByteBuffer buffer, int index) {
+    return MOODS[buffer.get(index + 1) & 0x3];
+  }
+
+  /**
+   * Gets whether the pet in the response starting at an index is alive.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the response
+   * @return true if the pet is alive
+   */
+  public static boolean alive(ByteBuffer buffer, int index) {
+    return (buffer.get(index + 1) & 0x4) != 0;
+  }
+
+  /**
+   * Gets whether the pet in the response starting at an index is asleep.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the response
+   * @return true if the pet is asleep
+   */
+  public static boolean asleep(ByteBuffer buffer, int index) {
+    return (buffer.get(index + 1) & 0x8) != 0;
+  }
+
+  /**
+   * Gets one health level in the response starting at an index.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the response
+   * @param stat   the health stat
+   * @return the level
+   */
+  public static int level(ByteBuffer buffer, int index, HealthStat stat) {
+    return buffer.get(index + 8 + stat.ordinal());
+  }
+
+  /**
+   * Gets the number of request bytes a frame needs, given its opcode.
+   *
+   * @param opcode the opcode
+   * @return the frame size
+   */
+  public static int requestSize(byte opcode) {
+    return (opcode == OP_IMPORT) ? REQUEST_SIZE + STATE_SIZE : REQUEST_SIZE;
+  }
+
+  /**
+   * Writes a pet's full state, as carried by EXPORT and IMPORT.
+   * Names longer than {@value #MAX_NAME_BYTES} bytes of UTF-8 are cut short.
+   *
+   * @param buffer the buffer to write at its position
+   * @param pet    the pet
+   */
+  public static void putState(ByteBuffer buffer, Pet pet) {
+    HealthStatus health = pet.getHealth();
+    int flags = (pet.isAlive() ? 0x1 : 0) | (pet.isAsleep() ? 0x2 : 0)
+        | (pet.isFedWhileSadAndHungry() ? 0x4 : 0) | (pet.isPlayedWhileSadAndLonely() ? 0x8 : 0);
+    buffer.putLong(pet.getTick())
+        .put((byte) health.getHunger()).put((byte) health.getHygiene())
+        .put((byte) health.getSocial()).put((byte) health.getSleep())
+        .put((byte) pet.getMood().ordinal()).put((byte) flags)
+        .putShort((short) Math.min(0xFFFF, pet.getStepsSinceInteract()));
+
+    String name = (pet.getName() != null) ? pet.getName() : "";
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    while (bytes.length > MAX_NAME_BYTES) {
+      // Drop whole characters so the name stays valid UTF-8
+      name = name.substring(0, name.offsetByCodePoints(name.length(), -1));
+      bytes = name.getBytes(StandardCharsets.UTF_8);
+    }
+    buffer.put((byte) bytes.length).put(bytes);
+    buffer.position(buffer.position() + MAX_NAME_BYTES - bytes.length);
+  }
+
+  /**
+   * Checks that the full state starting at an index can be restored.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the state
+   * @return true if the state names a known mood and every health level is 0 to 100
+   */
+  public static boolean isValidState(ByteBuffer buffer, int index) {
+    for (int i = 8; i < 12; i++) {
+      int level = buffer.get(index + i);
+      if (level < 0 || level > MAX_LEVEL) {
+        return false;
+      }
+    }
+    int mood = buffer.get(index + 12) & 0xFF;
+    return mood < MOODS.length;
+  }
+
+  /**
+   * Recreates a pet from the full state starting at an index.
+   *
+   * @param buffer the buffer
+   * @param index  the start of the state
+   * @param petId  the pet's id
+   * @return the restored pet
+   * @throws IllegalArgumentException if the state fails {@link #isValidState}
+   */
+  public static Pet getState(ByteBuffer buffer, int index, int petId) {
+    if (!isValidState(buffer, index)) {
+      throw new IllegalArgumentException("Invalid pet state for pet " + petId);
+    }
+    long tick = buffer.getLong(index);
+    HealthStatus health = new HealthStatus(buffer.get(index + 8), buffer.get(index + 9),
+        buffer.get(index + 10), buffer.get(index + 11));
+    MoodEnum mood = MOODS[buffer.get(index + 12)];
+    int flags = buffer.get(index + 13);
+    int steps = buffer.getShort(index + 14) & 0xFFFF;
+    byte[] name = new byte[Math.min(MAX_NAME_BYTES, buffer.get(index + 16) & 0xFF)];
+    for (int i = 0; i < name.length; i++) {
+      name[i] = buffer.get(index + 17 + i);
+    }
+    PetSnapshot snapshot = new PetSnapshot(petId, new String(name, StandardCharsets.UTF_8),
+        tick, health, mood, (flags & 0x1) != 0, (flags & 0x2) != 0);
+    return Pet.restore(snapshot, steps, (flags & 0x4) != 0, (flags & 0x8) != 0);
+  }
+}
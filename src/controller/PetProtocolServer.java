@@ -0,0 +1,399 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import pet.enums.Action;
+import pet.model.HealthStatus;
+import pet.model.Pet;
+import pet.model.mystery.MysteryBox;
+import pet.model.mystery.MysteryBoxSystem;
+
+/**
+ * Serves the binary {@link PetProtocol} from a single selector thread.
+ * The event loop owns every pet it creates, so commands are applied as soon as they are
+ * decoded, with no queue or lock between the socket and the pet. Requests are decoded in
+ * place from a pooled direct buffer that the socket reads into, and responses are encoded
+ * into a second pooled direct buffer that is written straight back to the socket.
+ *
+ * <p>A connection stops being read while its responses cannot be written, so a client that
+ * pipelines faster than it reads is slowed down instead of growing server memory.
+ *
+ * <p>Several servers can form a cluster behind a {@link PetClusterRouter}, which assigns pet
+ * ids itself and moves pets between servers with EXPORT and IMPORT.
+ */
+public class PetProtocolServer implements Runnable, Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_POOLED_BUFFERS = 256;
+  private static final Action[] ACTIONS = Action.values();
+
+  private final ServerSocketChannel serverChannel;
+  private final Selector selector;
+  private final DirectBufferPool buffers = new DirectBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+  private final MysteryBoxSystem boxes = new MysteryBoxSystem();
+  private volatile boolean running;
+  private volatile long commands;
+  private volatile int petCount;
+  private Thread thread;
+
+  // Owned by the event loop. Keyed rather than indexed, since ids come from clients
+  private final Map<Integer, Pet> pets = new HashMap<>();
+
+  /**
+   * The buffers of one client connection.
+   */
+  private static final class Connection {
+    private final SocketChannel channel;
+    private final ByteBuffer in;
+    // Kept in write mode: responses are appended at its position
+    private final ByteBuffer out;
+
+    Connection(SocketChannel channel, ByteBuffer in, ByteBuffer out) {
+      this.channel = channel;
+      this.in = in;
+      this.out = out;
+    }
+  }
+
+  /**
+   * Creates a server bound to a loopback port. Call {@link #start()} to begin serving.
+   *
+   * @param port The port, or 0 for any free port
+   * @throws IOException if the port cannot be bound
+   */
+  public PetProtocolServer(int port) throws IOException {
+    selector = Selector.open();
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    serverChannel.configureBlocking(false);
+    serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+  }
+
+  /**
+   * Starts the event loop on its own daemon thread.
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this, "pet-protocol");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Gets the port the server is bound to.
+   *
+   * @return the port
+   * @throws IOException if the server socket is closed
+   */
+  public int getPort() throws IOException {
+    return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+  }
+
+  /**
+   * Gets the number of commands applied so far.
+   *
+   * @return the command count
+   */
+  public long getCommandCount() {
+    return commands;
+  }
+
+  /**
+   * Gets the number of pets the server holds.
+   *
+   * @return the pet count
+   */
+  public int getPetCount() {
+    return petCount;
+  }
+
+  /**
+   * Stops the event loop and closes every connection.
+   */
+  @Override
+  public void close() {
+    running = false;
+    selector.wakeup();
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (running) {
+        selector.select();
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          try {
+            if (!key.isValid()) {
+              continue;
+            }
+            if (key.isAcceptable()) {
+              accept();
+            } else {
+              Connection connection = (Connection) key.attachment();
+              if (key.isWritable()) {
+                onWritable(key, connection);
+              }
+              if (key.isValid() && key.isReadable()) {
+                onReadable(key, connection);
+              }
+            }
+          } catch (IOException | RuntimeException e) {
+            // A broken socket or a frame the loop cannot handle costs only its connection
+            disconnect(key);
+          }
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Pet protocol server stopped: " + e.getMessage());
+    } finally {
+      for (SelectionKey key : selector.keys()) {
+        disconnect(key);
+      }
+      try {
+        selector.close();
+        serverChannel.close();
+      } catch (IOException e) {
+        System.err.println("Error closing pet protocol server: " + e.getMessage());
+      }
+    }
+  }
+
+  private void accept() throws IOException {
+    SocketChannel channel = serverChannel.accept();
+    if (channel == null) {
+      return;
+    }
+    channel.configureBlocking(false);
+    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    Connection connection = new Connection(channel, buffers.acquire(), buffers.acquire());
+    channel.register(selector, SelectionKey.OP_READ, connection);
+  }
+
+  private void onReadable(SelectionKey key, Connection connection) throws IOException {
+    if (connection.channel.read(connection.in) < 0) {
+      disconnect(key);
+      return;
+    }
+    serve(key, connection);
+  }
+
+  private void onWritable(SelectionKey key, Connection connection) throws IOException {
+    flush(key, connection);
+    // Requests left undecoded while the output was full can go now
+    if (connection.out.position() == 0) {
+      serve(key, connection);
+    }
+  }
+
+  /**
+   * Answers buffered requests until they run out or the socket stops taking responses.
+   */
+  private void serve(SelectionKey key, Connection connection) throws IOException {
+    int decoded;
+    do {
+      decoded = decode(connection);
+      flush(key, connection);
+    } while (decoded > 0 && connection.out.position() == 0
+        && connection.in.position() >= PetProtocol.REQUEST_SIZE);
+  }
+
+  /**
+   * Applies every complete request in the input buffer that there is room to answer.
+   * Requests are read where the socket put them; only a trailing partial frame is moved.
+   *
+   * @return the number of requests applied
+   */
+  private int decode(Connection connection) {
+    ByteBuffer in = connection.in;
+    ByteBuffer out = connection.out;
+    in.flip();
+    int index = in.position();
+    int decoded = 0;
+    while (in.limit() - index >= PetProtocol.REQUEST_SIZE) {
+      byte opcode = in.get(index);
+      int frame = PetProtocol.requestSize(opcode);
+      int reply = (opcode == PetProtocol.OP_EXPORT)
+          ? PetProtocol.RESPONSE_SIZE + PetProtocol.STATE_SIZE : PetProtocol.RESPONSE_SIZE;
+      if (in.limit() - index < frame || out.remaining() < reply) {
+        break;
+      }
+      int argument = in.get(index + 1) & 0xFF;
+      short tag = in.getShort(index + 2);
+      int petId = in.getInt(index + 4);
+      apply(opcode, argument, tag, petId, in, index + PetProtocol.REQUEST_SIZE, out);
+      index += frame;
+      decoded++;
+    }
+    in.position(index);
+    in.compact();
+    commands += decoded;
+    return decoded;
+  }
+
+  /**
+   * Writes pending responses. Reading pauses while any are left over and resumes once the
+   * output buffer is empty.
+   */
+  private void flush(SelectionKey key, Connection connection) throws IOException {
+    ByteBuffer out = connection.out;
+    if (out.position() > 0) {
+      out.flip();
+      connection.channel.write(out);
+      out.compact();
+    }
+    if (out.position() > 0) {
+      key.interestOps(SelectionKey.OP_WRITE);
+    } else {
+      key.interestOps(SelectionKey.OP_READ);
+    }
+  }
+
+  private void apply(byte opcode, int argument, short tag, int petId, ByteBuffer in,
+                     int body, ByteBuffer out) {
+    Pet pet;
+    int value;
+    switch (opcode) {
+      case PetProtocol.OP_CREATE:
+        if (argument == PetProtocol.CREATE_WITH_ID) {
+          if (petId < 0 || find(petId) != null) {
+            error(out, PetProtocol.STATUS_BAD_REQUEST, tag);
+            return;
+          }
+          pet = Pet.withId(petId);
+        } else {
+          // Explicit ids never advance the shared counter, so step past any they took
+          do {
+            pet = new Pet();
+          } while (pets.containsKey(pet.getId()));
+        }
+        register(pet);
+        value = pet.getId();
+        break;
+      case PetProtocol.OP_EXPORT:
+        pet = find(petId);
+        if (pet == null) {
+          error(out, PetProtocol.STATUS_NO_PET, tag);
+          return;
+        }
+        pets.remove(petId);
+        petCount = pets.size();
+        respond(out, PetProtocol.STATUS_OK, tag, (int) pet.getTick(), pet);
+        PetProtocol.putState(out, pet);
+        return;
+      case PetProtocol.OP_IMPORT:
+        if (petId < 0 || find(petId) != null) {
+          error(out, PetProtocol.STATUS_BAD_REQUEST, tag);
+          return;
+        }
+        if (!PetProtocol.isValidState(in, body)) {
+          error(out, PetProtocol.STATUS_BAD_REQUEST, tag);
+          return;
+        }
+        pet = PetProtocol.getState(in, body, petId);
+        register(pet);
+        value = (int) pet.getTick();
+        break;
+      case PetProtocol.OP_ACT:
+        pet = find(petId);
+        if (pet == null || argument >= ACTIONS.length) {
+          error(out, pet == null ? PetProtocol.STATUS_NO_PET : PetProtocol.STATUS_BAD_REQUEST,
+              tag);
+          return;
+        }
+        pet.interactWith(ACTIONS[argument]);
+        value = (int) pet.getTick();
+        break;
+      case PetProtocol.OP_STEP:
+        pet = find(petId);
+        if (pet == null) {
+          error(out, PetProtocol.STATUS_NO_PET, tag);
+          return;
+        }
+        for (int i = 0; i < Math.max(1, argument); i++) {
+          pet.step();
+        }
+        value = (int) pet.getTick();
+        break;
+      case PetProtocol.OP_BOX:
+        pet = find(petId);
+        if (pet == null) {
+          error(out, PetProtocol.STATUS_NO_PET, tag);
+          return;
+        }
+        if (!pet.isAlive() || pet.isAsleep()) {
+          // Like the GUI, the box stays shut; the flags tell the client why
+          respond(out, PetProtocol.STATUS_BLOCKED, tag, (int) pet.getTick(), pet);
+          return;
+        }
+        MysteryBox box = boxes.generateRandomBox();
+        value = (box.getType().ordinal() << 8) | box.openOutcome(pet);
+        break;
+      case PetProtocol.OP_GET:
+        pet = find(petId);
+        if (pet == null) {
+          error(out, PetProtocol.STATUS_NO_PET, tag);
+          return;
+        }
+        value = (int) pet.getTick();
+        break;
+      default:
+        error(out, PetProtocol.STATUS_BAD_REQUEST, tag);
+        return;
+    }
+
+    respond(out, PetProtocol.STATUS_OK, tag, value, pet);
+  }
+
+  private static void respond(ByteBuffer out, byte status, short tag, int value, Pet pet) {
+    HealthStatus health = pet.getHealth();
+    int flags = pet.getMood().ordinal() | (pet.isAlive() ? 0x4 : 0) | (pet.isAsleep() ? 0x8 : 0);
+    out.put(status).put((byte) flags).putShort(tag).putInt(value)
+        .put((byte) health.getHunger()).put((byte) health.getHygiene())
+        .put((byte) health.getSocial()).put((byte) health.getSleep());
+  }
+
+  private static void error(ByteBuffer out, byte status, short tag) {
+    out.put(status).put((byte) 0).putShort(tag).putInt(0).putInt(0);
+  }
+
+  private void register(Pet pet) {
+    pets.put(pet.getId(), pet);
+    petCount = pets.size();
+  }
+
+  private Pet find(int petId) {
+    return pets.get(petId);
+  }
+
+  private void disconnect(SelectionKey key) {
+    key.cancel();
+    Object attachment = key.attachment();
+    try {
+      key.channel().close();
+    } catch (IOException e) {
+      // Already gone
+    }
+    if (attachment instanceof Connection) {
+      Connection connection = (Connection) attachment;
+      buffers.release(connection.in);
+      buffers.release(connection.out);
+      key.attach(null);
+    }
+  }
+}
@@ -0,0 +1,319 @@
+package controller;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+import pet.model.PetStateChange;
+import pet.model.mystery.MysteryBox;
+
+/**
+ * Runs pets on a fixed set of shard threads without any locking on the pets themselves.
+ * Pets are partitioned by a hash of their id, and each shard's thread is the only one that
+ * ever touches its pets, so {@link Pet} and the mood strategies stay single-threaded.
+ * Commands reach a shard through a lock-free multi-producer queue; the shard applies them in
+ * batches and then publishes an immutable {@link PetSnapshot} of every pet it changed, which
+ * any thread may read without going through the queue. The same changes are published to
+ * subscribers of {@link #getStates()}.
+ *
+ * <p>Independent pets on different shards never share state, so throughput grows with the
+ * number of shards up to the number of cores.
+ */
+public class ShardedPetExecutor implements Closeable {
+  private static final int BATCH_SIZE = 256;
+  private static final int STREAM_CAPACITY = 4096;
+
+  private final Shard[] shards;
+  private final StateStream states =
+      new StateStream(STREAM_CAPACITY, StateStream.OverflowPolicy.CONFLATE);
+  private volatile boolean running = true;
+
+  /**
+   * A worker thread, the pets it owns and the queue that feeds it.
+   */
+  private final class Shard implements Runnable {
+    private final MpscQueue<Consumer<Shard>> queue = new MpscQueue<>();
+    private final Map<Integer, PetSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final LongAdder submitted = new LongAdder();
+    private final Thread thread;
+    private volatile boolean parked;
+    private volatile long processed;
+
+    // Owned by the shard thread
+    private final Map<Integer, Pet> pets = new HashMap<>();
+    // Each pet once per batch, however many commands touched it
+    private final LinkedHashSet<Pet> changed = new LinkedHashSet<>();
+
+    Shard(int index) {
+      thread = new Thread(this, "pet-shard-" + index);
+      thread.setDaemon(true);
+    }
+
+    void submit(Consumer<Shard> command) {
+      if (!running) {
+        throw new RejectedExecutionException("Sharded executor is closed");
+      }
+      submitted.increment();
+      queue.offer(command);
+      if (parked) {
+        LockSupport.unpark(thread);
+      }
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        int handled = 0;
+        Consumer<Shard> command;
+        while (handled < BATCH_SIZE && (command = queue.poll()) != null) {
+          try {
+            command.accept(this);
+          } catch (RuntimeException e) {
+            System.err.println(thread.getName() + " failed a command: " + e);
+          }
+          handled++;
+        }
+        if (handled > 0) {
+          publish();
+          processed += handled;
+        } else if (!queue.isEmpty()) {
+          // A producer is between claiming the tail and linking its node
+          Thread.onSpinWait();
+        } else {
+          parked = true;
+          // Recheck after announcing the park, so an offer racing with it is not missed
+          if (queue.isEmpty() && running) {
+            LockSupport.park(this);
+          }
+          parked = false;
+        }
+      }
+    }
+
+    Pet pet(int petId) {
+      Pet pet = pets.get(petId);
+      if (pet == null) {
+        throw new IllegalArgumentException("No pet with id " + petId);
+      }
+      changed.add(pet);
+      return pet;
+    }
+
+    void stepAll(int steps) {
+      for (Pet pet : pets.values()) {
+        for (int i = 0; i < steps; i++) {
+          pet.step();
+        }
+        changed.add(pet);
+      }
+    }
+
+    private void publish() {
+      boolean streaming = states.hasSubscribers();
+      for (Pet pet : changed) {
+        PetSnapshot current = PetSnapshot.of(pet);
+        PetSnapshot previous = snapshots.put(pet.getId(), current);
+        if (streaming) {
+          states.publish(new PetStateChange(previous, current));
+        }
+      }
+      changed.clear();
+    }
+  }
+
+  /**
+   * Creates a sharded executor and starts its threads.
+   *
+   * @param shardCount The number of shards, or 0 for one per processor
+   */
+  public ShardedPetExecutor(int shardCount) {
+    int count = (shardCount > 0) ? shardCount : Runtime.getRuntime().availableProcessors();
+    shards = new Shard[count];
+    for (int i = 0; i < count; i++) {
+      shards[i] = new Shard(i);
+    }
+    for (Shard shard : shards) {
+      shard.thread.start();
+    }
+  }
+
+  /**
+   * Hands a pet over to its shard. The pet must not be touched directly afterwards.
+   *
+   * @param pet the pet to add
+   */
+  public void add(Pet pet) {
+    Shard shard = shardFor(pet.getId());
+    // Taken while the caller still owns the pet, so it is readable at once
+    shard.snapshots.put(pet.getId(), PetSnapshot.of(pet));
+    shard.submit(owner -> owner.pets.put(pet.getId(), pet));
+  }
+
+  /**
+   * Queues an action for a pet.
+   *
+   * @param petId  the pet id
+   * @param action the action to perform
+   */
+  public void interact(int petId, Action action) {
+    shardFor(petId).submit(owner -> owner.pet(petId).interactWith(action));
+  }
+
+  /**
+   * Queues time steps for a pet.
+   *
+   * @param petId the pet id
+   * @param steps the number of steps
+   */
+  public void step(int petId, int steps) {
+    shardFor(petId).submit(owner -> {
+      Pet pet = owner.pet(petId);
+      for (int i = 0; i < steps; i++) {
+        pet.step();
+      }
+    });
+  }
+
+  /**
+   * Queues time steps for every pet, with one command per shard.
+   *
+   * @param steps the number of steps
+   */
+  public void stepAll(int steps) {
+    for (Shard shard : shards) {
+      shard.submit(owner -> owner.stepAll(steps));
+    }
+  }
+
+  /**
+   * Opens a mystery box for a pet. Like the GUI, a sleeping or dead pet cannot open one.
+   *
+   * @param petId the pet id
+   * @param box   the box to open
+   * @return a future with the description of the outcome, failed with an
+   *     {@link IllegalStateException} if the pet is asleep or dead
+   */
+  public CompletableFuture<String> openBox(int petId, MysteryBox box) {
+    return ask(petId, pet -> {
+      if (!pet.isAlive() || pet.isAsleep()) {
+        throw new IllegalStateException("Pet " + petId
+            + (pet.isAlive() ? " is asleep" : " is dead"));
+      }
+      return box.open(pet);
+    });
+  }
+
+  /**
+   * Runs a function on a pet on its shard thread and returns the result.
+   *
+   * @param petId    the pet id
+   * @param function the function to apply; must not keep a reference to the pet
+   * @param <T>      the result type
+   * @return a future with the result
+   */
+  public <T> CompletableFuture<T> ask(int petId, Function<Pet, T> function) {
+    CompletableFuture<T> reply = new CompletableFuture<>();
+    shardFor(petId).submit(owner -> {
+      try {
+        reply.complete(function.apply(owner.pet(petId)));
+      } catch (RuntimeException e) {
+        reply.completeExceptionally(e);
+      }
+    });
+    return reply;
+  }
+
+  /**
+   * Gets the latest published state of a pet. Never waits for the pet's shard, so the
+   * snapshot may lag commands that are still queued, and briefly lags a reply from
+   * {@link #ask} because snapshots are published at the end of the shard's batch.
+   *
+   * @param petId the pet id
+   * @return the snapshot, or null if the pet was never added
+   */
+  public PetSnapshot getSnapshot(int petId) {
+    return shardFor(petId).snapshots.get(petId);
+  }
+
+  /**
+   * Gets the stream of state changes of every pet, published once per pet at the end of
+   * each shard batch. Subscriptions conflate by default, so a slow subscriber sees the
+   * latest state of each pet rather than holding back or queueing behind the shards.
+   *
+   * @return the state stream
+   */
+  public StateStream getStates() {
+    return states;
+  }
+
+  /**
+   * Gets the number of shards.
+   *
+   * @return the shard count
+   */
+  public int getShardCount() {
+    return shards.length;
+  }
+
+  /**
+   * Gets the number of commands a shard has applied.
+   *
+   * @param shard the shard index
+   * @return the processed command count
+   */
+  public long getProcessedCount(int shard) {
+    return shards[shard].processed;
+  }
+
+  /**
+   * Gets the number of commands a shard has yet to apply.
+   *
+   * @param shard the shard index
+   * @return the queued command count
+   */
+  public long getQueuedCount(int shard) {
+    return shards[shard].submitted.sum() - shards[shard].processed;
+  }
+
+  /**
+   * Gets the number of commands applied across all shards.
+   *
+   * @return the processed command count
+   */
+  public long getProcessedCount() {
+    long total = 0;
+    for (Shard shard : shards) {
+      total += shard.processed;
+    }
+    return total;
+  }
+
+  /**
+   * Stops the shard threads after their current batch and completes the state stream.
+   * Queued commands are discarded.
+   */
+  @Override
+  public void close() {
+    running = false;
+    for (Shard shard : shards) {
+      LockSupport.unpark(shard.thread);
+    }
+    states.close();
+  }
+
+  private Shard shardFor(int petId) {
+    // Spread sequential ids so neighbouring pets land on different shards evenly
+    int hash = petId * 0x9E3779B9;
+    return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+  }
+}
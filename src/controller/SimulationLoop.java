@@ -0,0 +1,155 @@
+package controller;
+
+import java.util.concurrent.locks.LockSupport;
+import view.components.PetCanvas;
+
+/**
+ * Real-time loop that advances the simulation at a fixed rate and actively renders the
+ * pet canvas at its own frame rate.
+ * Ticks are scheduled against absolute deadlines so they do not drift, and a late loop
+ * catches up with several ticks at once. Ticks are handed to the controller without ever
+ * waiting for the event dispatch thread.
+ */
+public class SimulationLoop implements Runnable {
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  // Upper bound on ticks caught up in one pass, so a stalled loop does not burst forever
+  private static final int MAX_CATCH_UP_SECONDS = 1;
+
+  private final PetController controller;
+  private final PetCanvas canvas;
+  private volatile int ticksPerSecond;
+  private volatile int framesPerSecond;
+  private volatile boolean running;
+  private Thread thread;
+
+  /**
+   * Creates a new simulation loop.
+   *
+   * @param controller      The controller that applies ticks to the pet
+   * @param canvas          The canvas to render to
+   * @param ticksPerSecond  The simulation rate
+   * @param framesPerSecond The target frame rate
+   */
+  public SimulationLoop(PetController controller, PetCanvas canvas, int ticksPerSecond,
+                        int framesPerSecond) {
+    this.controller = controller;
+    this.canvas = canvas;
+    this.ticksPerSecond = ticksPerSecond;
+    this.framesPerSecond = framesPerSecond;
+  }
+
+  /**
+   * Starts the loop on its own daemon thread.
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this, "pet-simulation");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Asks the loop to stop after its current pass. Does not wait for it.
+   */
+  public synchronized void stop() {
+    running = false;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      thread = null;
+    }
+  }
+
+  /**
+   * Returns whether the loop is running.
+   *
+   * @return true if the loop is running
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Changes the simulation rate; takes effect on the next pass.
+   *
+   * @param ticksPerSecond The new simulation rate
+   */
+  public void setTicksPerSecond(int ticksPerSecond) {
+    this.ticksPerSecond = ticksPerSecond;
+  }
+
+  /**
+   * Changes the target frame rate; takes effect on the next pass.
+   *
+   * @param framesPerSecond The new frame rate
+   */
+  public void setFramesPerSecond(int framesPerSecond) {
+    this.framesPerSecond = framesPerSecond;
+  }
+
+  @Override
+  public void run() {
+    int rate = ticksPerSecond;
+    long tickPeriod = NANOS_PER_SECOND / rate;
+    long now = System.nanoTime();
+    long nextTick = now + tickPeriod;
+    long nextFrame = now;
+
+    // Measurement window for the overlay
+    long statsStart = now;
+    int frames = 0;
+    long ticksAtStatsStart = controller.getAppliedTicks();
+
+    while (running) {
+      now = System.nanoTime();
+
+      // Pick up rate changes by restarting the schedule from now
+      if (rate != ticksPerSecond) {
+        rate = ticksPerSecond;
+        tickPeriod = NANOS_PER_SECOND / rate;
+        nextTick = now + tickPeriod;
+      }
+
+      // Fixed timestep: count every deadline that has passed
+      int due = 0;
+      int maxDue = rate * MAX_CATCH_UP_SECONDS;
+      while (now >= nextTick && due < maxDue) {
+        due++;
+        nextTick += tickPeriod;
+      }
+      if (now >= nextTick) {
+        // Too far behind; drop the backlog instead of bursting
+        nextTick = now + tickPeriod;
+      }
+      if (due > 0) {
+        controller.requestTicks(due);
+      }
+
+      // Render independently of the simulation rate
+      if (now >= nextFrame) {
+        canvas.render(controller.getSnapshot());
+        frames++;
+        nextFrame += NANOS_PER_SECOND / framesPerSecond;
+        if (now > nextFrame) {
+          nextFrame = now;
+        }
+      }
+
+      if (now - statsStart >= NANOS_PER_SECOND) {
+        double seconds = (now - statsStart) / (double) NANOS_PER_SECOND;
+        long ticks = controller.getAppliedTicks();
+        canvas.setStats(frames / seconds, (ticks - ticksAtStatsStart) / seconds);
+        statsStart = now;
+        frames = 0;
+        ticksAtStatsStart = ticks;
+      }
+
+      long wait = Math.min(nextTick, nextFrame) - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(this, wait);
+      }
+    }
+  }
+}
@@ -0,0 +1,461 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import pet.model.PetStateChange;
+
+/**
+ * Publishes the state changes of a population of pets to any number of
+ * {@link Flow.Subscriber}s, either for every pet or for a single one.
+ *
+ * <p>Each subscription has its own buffer of a fixed capacity, and items are only delivered
+ * against the demand the subscriber has signalled. What happens when a buffer is full is
+ * set per subscription by an {@link OverflowPolicy}, so a slow consumer never makes memory
+ * grow: it either loses the oldest changes, sees only the latest change of each pet, or
+ * slows the publisher down. Delivery runs on an executor, never on the publishing thread.
+ */
+public class StateStream implements Flow.Publisher<PetStateChange> {
+  /**
+   * Filter value for subscriptions that receive every pet's changes.
+   */
+  public static final int ALL_PETS = -1;
+
+  // Items delivered in one executor task before giving other subscriptions a turn
+  private static final int DELIVERY_BATCH = 256;
+
+  /**
+   * What a subscription does with a new change when its buffer is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Discards the oldest buffered change.
+     */
+    DROP_OLDEST,
+    /**
+     * Keeps one change per pet, merging a new change into the one already buffered;
+     * when the buffer holds the maximum number of pets, the oldest pet's change is dropped.
+     */
+    CONFLATE,
+    /**
+     * Makes the publishing thread wait until the subscriber has taken a change.
+     * The subscriber must keep requesting, or the publisher waits forever.
+     */
+    BLOCK
+  }
+
+  private final Executor executor;
+  private final int capacity;
+  private final OverflowPolicy defaultPolicy;
+  private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+  private volatile boolean closed;
+
+  private final LongAdder published = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder conflated = new LongAdder();
+
+  /**
+   * One subscriber, its filter, its buffer and its outstanding demand.
+   */
+  private final class Subscription implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super PetStateChange> subscriber;
+    private final int petId;
+    private final OverflowPolicy policy;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Guarded by this; a FIFO buffer, or the latest change per pet when conflating
+    private final ArrayDeque<PetStateChange> queue = new ArrayDeque<>();
+    private final LinkedHashMap<Integer, PetStateChange> latest = new LinkedHashMap<>();
+    private long demand;
+    private boolean cancelled;
+    private boolean completed;
+    private boolean terminated;
+    private Throwable error;
+
+    // Per-subscription counts, only for describe()
+    private volatile long deliveredCount;
+    private volatile long droppedCount;
+    private volatile long conflatedCount;
+
+    Subscription(Flow.Subscriber<? super PetStateChange> subscriber, int petId,
+                 OverflowPolicy policy) {
+      this.subscriber = subscriber;
+      this.petId = petId;
+      this.policy = policy;
+    }
+
+    /**
+     * Buffers a change, applying the overflow policy if the buffer is full.
+     */
+    void offer(PetStateChange change) {
+      synchronized (this) {
+        if (cancelled || completed) {
+          return;
+        }
+        switch (policy) {
+          case CONFLATE:
+            PetStateChange pending = latest.get(change.getPetId());
+            if (pending != null) {
+              latest.put(change.getPetId(), pending.merge(change));
+              conflatedCount++;
+              conflated.increment();
+              break;
+            }
+            if (latest.size() >= capacity) {
+              Iterator<PetStateChange> oldest = latest.values().iterator();
+              oldest.next();
+              oldest.remove();
+              drop();
+            }
+            latest.put(change.getPetId(), change);
+            break;
+          case BLOCK:
+            boolean interrupted = false;
+            while (queue.size() >= capacity && !cancelled && !completed) {
+              try {
+                wait();
+              } catch (InterruptedException e) {
+                interrupted = true;
+              }
+            }
+            if (interrupted) {
+              Thread.currentThread().interrupt();
+            }
+            if (cancelled || completed) {
+              return;
+            }
+            queue.addLast(change);
+            break;
+          default:
+            if (queue.size() >= capacity) {
+              queue.pollFirst();
+              drop();
+            }
+            queue.addLast(change);
+            break;
+        }
+      }
+      schedule();
+    }
+
+    private void drop() {
+      droppedCount++;
+      dropped.increment();
+    }
+
+    /**
+     * Takes the next change to deliver, or null if there is no change or no demand.
+     */
+    private synchronized PetStateChange take() {
+      if (cancelled || demand == 0) {
+        return null;
+      }
+      PetStateChange change;
+      if (policy == OverflowPolicy.CONFLATE) {
+        Iterator<PetStateChange> oldest = latest.values().iterator();
+        if (!oldest.hasNext()) {
+          return null;
+        }
+        change = oldest.next();
+        oldest.remove();
+      } else {
+        change = queue.pollFirst();
+        if (change == null) {
+          return null;
+        }
+        if (policy == OverflowPolicy.BLOCK) {
+          notifyAll();
+        }
+      }
+      demand--;
+      return change;
+    }
+
+    /**
+     * Returns whether the subscriber should now be told that the stream has ended.
+     */
+    private synchronized boolean takeCompletion() {
+      if (terminated || cancelled || !completed || !queue.isEmpty() || !latest.isEmpty()) {
+        return false;
+      }
+      terminated = true;
+      return true;
+    }
+
+    /**
+     * Takes the error the subscriber should be told about, if any.
+     */
+    private synchronized Throwable takeError() {
+      Throwable pending = error;
+      error = null;
+      return pending;
+    }
+
+    private synchronized boolean isReady() {
+      if (error != null) {
+        return true;
+      }
+      if (cancelled || terminated) {
+        return false;
+      }
+      boolean empty = queue.isEmpty() && latest.isEmpty();
+      return (demand > 0 && !empty) || (completed && empty);
+    }
+
+    void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          scheduled.set(false);
+          System.err.println("State stream could not deliver: " + e.getMessage());
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        Throwable failure = takeError();
+        if (failure != null) {
+          subscriber.onError(failure);
+          return;
+        }
+        for (int i = 0; i < DELIVERY_BATCH; i++) {
+          PetStateChange change = take();
+          if (change == null) {
+            break;
+          }
+          try {
+            subscriber.onNext(change);
+          } catch (RuntimeException e) {
+            System.err.println("State subscriber failed: " + e);
+            cancel();
+            return;
+          }
+          deliveredCount++;
+          delivered.increment();
+        }
+        if (takeCompletion()) {
+          subscriber.onComplete();
+        }
+      } finally {
+        scheduled.set(false);
+      }
+      // Items or demand that arrived while this task held the flag
+      if (isReady()) {
+        schedule();
+      }
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        // Signalled from the delivery task, so it never overlaps an onNext
+        synchronized (this) {
+          if (terminated || cancelled) {
+            return;
+          }
+          terminated = true;
+          error = new IllegalArgumentException("Non-positive request: " + n);
+        }
+        cancel();
+        schedule();
+        return;
+      }
+      synchronized (this) {
+        demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (this) {
+        cancelled = true;
+        queue.clear();
+        latest.clear();
+        notifyAll();
+      }
+      subscriptions.remove(this);
+    }
+
+    void complete() {
+      synchronized (this) {
+        completed = true;
+        notifyAll();
+      }
+      schedule();
+    }
+
+    synchronized int buffered() {
+      return queue.size() + latest.size();
+    }
+  }
+
+  /**
+   * Creates a stream that delivers on the common fork/join pool.
+   *
+   * @param capacity      The buffer size of each subscription
+   * @param defaultPolicy The overflow policy of subscriptions that do not choose one
+   */
+  public StateStream(int capacity, OverflowPolicy defaultPolicy) {
+    this(ForkJoinPool.commonPool(), capacity, defaultPolicy);
+  }
+
+  /**
+   * Creates a stream.
+   *
+   * @param executor      The executor subscribers are called on
+   * @param capacity      The buffer size of each subscription
+   * @param defaultPolicy The overflow policy of subscriptions that do not choose one
+   */
+  public StateStream(Executor executor, int capacity, OverflowPolicy defaultPolicy) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.executor = executor;
+    this.capacity = capacity;
+    this.defaultPolicy = defaultPolicy;
+  }
+
+  /**
+   * Subscribes to every pet's changes with the default overflow policy.
+   *
+   * @param subscriber the subscriber
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super PetStateChange> subscriber) {
+    subscribe(subscriber, ALL_PETS, defaultPolicy);
+  }
+
+  /**
+   * Subscribes to the changes of one pet, or of every pet.
+   *
+   * @param subscriber the subscriber
+   * @param petId      the pet id, or {@link #ALL_PETS}
+   * @param policy     what to do when the subscriber falls behind
+   */
+  public void subscribe(Flow.Subscriber<? super PetStateChange> subscriber, int petId,
+                        OverflowPolicy policy) {
+    Subscription subscription = new Subscription(subscriber, petId, policy);
+    // Signalled before the subscription can receive anything, as Flow requires
+    subscriber.onSubscribe(subscription);
+    if (closed) {
+      subscription.complete();
+      return;
+    }
+    subscriptions.add(subscription);
+  }
+
+  /**
+   * Gets a publisher of one pet's changes with the default overflow policy.
+   *
+   * @param petId the pet id
+   * @return the publisher
+   */
+  public Flow.Publisher<PetStateChange> forPet(int petId) {
+    return subscriber -> subscribe(subscriber, petId, defaultPolicy);
+  }
+
+  /**
+   * Returns whether anyone is subscribed. Publishers may skip building changes otherwise.
+   *
+   * @return true if there is at least one subscription
+   */
+  public boolean hasSubscribers() {
+    return !subscriptions.isEmpty();
+  }
+
+  /**
+   * Publishes a change to every matching subscription. Safe to call from any thread, but
+   * waits while a blocking subscription's buffer is full.
+   *
+   * @param change the change
+   */
+  public void publish(PetStateChange change) {
+    if (closed) {
+      return;
+    }
+    published.increment();
+    for (Subscription subscription : subscriptions) {
+      if (subscription.petId == ALL_PETS || subscription.petId == change.getPetId()) {
+        subscription.offer(change);
+      }
+    }
+  }
+
+  /**
+   * Ends the stream. Subscribers receive what is still buffered, then onComplete.
+   */
+  public void close() {
+    closed = true;
+    for (Subscription subscription : subscriptions) {
+      subscription.complete();
+    }
+    subscriptions.clear();
+  }
+
+  /**
+   * Gets the number of changes published.
+   *
+   * @return the published count
+   */
+  public long getPublishedCount() {
+    return published.sum();
+  }
+
+  /**
+   * Gets the number of changes delivered, summed over all subscriptions.
+   *
+   * @return the delivered count
+   */
+  public long getDeliveredCount() {
+    return delivered.sum();
+  }
+
+  /**
+   * Gets the number of changes discarded because a buffer was full.
+   *
+   * @return the dropped count
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Gets the number of changes merged into a change already buffered for the same pet.
+   *
+   * @return the conflated count
+   */
+  public long getConflatedCount() {
+    return conflated.sum();
+  }
+
+  /**
+   * Describes the stream's counts and each current subscription.
+   *
+   * @return the description
+   */
+  public String describe() {
+    StringBuilder text = new StringBuilder(String.format(
+        "published %d, delivered %d, dropped %d, conflated %d%n", getPublishedCount(),
+        getDeliveredCount(), getDroppedCount(), getConflatedCount()));
+    for (Subscription subscription : subscriptions) {
+      text.append(String.format("  %-11s %-8s buffered %5d, delivered %d, dropped %d, "
+              + "conflated %d%n", subscription.policy,
+          (subscription.petId == ALL_PETS) ? "all" : "pet " + subscription.petId,
+          subscription.buffered(), subscription.deliveredCount, subscription.droppedCount,
+          subscription.conflatedCount));
+    }
+    return text.toString();
+  }
+}
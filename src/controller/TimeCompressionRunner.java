@@ -0,0 +1,188 @@
+package controller;
+
+import java.util.concurrent.locks.LockSupport;
+import pet.enums.ActivityType;
+import pet.enums.MoodEnum;
+import pet.enums.SimulationSpeed;
+import pet.model.ActivityEvent;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+
+/**
+ * Background thread that advances a pet as fast as the chosen speed allows.
+ * While it runs it owns the pet exclusively. It publishes the latest state as a
+ * {@link PetSnapshot} and folds the steps taken since the last read into one summary
+ * event, so the view can pull at most one update per frame.
+ */
+public class TimeCompressionRunner implements Runnable {
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  // Longest stretch of unthrottled stepping between publications
+  private static final long MAX_BATCH_NANOS = 1_000_000L;
+  private static final int CLOCK_CHECK_INTERVAL = 256;
+
+  private final Pet pet;
+  private volatile SimulationSpeed speed;
+  private volatile boolean running;
+  private volatile PetSnapshot snapshot;
+  private Thread thread;
+
+  // Steps not yet collected by the view, guarded by this
+  private long pendingSteps;
+  private MoodEnum pendingMoodBefore;
+  private MoodEnum pendingMoodAfter;
+
+  /**
+   * Creates a new runner.
+   *
+   * @param pet   The pet to advance; must not be touched by other threads while running
+   * @param speed The initial speed
+   */
+  public TimeCompressionRunner(Pet pet, SimulationSpeed speed) {
+    this.pet = pet;
+    this.speed = speed;
+    this.snapshot = PetSnapshot.of(pet);
+  }
+
+  /**
+   * Starts stepping on a background daemon thread.
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this, "pet-time-compression");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stops stepping and waits for the thread to let go of the pet.
+   */
+  public void stop() {
+    Thread worker;
+    synchronized (this) {
+      running = false;
+      worker = thread;
+      thread = null;
+    }
+    if (worker != null) {
+      LockSupport.unpark(worker);
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Returns whether the runner is still stepping. It stops on its own when the pet dies.
+   *
+   * @return true while running
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Changes the speed; takes effect on the next batch.
+   *
+   * @param speed The new speed
+   */
+  public void setSpeed(SimulationSpeed speed) {
+    this.speed = speed;
+  }
+
+  /**
+   * Gets the most recently published state of the pet.
+   *
+   * @return The latest snapshot
+   */
+  public PetSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Collects the steps taken since the previous call as a single summary event.
+   *
+   * @return The summary event, or null if no steps were taken
+   */
+  public synchronized ActivityEvent takeSummary() {
+    if (pendingSteps == 0) {
+      return null;
+    }
+    int steps = (int) Math.min(Integer.MAX_VALUE, pendingSteps);
+    ActivityEvent summary = new ActivityEvent(snapshot.getTick(), snapshot.getId(),
+        ActivityType.TIME_SKIP, steps, pendingMoodBefore, pendingMoodAfter);
+    pendingSteps = 0;
+    return summary;
+  }
+
+  @Override
+  public void run() {
+    SimulationSpeed current = speed;
+    long now = System.nanoTime();
+    long nextTick = now;
+
+    while (running && pet.isAlive()) {
+      now = System.nanoTime();
+      if (current != speed) {
+        current = speed;
+        nextTick = now;
+      }
+
+      MoodEnum moodBefore = pet.getMood();
+      int steps = 0;
+      if (current.getTicksPerSecond() == Integer.MAX_VALUE) {
+        // As fast as possible, publishing roughly every millisecond
+        long batchEnd = now + MAX_BATCH_NANOS;
+        do {
+          for (int i = 0; i < CLOCK_CHECK_INTERVAL && pet.isAlive(); i++) {
+            pet.step();
+            steps++;
+          }
+        } while (pet.isAlive() && System.nanoTime() < batchEnd);
+      } else {
+        // Fixed timestep against absolute deadlines, catching up at most one second
+        long period = NANOS_PER_SECOND / current.getTicksPerSecond();
+        int maxDue = current.getTicksPerSecond();
+        while (now >= nextTick && steps < maxDue && pet.isAlive()) {
+          pet.step();
+          steps++;
+          nextTick += period;
+        }
+        if (now >= nextTick) {
+          nextTick = now + period;
+        }
+      }
+
+      if (steps > 0) {
+        publish(steps, moodBefore);
+      }
+
+      if (current.getTicksPerSecond() != Integer.MAX_VALUE) {
+        long wait = nextTick - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(this, wait);
+        }
+      }
+    }
+    running = false;
+  }
+
+  /**
+   * Publishes the current state and adds the batch to the pending summary.
+   */
+  private void publish(int steps, MoodEnum moodBefore) {
+    PetSnapshot latest = PetSnapshot.of(pet);
+    synchronized (this) {
+      if (pendingSteps == 0) {
+        pendingMoodBefore = moodBefore;
+      }
+      pendingSteps += steps;
+      pendingMoodAfter = latest.getMood();
+      snapshot = latest;
+    }
+  }
+}
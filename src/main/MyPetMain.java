@@ -1,14 +1,19 @@
 package main;
 
 import controller.PetController;
+import java.io.File;
+import java.io.IOException;
 import javax.swing.SwingUtilities;
 import pet.model.Pet;
+import pet.model.history.ActivityHistory;
 import view.PetView;
 
 /**
  * Main class for the Virtual Pet Simulator Application.
  */
 public class MyPetMain {
+  private static final String HISTORY_DIRECTORY = "history";
+
   /**
    * Main method to start the application.
    *
@@ -31,6 +36,9 @@ public class MyPetMain {
       // Create controller with model and view
       PetController controller = new PetController(pet, view);
 
+      // Record activity to disk so it can be browsed later
+      controller.setHistory(openHistory());
+
       // Set controller in view
       view.setController(controller);
 
@@ -38,4 +46,26 @@ public class MyPetMain {
       view.setVisible(true);
     });
   }
-}
\ No newline at end of file
+
+  /**
+   * Opens the persistent activity history and closes it when the application exits.
+   *
+   * @return the history, or null if it could not be opened
+   */
+  private static ActivityHistory openHistory() {
+    try {
+      ActivityHistory history = new ActivityHistory(new File(HISTORY_DIRECTORY));
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          history.close();
+        } catch (IOException e) {
+          System.err.println("Failed to close activity history: " + e.getMessage());
+        }
+      }));
+      return history;
+    } catch (IOException e) {
+      System.err.println("Failed to open activity history: " + e.getMessage());
+      return null;
+    }
+  }
+}
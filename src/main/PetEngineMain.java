@@ -0,0 +1,34 @@
+package main;
+
+import controller.PetProtocolServer;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Runs one pet engine of a cluster: a binary protocol server on a loopback port.
+ * The engine stops when its standard input is closed, so engines started by a parent
+ * process do not outlive it.
+ */
+public class PetEngineMain {
+  /**
+   * Main method to run the engine.
+   *
+   * @param args Optionally the port, or 0 for any free port
+   * @throws IOException if the port cannot be bound
+   */
+  public static void main(String[] args) throws IOException {
+    int port = (args.length > 0) ? Integer.parseInt(args[0]) : 0;
+
+    PetProtocolServer server = new PetProtocolServer(port);
+    server.start();
+    // The first line is read by EngineProcess to find the port
+    System.out.println("Pet engine listening on port " + server.getPort());
+    System.out.flush();
+
+    InputStream in = System.in;
+    while (in.read() >= 0) {
+      // Ignore input; wait for the end of it
+    }
+    server.close();
+  }
+}
@@ -0,0 +1,70 @@
+package main;
+
+import java.awt.BorderLayout;
+import java.util.Random;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+import view.components.PetGridPanel;
+
+/**
+ * Opens an overview grid of many simulated pets.
+ * A small slice of the population is stepped every frame so tiles keep changing.
+ */
+public class PetGridMain {
+  private static final int DEFAULT_PET_COUNT = 10000;
+  private static final int FRAME_DELAY = 16;
+  private static final int PETS_PER_FRAME = 50;
+
+  /**
+   * Main method to start the pet overview.
+   *
+   * @param args Optionally the number of pets to simulate
+   */
+  public static void main(String[] args) {
+    int count = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PET_COUNT;
+    SwingUtilities.invokeLater(() -> {
+      Pet[] pets = new Pet[count];
+      PetSnapshot[] snapshots = new PetSnapshot[count];
+      for (int i = 0; i < count; i++) {
+        pets[i] = new Pet("Pet " + (i + 1));
+        snapshots[i] = PetSnapshot.of(pets[i]);
+      }
+
+      PetGridPanel grid = new PetGridPanel();
+      grid.setPets(snapshots);
+
+      JFrame frame = new JFrame("Pet Overview (" + count + " pets)");
+      frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+      frame.add(new JScrollPane(grid), BorderLayout.CENTER);
+      JLabel hint = new JLabel(" Tiles are repainted only when their pet changes");
+      frame.add(hint, BorderLayout.SOUTH);
+      frame.pack();
+      frame.setLocationRelativeTo(null);
+      frame.setVisible(true);
+
+      // Step a rotating slice of pets each frame, occasionally caring for them
+      Random random = new Random();
+      Action[] actions = Action.values();
+      int[] next = {0};
+      new Timer(FRAME_DELAY, e -> {
+        for (int n = 0; n < PETS_PER_FRAME && n < count; n++) {
+          int index = next[0];
+          next[0] = (index + 1) % count;
+          Pet pet = pets[index];
+          if (random.nextInt(3) == 0) {
+            pet.interactWith(actions[random.nextInt(actions.length)]);
+          } else {
+            pet.step();
+          }
+          grid.updatePet(index, PetSnapshot.of(pet));
+        }
+      }).start();
+    });
+  }
+}
@@ -0,0 +1,29 @@
+package main;
+
+import controller.PetHttpServer;
+import java.io.IOException;
+
+/**
+ * Runs the pet HTTP API until the process is stopped.
+ */
+public class PetServerMain {
+  private static final int DEFAULT_PORT = 8080;
+  private static final int DEFAULT_THREADS = 16;
+
+  /**
+   * Main method to run the server.
+   *
+   * @param args Optionally the port, the number of request threads and the number of shards
+   * @throws IOException if the port cannot be bound
+   */
+  public static void main(String[] args) throws IOException {
+    int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    int threads = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_THREADS;
+    int shards = (args.length > 2) ? Integer.parseInt(args[2]) : 0;
+
+    PetHttpServer server = new PetHttpServer(port, threads, shards);
+    server.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "pet-http-shutdown"));
+    System.out.println("Serving pets on http://localhost:" + server.getPort() + "/pets");
+  }
+}
@@ -0,0 +1,91 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+import view.components.ThumbnailRenderer;
+
+/**
+ * Renders status images for many pets without a display and reports the throughput.
+ */
+public class ThumbnailMain {
+  private static final int DEFAULT_PET_COUNT = 10000;
+  private static final int IMAGE_WIDTH = 320;
+  private static final int IMAGE_HEIGHT = 240;
+  private static final int SAVED_IMAGES = 10;
+  private static final int BATCH_SIZE = 500;
+  private static final int CACHE_SIZE = 1024;
+
+  /**
+   * Main method to run the thumbnail renderer.
+   *
+   * @param args Optionally the number of pets, then a directory to save sample images to
+   */
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+    int count = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PET_COUNT;
+
+    // Give the pets varied states by running each through a few random steps
+    Random random = new Random(1);
+    Action[] actions = Action.values();
+    List<PetSnapshot> pets = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Pet pet = new Pet("Pet " + (i % 100));
+      int steps = random.nextInt(8);
+      for (int s = 0; s < steps; s++) {
+        if (random.nextBoolean()) {
+          pet.step();
+        } else {
+          pet.interactWith(actions[random.nextInt(actions.length)]);
+        }
+      }
+      pets.add(PetSnapshot.of(pet));
+    }
+
+    // Render in batches so only one batch of images is held at a time, then again warm
+    int threads = Runtime.getRuntime().availableProcessors();
+    try (ThumbnailRenderer renderer = new ThumbnailRenderer(IMAGE_WIDTH, IMAGE_HEIGHT, threads,
+        CACHE_SIZE)) {
+      for (int pass = 1; pass <= 2; pass++) {
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+          List<BufferedImage> images =
+              renderer.renderAll(pets.subList(from, Math.min(count, from + BATCH_SIZE)));
+          if (pass == 1 && from == 0 && args.length > 1) {
+            saveSamples(images, new File(args[1]));
+          }
+        }
+        System.out.printf("Pass %d: %d rendered, %d cache hits, %.0f images/s%n", pass,
+            renderer.getRenderedCount(), renderer.getCacheHits(),
+            renderer.getImagesPerSecond());
+      }
+    }
+  }
+
+  /**
+   * Writes the first few images as PNG files.
+   *
+   * @param images    the rendered images
+   * @param directory the directory to write to
+   */
+  private static void saveSamples(List<BufferedImage> images, File directory) {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      System.err.println("Could not create directory: " + directory);
+      return;
+    }
+    for (int i = 0; i < Math.min(SAVED_IMAGES, images.size()); i++) {
+      File file = new File(directory, "pet-" + i + ".png");
+      try {
+        ImageIO.write(images.get(i), "png", file);
+      } catch (IOException e) {
+        System.err.println("Failed to write " + file + ": " + e.getMessage());
+      }
+    }
+  }
+}
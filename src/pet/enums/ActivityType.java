@@ -0,0 +1,16 @@
+package pet.enums;
+
+/**
+ * Enum representing the kinds of events recorded in the activity log.
+ * The on-disk activity history stores these ordinals, so new types go at the end.
+ */
+public enum ActivityType {
+  ACTION,
+  WOKE_UP,
+  BLOCKED_ASLEEP,
+  STEP,
+  MYSTERY_BOX,
+  BOX_DECLINED,
+  DEATH,
+  TIME_SKIP
+}
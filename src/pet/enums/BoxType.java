@@ -0,0 +1,9 @@
+package pet.enums;
+
+/**
+ * Enum representing the types of mystery boxes.
+ */
+public enum BoxType {
+  COMMON,
+  RARE
+}
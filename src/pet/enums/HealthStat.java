@@ -0,0 +1,11 @@
+package pet.enums;
+
+/**
+ * Enum representing the individual stats of a pet's health status.
+ */
+public enum HealthStat {
+  HUNGER,
+  HYGIENE,
+  SOCIAL,
+  SLEEP
+}
@@ -0,0 +1,34 @@
+package pet.enums;
+
+/**
+ * Enum representing how fast time is compressed when the simulation runs on its own.
+ */
+public enum SimulationSpeed {
+  OFF("Off", 0),
+  X1("1x", 1),
+  X10("10x", 10),
+  X1000("1000x", 1000),
+  UNLIMITED("Max", Integer.MAX_VALUE);
+
+  private final String label;
+  private final int ticksPerSecond;
+
+  SimulationSpeed(String label, int ticksPerSecond) {
+    this.label = label;
+    this.ticksPerSecond = ticksPerSecond;
+  }
+
+  /**
+   * Gets the number of ticks simulated per second of wall-clock time.
+   *
+   * @return the tick rate, or Integer.MAX_VALUE for as fast as possible
+   */
+  public int getTicksPerSecond() {
+    return ticksPerSecond;
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+}
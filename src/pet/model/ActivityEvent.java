@@ -0,0 +1,179 @@
+package pet.model;
+
+import pet.enums.Action;
+import pet.enums.ActivityType;
+import pet.enums.BoxType;
+import pet.enums.MoodEnum;
+import pet.model.mystery.MysteryBoxSystem;
+
+/**
+ * A structured entry of the activity log.
+ * Only holds the facts of the event; text is produced on demand by {@link #format(String)}.
+ */
+public final class ActivityEvent {
+  /**
+   * Detail value used by events that carry no action or outcome.
+   */
+  public static final int NO_DETAIL = -1;
+
+  private static final int BOX_TYPE_SHIFT = 8;
+  private static final int BOX_OUTCOME_MASK = 0xFF;
+
+  private final long tick;
+  private final int petId;
+  private final ActivityType type;
+  private final int detail;
+  private final MoodEnum moodBefore;
+  private final MoodEnum moodAfter;
+
+  /**
+   * Creates a new activity event.
+   *
+   * @param tick       the pet tick at which the event happened
+   * @param petId      the id of the pet
+   * @param type       the event type
+   * @param detail     the action or outcome ordinal, or {@link #NO_DETAIL}
+   * @param moodBefore the mood before the event
+   * @param moodAfter  the mood after the event
+   */
+  public ActivityEvent(long tick, int petId, ActivityType type, int detail,
+                       MoodEnum moodBefore, MoodEnum moodAfter) {
+    this.tick = tick;
+    this.petId = petId;
+    this.type = type;
+    this.detail = detail;
+    this.moodBefore = moodBefore;
+    this.moodAfter = moodAfter;
+  }
+
+  /**
+   * Encodes a mystery box outcome into a single detail value.
+   *
+   * @param boxType      the type of box that was opened
+   * @param outcomeIndex the outcome of the box
+   * @return the encoded detail value
+   */
+  public static int boxDetail(BoxType boxType, int outcomeIndex) {
+    return (boxType.ordinal() << BOX_TYPE_SHIFT) | (outcomeIndex & BOX_OUTCOME_MASK);
+  }
+
+  public long getTick() {
+    return tick;
+  }
+
+  public int getPetId() {
+    return petId;
+  }
+
+  public ActivityType getType() {
+    return type;
+  }
+
+  public int getDetail() {
+    return detail;
+  }
+
+  public MoodEnum getMoodBefore() {
+    return moodBefore;
+  }
+
+  public MoodEnum getMoodAfter() {
+    return moodAfter;
+  }
+
+  /**
+   * Gets the action of an {@link ActivityType#ACTION} event.
+   *
+   * @return the action, or null if the event carries no action
+   */
+  public Action getAction() {
+    if (type != ActivityType.ACTION || detail == NO_DETAIL) {
+      return null;
+    }
+    return Action.values()[detail];
+  }
+
+  /**
+   * Gets the box type of a {@link ActivityType#MYSTERY_BOX} event.
+   *
+   * @return the box type, or null if the event is not a box event
+   */
+  public BoxType getBoxType() {
+    if (type != ActivityType.MYSTERY_BOX) {
+      return null;
+    }
+    return BoxType.values()[detail >> BOX_TYPE_SHIFT];
+  }
+
+  /**
+   * Gets the outcome index of a {@link ActivityType#MYSTERY_BOX} event.
+   *
+   * @return the outcome index, or {@link #NO_DETAIL} if the event is not a box event
+   */
+  public int getBoxOutcome() {
+    if (type != ActivityType.MYSTERY_BOX) {
+      return NO_DETAIL;
+    }
+    return detail & BOX_OUTCOME_MASK;
+  }
+
+  /**
+   * Formats the event as a log line.
+   *
+   * @param petName the name of the pet the event belongs to
+   * @return the human-readable message
+   */
+  public String format(String petName) {
+    switch (type) {
+      case ACTION:
+        return formatAction(petName);
+      case WOKE_UP:
+        return petName + " woke up";
+      case BLOCKED_ASLEEP:
+        return petName + " is sleeping. Wake them up first!";
+      case STEP:
+        return "Time passed";
+      case TIME_SKIP:
+        return "Time passed (" + detail + " steps)";
+      case MYSTERY_BOX:
+        return MysteryBoxSystem.describeOutcome(getBoxType(), getBoxOutcome());
+      case BOX_DECLINED:
+        return "You decided not to open the mystery box.";
+      case DEATH:
+        return petName + " has passed away due to neglect";
+      default:
+        return "Unknown event";
+    }
+  }
+
+  /**
+   * Formats an action event.
+   *
+   * @param petName the name of the pet
+   * @return the human-readable message
+   */
+  private String formatAction(String petName) {
+    Action action = getAction();
+    if (action == null) {
+      return "Unknown action performed";
+    }
+    switch (action) {
+      case FEED:
+        return "Fed " + petName;
+      case PLAY:
+        return "Played with " + petName;
+      case CLEAN:
+        return "Cleaned " + petName;
+      case SLEEP:
+        return petName + " is now sleeping";
+      default:
+        return "Unknown action performed";
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ActivityEvent{" + "tick=" + tick + ", petId=" + petId + ", type=" + type
+        + ", detail=" + detail + ", moodBefore=" + moodBefore + ", moodAfter=" + moodAfter + '}';
+  }
+}
@@ -0,0 +1,330 @@
+package pet.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import pet.enums.Action;
+import pet.enums.MoodEnum;
+
+/**
+ * A pet that many threads can step and interact with at once without locking.
+ * The whole mutable state lives in a single {@link AtomicLong}, and every operation computes
+ * the next state from one consistent read and publishes it with a compare-and-set, retrying
+ * if another thread got there first. No update is lost and no reader sees a torn state.
+ *
+ * <p>The rules are the same as {@link Pet}'s. The mood strategies operate on a {@link Pet},
+ * so their effects are reproduced here as pure functions of the packed state. The
+ * fed-while-sad and played-while-sad flags of {@link Pet} never outlive a single interaction,
+ * so they are computed inside the transition instead of being stored.
+ *
+ * <p>State layout, from the least significant bit:
+ * <pre>
+ *   bits  0-27  hunger, hygiene, social and sleep, 7 bits each
+ *   bits 28-29  mood ordinal
+ *   bit  30     alive
+ *   bit  31     asleep
+ *   bits 32-35  steps since the last interaction, saturating at 15
+ * </pre>
+ */
+public class ConcurrentPet implements PetInterface {
+
+  private static final int MAX_LEVEL = 100;
+  private static final int MIN_LEVEL = 0;
+  private static final int DECREMENT = 5;
+  private static final int NEGLECT_THRESHOLD = 5;
+  private static final int HIGH_THRESHOLD = 70;
+  private static final int LOW_THRESHOLD = 30;
+  private static final int HUNGRY_THRESHOLD = 70;
+  private static final int LONELY_THRESHOLD = 30;
+
+  private static final int LEVEL_BITS = 7;
+  private static final long LEVEL_MASK = (1L << LEVEL_BITS) - 1;
+  private static final int HUNGER_SHIFT = 0;
+  private static final int HYGIENE_SHIFT = 7;
+  private static final int SOCIAL_SHIFT = 14;
+  private static final int SLEEP_SHIFT = 21;
+  private static final int MOOD_SHIFT = 28;
+  private static final long MOOD_MASK = 0x3L;
+  private static final long ALIVE_BIT = 1L << 30;
+  private static final long ASLEEP_BIT = 1L << 31;
+  private static final int STEPS_SHIFT = 32;
+  private static final long STEPS_MASK = 0xFL;
+  private static final MoodEnum[] MOODS = MoodEnum.values();
+
+  private final AtomicLong state;
+  private final String name;
+
+  /**
+   * Constructs a new pet with default health status, mood, and name.
+   */
+  public ConcurrentPet() {
+    this("Buddy");
+  }
+
+  /**
+   * Constructs a new pet with a specified name.
+   *
+   * @param name the name for the pet
+   */
+  public ConcurrentPet(String name) {
+    this.name = name;
+    this.state = new AtomicLong(pack(MAX_LEVEL / 2, MAX_LEVEL / 2, MAX_LEVEL / 2,
+        MAX_LEVEL / 2, MoodEnum.NEUTRAL, true, false, 0));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Updates the pet's health status by one unit of time.
+   */
+  @Override
+  public void step() {
+    long current;
+    long next;
+    do {
+      current = state.get();
+      next = stepped(current);
+    } while (current != next && !state.compareAndSet(current, next));
+  }
+
+  /**
+   * Interacts with the pet by performing an action.
+   *
+   * @param action the action to perform
+   */
+  @Override
+  public void interactWith(Action action) {
+    long current;
+    long next;
+    do {
+      current = state.get();
+      next = interacted(current, action);
+    } while (current != next && !state.compareAndSet(current, next));
+  }
+
+  /**
+   * Applies the health impact of an action to the pet.
+   *
+   * @param hungerChange  the change in hunger
+   * @param hygieneChange the change in hygiene
+   * @param socialChange  the change in social
+   * @param sleepChange   the change in sleep
+   */
+  public void applyHealthImpact(int hungerChange, int hygieneChange, int socialChange,
+                                int sleepChange) {
+    long current;
+    long next;
+    do {
+      current = state.get();
+      next = withHealth(current,
+          clamp(level(current, HUNGER_SHIFT) + hungerChange),
+          clamp(level(current, HYGIENE_SHIFT) + hygieneChange),
+          clamp(level(current, SOCIAL_SHIFT) + socialChange),
+          clamp(level(current, SLEEP_SHIFT) + sleepChange));
+    } while (current != next && !state.compareAndSet(current, next));
+  }
+
+  /**
+   * Gets the current health status of the pet.
+   *
+   * @return the health status
+   */
+  @Override
+  public HealthStatus getHealth() {
+    long current = state.get();
+    return new HealthStatus(level(current, HUNGER_SHIFT), level(current, HYGIENE_SHIFT),
+        level(current, SOCIAL_SHIFT), level(current, SLEEP_SHIFT));
+  }
+
+  /**
+   * Gets the current mood of the pet.
+   *
+   * @return the mood
+   */
+  @Override
+  public MoodEnum getMood() {
+    return mood(state.get());
+  }
+
+  /**
+   * Sets the mood of the pet.
+   *
+   * @param mood the new mood
+   */
+  @Override
+  public void setMood(MoodEnum mood) {
+    long current;
+    long next;
+    do {
+      current = state.get();
+      next = withMood(current, mood);
+    } while (current != next && !state.compareAndSet(current, next));
+  }
+
+  /**
+   * Returns whether the pet is alive.
+   *
+   * @return true if the pet is alive, false otherwise
+   */
+  public boolean isAlive() {
+    return (state.get() & ALIVE_BIT) != 0;
+  }
+
+  /**
+   * Returns whether the pet is asleep.
+   *
+   * @return true if the pet is asleep, false otherwise
+   */
+  public boolean isAsleep() {
+    return (state.get() & ASLEEP_BIT) != 0;
+  }
+
+  /**
+   * Takes a consistent snapshot of the pet. Health, mood and flags all come from the same
+   * state, even while other threads are changing it.
+   *
+   * @param id   the id to give the snapshot
+   * @param tick the tick to give the snapshot
+   * @return the snapshot
+   */
+  public PetSnapshot snapshot(int id, long tick) {
+    long current = state.get();
+    HealthStatus health = new HealthStatus(level(current, HUNGER_SHIFT),
+        level(current, HYGIENE_SHIFT), level(current, SOCIAL_SHIFT),
+        level(current, SLEEP_SHIFT));
+    return new PetSnapshot(id, name, tick, health, mood(current),
+        (current & ALIVE_BIT) != 0, (current & ASLEEP_BIT) != 0);
+  }
+
+  /**
+   * Computes the state after one unit of time.
+   */
+  private static long stepped(long current) {
+    if ((current & ALIVE_BIT) == 0) {
+      return current;
+    }
+    int steps = (int) Math.min(STEPS_MASK, ((current >>> STEPS_SHIFT) & STEPS_MASK) + 1);
+    int decrement = (mood(current) == MoodEnum.HAPPY) ? DECREMENT / 2 : DECREMENT;
+    int hunger = Math.min(MAX_LEVEL, level(current, HUNGER_SHIFT) + decrement);
+    int hygiene = Math.max(MIN_LEVEL, level(current, HYGIENE_SHIFT) - decrement);
+    int social = Math.max(MIN_LEVEL, level(current, SOCIAL_SHIFT) - decrement);
+    int sleep = Math.max(MIN_LEVEL, level(current, SLEEP_SHIFT) - decrement);
+    boolean asleep = (current & ASLEEP_BIT) != 0;
+
+    if (hunger == MAX_LEVEL && hygiene == MIN_LEVEL && social == MIN_LEVEL
+        && sleep == MIN_LEVEL) {
+      return pack(hunger, hygiene, social, sleep, mood(current), false, asleep, steps);
+    }
+    MoodEnum mood = moodFor(hunger, hygiene, social, sleep, steps, false);
+    return pack(hunger, hygiene, social, sleep, mood, true, asleep, steps);
+  }
+
+  /**
+   * Computes the state after an interaction, following the strategy for the current mood.
+   */
+  private static long interacted(long current, Action action) {
+    boolean asleep = (current & ASLEEP_BIT) != 0;
+    if ((current & ALIVE_BIT) == 0 || (asleep && action != Action.SLEEP)) {
+      return current;
+    }
+    MoodEnum mood = mood(current);
+    int amount = (mood == MoodEnum.HAPPY) ? 15 : (mood == MoodEnum.SAD) ? 5 : 10;
+    int hunger = level(current, HUNGER_SHIFT);
+    int hygiene = level(current, HYGIENE_SHIFT);
+    int social = level(current, SOCIAL_SHIFT);
+    int sleep = level(current, SLEEP_SHIFT);
+    boolean cheeredUp = false;
+
+    switch (action) {
+      case FEED:
+        cheeredUp = mood == MoodEnum.SAD && hunger > HUNGRY_THRESHOLD;
+        hunger = clamp(hunger - amount);
+        break;
+      case PLAY:
+        cheeredUp = mood == MoodEnum.SAD && social < LONELY_THRESHOLD;
+        social = clamp(social + amount);
+        sleep = clamp(sleep - 5);
+        break;
+      case CLEAN:
+        hygiene = clamp(hygiene + amount);
+        break;
+      case SLEEP:
+        if (!asleep) {
+          asleep = true;
+          sleep = clamp(sleep + amount);
+        } else {
+          asleep = false;
+        }
+        break;
+      default:
+        break;
+    }
+    return pack(hunger, hygiene, social, sleep,
+        moodFor(hunger, hygiene, social, sleep, 0, cheeredUp), true, asleep, 0);
+  }
+
+  /**
+   * Chooses the mood for the given health, with the same precedence as {@link Pet}.
+   */
+  private static MoodEnum moodFor(int hunger, int hygiene, int social, int sleep, int steps,
+                                  boolean cheeredUp) {
+    if (cheeredUp) {
+      return MoodEnum.HAPPY;
+    }
+    if (steps >= NEGLECT_THRESHOLD) {
+      return MoodEnum.SAD;
+    }
+    if (hunger > HIGH_THRESHOLD || hygiene < LOW_THRESHOLD || social < LOW_THRESHOLD
+        || sleep < LOW_THRESHOLD) {
+      return MoodEnum.SAD;
+    } else if (hunger < LOW_THRESHOLD && hygiene > HIGH_THRESHOLD && social > HIGH_THRESHOLD
+        && sleep > HIGH_THRESHOLD) {
+      return MoodEnum.HAPPY;
+    }
+    return MoodEnum.NEUTRAL;
+  }
+
+  private static long pack(int hunger, int hygiene, int social, int sleep, MoodEnum mood,
+                           boolean alive, boolean asleep, int steps) {
+    long packed = ((long) hunger << HUNGER_SHIFT)
+        | ((long) hygiene << HYGIENE_SHIFT)
+        | ((long) social << SOCIAL_SHIFT)
+        | ((long) sleep << SLEEP_SHIFT)
+        | ((long) mood.ordinal() << MOOD_SHIFT)
+        | ((long) steps << STEPS_SHIFT);
+    if (alive) {
+      packed |= ALIVE_BIT;
+    }
+    if (asleep) {
+      packed |= ASLEEP_BIT;
+    }
+    return packed;
+  }
+
+  private static long withHealth(long current, int hunger, int hygiene, int social,
+                                 int sleep) {
+    long levels = (LEVEL_MASK << HUNGER_SHIFT) | (LEVEL_MASK << HYGIENE_SHIFT)
+        | (LEVEL_MASK << SOCIAL_SHIFT) | (LEVEL_MASK << SLEEP_SHIFT);
+    return (current & ~levels)
+        | ((long) hunger << HUNGER_SHIFT)
+        | ((long) hygiene << HYGIENE_SHIFT)
+        | ((long) social << SOCIAL_SHIFT)
+        | ((long) sleep << SLEEP_SHIFT);
+  }
+
+  private static long withMood(long current, MoodEnum mood) {
+    return (current & ~(MOOD_MASK << MOOD_SHIFT)) | ((long) mood.ordinal() << MOOD_SHIFT);
+  }
+
+  private static int level(long packed, int shift) {
+    return (int) ((packed >>> shift) & LEVEL_MASK);
+  }
+
+  private static MoodEnum mood(long packed) {
+    return MOODS[(int) ((packed >>> MOOD_SHIFT) & MOOD_MASK)];
+  }
+
+  private static int clamp(int value) {
+    return Math.max(MIN_LEVEL, Math.min(MAX_LEVEL, value));
+  }
+}
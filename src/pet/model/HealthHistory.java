@@ -0,0 +1,221 @@
+package pet.model;
+
+import java.util.Arrays;
+import pet.enums.HealthStat;
+
+/**
+ * Records a pet's health stats once per tick in primitive byte columns.
+ * A pyramid of per-block minimums and maximums (16 ticks per block at the first level,
+ * 256 at the second, and so on) lets a range be summarized without scanning every tick,
+ * so a chart can be decimated in time proportional to its pixel width.
+ *
+ * <p>There must be a single writer. Readers on other threads see a consistent prefix of
+ * the history up to {@link #size()}.
+ */
+public class HealthHistory {
+  private static final int STATS = HealthStat.values().length;
+  private static final int SHIFT = 4;
+  private static final int FANOUT = 1 << SHIFT;
+  private static final int INITIAL_CAPACITY = 64;
+
+  // Raw values indexed by stat, then tick
+  private final byte[][] columns = new byte[STATS][INITIAL_CAPACITY];
+  // Summary levels; levels[0] is unused and level L covers blocks of 16^L ticks
+  private volatile Level[] levels = new Level[1];
+  private volatile int size;
+
+  /**
+   * Appends the health status for the next tick.
+   *
+   * @param health the health status to record
+   */
+  public void record(HealthStatus health) {
+    int index = size;
+    if (index == Integer.MAX_VALUE) {
+      return;
+    }
+    if (index == columns[0].length) {
+      int capacity = (int) Math.min(Integer.MAX_VALUE, index * 2L);
+      for (int stat = 0; stat < STATS; stat++) {
+        columns[stat] = Arrays.copyOf(columns[stat], capacity);
+      }
+    }
+
+    byte[] values = {
+        (byte) health.getHunger(),
+        (byte) health.getHygiene(),
+        (byte) health.getSocial(),
+        (byte) health.getSleep()
+    };
+    for (int stat = 0; stat < STATS; stat++) {
+      columns[stat][index] = values[stat];
+    }
+
+    // Add a level once the history spans more than one block of it
+    Level[] current = levels;
+    if (current.length <= 31 / SHIFT && index == 1 << (SHIFT * current.length)) {
+      current = addLevel(current);
+    }
+    for (int level = 1; level < current.length; level++) {
+      current[level].update(index >>> (SHIFT * level),
+          (index & ((1 << (SHIFT * level)) - 1)) == 0, values);
+    }
+    size = index + 1;
+  }
+
+  /**
+   * Gets the number of recorded ticks.
+   *
+   * @return the number of ticks
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets a recorded stat value.
+   *
+   * @param stat  the stat to read
+   * @param index the tick index, counted from the first record
+   * @return the stat value
+   */
+  public int get(HealthStat stat, int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Tick " + index + " of " + size);
+    }
+    return columns[stat.ordinal()][index];
+  }
+
+  /**
+   * Splits a tick range into equal buckets and computes each bucket's minimum and maximum.
+   * Ranges shorter than the bucket count produce one bucket per tick.
+   *
+   * @param stat    the stat to summarize
+   * @param from    the first tick, inclusive
+   * @param to      the last tick, exclusive
+   * @param buckets the number of buckets wanted
+   * @param min     receives the bucket minimums
+   * @param max     receives the bucket maximums
+   * @return the number of buckets filled
+   */
+  public int minMax(HealthStat stat, int from, int to, int buckets, int[] min, int[] max) {
+    int count = Math.min(buckets, to - from);
+    if (from < 0 || to > size || count <= 0) {
+      return 0;
+    }
+    int[] bounds = new int[2];
+    long span = to - from;
+    for (int bucket = 0; bucket < count; bucket++) {
+      int start = from + (int) (span * bucket / count);
+      int end = from + (int) (span * (bucket + 1) / count);
+      bounds[0] = Integer.MAX_VALUE;
+      bounds[1] = Integer.MIN_VALUE;
+      rangeMinMax(stat.ordinal(), topLevelFor(end - start), start, end, bounds);
+      min[bucket] = bounds[0];
+      max[bucket] = bounds[1];
+    }
+    return count;
+  }
+
+  /**
+   * Finds the coarsest summary level whose blocks fit inside a range of the given length.
+   */
+  private int topLevelFor(int length) {
+    int level = 0;
+    int available = levels.length - 1;
+    while (level < available && (1L << (SHIFT * (level + 1))) <= length) {
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Accumulates the minimum and maximum of a range, using whole blocks at the given level
+   * and descending a level for the partial blocks at either end.
+   */
+  private void rangeMinMax(int stat, int level, int from, int to, int[] bounds) {
+    if (from >= to) {
+      return;
+    }
+    if (level == 0) {
+      byte[] column = columns[stat];
+      for (int i = from; i < to; i++) {
+        bounds[0] = Math.min(bounds[0], column[i]);
+        bounds[1] = Math.max(bounds[1], column[i]);
+      }
+      return;
+    }
+
+    int blockShift = SHIFT * level;
+    int firstBlock = (int) ((from + (1L << blockShift) - 1) >>> blockShift);
+    int endBlock = to >>> blockShift;
+    if (firstBlock >= endBlock) {
+      rangeMinMax(stat, level - 1, from, to, bounds);
+      return;
+    }
+
+    rangeMinMax(stat, level - 1, from, firstBlock << blockShift, bounds);
+    Level summary = levels[level];
+    byte[] blockMin = summary.min[stat];
+    byte[] blockMax = summary.max[stat];
+    for (int block = firstBlock; block < endBlock; block++) {
+      bounds[0] = Math.min(bounds[0], blockMin[block]);
+      bounds[1] = Math.max(bounds[1], blockMax[block]);
+    }
+    rangeMinMax(stat, level - 1, endBlock << blockShift, to, bounds);
+  }
+
+  /**
+   * Adds the next summary level, seeding its first block from the level below.
+   */
+  private Level[] addLevel(Level[] current) {
+    int levelIndex = current.length;
+    Level level = new Level();
+    for (int stat = 0; stat < STATS; stat++) {
+      byte[] lowerMin = (levelIndex == 1) ? columns[stat] : current[levelIndex - 1].min[stat];
+      byte[] lowerMax = (levelIndex == 1) ? columns[stat] : current[levelIndex - 1].max[stat];
+      byte min = Byte.MAX_VALUE;
+      byte max = Byte.MIN_VALUE;
+      for (int i = 0; i < FANOUT; i++) {
+        min = (byte) Math.min(min, lowerMin[i]);
+        max = (byte) Math.max(max, lowerMax[i]);
+      }
+      level.min[stat][0] = min;
+      level.max[stat][0] = max;
+    }
+
+    Level[] next = Arrays.copyOf(current, levelIndex + 1);
+    next[levelIndex] = level;
+    levels = next;
+    return next;
+  }
+
+  /**
+   * Minimums and maximums of each stat over fixed-size blocks of ticks.
+   */
+  private static class Level {
+    private final byte[][] min = new byte[STATS][FANOUT];
+    private final byte[][] max = new byte[STATS][FANOUT];
+
+    /**
+     * Folds one tick's values into a block, starting the block if it is new.
+     */
+    void update(int block, boolean first, byte[] values) {
+      if (block == min[0].length) {
+        for (int stat = 0; stat < STATS; stat++) {
+          min[stat] = Arrays.copyOf(min[stat], block * 2);
+          max[stat] = Arrays.copyOf(max[stat], block * 2);
+        }
+      }
+      for (int stat = 0; stat < STATS; stat++) {
+        if (first) {
+          min[stat][block] = values[stat];
+          max[stat][block] = values[stat];
+        } else {
+          min[stat][block] = (byte) Math.min(min[stat][block], values[stat]);
+          max[stat][block] = (byte) Math.max(max[stat][block], values[stat]);
+        }
+      }
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package pet.model;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import pet.enums.Action;
 import pet.enums.MoodEnum;
 import pet.strategy.HappyMoodStrategy;
@@ -18,6 +19,11 @@ public class Pet implements PetInterface {
   private static final int NEGLECT_THRESHOLD = 5;
   private static final int HIGH_THRESHOLD = 70;
   private static final int LOW_THRESHOLD = 30;
+  private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+  private final int id;
+  // Off unless asked for, so pets hosted by the servers do not grow a history nobody reads
+  private HealthHistory healthHistory;
 
   private HealthStatus health;
   private MoodEnum mood;
@@ -29,13 +35,25 @@ public class Pet implements PetInterface {
   private boolean fedWhileSadAndHungry = false;
   private boolean playedWhileSadAndLonely = false;
   private int stepsSinceInteract = 0;
+  private long tick = 0;
 
   /**
    * Constructs a new pet with default health status, mood, and name.
    */
   public Pet() {
-    this.health = new HealthStatus(MAX_LEVEL / 2, MAX_LEVEL / 2,
-        MAX_LEVEL / 2, MAX_LEVEL / 2);
+    this(NEXT_ID.getAndIncrement(), new HealthStatus(MAX_LEVEL / 2, MAX_LEVEL / 2,
+        MAX_LEVEL / 2, MAX_LEVEL / 2));
+  }
+
+  /**
+   * Constructs a new pet with a given id and starting health.
+   *
+   * @param id     the pet id
+   * @param health the starting health
+   */
+  private Pet(int id, HealthStatus health) {
+    this.id = id;
+    this.health = health;
     this.mood = MoodEnum.NEUTRAL;
     this.moodStrategy = new NeutralMoodStrategy();
     this.name = "Buddy";
@@ -51,6 +69,84 @@ public class Pet implements PetInterface {
     this.name = name;
   }
 
+  /**
+   * Recreates a pet that was moved from another process, keeping its id and full state.
+   * Its health history, if one was recorded, is not carried over.
+   *
+   * @param snapshot                the pet's observable state
+   * @param stepsSinceInteract      the steps since the pet was last interacted with
+   * @param fedWhileSadAndHungry    whether the pet was fed while sad and hungry
+   * @param playedWhileSadAndLonely whether the pet was played with while sad and lonely
+   * @return the restored pet
+   */
+  public static Pet restore(PetSnapshot snapshot, int stepsSinceInteract,
+                            boolean fedWhileSadAndHungry, boolean playedWhileSadAndLonely) {
+    Pet pet = new Pet(snapshot.getId(), snapshot.getHealth());
+    pet.name = snapshot.getName();
+    pet.tick = snapshot.getTick();
+    pet.setMood(snapshot.getMood());
+    pet.alive = snapshot.isAlive();
+    pet.asleep = snapshot.isAsleep();
+    pet.stepsSinceInteract = stepsSinceInteract;
+    pet.fedWhileSadAndHungry = fedWhileSadAndHungry;
+    pet.playedWhileSadAndLonely = playedWhileSadAndLonely;
+    return pet;
+  }
+
+  /**
+   * Creates a pet with default state and an id chosen by the caller, for pets whose ids
+   * are assigned outside this process. The caller must keep ids unique.
+   *
+   * @param id the pet id
+   * @return the new pet
+   */
+  public static Pet withId(int id) {
+    return new Pet(id, new HealthStatus(MAX_LEVEL / 2, MAX_LEVEL / 2,
+        MAX_LEVEL / 2, MAX_LEVEL / 2));
+  }
+
+  /**
+   * Gets the unique id of the pet.
+   *
+   * @return the pet id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Gets the number of time steps the pet has lived through.
+   *
+   * @return the current tick
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Starts recording the pet's health once per step, beginning with its current health.
+   * Recording is off by default; calling this again keeps the history already recorded.
+   *
+   * @return the health history
+   */
+  public HealthHistory recordHealthHistory() {
+    if (healthHistory == null) {
+      healthHistory = new HealthHistory();
+      healthHistory.record(health);
+    }
+    return healthHistory;
+  }
+
+  /**
+   * Gets the pet's health history, recorded once per step since
+   * {@link #recordHealthHistory()} was called.
+   *
+   * @return the health history, or null if it is not being recorded
+   */
+  public HealthHistory getHealthHistory() {
+    return healthHistory;
+  }
+
   public String getName() {
     return name;
   }
@@ -68,6 +164,7 @@ public class Pet implements PetInterface {
       return;
     }
     stepsSinceInteract++;
+    tick++;
 
     int actualDecrement = (this.mood == MoodEnum.HAPPY) ? DECREMENT / 2 : DECREMENT;
 
@@ -77,6 +174,9 @@ public class Pet implements PetInterface {
         Math.max(MIN_LEVEL, health.getSocial() - actualDecrement),
         Math.max(MIN_LEVEL, health.getSleep() - actualDecrement)
     );
+    if (healthHistory != null) {
+      healthHistory.record(health);
+    }
 
     if (health.getHunger() == MAX_LEVEL && health.getHygiene() == MIN_LEVEL
         && health.getSocial() == MIN_LEVEL && health.getSleep() == MIN_LEVEL) {
@@ -205,6 +305,15 @@ public class Pet implements PetInterface {
     this.playedWhileSadAndLonely = played;
   }
 
+  /**
+   * Gets the number of steps since the pet was last interacted with.
+   *
+   * @return the steps since the last interaction
+   */
+  public int getStepsSinceInteract() {
+    return stepsSinceInteract;
+  }
+
   /**
    * Returns whether the pet is alive.
    *
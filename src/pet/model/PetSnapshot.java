@@ -0,0 +1,85 @@
+package pet.model;
+
+import pet.enums.MoodEnum;
+
+/**
+ * Immutable copy of a pet's observable state at one point in time.
+ * Snapshots can be handed to other threads without synchronization.
+ */
+public final class PetSnapshot {
+  private final int id;
+  private final String name;
+  private final long tick;
+  private final HealthStatus health;
+  private final MoodEnum mood;
+  private final boolean alive;
+  private final boolean asleep;
+
+  /**
+   * Creates a new snapshot.
+   *
+   * @param id     the pet id
+   * @param name   the pet name
+   * @param tick   the pet tick
+   * @param health the health status
+   * @param mood   the mood
+   * @param alive  whether the pet is alive
+   * @param asleep whether the pet is asleep
+   */
+  public PetSnapshot(int id, String name, long tick, HealthStatus health, MoodEnum mood,
+                     boolean alive, boolean asleep) {
+    this.id = id;
+    this.name = name;
+    this.tick = tick;
+    this.health = health;
+    this.mood = mood;
+    this.alive = alive;
+    this.asleep = asleep;
+  }
+
+  /**
+   * Takes a snapshot of a pet.
+   *
+   * @param pet the pet to copy
+   * @return the snapshot
+   */
+  public static PetSnapshot of(Pet pet) {
+    // HealthStatus is immutable, so it can be shared as is
+    return new PetSnapshot(pet.getId(), pet.getName(), pet.getTick(), pet.getHealth(),
+        pet.getMood(), pet.isAlive(), pet.isAsleep());
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getTick() {
+    return tick;
+  }
+
+  public HealthStatus getHealth() {
+    return health;
+  }
+
+  public MoodEnum getMood() {
+    return mood;
+  }
+
+  public boolean isAlive() {
+    return alive;
+  }
+
+  public boolean isAsleep() {
+    return asleep;
+  }
+
+  @Override
+  public String toString() {
+    return "PetSnapshot{" + "id=" + id + ", name=" + name + ", tick=" + tick + ", health="
+        + health + ", mood=" + mood + ", alive=" + alive + ", asleep=" + asleep + '}';
+  }
+}
@@ -0,0 +1,67 @@
+package pet.model;
+
+/**
+ * Immutable record of a pet moving from one published state to another.
+ * When changes are conflated, the earlier change's previous state is kept together with the
+ * later change's current state, so the net transition is still visible.
+ */
+public final class PetStateChange {
+  private final PetSnapshot previous;
+  private final PetSnapshot current;
+
+  /**
+   * Creates a new state change.
+   *
+   * @param previous the state before the change, or null if the pet was just added
+   * @param current  the state after the change
+   */
+  public PetStateChange(PetSnapshot previous, PetSnapshot current) {
+    this.previous = previous;
+    this.current = current;
+  }
+
+  /**
+   * Combines this change with a later change of the same pet.
+   *
+   * @param later the later change
+   * @return a change from this change's previous state to the later change's current state
+   */
+  public PetStateChange merge(PetStateChange later) {
+    return new PetStateChange(previous, later.current);
+  }
+
+  public int getPetId() {
+    return current.getId();
+  }
+
+  public PetSnapshot getPrevious() {
+    return previous;
+  }
+
+  public PetSnapshot getCurrent() {
+    return current;
+  }
+
+  /**
+   * Returns whether the pet's mood differs between the two states.
+   *
+   * @return true if the mood changed
+   */
+  public boolean isMoodChange() {
+    return previous == null || previous.getMood() != current.getMood();
+  }
+
+  /**
+   * Returns whether the pet died during the change.
+   *
+   * @return true if the pet was alive before and is dead after
+   */
+  public boolean isDeath() {
+    return (previous == null || previous.isAlive()) && !current.isAlive();
+  }
+
+  @Override
+  public String toString() {
+    return previous + " -> " + current;
+  }
+}
@@ -0,0 +1,262 @@
+package pet.model.history;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import pet.enums.ActivityType;
+import pet.model.ActivityEvent;
+
+/**
+ * Append-only on-disk history of activity events.
+ * Events are stored in fixed-capacity segment files. Filtered paging walks the per-type
+ * bitmaps of each segment, so only matching records are read from disk.
+ * Sealed segments are opened lazily: their indexes are read on the first query that reaches
+ * them, and at most {@value #OPEN_SEGMENTS} of their logs are open at once, so opening a
+ * long history costs neither a file descriptor nor an index read per segment.
+ * All operations are synchronized, so the history may be read from a background thread
+ * while events are appended.
+ */
+public class ActivityHistory implements Closeable {
+  private static final int OPEN_SEGMENTS = 8;
+
+  private final File directory;
+  private final List<HistorySegment> segments = new ArrayList<>();
+  private final SegmentChannels channels = new SegmentChannels(OPEN_SEGMENTS);
+  private HistorySegment active;
+
+  /**
+   * Opens the history stored in a directory, creating it if needed.
+   *
+   * @param directory the history directory
+   * @throws IOException if the history cannot be opened
+   */
+  public ActivityHistory(File directory) throws IOException {
+    this.directory = directory;
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create history directory " + directory);
+    }
+
+    // Segment files are named after their base sequence number
+    TreeSet<Long> bases = new TreeSet<>();
+    File[] files = directory.listFiles((dir, name) ->
+        name.startsWith("segment-") && name.endsWith(".log"));
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+        bases.add(Long.parseLong(name.substring("segment-".length(), name.length() - 4)));
+      }
+    }
+    for (long base : bases) {
+      segments.add(new HistorySegment(directory, base, channels));
+    }
+
+    if (segments.isEmpty()) {
+      segments.add(new HistorySegment(directory, 0, channels));
+    }
+    active = segments.get(segments.size() - 1);
+    if (active.isFull()) {
+      rollSegment();
+    }
+  }
+
+  /**
+   * Appends an event stamped with the current time.
+   *
+   * @param event the event to append
+   * @throws IOException if the event cannot be written
+   */
+  public void append(ActivityEvent event) throws IOException {
+    append(event, System.currentTimeMillis());
+  }
+
+  /**
+   * Appends an event with an explicit time.
+   *
+   * @param event the event to append
+   * @param time  the wall-clock time of the event in milliseconds
+   * @throws IOException if the event cannot be written
+   */
+  public synchronized void append(ActivityEvent event, long time) throws IOException {
+    active.append(event, time);
+    if (active.isFull()) {
+      rollSegment();
+    }
+  }
+
+  /**
+   * Gets the number of events in the history.
+   *
+   * @return the number of events; also the cursor for reading the newest page
+   */
+  public synchronized long size() {
+    return active.getBaseSeq() + active.getCount();
+  }
+
+  /**
+   * Reads a single event by its sequence number, oldest first.
+   *
+   * @param seq the sequence number, from 0 to {@link #size()} exclusive
+   * @return the event
+   * @throws IOException if the history cannot be read
+   */
+  public synchronized ActivityEvent read(long seq) throws IOException {
+    if (seq < 0 || seq >= size()) {
+      throw new IndexOutOfBoundsException("Event " + seq + " of " + size());
+    }
+    HistorySegment segment = segments.get(segmentFor(seq));
+    return segment.read((int) (seq - segment.getBaseSeq()));
+  }
+
+  /**
+   * Counts the events of the given types using only the segment indexes.
+   *
+   * @param types the event types to count
+   * @return the number of matching events
+   * @throws IOException if an index cannot be read
+   */
+  public synchronized long count(Set<ActivityType> types) throws IOException {
+    boolean[] filter = toFilter(types);
+    long total = 0;
+    for (HistorySegment segment : segments) {
+      total += segment.countMatches(filter);
+    }
+    return total;
+  }
+
+  /**
+   * Reads a page of events older than the cursor, newest first.
+   *
+   * @param types  the event types to include
+   * @param before the exclusive cursor; use {@link #size()} for the newest page
+   * @param limit  the maximum number of events to return
+   * @return the page of matching events
+   * @throws IOException if the history cannot be read
+   */
+  public synchronized HistoryPage readPage(Set<ActivityType> types, long before, int limit) throws IOException {
+    boolean[] filter = toFilter(types);
+    List<ActivityEvent> events = new ArrayList<>(Math.min(limit, 256));
+    long[] times = new long[limit];
+    long cursor = Math.min(before, size());
+
+    int segmentIndex = segmentFor(cursor - 1);
+    while (segmentIndex >= 0 && events.size() < limit) {
+      HistorySegment segment = segments.get(segmentIndex);
+      int offset = (int) Math.min(segment.getCount(), cursor - segment.getBaseSeq());
+      if (segment.countMatches(filter) > 0) {
+        while (events.size() < limit) {
+          offset = segment.previousMatch(filter, offset);
+          if (offset < 0) {
+            break;
+          }
+          times[events.size()] = segment.readTime(offset);
+          events.add(segment.read(offset));
+        }
+      }
+      if (offset >= 0 && events.size() == limit) {
+        cursor = segment.getBaseSeq() + offset;
+        break;
+      }
+      cursor = segment.getBaseSeq();
+      segmentIndex--;
+    }
+    return new HistoryPage(events, times, cursor);
+  }
+
+  /**
+   * Finds the cursor of the first event at or after the given time.
+   * Passing the result as the cursor of {@link #readPage} reads the events before that time.
+   *
+   * @param time the wall-clock time in milliseconds
+   * @return the sequence number of the first event at or after the time
+   * @throws IOException if the history cannot be read
+   */
+  public synchronized long seekTime(long time) throws IOException {
+    for (int i = 1; i < segments.size(); i++) {
+      if (segments.get(i).firstTime() > time) {
+        HistorySegment segment = segments.get(i - 1);
+        return segment.getBaseSeq() + segment.seekTime(time);
+      }
+    }
+    return active.getBaseSeq() + active.seekTime(time);
+  }
+
+  /**
+   * Finds the cursor of the first event at or after the given pet tick.
+   * Ticks are only ordered when the history belongs to a single pet.
+   *
+   * @param tick the pet tick
+   * @return the sequence number of the first event at or after the tick
+   * @throws IOException if the history cannot be read
+   */
+  public synchronized long seekTick(long tick) throws IOException {
+    for (int i = 1; i < segments.size(); i++) {
+      if (segments.get(i).firstTick() > tick) {
+        HistorySegment segment = segments.get(i - 1);
+        return segment.getBaseSeq() + segment.seekTick(tick);
+      }
+    }
+    return active.getBaseSeq() + active.seekTick(tick);
+  }
+
+  /**
+   * Gets the number of segment log files currently open, including the active one.
+   *
+   * @return the open file count
+   */
+  public synchronized int getOpenFileCount() {
+    return channels.size() + 1;
+  }
+
+  /**
+   * Flushes pending writes to disk.
+   *
+   * @throws IOException if the history cannot be flushed
+   */
+  public synchronized void flush() throws IOException {
+    active.flush();
+  }
+
+  /**
+   * Flushes and closes all segment files.
+   *
+   * @throws IOException if a segment cannot be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    active.flush();
+    active.close();
+    channels.close();
+  }
+
+  /**
+   * Seals the active segment and starts a new one.
+   */
+  private void rollSegment() throws IOException {
+    active.seal();
+    active = new HistorySegment(directory, active.getBaseSeq() + HistorySegment.CAPACITY,
+        channels);
+    segments.add(active);
+  }
+
+  /**
+   * Finds the segment holding a sequence number.
+   */
+  private int segmentFor(long seq) {
+    if (seq < 0) {
+      return -1;
+    }
+    return (int) Math.min(segments.size() - 1, seq / HistorySegment.CAPACITY);
+  }
+
+  private static boolean[] toFilter(Set<ActivityType> types) {
+    boolean[] filter = new boolean[ActivityType.values().length];
+    for (ActivityType type : types) {
+      filter[type.ordinal()] = true;
+    }
+    return filter;
+  }
+}
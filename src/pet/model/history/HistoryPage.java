@@ -0,0 +1,64 @@
+package pet.model.history;
+
+import java.util.Collections;
+import java.util.List;
+import pet.model.ActivityEvent;
+
+/**
+ * A page of events read from the activity history, newest first.
+ */
+public class HistoryPage {
+  private final List<ActivityEvent> events;
+  private final long[] times;
+  private final long nextCursor;
+
+  /**
+   * Creates a new history page.
+   *
+   * @param events     the events of the page, newest first
+   * @param times      the wall-clock time of each event in milliseconds
+   * @param nextCursor the cursor to pass to read the following (older) page
+   */
+  HistoryPage(List<ActivityEvent> events, long[] times, long nextCursor) {
+    this.events = Collections.unmodifiableList(events);
+    this.times = times;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Gets the events of this page.
+   *
+   * @return the events, newest first
+   */
+  public List<ActivityEvent> getEvents() {
+    return events;
+  }
+
+  /**
+   * Gets the time an event of this page was recorded.
+   *
+   * @param index the index of the event in {@link #getEvents()}
+   * @return the wall-clock time in milliseconds
+   */
+  public long getTime(int index) {
+    return times[index];
+  }
+
+  /**
+   * Gets the cursor for the next older page.
+   *
+   * @return the cursor
+   */
+  public long getNextCursor() {
+    return nextCursor;
+  }
+
+  /**
+   * Returns whether older matching events may exist.
+   *
+   * @return true if there may be another page
+   */
+  public boolean hasMore() {
+    return nextCursor > 0;
+  }
+}
@@ -0,0 +1,482 @@
+package pet.model.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import pet.enums.ActivityType;
+import pet.enums.MoodEnum;
+import pet.model.ActivityEvent;
+
+/**
+ * One fixed-capacity file of the activity history.
+ * Records have a fixed size so any record can be read by position. A sparse index of
+ * tick and time is kept for every {@link #INDEX_INTERVAL} records, and one bitmap per
+ * event type marks which records have that type.
+ *
+ * <p>Opening a sealed segment touches neither of its files: the index is read on the first
+ * query that needs it, and the log is read through the shared {@link SegmentChannels}.
+ */
+class HistorySegment {
+  static final int CAPACITY = 1 << 16;
+  static final int INDEX_INTERVAL = 1024;
+  static final int RECORD_SIZE = 32;
+
+  private static final int INDEX_MAGIC = 0x50484958; // "PHIX"
+  private static final int TYPE_COUNT = ActivityType.values().length;
+
+  private final long baseSeq;
+  private final File logFile;
+  private final File indexFile;
+  private final SegmentChannels channels;
+  // Writable log of the active segment; sealed segments read through the shared channels
+  private FileChannel channel;
+  private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_SIZE);
+
+  private int count;
+  private boolean sealed;
+  private boolean indexLoaded;
+  private final int[] typeCounts = new int[TYPE_COUNT];
+  private long[] indexTicks = new long[CAPACITY / INDEX_INTERVAL];
+  private long[] indexTimes = new long[CAPACITY / INDEX_INTERVAL];
+
+  // Bitmaps of the active segment are always in memory; sealed ones are loaded on demand
+  private BitSet[] activeBitmaps;
+  private SoftReference<BitSet[]> sealedBitmaps = new SoftReference<>(null);
+
+  /**
+   * Opens a segment. An unsealed segment rebuilds its index from the log; a sealed one
+   * defers reading its index until it is queried.
+   *
+   * @param directory the history directory
+   * @param baseSeq   the sequence number of the first record in this segment
+   * @param channels  the channels sealed segments read their logs through
+   * @throws IOException if the segment files cannot be read
+   */
+  HistorySegment(File directory, long baseSeq, SegmentChannels channels) throws IOException {
+    this.baseSeq = baseSeq;
+    this.channels = channels;
+    String name = String.format("segment-%012d", baseSeq);
+    this.logFile = new File(directory, name + ".log");
+    this.indexFile = new File(directory, name + ".idx");
+
+    if (indexFile.exists()) {
+      // The log was forced before sealing, so its length gives the count without opening it
+      this.count = (int) Math.min(CAPACITY, logFile.length() / RECORD_SIZE);
+      this.sealed = true;
+    } else {
+      this.channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      rebuildIndex();
+      this.indexLoaded = true;
+    }
+  }
+
+  long getBaseSeq() {
+    return baseSeq;
+  }
+
+  int getCount() {
+    return count;
+  }
+
+  boolean isFull() {
+    return count >= CAPACITY;
+  }
+
+  /**
+   * Appends a record to this segment.
+   *
+   * @param event the event to append
+   * @param time  the wall-clock time of the event in milliseconds
+   * @throws IOException if the record cannot be written
+   */
+  void append(ActivityEvent event, long time) throws IOException {
+    if (sealed || isFull()) {
+      throw new IllegalStateException("Segment " + baseSeq + " is closed for writing");
+    }
+    recordBuffer.clear();
+    encode(event, time, recordBuffer);
+    recordBuffer.flip();
+    long position = (long) count * RECORD_SIZE;
+    while (recordBuffer.hasRemaining()) {
+      position += channel.write(recordBuffer, position);
+    }
+    indexRecord(count, event.getTick(), time, event.getType().ordinal());
+    count++;
+  }
+
+  /**
+   * Reads the event stored at the given offset.
+   *
+   * @param offset the record offset within this segment
+   * @return the event
+   * @throws IOException if the record cannot be read
+   */
+  ActivityEvent read(int offset) throws IOException {
+    readRecord(offset);
+    return decode(recordBuffer);
+  }
+
+  /**
+   * Reads the time stored at the given offset.
+   *
+   * @param offset the record offset within this segment
+   * @return the wall-clock time of the record in milliseconds
+   * @throws IOException if the record cannot be read
+   */
+  long readTime(int offset) throws IOException {
+    readRecord(offset);
+    return recordBuffer.getLong(8);
+  }
+
+  /**
+   * Finds the newest record before the given offset whose type is in the filter.
+   *
+   * @param types  the event types to accept, indexed by ordinal
+   * @param before the exclusive upper bound offset
+   * @return the offset of the matching record, or -1 if there is none
+   * @throws IOException if the bitmaps cannot be loaded
+   */
+  int previousMatch(boolean[] types, int before) throws IOException {
+    loadIndex();
+    BitSet[] bitmaps = null;
+    int best = -1;
+    for (int type = 0; type < TYPE_COUNT; type++) {
+      if (!types[type] || typeCounts[type] == 0) {
+        continue;
+      }
+      if (bitmaps == null) {
+        bitmaps = bitmaps();
+      }
+      int candidate = bitmaps[type].previousSetBit(before - 1);
+      if (candidate > best) {
+        best = candidate;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Counts the records of the given types in this segment without touching the log.
+   *
+   * @param types the event types to count, indexed by ordinal
+   * @return the number of matching records
+   * @throws IOException if the index cannot be loaded
+   */
+  int countMatches(boolean[] types) throws IOException {
+    loadIndex();
+    int total = 0;
+    for (int type = 0; type < TYPE_COUNT; type++) {
+      if (types[type]) {
+        total += typeCounts[type];
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Finds the first record at or after the given time.
+   *
+   * @param time the wall-clock time in milliseconds
+   * @return the offset of the record, or {@link #getCount()} if all records are older
+   * @throws IOException if the log cannot be read
+   */
+  int seekTime(long time) throws IOException {
+    loadIndex();
+    int entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+    int entry = Arrays.binarySearch(indexTimes, 0, entries, time);
+    int start = (entry >= 0) ? entry : Math.max(0, -entry - 2);
+    // Equal timestamps may span index entries, so step back to the first of them
+    while (start > 0 && indexTimes[start - 1] >= time) {
+      start--;
+    }
+    for (int offset = start * INDEX_INTERVAL; offset < count; offset++) {
+      if (readTime(offset) >= time) {
+        return offset;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Finds the first record at or after the given tick.
+   * Ticks are only ordered within the history of a single pet.
+   *
+   * @param tick the pet tick
+   * @return the offset of the record, or {@link #getCount()} if all records are older
+   * @throws IOException if the log cannot be read
+   */
+  int seekTick(long tick) throws IOException {
+    loadIndex();
+    int entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+    int entry = Arrays.binarySearch(indexTicks, 0, entries, tick);
+    int start = (entry >= 0) ? entry : Math.max(0, -entry - 2);
+    while (start > 0 && indexTicks[start - 1] >= tick) {
+      start--;
+    }
+    for (int offset = start * INDEX_INTERVAL; offset < count; offset++) {
+      if (read(offset).getTick() >= tick) {
+        return offset;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the time of the first record.
+   *
+   * @return the time in milliseconds, or Long.MAX_VALUE if the segment is empty
+   * @throws IOException if the index cannot be loaded
+   */
+  long firstTime() throws IOException {
+    loadIndex();
+    return (count == 0) ? Long.MAX_VALUE : indexTimes[0];
+  }
+
+  /**
+   * Gets the tick of the first record.
+   *
+   * @return the tick, or Long.MAX_VALUE if the segment is empty
+   * @throws IOException if the index cannot be loaded
+   */
+  long firstTick() throws IOException {
+    loadIndex();
+    return (count == 0) ? Long.MAX_VALUE : indexTicks[0];
+  }
+
+  /**
+   * Writes the index file and makes this segment read-only. Its writable log is closed;
+   * later reads go through the shared channels.
+   *
+   * @throws IOException if the index cannot be written
+   */
+  void seal() throws IOException {
+    if (sealed) {
+      return;
+    }
+    channel.force(true);
+    File tmp = new File(indexFile.getPath() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(INDEX_MAGIC);
+      out.writeInt(count);
+      out.writeInt(TYPE_COUNT);
+      for (int typeCount : typeCounts) {
+        out.writeInt(typeCount);
+      }
+      int entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+      for (int i = 0; i < entries; i++) {
+        out.writeLong(indexTicks[i]);
+        out.writeLong(indexTimes[i]);
+      }
+      for (BitSet bitmap : activeBitmaps) {
+        byte[] bytes = bitmap.toByteArray();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+    }
+    if (!tmp.renameTo(indexFile)) {
+      throw new IOException("Could not write history index " + indexFile);
+    }
+    sealedBitmaps = new SoftReference<>(activeBitmaps);
+    activeBitmaps = null;
+    sealed = true;
+    channel.close();
+    channel = null;
+  }
+
+  /**
+   * Flushes written records to disk.
+   *
+   * @throws IOException if the log cannot be flushed
+   */
+  void flush() throws IOException {
+    if (!sealed) {
+      channel.force(false);
+    }
+  }
+
+  /**
+   * Closes the writable log file, if this segment has one.
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  /**
+   * Encodes an event into a fixed-size record.
+   */
+  private static void encode(ActivityEvent event, long time, ByteBuffer buffer) {
+    buffer.putLong(event.getTick());
+    buffer.putLong(time);
+    buffer.putInt(event.getPetId());
+    buffer.putInt(event.getDetail());
+    buffer.put((byte) event.getType().ordinal());
+    buffer.put(moodOrdinal(event.getMoodBefore()));
+    buffer.put(moodOrdinal(event.getMoodAfter()));
+    while (buffer.position() < RECORD_SIZE) {
+      buffer.put((byte) 0);
+    }
+  }
+
+  /**
+   * Decodes a fixed-size record into an event.
+   */
+  private static ActivityEvent decode(ByteBuffer buffer) {
+    long tick = buffer.getLong(0);
+    int petId = buffer.getInt(16);
+    int detail = buffer.getInt(20);
+    ActivityType type = ActivityType.values()[buffer.get(24)];
+    return new ActivityEvent(tick, petId, type, detail, mood(buffer.get(25)), mood(buffer.get(26)));
+  }
+
+  private static byte moodOrdinal(MoodEnum mood) {
+    return (mood == null) ? -1 : (byte) mood.ordinal();
+  }
+
+  private static MoodEnum mood(byte ordinal) {
+    return (ordinal < 0) ? null : MoodEnum.values()[ordinal];
+  }
+
+  /**
+   * Reads a raw record into the shared record buffer.
+   */
+  private void readRecord(int offset) throws IOException {
+    if (offset < 0 || offset >= count) {
+      throw new IndexOutOfBoundsException("Offset " + offset + " outside segment of " + count);
+    }
+    FileChannel log = (channel != null) ? channel : channels.get(logFile);
+    recordBuffer.clear();
+    long position = (long) offset * RECORD_SIZE;
+    while (recordBuffer.hasRemaining()) {
+      int read = log.read(recordBuffer, position + recordBuffer.position());
+      if (read < 0) {
+        throw new IOException("Unexpected end of history segment " + logFile);
+      }
+    }
+  }
+
+  /**
+   * Updates the in-memory index for a newly written record.
+   */
+  private void indexRecord(int offset, long tick, long time, int type) {
+    if (offset % INDEX_INTERVAL == 0) {
+      indexTicks[offset / INDEX_INTERVAL] = tick;
+      indexTimes[offset / INDEX_INTERVAL] = time;
+    }
+    activeBitmaps[type].set(offset);
+    typeCounts[type]++;
+  }
+
+  /**
+   * Rebuilds the index of an unsealed segment by scanning its log.
+   * A partially written trailing record is discarded.
+   */
+  private void rebuildIndex() throws IOException {
+    activeBitmaps = new BitSet[TYPE_COUNT];
+    for (int i = 0; i < TYPE_COUNT; i++) {
+      activeBitmaps[i] = new BitSet();
+    }
+    int records = (int) Math.min(CAPACITY, channel.size() / RECORD_SIZE);
+    channel.truncate((long) records * RECORD_SIZE);
+    count = records;
+    for (int offset = 0; offset < records; offset++) {
+      readRecord(offset);
+      indexRecord(offset, recordBuffer.getLong(0), recordBuffer.getLong(8), recordBuffer.get(24));
+    }
+  }
+
+  /**
+   * Reads the counts and sparse index of a sealed segment on first use.
+   */
+  private void loadIndex() throws IOException {
+    if (!indexLoaded) {
+      readIndexHeader();
+      indexLoaded = true;
+    }
+  }
+
+  /**
+   * Reads the counts and sparse index of a sealed segment, leaving the bitmaps on disk.
+   */
+  private void readIndexHeader() throws IOException {
+    try (DataInputStream in = openIndex()) {
+      count = in.readInt();
+      int types = in.readInt();
+      for (int i = 0; i < types; i++) {
+        int typeCount = in.readInt();
+        if (i < TYPE_COUNT) {
+          typeCounts[i] = typeCount;
+        }
+      }
+      int entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+      for (int i = 0; i < entries; i++) {
+        indexTicks[i] = in.readLong();
+        indexTimes[i] = in.readLong();
+      }
+    }
+  }
+
+  /**
+   * Gets the type bitmaps, loading them from the index file if they were evicted.
+   */
+  private BitSet[] bitmaps() throws IOException {
+    if (!sealed) {
+      return activeBitmaps;
+    }
+    BitSet[] bitmaps = sealedBitmaps.get();
+    if (bitmaps != null) {
+      return bitmaps;
+    }
+    bitmaps = new BitSet[TYPE_COUNT];
+    try (DataInputStream in = openIndex()) {
+      in.readInt();
+      int types = in.readInt();
+      in.skipBytes(types * Integer.BYTES);
+      int entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+      in.skipBytes(entries * 2 * Long.BYTES);
+      for (int i = 0; i < types; i++) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        if (i < TYPE_COUNT) {
+          bitmaps[i] = BitSet.valueOf(bytes);
+        }
+      }
+    }
+    for (int i = 0; i < TYPE_COUNT; i++) {
+      if (bitmaps[i] == null) {
+        bitmaps[i] = new BitSet();
+      }
+    }
+    sealedBitmaps = new SoftReference<>(bitmaps);
+    return bitmaps;
+  }
+
+  /**
+   * Opens the index file and checks its header.
+   */
+  private DataInputStream openIndex() throws IOException {
+    DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(indexFile)));
+    if (in.readInt() != INDEX_MAGIC) {
+      in.close();
+      throw new IOException("Not a history index: " + indexFile);
+    }
+    return in;
+  }
+}
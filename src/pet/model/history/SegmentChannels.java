@@ -0,0 +1,81 @@
+package pet.model.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only channels to the logs of sealed segments, opened on first read and closed again
+ * once they are the least recently used of more than a few. A history spanning thousands of
+ * segments therefore holds only a handful of file descriptors.
+ * Not thread-safe; {@link ActivityHistory} serializes access.
+ */
+class SegmentChannels {
+  private final Map<File, FileChannel> open;
+
+  /**
+   * Creates an empty set of channels.
+   *
+   * @param capacity the most channels kept open at once
+   */
+  SegmentChannels(int capacity) {
+    this.open = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<File, FileChannel> eldest) {
+        if (size() <= capacity) {
+          return false;
+        }
+        closeQuietly(eldest.getValue());
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Gets an open channel to a log file, opening it if needed.
+   *
+   * @param logFile the segment log
+   * @return the channel
+   * @throws IOException if the file cannot be opened
+   */
+  FileChannel get(File logFile) throws IOException {
+    FileChannel channel = open.get(logFile);
+    if (channel == null) {
+      channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+      open.put(logFile, channel);
+    }
+    return channel;
+  }
+
+  /**
+   * Gets the number of channels currently open.
+   *
+   * @return the open channel count
+   */
+  int size() {
+    return open.size();
+  }
+
+  /**
+   * Closes every open channel.
+   */
+  void close() {
+    Iterator<FileChannel> channels = open.values().iterator();
+    while (channels.hasNext()) {
+      closeQuietly(channels.next());
+      channels.remove();
+    }
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // Read-only, so nothing is lost; the channel is dropped either way
+    }
+  }
+}
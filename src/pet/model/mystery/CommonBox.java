@@ -1,6 +1,7 @@
 package pet.model.mystery;
 
 import java.util.Random;
+import pet.enums.BoxType;
 import pet.model.Pet;
 
 /**
@@ -47,6 +48,16 @@ public class CommonBox implements MysteryBox {
     return "res/images/boxes/common_box.png";
   }
 
+  /**
+   * Gets the type of the box.
+   *
+   * @return the type of the box
+   */
+  @Override
+  public BoxType getType() {
+    return BoxType.COMMON;
+  }
+
   /**
    * Opens the mystery box and applies its effects to the pet.
    *
@@ -55,6 +66,17 @@ public class CommonBox implements MysteryBox {
    */
   @Override
   public String open(Pet pet) {
+    return describeOutcome(openOutcome(pet));
+  }
+
+  /**
+   * Applies a random outcome to the pet.
+   *
+   * @param pet the pet to affect
+   * @return the index of the applied outcome
+   */
+  @Override
+  public int openOutcome(Pet pet) {
     int outcomeIndex = random.nextInt(OUTCOMES.length);
 
     // Apply effects based on the outcome
@@ -79,6 +101,17 @@ public class CommonBox implements MysteryBox {
         throw new IllegalStateException("Unexpected outcome index: " + outcomeIndex);
     }
 
+    return outcomeIndex;
+  }
+
+  /**
+   * Describes the outcome with the given index.
+   *
+   * @param outcomeIndex the outcome index
+   * @return the description of the outcome
+   */
+  @Override
+  public String describeOutcome(int outcomeIndex) {
     return OUTCOMES[outcomeIndex];
   }
 }
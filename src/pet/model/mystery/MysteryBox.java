@@ -1,5 +1,6 @@
 package pet.model.mystery;
 
+import pet.enums.BoxType;
 import pet.model.Pet;
 
 /**
@@ -27,6 +28,13 @@ public interface MysteryBox {
    */
   String getImagePath();
 
+  /**
+   * Gets the type of this box.
+   *
+   * @return the box type
+   */
+  BoxType getType();
+
   /**
    * Applies the box effects to the pet.
    *
@@ -34,4 +42,20 @@ public interface MysteryBox {
    * @return a description of what happened
    */
   String open(Pet pet);
+
+  /**
+   * Applies a random outcome to the pet without formatting it.
+   *
+   * @param pet the pet to affect
+   * @return the index of the outcome that was applied
+   */
+  int openOutcome(Pet pet);
+
+  /**
+   * Describes an outcome previously returned by {@link #openOutcome(Pet)}.
+   *
+   * @param outcomeIndex the outcome index
+   * @return a description of what happened
+   */
+  String describeOutcome(int outcomeIndex);
 }
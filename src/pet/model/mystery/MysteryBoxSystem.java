@@ -1,11 +1,21 @@
 package pet.model.mystery;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Random;
+import pet.enums.BoxType;
 
 /**
  * Manages the content of mystery boxes.
  */
 public class MysteryBoxSystem {
+  private static final Map<BoxType, MysteryBox> PROTOTYPES = new EnumMap<>(BoxType.class);
+
+  static {
+    PROTOTYPES.put(BoxType.COMMON, new CommonBox());
+    PROTOTYPES.put(BoxType.RARE, new RareBox());
+  }
+
   private final Random random = new Random();
 
   /**
@@ -23,4 +33,15 @@ public class MysteryBoxSystem {
       return new RareBox(); // 40% chance - rare box
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Describes an outcome of a box type without opening a box.
+   *
+   * @param type         the box type
+   * @param outcomeIndex the outcome index
+   * @return the description of the outcome
+   */
+  public static String describeOutcome(BoxType type, int outcomeIndex) {
+    return PROTOTYPES.get(type).describeOutcome(outcomeIndex);
+  }
+}
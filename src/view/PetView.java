@@ -8,25 +8,32 @@ import java.awt.Graphics2D;
 import java.awt.GridBagLayout;
 import java.awt.Image;
 import java.awt.Point;
-import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import javax.imageio.ImageIO;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JToggleButton;
 import javax.swing.SwingConstants;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import pet.enums.Action;
+import pet.enums.SimulationSpeed;
+import pet.model.ActivityEvent;
 import view.components.ActivityLogPanel;
 import view.components.BackgroundPanel;
+import view.components.DecorationCache;
 import view.components.HealthPanel;
+import view.components.MultiResolutionSprite;
+import view.components.PetCanvas;
 import view.components.PetImagePanel;
 import view.components.SpeechBubble;
+import view.components.SpeechPriority;
 
 /**
  * Main GUI implementation for the Virtual Pet Simulator.
@@ -40,6 +47,11 @@ public class PetView extends JFrame implements PetViewInterface {
   private static final Color TEXT_COLOR = new Color(75, 75, 75);
   private static final Color BUTTON_COLOR = new Color(255, 248, 249);
   private static final Color BUTTON_BORDER_COLOR = new Color(240, 230, 230);
+  private static final int BUTTON_ARC = 20;
+  private static final Integer[] TICK_RATES = {1, 2, 5, 10, 30};
+  private static final int SPEECH_DURATION = 4000;
+  // Point the speech bubble targets, near the pet's head
+  private static final Point SPEECH_TARGET = new Point(120, 70);
 
   // GUI Components
   private PetImagePanel petImagePanel;
@@ -54,6 +66,13 @@ public class PetView extends JFrame implements PetViewInterface {
   private JButton mysteryBoxButton;
   private JLabel healthLabel;
   private SpeechBubble speechBubble;
+  private PetCanvas petCanvas;
+  private JToggleButton realTimeToggle;
+  private JComboBox<Integer> tickRateBox;
+  private JComboBox<SimulationSpeed> speedBox;
+  private JLabel speedLabel;
+  // Rounded button background shared by all action buttons
+  private final DecorationCache buttonDecorations = new DecorationCache(2);
 
   /**
    * Constructor for the GUI.
@@ -93,6 +112,7 @@ public class PetView extends JFrame implements PetViewInterface {
 
     // Create the content
     createContent(backgroundPanel);
+    createRealTimeControls(backgroundPanel);
 
     // Set main content pane
     setContentPane(backgroundPanel);
@@ -185,6 +205,44 @@ public class PetView extends JFrame implements PetViewInterface {
     createActionButtons(panel);
   }
 
+  /**
+   * Creates the real-time pet canvas and the controls that switch it on.
+   *
+   * @param panel The background panel to add components to
+   */
+  private void createRealTimeControls(BackgroundPanel panel) {
+    // Heavyweight canvas drawn by the simulation thread; replaces the pet image when shown
+    petCanvas = new PetCanvas(panel.getBackgroundImage());
+    petCanvas.setBounds(petImagePanel.getBounds());
+    petCanvas.setVisible(false);
+    panel.add(petCanvas);
+
+    realTimeToggle = new JToggleButton("Real-time");
+    realTimeToggle.setFont(new Font("Arial", Font.BOLD, 12));
+    realTimeToggle.setFocusPainted(false);
+    realTimeToggle.setBounds(820, 490, 95, 25);
+    panel.add(realTimeToggle);
+
+    tickRateBox = new JComboBox<>(TICK_RATES);
+    tickRateBox.setFont(new Font("Arial", Font.PLAIN, 12));
+    tickRateBox.setToolTipText("Ticks per second");
+    tickRateBox.setBounds(920, 490, 60, 25);
+    panel.add(tickRateBox);
+
+    // Time compression runs the model in the background at the chosen speed
+    speedBox = new JComboBox<>(SimulationSpeed.values());
+    speedBox.setFont(new Font("Arial", Font.PLAIN, 12));
+    speedBox.setToolTipText("Fast-forward speed");
+    speedBox.setBounds(340, 490, 75, 25);
+    panel.add(speedBox);
+
+    speedLabel = new JLabel("", SwingConstants.LEFT);
+    speedLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+    speedLabel.setForeground(TEXT_COLOR);
+    speedLabel.setBounds(420, 490, 150, 25);
+    panel.add(speedLabel);
+  }
+
   /**
    * Creates the action buttons.
    */
@@ -242,18 +300,10 @@ public class PetView extends JFrame implements PetViewInterface {
     JButton button = new JButton() {
       @Override
       protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Paint rounded rectangle background
-        g2.setColor(BUTTON_COLOR);
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), 20, 20);
-
-        // Draw a subtle border
-        g2.setColor(BUTTON_BORDER_COLOR);
-        g2.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 20, 20);
-
-        g2.dispose();
+        // Blit the pre-rendered rounded background shared by all buttons
+        Image background = buttonDecorations.get("button", getWidth(), getHeight(),
+            getGraphicsConfiguration(), PetView::paintButtonBackground);
+        g.drawImage(background, 0, 0, getWidth(), getHeight(), null);
         super.paintComponent(g);
       }
     };
@@ -274,20 +324,12 @@ public class PetView extends JFrame implements PetViewInterface {
       // Load and prepare the icon
       File iconFile = new File(iconPath);
       if (iconFile.exists()) {
-        Image img = ImageIO.read(iconFile);
+        BufferedImage img = ImageIO.read(iconFile);
 
         if (img != null) {
-          // Scale the image preserving its original aspect ratio
-          int imgWidth = img.getWidth(null);
-          int imgHeight = img.getHeight(null);
-          double scale = Math.min(80.0 / imgWidth, 80.0 / imgHeight);
-
-          int scaledWidth = (int) (imgWidth * scale);
-          int scaledHeight = (int) (imgHeight * scale);
-
-          Image scaledImg = img.getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
-
-          ImageIcon icon = new ImageIcon(scaledImg);
+          // Fit the icon in 80x80 preserving its aspect ratio; each display scale gets its
+          // own rendition the first time the icon is painted there
+          MultiResolutionSprite icon = MultiResolutionSprite.fit(img, 80, 80);
           JLabel iconLabel = new JLabel(icon);
 
           // Add the icon to the button
@@ -312,6 +354,23 @@ public class PetView extends JFrame implements PetViewInterface {
     return button;
   }
 
+  /**
+   * Paints the rounded background of an action button.
+   *
+   * @param g2     The graphics to paint with
+   * @param width  The button width
+   * @param height The button height
+   */
+  private static void paintButtonBackground(Graphics2D g2, int width, int height) {
+    // Paint rounded rectangle background
+    g2.setColor(BUTTON_COLOR);
+    g2.fillRoundRect(0, 0, width, height, BUTTON_ARC, BUTTON_ARC);
+
+    // Draw a subtle border
+    g2.setColor(BUTTON_BORDER_COLOR);
+    g2.drawRoundRect(0, 0, width - 1, height - 1, BUTTON_ARC, BUTTON_ARC);
+  }
+
   /**
    * Adds a fallback letter label to a button when the icon can't be loaded.
    */
@@ -338,9 +397,73 @@ public class PetView extends JFrame implements PetViewInterface {
    * @param message The message to display
    */
   public void showSpeechBubble(String message) {
-    // Create a point that targets the pet's position
-    Point targetPoint = new Point(120, 70);
-    speechBubble.showMessage(message, 4000, targetPoint);
+    showSpeechBubble(message, SpeechPriority.NORMAL);
+  }
+
+  /**
+   * Queues a speech bubble message with a priority.
+   *
+   * @param message  The message to display
+   * @param priority How urgent the message is
+   */
+  public void showSpeechBubble(String message, SpeechPriority priority) {
+    speechBubble.showMessage(message, SPEECH_DURATION, SPEECH_TARGET, priority);
+  }
+
+  /**
+   * Switches between the Swing pet image and the actively rendered real-time canvas.
+   *
+   * @param enabled Whether real-time mode is on
+   */
+  public void setRealTimeMode(boolean enabled) {
+    petCanvas.setVisible(enabled);
+    petImagePanel.setVisible(!enabled);
+    realTimeToggle.setSelected(enabled);
+  }
+
+  /**
+   * Returns the time compression speed selector for attaching listeners.
+   *
+   * @return the speed combo box
+   */
+  public JComboBox<SimulationSpeed> getSpeedBox() {
+    return speedBox;
+  }
+
+  /**
+   * Shows the achieved simulation rate next to the speed selector.
+   *
+   * @param stats The text to show, or an empty string to hide it
+   */
+  public void showSpeedStats(String stats) {
+    speedLabel.setText(stats);
+  }
+
+  /**
+   * Returns the canvas used in real-time mode.
+   *
+   * @return the pet canvas
+   */
+  public PetCanvas getPetCanvas() {
+    return petCanvas;
+  }
+
+  /**
+   * Returns the real-time mode toggle for attaching listeners.
+   *
+   * @return the real-time toggle
+   */
+  public JToggleButton getRealTimeToggle() {
+    return realTimeToggle;
+  }
+
+  /**
+   * Returns the tick rate selector for attaching listeners.
+   *
+   * @return the tick rate combo box
+   */
+  public JComboBox<Integer> getTickRateBox() {
+    return tickRateBox;
   }
 
   /**
@@ -369,8 +492,8 @@ public class PetView extends JFrame implements PetViewInterface {
    */
   @Override
   public void updateImage(String mood) {
-    // This will be forwarded to petImagePanel when needed
-    // Let the controller handle this by updating the model
+    // The panel reads the pet state through the controller
+    petImagePanel.updateImage();
   }
 
   /**
@@ -462,13 +585,13 @@ public class PetView extends JFrame implements PetViewInterface {
   }
 
   /**
-   * Displays a message to the user.
+   * Records an activity event in the activity log.
    *
-   * @param message the message to display
+   * @param event the event to record
    */
   @Override
-  public void displayMessage(String message) {
-    activityLogPanel.addLogMessage(message);
+  public void logActivity(ActivityEvent event) {
+    activityLogPanel.addEvent(event);
   }
 
   /**
@@ -544,5 +667,9 @@ public class PetView extends JFrame implements PetViewInterface {
     if (healthPanel != null) {
       healthPanel.setController(controller);
     }
+
+    if (activityLogPanel != null) {
+      activityLogPanel.setController(controller);
+    }
   }
 }
\ No newline at end of file
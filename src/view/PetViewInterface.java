@@ -3,6 +3,7 @@ package view;
 import javax.swing.JButton;
 import javax.swing.JPanel;
 import pet.enums.Action;
+import pet.model.ActivityEvent;
 
 /**
  * Interface for the pet view component.
@@ -88,11 +89,11 @@ public interface PetViewInterface {
   JPanel getPetImagePanel();
 
   /**
-   * Displays a message to the user.
+   * Records an activity event in the user-visible log.
    *
-   * @param message the message to display
+   * @param event the event to record
    */
-  void displayMessage(String message);
+  void logActivity(ActivityEvent event);
 
   /**
    * Updates the enabled state of action buttons based on the pet's current state.
@@ -1,21 +1,41 @@
 package view.components;
 
+import controller.PetController;
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
+import javax.swing.ButtonGroup;
+import javax.swing.DefaultListCellRenderer;
 import javax.swing.JButton;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import pet.enums.ActivityType;
+import pet.model.ActivityEvent;
 
 /**
  * Panel for displaying the activity log.
@@ -29,18 +49,34 @@ public class ActivityLogPanel extends JPanel {
   private static final Color BUTTON_COLOR = new Color(252, 245, 240);
   private static final Color BUTTON_BORDER_COLOR = new Color(230, 220, 215);
 
-  private JTextArea logArea;
+  private static final int ROW_HEIGHT = 22;
+  private static final int EXPORT_FRAME_MILLIS = 100;
+
+  // Controller reference, used to resolve the pet name when a row is rendered
+  private PetController controller;
+
+  private JList<ActivityEvent> logList;
   private JButton clearButton;
-  private List<String> logMessages;
+  private EventListModel logModel;
 
   /**
    * Creates a new activity log panel.
    */
   public ActivityLogPanel() {
-    this.logMessages = new ArrayList<>();
+    this.logModel = new EventListModel();
     setupUi();
   }
 
+  /**
+   * Sets the controller for this panel.
+   *
+   * @param controller the controller to set
+   */
+  public void setController(PetController controller) {
+    this.controller = controller;
+    logList.repaint();
+  }
+
   /**
    * Sets up the UI components.
    */
@@ -90,8 +126,8 @@ public class ActivityLogPanel extends JPanel {
 
     add(titlePanel);
 
-    // Create log text area with rounded corners
-    logArea = new JTextArea() {
+    // Create log list with rounded corners; rows are formatted only when painted
+    logList = new JList<>(logModel) {
       @Override
       protected void paintComponent(Graphics g) {
         if (!isOpaque()) {
@@ -103,19 +139,31 @@ public class ActivityLogPanel extends JPanel {
         }
         super.paintComponent(g);
       }
+
+      @Override
+      public String getToolTipText(MouseEvent event) {
+        int index = locationToIndex(event.getPoint());
+        if (index < 0) {
+          return null;
+        }
+        return formatEvent(logModel.getElementAt(index));
+      }
     };
 
-    logArea.setEditable(false);
-    logArea.setLineWrap(true);
-    logArea.setWrapStyleWord(true);
-    logArea.setFont(new Font("Arial", Font.PLAIN, 14));
-    logArea.setBackground(BACKGROUND_COLOR);
-    logArea.setForeground(TEXT_COLOR);
-    logArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-    logArea.setOpaque(false);
+    logList.setFixedCellHeight(ROW_HEIGHT);
+    logList.setCellRenderer(new EventCellRenderer());
+    logList.setFont(new Font("Arial", Font.PLAIN, 14));
+    logList.setBackground(BACKGROUND_COLOR);
+    logList.setForeground(TEXT_COLOR);
+    logList.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+    logList.setOpaque(false);
+    logList.setFocusable(false);
+    logList.setToolTipText("");
+    JPopupMenu logMenu = createLogMenu();
+    logList.setComponentPopupMenu(logMenu);
 
     // Create scroll pane
-    JScrollPane scrollPane = new JScrollPane(logArea) {
+    JScrollPane scrollPane = new JScrollPane(logList) {
       @Override
       protected void paintComponent(Graphics g) {
         if (!isOpaque()) {
@@ -131,53 +179,120 @@ public class ActivityLogPanel extends JPanel {
     scrollPane.setBorder(BorderFactory.createEmptyBorder());
     scrollPane.setOpaque(false);
     scrollPane.getViewport().setOpaque(false);
+    scrollPane.getViewport().setInheritsPopupMenu(true);
+    scrollPane.setComponentPopupMenu(logMenu);
     scrollPane.setBounds(10, 45, 280,
         195);  // Extend height to fill the space previously used by the button
     add(scrollPane);
   }
 
   /**
-   * Adds a message to the activity log.
+   * Creates the context menu offering type filters and the history browser.
    *
-   * @param message The message to add
+   * @return The context menu
    */
-  public void addLogMessage(String message) {
-    // Add message to list without timestamp
-    logMessages.add(message);
-
-    // Trim list if it exceeds maximum size
-    if (logMessages.size() > MAX_MESSAGES) {
-      logMessages.remove(0);
+  private JPopupMenu createLogMenu() {
+    JPopupMenu menu = new JPopupMenu();
+    ButtonGroup group = new ButtonGroup();
+    for (LogFilter filter : LogFilter.values()) {
+      JRadioButtonMenuItem item = new JRadioButtonMenuItem(filter.toString());
+      item.setSelected(filter == LogFilter.ALL);
+      item.addActionListener(e -> setFilter(filter.getTypes()));
+      group.add(item);
+      menu.add(item);
     }
+    menu.addSeparator();
 
-    // Update the text area
-    updateLogArea();
+    JMenuItem historyItem = new JMenuItem("Browse history...");
+    historyItem.addActionListener(e -> openHistory());
+    menu.add(historyItem);
+
+    JMenuItem exportItem = new JMenuItem("Export timeline GIF...");
+    exportItem.addActionListener(e -> exportTimeline());
+    menu.add(exportItem);
+    return menu;
   }
 
   /**
-   * Updates the log area text from the message list.
+   * Opens the persistent history browser, if a history is available.
    */
-  private void updateLogArea() {
-    StringBuilder sb = new StringBuilder();
+  private void openHistory() {
+    if (controller == null || controller.getHistory() == null) {
+      return;
+    }
+    new HistoryDialog(SwingUtilities.getWindowAncestor(this), controller,
+        controller.getHistory()).setVisible(true);
+  }
 
-    // Build text from messages (newest first)
-    for (int i = logMessages.size() - 1; i >= 0; i--) {
-      sb.append(logMessages.get(i)).append("\n");
+  /**
+   * Asks for a file and exports the pet's timeline as an animated GIF in the background.
+   */
+  private void exportTimeline() {
+    if (controller == null) {
+      return;
     }
+    JFileChooser chooser = new JFileChooser();
+    chooser.setSelectedFile(new File(controller.getPetName() + ".gif"));
+    if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    File file = chooser.getSelectedFile();
+    TimelineGifExporter exporter = new TimelineGifExporter(controller.getPetName(),
+        controller.getSnapshot().getId(), controller.getPetHealthHistory(),
+        controller.getHistory(), controller.getHistoryStart());
+    Thread thread = new Thread(() -> {
+      String message;
+      try {
+        int frames = exporter.export(file, EXPORT_FRAME_MILLIS,
+            Runtime.getRuntime().availableProcessors());
+        message = "Exported " + frames + " frames to " + file.getName();
+      } catch (IOException e) {
+        System.err.println("Failed to export timeline: " + e.getMessage());
+        message = "Could not export the timeline: " + e.getMessage();
+      }
+      String result = message;
+      SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, result,
+          "Export Timeline", JOptionPane.INFORMATION_MESSAGE));
+    }, "pet-gif-export");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Adds an event to the activity log.
+   *
+   * @param event The event to add
+   */
+  public void addEvent(ActivityEvent event) {
+    logModel.add(event);
+  }
 
-    // Update text area
-    logArea.setText(sb.toString());
+  /**
+   * Restricts the log to the given event types.
+   *
+   * @param types The event types to show
+   */
+  public void setFilter(Set<ActivityType> types) {
+    logModel.setFilter(types);
+  }
 
-    // Scroll to top
-    logArea.setCaretPosition(0);
+  /**
+   * Formats an event using the current pet name.
+   *
+   * @param event The event to format
+   * @return The log line
+   */
+  private String formatEvent(ActivityEvent event) {
+    String petName = (controller != null) ? controller.getPetName() : "Pet";
+    return event.format(petName);
   }
 
   /**
    * Clears all log messages.
    */
   private void clearLog() {
-    logMessages.clear();
-    logArea.setText("");
+    logModel.clear();
   }
 
   /**
@@ -189,4 +304,88 @@ public class ActivityLogPanel extends JPanel {
   public Dimension getPreferredSize() {
     return new Dimension(300, 250);
   }
-}
\ No newline at end of file
+
+  /**
+   * List model over the most recent events, newest first, honoring the type filter.
+   */
+  private static class EventListModel extends AbstractListModel<ActivityEvent> {
+    private final ArrayDeque<ActivityEvent> events = new ArrayDeque<>();
+    // Events passing the filter, oldest first
+    private final List<ActivityEvent> visible = new ArrayList<>();
+    private Set<ActivityType> filter = EnumSet.allOf(ActivityType.class);
+
+    @Override
+    public int getSize() {
+      return visible.size();
+    }
+
+    @Override
+    public ActivityEvent getElementAt(int index) {
+      return visible.get(visible.size() - 1 - index);
+    }
+
+    /**
+     * Appends an event, dropping the oldest one when the log is full.
+     *
+     * @param event the event to add
+     */
+    void add(ActivityEvent event) {
+      events.addLast(event);
+      if (events.size() > MAX_MESSAGES) {
+        ActivityEvent removed = events.removeFirst();
+        if (!visible.isEmpty() && visible.get(0) == removed) {
+          visible.remove(0);
+          fireIntervalRemoved(this, visible.size(), visible.size());
+        }
+      }
+      if (filter.contains(event.getType())) {
+        visible.add(event);
+        fireIntervalAdded(this, 0, 0);
+      }
+    }
+
+    /**
+     * Replaces the type filter and rebuilds the visible rows.
+     *
+     * @param types the event types to show
+     */
+    void setFilter(Set<ActivityType> types) {
+      filter = types.isEmpty() ? Collections.emptySet() : EnumSet.copyOf(types);
+      visible.clear();
+      for (ActivityEvent event : events) {
+        if (filter.contains(event.getType())) {
+          visible.add(event);
+        }
+      }
+      fireContentsChanged(this, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes all events.
+     */
+    void clear() {
+      int size = visible.size();
+      events.clear();
+      visible.clear();
+      if (size > 0) {
+        fireIntervalRemoved(this, 0, size - 1);
+      }
+    }
+  }
+
+  /**
+   * Renders a single event row, formatting its text only when the row is painted.
+   */
+  private class EventCellRenderer extends DefaultListCellRenderer {
+    @Override
+    public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+      super.getListCellRendererComponent(list, value, index, false, false);
+      setText(formatEvent((ActivityEvent) value));
+      setOpaque(false);
+      setForeground(TEXT_COLOR);
+      setBorder(BorderFactory.createEmptyBorder());
+      return this;
+    }
+  }
+}
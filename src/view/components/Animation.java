@@ -0,0 +1,14 @@
+package view.components;
+
+/**
+ * A unit of animation work driven by the {@link AnimationClock}.
+ */
+public interface Animation {
+  /**
+   * Advances the animation to the given frame time.
+   *
+   * @param now the frame time in milliseconds, from {@link AnimationClock#now()}
+   * @return true while the animation is still running, false once it has finished
+   */
+  boolean tick(long now);
+}
@@ -0,0 +1,148 @@
+package view.components;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * Single frame clock shared by all view animations.
+ * One Swing timer ticks every running {@link Animation} once per frame, then issues at most
+ * one repaint per dirty component. The timer stops as soon as nothing is animating.
+ * Must only be used from the event dispatch thread.
+ */
+public final class AnimationClock {
+  /**
+   * Target frame interval in milliseconds (about 60 frames per second).
+   */
+  public static final int FRAME_MILLIS = 16;
+
+  private static AnimationClock instance;
+
+  private final Timer timer;
+  private final List<Animation> animations = new ArrayList<>();
+  private final Set<JComponent> dirty = new LinkedHashSet<>();
+
+  private AnimationClock() {
+    timer = new Timer(FRAME_MILLIS, e -> onFrame());
+    timer.setCoalesce(true);
+  }
+
+  /**
+   * Gets the shared clock.
+   *
+   * @return the shared animation clock
+   */
+  public static AnimationClock getInstance() {
+    if (instance == null) {
+      instance = new AnimationClock();
+    }
+    return instance;
+  }
+
+  /**
+   * Gets the current clock time.
+   *
+   * @return a monotonic time in milliseconds
+   */
+  public static long now() {
+    return System.nanoTime() / 1_000_000L;
+  }
+
+  /**
+   * Starts driving an animation from the next frame on.
+   *
+   * @param animation the animation to run
+   * @return the animation, for use with {@link #stop(Animation)}
+   */
+  public Animation start(Animation animation) {
+    if (!animations.contains(animation)) {
+      animations.add(animation);
+    }
+    ensureRunning();
+    return animation;
+  }
+
+  /**
+   * Stops driving an animation. Does nothing if it already finished.
+   *
+   * @param animation the animation to stop
+   */
+  public void stop(Animation animation) {
+    if (animation != null) {
+      animations.remove(animation);
+    }
+  }
+
+  /**
+   * Runs an action on the first frame after a delay.
+   *
+   * @param delayMillis the delay in milliseconds
+   * @param action      the action to run
+   * @return the scheduled animation, for use with {@link #stop(Animation)}
+   */
+  public Animation after(int delayMillis, Runnable action) {
+    final long due = now() + delayMillis;
+    return start(now -> {
+      if (now < due) {
+        return true;
+      }
+      action.run();
+      return false;
+    });
+  }
+
+  /**
+   * Requests a repaint of a component at the end of the current or next frame.
+   * Several requests for the same component within a frame result in one repaint.
+   *
+   * @param component the component to repaint
+   */
+  public void requestRepaint(JComponent component) {
+    dirty.add(component);
+    ensureRunning();
+  }
+
+  /**
+   * Returns whether any animation is currently running.
+   *
+   * @return true if the clock is ticking
+   */
+  public boolean isRunning() {
+    return timer.isRunning();
+  }
+
+  private void ensureRunning() {
+    if (!timer.isRunning()) {
+      timer.start();
+    }
+  }
+
+  /**
+   * Ticks every animation once and flushes pending repaints.
+   */
+  private void onFrame() {
+    long now = now();
+    // Animations may start or stop others while ticking, so work on a snapshot
+    Animation[] running = animations.toArray(new Animation[0]);
+    for (Animation animation : running) {
+      if (animations.contains(animation) && !animation.tick(now)) {
+        animations.remove(animation);
+      }
+    }
+
+    if (!dirty.isEmpty()) {
+      JComponent[] components = dirty.toArray(new JComponent[0]);
+      dirty.clear();
+      for (JComponent component : components) {
+        component.repaint();
+      }
+    }
+
+    if (animations.isEmpty() && dirty.isEmpty()) {
+      timer.stop();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package view.components;
+
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Point;
+import javax.swing.SwingUtilities;
+import view.scene.SceneCanvas;
+import view.scene.SceneNode;
+
+/**
+ * Scene node drawing whatever lies behind its canvas: the slice of the enclosing
+ * {@link BackgroundPanel}'s image, or the first opaque ancestor's background color.
+ * Cached, so the opaque canvas repaints its backdrop with a blit.
+ */
+class BackdropNode extends SceneNode {
+  private final SceneCanvas canvas;
+
+  /**
+   * Creates a backdrop for a canvas.
+   *
+   * @param canvas the canvas whose surroundings are drawn
+   */
+  BackdropNode(SceneCanvas canvas) {
+    this.canvas = canvas;
+    setCached(true);
+  }
+
+  @Override
+  protected void paintNode(Graphics2D g, int width, int height) {
+    for (Container parent = canvas.getParent(); parent != null; parent = parent.getParent()) {
+      if (parent instanceof BackgroundPanel) {
+        Image background = ((BackgroundPanel) parent).getBackgroundImage();
+        if (background != null) {
+          // Draw the background as the panel stretches it, shifted to this canvas
+          Point offset = SwingUtilities.convertPoint(canvas, getBounds().getLocation(), parent);
+          g.drawImage(background, -offset.x, -offset.y, parent.getWidth(), parent.getHeight(),
+              null);
+          return;
+        }
+      }
+      if (parent.isOpaque()) {
+        g.setColor(parent.getBackground());
+        g.fillRect(0, 0, width, height);
+        return;
+      }
+    }
+    g.setColor(canvas.getBackground());
+    g.fillRect(0, 0, width, height);
+  }
+}
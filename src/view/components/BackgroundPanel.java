@@ -86,4 +86,12 @@ public class BackgroundPanel extends JPanel {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * Gets the image drawn as the background.
+   *
+   * @return The background image
+   */
+  public Image getBackgroundImage() {
+    return backgroundImage;
+  }
+}
@@ -0,0 +1,153 @@
+package view.components;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of pre-rendered static decorations such as name tags and button backgrounds.
+ * Images are rendered at the device scale of the target {@link GraphicsConfiguration} and
+ * keyed by text, logical size and scale, so painting a decoration is a single blit.
+ */
+public class DecorationCache {
+  private static final int DEFAULT_CAPACITY = 8;
+
+  /**
+   * Paints a decoration in logical coordinates.
+   */
+  public interface Painter {
+    /**
+     * Paints the decoration.
+     *
+     * @param g      the graphics, already scaled to device resolution
+     * @param width  the logical width
+     * @param height the logical height
+     */
+    void paint(Graphics2D g, int width, int height);
+  }
+
+  private final Map<Key, BufferedImage> images;
+
+  /**
+   * Creates a cache holding a small number of decorations.
+   */
+  public DecorationCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a cache holding at most the given number of decorations.
+   *
+   * @param capacity the maximum number of cached images
+   */
+  public DecorationCache(int capacity) {
+    this.images = new LinkedHashMap<Key, BufferedImage>(capacity, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Gets a decoration, rendering it only if it is not cached yet.
+   *
+   * @param text    the text identifying the decoration's content
+   * @param width   the logical width
+   * @param height  the logical height
+   * @param config  the graphics configuration it will be drawn to, or null for scale 1
+   * @param painter the painter used when the decoration is not cached
+   * @return the rendered image, sized in device pixels
+   */
+  public BufferedImage get(String text, int width, int height, GraphicsConfiguration config,
+                           Painter painter) {
+    double scaleX = 1.0;
+    double scaleY = 1.0;
+    if (config != null) {
+      AffineTransform transform = config.getDefaultTransform();
+      scaleX = transform.getScaleX();
+      scaleY = transform.getScaleY();
+    }
+
+    Key key = new Key(text, width, height, scaleX, scaleY);
+    BufferedImage image = images.get(key);
+    if (image == null) {
+      image = render(width, height, scaleX, scaleY, config, painter);
+      images.put(key, image);
+    }
+    return image;
+  }
+
+  /**
+   * Drops all cached decorations.
+   */
+  public void invalidate() {
+    images.clear();
+  }
+
+  /**
+   * Renders a decoration into a translucent image at device resolution.
+   */
+  private static BufferedImage render(int width, int height, double scaleX, double scaleY,
+                                      GraphicsConfiguration config, Painter painter) {
+    int deviceWidth = Math.max(1, (int) Math.ceil(width * scaleX));
+    int deviceHeight = Math.max(1, (int) Math.ceil(height * scaleY));
+    BufferedImage image = (config != null)
+        ? config.createCompatibleImage(deviceWidth, deviceHeight, Transparency.TRANSLUCENT)
+        : new BufferedImage(deviceWidth, deviceHeight, BufferedImage.TYPE_INT_ARGB);
+
+    Graphics2D g2d = image.createGraphics();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g2d.scale(scaleX, scaleY);
+    painter.paint(g2d, width, height);
+    g2d.dispose();
+    return image;
+  }
+
+  /**
+   * Identity of a cached decoration.
+   */
+  private static final class Key {
+    private final String text;
+    private final int width;
+    private final int height;
+    private final double scaleX;
+    private final double scaleY;
+
+    Key(String text, int width, int height, double scaleX, double scaleY) {
+      this.text = text;
+      this.width = width;
+      this.height = height;
+      this.scaleX = scaleX;
+      this.scaleY = scaleY;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return width == other.width && height == other.height
+          && Double.compare(scaleX, other.scaleX) == 0
+          && Double.compare(scaleY, other.scaleY) == 0
+          && Objects.equals(text, other.text);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(text, width, height, scaleX, scaleY);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package view.components;
+
+import controller.PetController;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.RoundRectangle2D;
+import javax.swing.JComponent;
+import pet.enums.HealthStat;
+import pet.model.HealthHistory;
+
+/**
+ * Chart of the pet's health stats over its whole life.
+ * Long histories are decimated to one min/max range per pixel column, so painting costs
+ * the same whether the pet has lived a hundred ticks or millions.
+ */
+public class HealthChartPanel extends JComponent {
+  private static final Color BACKGROUND_COLOR = new Color(252, 247, 245);
+  private static final Color GRID_COLOR = new Color(232, 236, 255);
+  private static final Color TEXT_COLOR = new Color(90, 85, 80);
+  private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 11);
+  private static final int PADDING = 10;
+  private static final int MAX_VALUE = 100;
+
+  private PetController controller;
+
+  // Per-column buffers reused between paints
+  private int[] columnMin = new int[0];
+  private int[] columnMax = new int[0];
+
+  /**
+   * Sets the controller providing the health history.
+   *
+   * @param controller the controller to set
+   */
+  public void setController(PetController controller) {
+    this.controller = controller;
+    repaint();
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Graphics2D g2d = (Graphics2D) g.create();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.setColor(BACKGROUND_COLOR);
+    g2d.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), 15, 15));
+
+    int left = PADDING;
+    int top = PADDING;
+    int width = getWidth() - PADDING * 2;
+    int height = getHeight() - PADDING * 2 - 14;
+    if (width <= 1 || height <= 1) {
+      g2d.dispose();
+      return;
+    }
+
+    // Guides at the thresholds where the health bars change color
+    g2d.setColor(GRID_COLOR);
+    for (int value : new int[] {30, 70}) {
+      int y = top + height - value * height / MAX_VALUE;
+      g2d.drawLine(left, y, left + width, y);
+    }
+
+    HealthHistory history = (controller != null) ? controller.getPetHealthHistory() : null;
+    int ticks = (history != null) ? history.size() : 0;
+    if (ticks > 0) {
+      if (columnMin.length < width) {
+        columnMin = new int[width];
+        columnMax = new int[width];
+      }
+      g2d.setStroke(new BasicStroke(1.5f));
+      for (HealthStat stat : HealthStat.values()) {
+        g2d.setColor(colorOf(stat));
+        paintSeries(g2d, history, stat, ticks, left, top, width, height);
+      }
+    }
+
+    g2d.setColor(TEXT_COLOR);
+    g2d.setFont(LABEL_FONT);
+    g2d.drawString(ticks + (ticks == 1 ? " tick" : " ticks"), left, getHeight() - PADDING);
+    g2d.dispose();
+  }
+
+  /**
+   * Paints one stat, drawing a vertical min/max span per column when ticks outnumber pixels.
+   */
+  private void paintSeries(Graphics2D g2d, HealthHistory history, HealthStat stat, int ticks,
+                           int left, int top, int width, int height) {
+    int columns = history.minMax(stat, 0, ticks, width, columnMin, columnMax);
+    if (columns == 1) {
+      int y = top + height - columnMax[0] * height / MAX_VALUE;
+      g2d.drawLine(left, y, left + width, y);
+      return;
+    }
+
+    int previousX = 0;
+    int previousY = 0;
+    for (int column = 0; column < columns; column++) {
+      int x = left + column * (width - 1) / (columns - 1);
+      int yMin = top + height - columnMin[column] * height / MAX_VALUE;
+      int yMax = top + height - columnMax[column] * height / MAX_VALUE;
+      if (column > 0) {
+        // Join each column to the last so steep changes stay connected
+        g2d.drawLine(previousX, previousY, x, yMin);
+      }
+      if (yMax != yMin) {
+        g2d.drawLine(x, yMin, x, yMax);
+      }
+      previousX = x;
+      previousY = yMax;
+    }
+  }
+
+  /**
+   * Gets the color of a stat, matching its health bar label.
+   */
+  private static Color colorOf(HealthStat stat) {
+    switch (stat) {
+      case HUNGER:
+        return HealthPanel.HUNGER_COLOR;
+      case HYGIENE:
+        return HealthPanel.HYGIENE_COLOR;
+      case SOCIAL:
+        return HealthPanel.SOCIAL_COLOR;
+      default:
+        return HealthPanel.SLEEP_COLOR;
+    }
+  }
+}
@@ -1,17 +1,20 @@
 package view.components;
 
+import controller.LatencyTracer;
 import controller.PetController;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
-import java.awt.geom.RoundRectangle2D;
+import java.awt.event.HierarchyBoundsAdapter;
+import java.awt.event.HierarchyEvent;
 import javax.swing.BorderFactory;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.JProgressBar;
+import javax.swing.JToggleButton;
+import pet.model.HealthStatus;
+import view.scene.BarNode;
+import view.scene.SceneCanvas;
+import view.scene.TextNode;
 
 /**
  * Panel for displaying pet's health status.
@@ -19,26 +22,35 @@ import javax.swing.JProgressBar;
  */
 public class HealthPanel extends JPanel {
   // Colors for the health bars
-  private static final Color HUNGER_COLOR = new Color(255, 179, 138); // Orange
-  private static final Color HYGIENE_COLOR = new Color(138, 198, 255); // Blue
-  private static final Color SOCIAL_COLOR = new Color(187, 162, 255);  // Purple
-  private static final Color SLEEP_COLOR = new Color(162, 203, 255);   // Light blue
+  static final Color HUNGER_COLOR = new Color(255, 179, 138); // Orange
+  static final Color HYGIENE_COLOR = new Color(138, 198, 255); // Blue
+  static final Color SOCIAL_COLOR = new Color(187, 162, 255);  // Purple
+  static final Color SLEEP_COLOR = new Color(162, 203, 255);   // Light blue
   private static final Color BAR_BACKGROUND = new Color(232, 236, 255); // Light gray-blue
   private static final Color TEXT_COLOR = new Color(75, 75, 75);       // Dark gray
   private static final Color VALUE_COLOR = new Color(25, 30, 120);     // Dark blue for values
+  private static final int BAR_TWEEN_MILLIS = 300;
+  private static final int SCENE_TOP = 40;
+  private static final Font ROW_FONT = new Font("Arial", Font.BOLD, 14);
 
   // Controller reference
   private PetController controller;
 
   // UI Components
-  private JProgressBar hungerBar;
-  private JProgressBar hygieneBar;
-  private JProgressBar socialBar;
-  private JProgressBar sleepBar;
-  private JLabel hungerValue;
-  private JLabel hygieneValue;
-  private JLabel socialValue;
-  private JLabel sleepValue;
+  private SceneCanvas barScene;
+  private BarNode hungerBar;
+  private BarNode hygieneBar;
+  private BarNode socialBar;
+  private BarNode sleepBar;
+  private TextNode hungerValue;
+  private TextNode hygieneValue;
+  private TextNode socialValue;
+  private TextNode sleepValue;
+  private HealthChartPanel chartPanel;
+  private JToggleButton chartToggle;
+
+  // Single animation interpolating all four bars toward their latest values
+  private final Animation barAnimation = this::tickBars;
 
   /**
    * Creates a health panel for the pet.
@@ -48,6 +60,7 @@ public class HealthPanel extends JPanel {
   public HealthPanel(PetController controller) {
     this.controller = controller;
     setupUi();
+    chartPanel.setController(controller);
     if (controller != null) {
       updateHealthStatus();
     }
@@ -60,6 +73,7 @@ public class HealthPanel extends JPanel {
    */
   public void setController(PetController controller) {
     this.controller = controller;
+    chartPanel.setController(controller);
     updateHealthStatus();
   }
 
@@ -78,85 +92,91 @@ public class HealthPanel extends JPanel {
     titleLabel.setBounds(10, 5, 200, 30);
     add(titleLabel);
 
-    // Spacing values
-    final int startY = 45;
+    // The rows are a retained scene on an opaque canvas: a changing bar repaints only its
+    // own pixels, with the window background blitted from a cached layer behind it
+    barScene = new SceneCanvas();
+    barScene.setBounds(0, SCENE_TOP, 300, 200);
+    barScene.add(new BackdropNode(barScene)).setBounds(0, 0, 300, 200);
+    barScene.addHierarchyBoundsListener(new HierarchyBoundsAdapter() {
+      @Override
+      public void ancestorMoved(HierarchyEvent e) {
+        barScene.invalidateLayers();
+      }
+
+      @Override
+      public void ancestorResized(HierarchyEvent e) {
+        barScene.invalidateLayers();
+      }
+    });
+    add(barScene);
+
+    // Spacing values, in scene coordinates
+    final int startY = 45 - SCENE_TOP;
     final int rowHeight = 45;
     final int labelWidth = 100;
     final int barWidth = 150;
     final int valueWidth = 60;
     final int leftPadding = 10;
     final int barHeight = 15;
+    final int valueX = labelWidth + barWidth + leftPadding + 5;
 
     // Hunger Row
-    JLabel hungerLabel = new JLabel("🍊 Hunger");
-    hungerLabel.setFont(new Font("Arial", Font.BOLD, 14));
-    hungerLabel.setForeground(HUNGER_COLOR);
-    hungerLabel.setBounds(leftPadding, startY, labelWidth, rowHeight);
-    add(hungerLabel);
-
+    barScene.add(new TextNode("🍊 Hunger", ROW_FONT, HUNGER_COLOR))
+        .setBounds(leftPadding, startY, labelWidth, rowHeight);
     hungerBar = createProgressBar(HUNGER_COLOR);
     hungerBar.setBounds(labelWidth + leftPadding, startY + 10, barWidth, barHeight);
-    add(hungerBar);
-
-    hungerValue = new JLabel("50pts");
-    hungerValue.setFont(new Font("Arial", Font.BOLD, 14));
-    hungerValue.setForeground(VALUE_COLOR);
-    hungerValue.setBounds(labelWidth + barWidth + leftPadding + 5, startY, valueWidth, rowHeight);
-    add(hungerValue);
+    hungerValue = barScene.add(new TextNode("50pts", ROW_FONT, VALUE_COLOR));
+    hungerValue.setBounds(valueX, startY, valueWidth, rowHeight);
 
     // Hygiene Row
-    JLabel hygieneLabel = new JLabel("💧 Hygiene");
-    hygieneLabel.setFont(new Font("Arial", Font.BOLD, 14));
-    hygieneLabel.setForeground(HYGIENE_COLOR);
-    hygieneLabel.setBounds(leftPadding, startY + rowHeight, labelWidth, rowHeight);
-    add(hygieneLabel);
-
+    barScene.add(new TextNode("💧 Hygiene", ROW_FONT, HYGIENE_COLOR))
+        .setBounds(leftPadding, startY + rowHeight, labelWidth, rowHeight);
     hygieneBar = createProgressBar(HYGIENE_COLOR);
     hygieneBar.setBounds(labelWidth + leftPadding, startY + rowHeight + 10, barWidth, barHeight);
-    add(hygieneBar);
-
-    hygieneValue = new JLabel("50pts");
-    hygieneValue.setFont(new Font("Arial", Font.BOLD, 14));
-    hygieneValue.setForeground(VALUE_COLOR);
-    hygieneValue.setBounds(labelWidth + barWidth + leftPadding + 5, startY + rowHeight, valueWidth,
-        rowHeight);
-    add(hygieneValue);
+    hygieneValue = barScene.add(new TextNode("50pts", ROW_FONT, VALUE_COLOR));
+    hygieneValue.setBounds(valueX, startY + rowHeight, valueWidth, rowHeight);
 
     // Social Row
-    JLabel socialLabel = new JLabel("🔮 Social");
-    socialLabel.setFont(new Font("Arial", Font.BOLD, 14));
-    socialLabel.setForeground(SOCIAL_COLOR);
-    socialLabel.setBounds(leftPadding, startY + rowHeight * 2, labelWidth, rowHeight);
-    add(socialLabel);
-
+    barScene.add(new TextNode("🔮 Social", ROW_FONT, SOCIAL_COLOR))
+        .setBounds(leftPadding, startY + rowHeight * 2, labelWidth, rowHeight);
     socialBar = createProgressBar(SOCIAL_COLOR);
     socialBar.setBounds(labelWidth + leftPadding, startY + rowHeight * 2 + 10, barWidth, barHeight);
-    add(socialBar);
-
-    socialValue = new JLabel("50pts");
-    socialValue.setFont(new Font("Arial", Font.BOLD, 14));
-    socialValue.setForeground(VALUE_COLOR);
-    socialValue.setBounds(labelWidth + barWidth + leftPadding + 5, startY + rowHeight * 2,
-        valueWidth, rowHeight);
-    add(socialValue);
+    socialValue = barScene.add(new TextNode("50pts", ROW_FONT, VALUE_COLOR));
+    socialValue.setBounds(valueX, startY + rowHeight * 2, valueWidth, rowHeight);
 
     // Sleep Row
-    JLabel sleepLabel = new JLabel("🌙 Sleep");
-    sleepLabel.setFont(new Font("Arial", Font.BOLD, 14));
-    sleepLabel.setForeground(SLEEP_COLOR);
-    sleepLabel.setBounds(leftPadding, startY + rowHeight * 3, labelWidth, rowHeight);
-    add(sleepLabel);
-
+    barScene.add(new TextNode("🌙 Sleep", ROW_FONT, SLEEP_COLOR))
+        .setBounds(leftPadding, startY + rowHeight * 3, labelWidth, rowHeight);
     sleepBar = createProgressBar(SLEEP_COLOR);
     sleepBar.setBounds(labelWidth + leftPadding, startY + rowHeight * 3 + 10, barWidth, barHeight);
-    add(sleepBar);
-
-    sleepValue = new JLabel("50pts");
-    sleepValue.setFont(new Font("Arial", Font.BOLD, 14));
-    sleepValue.setForeground(VALUE_COLOR);
-    sleepValue.setBounds(labelWidth + barWidth + leftPadding + 5, startY + rowHeight * 3,
-        valueWidth, rowHeight);
-    add(sleepValue);
+    sleepValue = barScene.add(new TextNode("50pts", ROW_FONT, VALUE_COLOR));
+    sleepValue.setBounds(valueX, startY + rowHeight * 3, valueWidth, rowHeight);
+
+    // Lifetime chart shown in place of the bars
+    chartPanel = new HealthChartPanel();
+    chartPanel.setBounds(10, 45, 280, 190);
+    chartPanel.setVisible(false);
+    add(chartPanel);
+
+    chartToggle = new JToggleButton("History");
+    chartToggle.setFont(new Font("Arial", Font.BOLD, 12));
+    chartToggle.setForeground(TEXT_COLOR);
+    chartToggle.setFocusPainted(false);
+    chartToggle.setToolTipText("Show health over the pet's whole life");
+    chartToggle.setBounds(200, 8, 90, 25);
+    chartToggle.addActionListener(e -> showChart(chartToggle.isSelected()));
+    add(chartToggle);
+  }
+
+  /**
+   * Switches between the current health bars and the lifetime chart.
+   *
+   * @param show true to show the chart
+   */
+  private void showChart(boolean show) {
+    barScene.setVisible(!show);
+    chartPanel.setVisible(show);
+    chartToggle.setText(show ? "Bars" : "History");
   }
 
   /**
@@ -165,47 +185,8 @@ public class HealthPanel extends JPanel {
    * @param barColor The color of the progress bar
    * @return The created progress bar
    */
-  private JProgressBar createProgressBar(Color barColor) {
-    JProgressBar bar = new JProgressBar(0, 100) {
-      @Override
-      protected void paintComponent(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g.create();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        int width = getWidth();
-        int height = getHeight();
-
-        // Draw background
-        g2d.setColor(BAR_BACKGROUND);
-        RoundRectangle2D background =
-            new RoundRectangle2D.Float(0, 0, width, height, height, height);
-        g2d.fill(background);
-
-        // Draw progress
-        int progressWidth = (int) (width * ((double) getValue() / getMaximum()));
-        if (progressWidth > 0) {
-          g2d.setColor(getForeground());
-          RoundRectangle2D progress =
-              new RoundRectangle2D.Float(0, 0, progressWidth, height, height, height);
-          g2d.fill(progress);
-        }
-
-        g2d.dispose();
-      }
-
-      @Override
-      public void paint(Graphics g) {
-        paintComponent(g);
-      }
-    };
-
-    bar.setOpaque(false);
-    bar.setBorderPainted(false);
-    bar.setStringPainted(false);
-    bar.setBackground(BAR_BACKGROUND);
-    bar.setForeground(barColor);
-
-    return bar;
+  private BarNode createProgressBar(Color barColor) {
+    return barScene.add(new BarNode(100, BAR_BACKGROUND, barColor));
   }
 
   /**
@@ -216,15 +197,21 @@ public class HealthPanel extends JPanel {
     if (controller == null) {
       return;
     }
+    long traceStart = LatencyTracer.start();
+
+    // Read one published state, so all four bars come from the same model update
+    final HealthStatus health = controller.getPetHealth();
+    final int hungerVal = health.getHunger();
+    final int hygieneVal = health.getHygiene();
+    final int socialVal = health.getSocial();
+    final int sleepVal = health.getSleep();
 
-    // Get values from controller
-    final int hungerVal = controller.getPetHealth().getHunger();
-    final int hygieneVal = controller.getPetHealth().getHygiene();
-    final int socialVal = controller.getPetHealth().getSocial();
-    final int sleepVal = controller.getPetHealth().getSleep();
+    // Glide only the bars whose values changed, from where they are drawn now
+    long now = AnimationClock.now();
+    boolean changed = false;
 
     // Hunger
-    hungerBar.setValue(hungerVal);
+    changed |= retarget(hungerBar, hungerVal, now);
     hungerValue.setText(hungerVal + "pts");
 
 
@@ -237,19 +224,63 @@ public class HealthPanel extends JPanel {
     }
 
     // Hygiene
-    hygieneBar.setValue(hygieneVal);
+    changed |= retarget(hygieneBar, hygieneVal, now);
     hygieneValue.setText(hygieneVal + "pts");
     updateBarColor(hygieneBar, HYGIENE_COLOR, hygieneVal);
 
     // Social
-    socialBar.setValue(socialVal);
+    changed |= retarget(socialBar, socialVal, now);
     socialValue.setText(socialVal + "pts");
     updateBarColor(socialBar, SOCIAL_COLOR, socialVal);
 
     // Sleep
-    sleepBar.setValue(sleepVal);
+    changed |= retarget(sleepBar, sleepVal, now);
     sleepValue.setText(sleepVal + "pts");
     updateBarColor(sleepBar, SLEEP_COLOR, sleepVal);
+
+    if (changed) {
+      AnimationClock.getInstance().start(barAnimation);
+    }
+
+    // The history has already grown by the new tick; redraw the chart if it is showing
+    if (chartPanel.isVisible()) {
+      chartPanel.repaint();
+    }
+    LatencyTracer.end(LatencyTracer.Stage.HEALTH_PANEL, traceStart);
+  }
+
+  /**
+   * Sets a bar's target and starts its tween if the target changed.
+   *
+   * @param bar   The bar to update
+   * @param value The new value
+   * @param now   The animation time in milliseconds
+   * @return true if the bar started moving
+   */
+  private static boolean retarget(BarNode bar, int value, long now) {
+    if (!bar.setValue(value)) {
+      return false;
+    }
+    bar.startTween(now);
+    return true;
+  }
+
+  /**
+   * Advances the bar interpolation by one frame.
+   *
+   * @param now The frame time in milliseconds
+   * @return true while any bar is still moving
+   */
+  private boolean tickBars(long now) {
+    boolean moving = false;
+    // Each bar marks only its own bounds dirty when its drawn value moves
+    for (BarNode bar : new BarNode[] {hungerBar, hygieneBar, socialBar, sleepBar}) {
+      double progress = Math.min(1.0, (now - bar.getTweenStart()) / (double) BAR_TWEEN_MILLIS);
+      // Ease out so the bars settle gently on their targets
+      bar.interpolate(1 - (1 - progress) * (1 - progress));
+      moving |= progress < 1.0;
+    }
+    return moving;
   }
 
   /**
@@ -259,7 +290,7 @@ public class HealthPanel extends JPanel {
    * @param normalColor The normal color for the bar
    * @param value       The current value
    */
-  private void updateBarColor(JProgressBar bar, Color normalColor, int value) {
+  private void updateBarColor(BarNode bar, Color normalColor, int value) {
     if (value < 30) {
       bar.setForeground(new Color(255, 102, 102));
     } else if (value < 70) {
@@ -273,4 +304,4 @@ public class HealthPanel extends JPanel {
   public Dimension getPreferredSize() {
     return new Dimension(300, 240);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package view.components;
+
+import controller.PetController;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.Window;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import pet.model.ActivityEvent;
+import pet.model.history.ActivityHistory;
+import pet.model.history.HistoryPage;
+
+/**
+ * Dialog for paging through the persistent activity history.
+ * Only one page of events is held in memory at a time.
+ */
+public class HistoryDialog extends JDialog {
+  private static final int PAGE_SIZE = 50;
+  private static final Color BACKGROUND_COLOR = new Color(252, 247, 245);
+  private static final Color TEXT_COLOR = new Color(90, 85, 80);
+
+  private final PetController controller;
+  private final ActivityHistory history;
+  private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+  private JComboBox<LogFilter> filterBox;
+  private JList<Integer> pageList;
+  private DefaultListModel<Integer> pageModel;
+  private JButton newerButton;
+  private JButton olderButton;
+  private JLabel statusLabel;
+
+  // Cursors of the pages before the current one, used to go back to newer pages
+  private final Deque<Long> newerCursors = new ArrayDeque<>();
+  private long currentCursor;
+  private HistoryPage currentPage;
+
+  /**
+   * Creates a new history dialog.
+   *
+   * @param owner      The owning window
+   * @param controller The pet controller
+   * @param history    The history to browse
+   */
+  public HistoryDialog(Window owner, PetController controller, ActivityHistory history) {
+    super(owner, "Activity History", ModalityType.MODELESS);
+    this.controller = controller;
+    this.history = history;
+    setupUi();
+    showNewest();
+  }
+
+  /**
+   * Sets up the UI components.
+   */
+  private void setupUi() {
+    setSize(520, 480);
+    setLocationRelativeTo(getOwner());
+
+    JPanel content = new JPanel(new BorderLayout(0, 8));
+    content.setBackground(BACKGROUND_COLOR);
+    content.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+    filterBox = new JComboBox<>(LogFilter.values());
+    filterBox.addActionListener(e -> showNewest());
+    content.add(filterBox, BorderLayout.NORTH);
+
+    // Rows hold indexes into the current page and are formatted when painted
+    pageModel = new DefaultListModel<>();
+    pageList = new JList<>(pageModel);
+    pageList.setFont(new Font("Arial", Font.PLAIN, 14));
+    pageList.setForeground(TEXT_COLOR);
+    pageList.setCellRenderer(new DefaultListCellRenderer() {
+      @Override
+      public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                    boolean isSelected, boolean cellHasFocus) {
+        super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+        setText(formatRow((Integer) value));
+        return this;
+      }
+    });
+    content.add(new JScrollPane(pageList), BorderLayout.CENTER);
+
+    JPanel navigation = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+    navigation.setOpaque(false);
+    statusLabel = new JLabel();
+    statusLabel.setForeground(TEXT_COLOR);
+    newerButton = new JButton("Newer");
+    newerButton.addActionListener(e -> showNewer());
+    olderButton = new JButton("Older");
+    olderButton.addActionListener(e -> showOlder());
+    navigation.add(statusLabel);
+    navigation.add(newerButton);
+    navigation.add(olderButton);
+    content.add(navigation, BorderLayout.SOUTH);
+
+    setContentPane(content);
+  }
+
+  /**
+   * Shows the newest page for the selected filter.
+   */
+  private void showNewest() {
+    newerCursors.clear();
+    loadPage(history.size());
+  }
+
+  /**
+   * Shows the next older page.
+   */
+  private void showOlder() {
+    if (currentPage == null || !currentPage.hasMore()) {
+      return;
+    }
+    newerCursors.push(currentCursor);
+    loadPage(currentPage.getNextCursor());
+  }
+
+  /**
+   * Shows the previous newer page.
+   */
+  private void showNewer() {
+    if (newerCursors.isEmpty()) {
+      return;
+    }
+    loadPage(newerCursors.pop());
+  }
+
+  /**
+   * Reads the page ending before the given cursor and displays it.
+   *
+   * @param cursor The exclusive cursor of the page
+   */
+  private void loadPage(long cursor) {
+    LogFilter filter = (LogFilter) filterBox.getSelectedItem();
+    long matching = 0;
+    try {
+      currentPage = history.readPage(filter.getTypes(), cursor, PAGE_SIZE);
+      currentCursor = cursor;
+      matching = history.count(filter.getTypes());
+    } catch (IOException e) {
+      System.err.println("Failed to read activity history: " + e.getMessage());
+      currentPage = null;
+    }
+
+    pageModel.clear();
+    int size = (currentPage != null) ? currentPage.getEvents().size() : 0;
+    for (int i = 0; i < size; i++) {
+      pageModel.addElement(i);
+    }
+    pageList.ensureIndexIsVisible(0);
+
+    statusLabel.setText(matching + " matching events");
+    newerButton.setEnabled(!newerCursors.isEmpty());
+    olderButton.setEnabled(currentPage != null && currentPage.hasMore());
+  }
+
+  /**
+   * Formats one row of the current page.
+   *
+   * @param index The index of the event in the current page
+   * @return The row text
+   */
+  private String formatRow(int index) {
+    ActivityEvent event = currentPage.getEvents().get(index);
+    String petName = (controller != null) ? controller.getPetName() : "Pet";
+    return dateFormat.format(new Date(currentPage.getTime(index))) + "  "
+        + event.format(petName);
+  }
+}
@@ -0,0 +1,40 @@
+package view.components;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import pet.enums.ActivityType;
+
+/**
+ * Predefined event type filters offered by the activity log and history views.
+ */
+enum LogFilter {
+  ALL("All events", EnumSet.allOf(ActivityType.class)),
+  ACTIONS("Only actions", EnumSet.of(ActivityType.ACTION, ActivityType.WOKE_UP)),
+  MYSTERY_BOXES("Only mystery boxes",
+      EnumSet.of(ActivityType.MYSTERY_BOX, ActivityType.BOX_DECLINED)),
+  DEATHS("Only deaths", EnumSet.of(ActivityType.DEATH)),
+  STEPS("Only time steps", EnumSet.of(ActivityType.STEP, ActivityType.TIME_SKIP));
+
+  private final String label;
+  private final Set<ActivityType> types;
+
+  LogFilter(String label, Set<ActivityType> types) {
+    this.label = label;
+    this.types = Collections.unmodifiableSet(types);
+  }
+
+  /**
+   * Gets the event types accepted by this filter.
+   *
+   * @return the accepted event types
+   */
+  Set<ActivityType> getTypes() {
+    return types;
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+}
@@ -0,0 +1,126 @@
+package view.components;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.util.TreeMap;
+import javax.swing.Icon;
+
+/**
+ * A source image shown at a fixed logical size, with one pre-scaled rendition per display
+ * scale factor. Renditions are created the first time a scale is seen and combined into a
+ * {@link BaseMultiResolutionImage}, so Java2D picks the variant matching the device
+ * resolution and paints it without resampling.
+ * Not thread-safe.
+ */
+public class MultiResolutionSprite implements Icon {
+  private final BufferedImage source;
+  private final int width;
+  private final int height;
+  // Renditions by scale factor, smallest first as BaseMultiResolutionImage expects
+  private final TreeMap<Double, Image> renditions = new TreeMap<>();
+  private Image image;
+
+  /**
+   * Creates a sprite showing the source image at the given logical size.
+   *
+   * @param source the full resolution image
+   * @param width  the logical width
+   * @param height the logical height
+   */
+  public MultiResolutionSprite(BufferedImage source, int width, int height) {
+    this.source = source;
+    this.width = width;
+    this.height = height;
+    addRendition(1.0);
+  }
+
+  /**
+   * Creates a sprite fitting the source image into a box while keeping its aspect ratio.
+   *
+   * @param source    the full resolution image
+   * @param maxWidth  the maximum logical width
+   * @param maxHeight the maximum logical height
+   * @return the sprite
+   */
+  public static MultiResolutionSprite fit(BufferedImage source, int maxWidth, int maxHeight) {
+    double scale = Math.min(maxWidth / (double) source.getWidth(),
+        maxHeight / (double) source.getHeight());
+    return new MultiResolutionSprite(source, Math.max(1, (int) (source.getWidth() * scale)),
+        Math.max(1, (int) (source.getHeight() * scale)));
+  }
+
+  /**
+   * Gets the image with renditions for every scale seen so far.
+   *
+   * @return the multi-resolution image, sized in logical pixels
+   */
+  public Image getImage() {
+    return image;
+  }
+
+  /**
+   * Gets the image, first adding a rendition for the scale of a device transform.
+   *
+   * @param transform the transform from logical to device pixels
+   * @return the multi-resolution image, sized in logical pixels
+   */
+  public Image getImage(AffineTransform transform) {
+    double scale = Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+    if (scale > 0 && !renditions.containsKey(scale)) {
+      addRendition(scale);
+    }
+    return image;
+  }
+
+  /**
+   * Gets the image, first adding a rendition for the scale of a screen.
+   *
+   * @param config the graphics configuration of the screen, or null
+   * @return the multi-resolution image, sized in logical pixels
+   */
+  public Image getImage(GraphicsConfiguration config) {
+    return (config != null) ? getImage(config.getDefaultTransform()) : image;
+  }
+
+  @Override
+  public void paintIcon(Component c, Graphics g, int x, int y) {
+    Image current = (g instanceof Graphics2D)
+        ? getImage(((Graphics2D) g).getTransform()) : image;
+    g.drawImage(current, x, y, width, height, null);
+  }
+
+  @Override
+  public int getIconWidth() {
+    return width;
+  }
+
+  @Override
+  public int getIconHeight() {
+    return height;
+  }
+
+  /**
+   * Scales the source once for a display scale and rebuilds the multi-resolution image.
+   */
+  private void addRendition(double scale) {
+    int targetWidth = Math.max(1, (int) Math.ceil(width * scale));
+    int targetHeight = Math.max(1, (int) Math.ceil(height * scale));
+    Image scaled = source.getScaledInstance(targetWidth, targetHeight, Image.SCALE_SMOOTH);
+    BufferedImage rendition = new BufferedImage(targetWidth, targetHeight,
+        BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2d = rendition.createGraphics();
+    g2d.drawImage(scaled, 0, 0, null);
+    g2d.dispose();
+
+    renditions.put(scale, rendition);
+    // The 1x rendition is the base image, so the result reports logical dimensions
+    int baseIndex = renditions.headMap(1.0).size();
+    image = new BaseMultiResolutionImage(baseIndex, renditions.values().toArray(new Image[0]));
+  }
+}
@@ -0,0 +1,128 @@
+package view.components;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Container;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import pet.model.PetSnapshot;
+
+/**
+ * Heavyweight pet area used in real-time mode.
+ * It ignores Swing repaints and is drawn actively from the simulation thread through a
+ * {@link BufferStrategy}, with a frame rate and tick rate overlay.
+ */
+public class PetCanvas extends Canvas {
+  private static final int IMAGE_WIDTH = 300;
+  private static final int IMAGE_HEIGHT = 350;
+  private static final int TAG_WIDTH = 120;
+  private static final int TAG_HEIGHT = 40;
+  private static final int TAG_MARGIN = 15;
+  private static final Color FILL_COLOR = new Color(255, 250, 245);
+  private static final Color OVERLAY_COLOR = new Color(75, 75, 75);
+  private static final Font OVERLAY_FONT = new Font("Arial", Font.BOLD, 14);
+
+  private final Image background;
+
+  // Only touched by the rendering thread
+  private final SpriteCache sprites = new SpriteCache(IMAGE_WIDTH, IMAGE_HEIGHT);
+  private final DecorationCache nameTags = new DecorationCache(2);
+  private String overlayText = "";
+
+  /**
+   * Creates a new pet canvas.
+   *
+   * @param background The background of the parent panel to draw behind the pet, or null
+   */
+  public PetCanvas(Image background) {
+    this.background = background;
+    setIgnoreRepaint(true);
+    setBackground(FILL_COLOR);
+  }
+
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    createBufferStrategy(2);
+  }
+
+  /**
+   * Updates the statistics shown in the overlay.
+   *
+   * @param framesPerSecond The measured frame rate
+   * @param ticksPerSecond  The measured simulation rate
+   */
+  public void setStats(double framesPerSecond, double ticksPerSecond) {
+    overlayText = String.format("FPS %.0f  TPS %.1f", framesPerSecond, ticksPerSecond);
+  }
+
+  /**
+   * Draws one frame and flips it to the screen.
+   * Called from the simulation thread; does nothing until the canvas is displayable.
+   *
+   * @param snapshot The pet state to draw, or null to draw only the background
+   */
+  public void render(PetSnapshot snapshot) {
+    BufferStrategy strategy = getBufferStrategy();
+    if (strategy == null || !isDisplayable()) {
+      return;
+    }
+
+    do {
+      do {
+        Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+        try {
+          draw(g2d, snapshot);
+        } finally {
+          g2d.dispose();
+        }
+      } while (strategy.contentsRestored());
+      strategy.show();
+    } while (strategy.contentsLost());
+
+    Toolkit.getDefaultToolkit().sync();
+  }
+
+  /**
+   * Draws the background, pet sprite, name tag and overlay.
+   */
+  private void draw(Graphics2D g2d, PetSnapshot snapshot) {
+    int width = getWidth();
+    int height = getHeight();
+
+    // Background: the slice of the parent's stretched background this canvas covers
+    Container parent = getParent();
+    if (background != null && parent != null) {
+      g2d.drawImage(background, -getX(), -getY(), parent.getWidth(), parent.getHeight(), null);
+    } else {
+      g2d.setColor(FILL_COLOR);
+      g2d.fillRect(0, 0, width, height);
+    }
+
+    if (snapshot != null) {
+      Image sprite = sprites.getSprite(SpriteCache.imageName(null, snapshot.isAlive(),
+          snapshot.isAsleep(), snapshot.getMood()), g2d.getTransform());
+      if (sprite != null) {
+        int x = (width - sprite.getWidth(null)) / 2;
+        int y = (height - sprite.getHeight(null)) / 2;
+        g2d.drawImage(sprite, x, y, null);
+      }
+
+      String name = snapshot.getName();
+      g2d.drawImage(nameTags.get(name, TAG_WIDTH, TAG_HEIGHT, getGraphicsConfiguration(),
+              (g, w, h) -> PetImagePanel.paintNameTag(g, name, w, h)),
+          TAG_MARGIN, TAG_MARGIN, TAG_WIDTH, TAG_HEIGHT, null);
+    }
+
+    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g2d.setFont(OVERLAY_FONT);
+    g2d.setColor(OVERLAY_COLOR);
+    int textWidth = g2d.getFontMetrics().stringWidth(overlayText);
+    g2d.drawString(overlayText, width - textWidth - TAG_MARGIN, TAG_MARGIN + 14);
+  }
+}
@@ -0,0 +1,311 @@
+package view.components;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import pet.model.HealthStatus;
+import pet.model.PetSnapshot;
+
+/**
+ * Scrollable grid showing many pets as small tiles.
+ * Only tiles intersecting the clip are painted, and each tile is rendered once per pet
+ * state into a bounded cache, so an unchanged pet costs a single blit.
+ */
+public class PetGridPanel extends JComponent implements Scrollable {
+  private static final int TILE_WIDTH = 96;
+  private static final int TILE_HEIGHT = 124;
+  private static final int GAP = 8;
+  private static final int THUMB_WIDTH = 72;
+  private static final int THUMB_HEIGHT = 80;
+  private static final int BAR_HEIGHT = 4;
+  private static final int MIN_CACHED_TILES = 256;
+
+  private static final Color BACKGROUND_COLOR = new Color(255, 245, 245);
+  private static final Color TILE_COLOR = new Color(252, 247, 245);
+  private static final Color TILE_BORDER_COLOR = new Color(230, 220, 215);
+  private static final Color NAME_COLOR = new Color(75, 70, 65);
+  private static final Color BAR_BACKGROUND = new Color(232, 236, 255);
+  private static final Color LOW_COLOR = new Color(255, 102, 102);
+  private static final Color MID_COLOR = new Color(255, 179, 138);
+  private static final Color HIGH_COLOR = new Color(102, 204, 102);
+  private static final Color DEAD_OVERLAY = new Color(120, 120, 120, 110);
+  private static final Font NAME_FONT = new Font("Arial", Font.BOLD, 12);
+
+  private final SpriteCache thumbnails = new SpriteCache(THUMB_WIDTH, THUMB_HEIGHT);
+  private PetSnapshot[] pets = new PetSnapshot[0];
+  private int columns = 1;
+
+  // Rendered tiles by pet index; an entry is valid while its snapshot is still current
+  private final Map<Integer, CachedTile> tileCache =
+      new LinkedHashMap<Integer, CachedTile>(MIN_CACHED_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CachedTile> eldest) {
+          return size() > Math.max(MIN_CACHED_TILES, visibleTileCount() * 2);
+        }
+      };
+
+  /**
+   * Creates an empty pet grid.
+   */
+  public PetGridPanel() {
+    setOpaque(true);
+    setBackground(BACKGROUND_COLOR);
+  }
+
+  /**
+   * Replaces all pets shown in the grid.
+   *
+   * @param pets The pet states, one per tile
+   */
+  public void setPets(PetSnapshot[] pets) {
+    this.pets = pets.clone();
+    tileCache.clear();
+    revalidate();
+    repaint();
+  }
+
+  /**
+   * Updates the state of one pet, repainting only its tile.
+   *
+   * @param index The index of the pet
+   * @param pet   The new pet state
+   */
+  public void updatePet(int index, PetSnapshot pet) {
+    if (pets[index] == pet) {
+      return;
+    }
+    pets[index] = pet;
+    repaint(tileBounds(index));
+  }
+
+  /**
+   * Gets the number of pets in the grid.
+   *
+   * @return The pet count
+   */
+  public int getPetCount() {
+    return pets.length;
+  }
+
+  @Override
+  public void setBounds(int x, int y, int width, int height) {
+    super.setBounds(x, y, width, height);
+    int newColumns = columnsFor(width);
+    if (newColumns != columns) {
+      columns = newColumns;
+      revalidate();
+    }
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    int width = Math.max(getWidth(), TILE_WIDTH + GAP * 2);
+    int cols = columnsFor(width);
+    int rows = (pets.length + cols - 1) / cols;
+    return new Dimension(width, GAP + rows * (TILE_HEIGHT + GAP));
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    g.setColor(getBackground());
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+    // Visit only the rows and columns intersecting the clip
+    int firstRow = Math.max(0, (clip.y - GAP) / (TILE_HEIGHT + GAP));
+    int lastRow = (clip.y + clip.height - GAP) / (TILE_HEIGHT + GAP);
+    int firstColumn = Math.max(0, (clip.x - GAP) / (TILE_WIDTH + GAP));
+    int lastColumn = Math.min(columns - 1, (clip.x + clip.width - GAP) / (TILE_WIDTH + GAP));
+
+    GraphicsConfiguration config = getGraphicsConfiguration();
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        int index = row * columns + column;
+        if (index >= pets.length) {
+          return;
+        }
+        if (pets[index] != null) {
+          g.drawImage(getTile(index, config), GAP + column * (TILE_WIDTH + GAP),
+              GAP + row * (TILE_HEIGHT + GAP), null);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the rendered tile of a pet, rendering it only if the pet changed.
+   */
+  private Image getTile(int index, GraphicsConfiguration config) {
+    PetSnapshot pet = pets[index];
+    CachedTile cached = tileCache.get(index);
+    if (cached != null && cached.pet == pet) {
+      return cached.image;
+    }
+
+    BufferedImage image = (cached != null) ? cached.image : createTileImage(config);
+    renderTile(image, pet);
+    tileCache.put(index, new CachedTile(pet, image));
+    return image;
+  }
+
+  private static BufferedImage createTileImage(GraphicsConfiguration config) {
+    if (config != null) {
+      return config.createCompatibleImage(TILE_WIDTH, TILE_HEIGHT, Transparency.TRANSLUCENT);
+    }
+    return new BufferedImage(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+  }
+
+  /**
+   * Renders a pet's thumbnail, name and mini health bars into a tile image.
+   */
+  private void renderTile(BufferedImage image, PetSnapshot pet) {
+    Graphics2D g2d = image.createGraphics();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+    // Clear any previous tile, then draw the rounded card
+    g2d.setComposite(AlphaComposite.Clear);
+    g2d.fillRect(0, 0, TILE_WIDTH, TILE_HEIGHT);
+    g2d.setComposite(AlphaComposite.SrcOver);
+    g2d.setColor(TILE_COLOR);
+    g2d.fillRoundRect(0, 0, TILE_WIDTH - 1, TILE_HEIGHT - 1, 12, 12);
+    g2d.setColor(TILE_BORDER_COLOR);
+    g2d.drawRoundRect(0, 0, TILE_WIDTH - 1, TILE_HEIGHT - 1, 12, 12);
+
+    // Thumbnail of the mood/state sprite
+    Image thumbnail = thumbnails.getSprite(SpriteCache.imageName(null, pet.isAlive(),
+        pet.isAsleep(), pet.getMood()));
+    if (thumbnail != null) {
+      int x = (TILE_WIDTH - thumbnail.getWidth(null)) / 2;
+      g2d.drawImage(thumbnail, x, 4, null);
+    }
+
+    // Name, shortened to fit the tile
+    g2d.setFont(NAME_FONT);
+    g2d.setColor(NAME_COLOR);
+    FontMetrics metrics = g2d.getFontMetrics();
+    String name = fitText(pet.getName(), metrics, TILE_WIDTH - 8);
+    g2d.drawString(name, (TILE_WIDTH - metrics.stringWidth(name)) / 2,
+        THUMB_HEIGHT + 6 + metrics.getAscent());
+
+    // Mini health bars
+    HealthStatus health = pet.getHealth();
+    int barY = TILE_HEIGHT - 4 * (BAR_HEIGHT + 2) - 4;
+    paintHealthBars(g2d, health, 8, barY, TILE_WIDTH - 16, BAR_HEIGHT, 2);
+
+    if (!pet.isAlive()) {
+      g2d.setColor(DEAD_OVERLAY);
+      g2d.fillRoundRect(0, 0, TILE_WIDTH - 1, TILE_HEIGHT - 1, 12, 12);
+    }
+    g2d.dispose();
+  }
+
+  /**
+   * Paints one bar per health stat, stacked downward from the given position.
+   * Hunger is good when low and the other stats when high, so hunger is drawn inverted.
+   */
+  static void paintHealthBars(Graphics2D g2d, HealthStatus health, int x, int y, int width,
+                              int barHeight, int gap) {
+    int[] values = {100 - health.getHunger(), health.getHygiene(), health.getSocial(),
+        health.getSleep()};
+    for (int i = 0; i < values.length; i++) {
+      int barY = y + i * (barHeight + gap);
+      int value = Math.max(0, Math.min(100, values[i]));
+      g2d.setColor(BAR_BACKGROUND);
+      g2d.fillRect(x, barY, width, barHeight);
+      g2d.setColor(value < 30 ? LOW_COLOR : (value < 70 ? MID_COLOR : HIGH_COLOR));
+      g2d.fillRect(x, barY, width * value / 100, barHeight);
+    }
+  }
+
+  /**
+   * Shortens text with an ellipsis until it fits the given width.
+   */
+  private static String fitText(String text, FontMetrics metrics, int maxWidth) {
+    if (metrics.stringWidth(text) <= maxWidth) {
+      return text;
+    }
+    String shortened = text;
+    while (shortened.length() > 1 && metrics.stringWidth(shortened + "...") > maxWidth) {
+      shortened = shortened.substring(0, shortened.length() - 1);
+    }
+    return shortened + "...";
+  }
+
+  /**
+   * Gets the bounds of a pet's tile in component coordinates.
+   */
+  private Rectangle tileBounds(int index) {
+    int row = index / columns;
+    int column = index % columns;
+    return new Rectangle(GAP + column * (TILE_WIDTH + GAP), GAP + row * (TILE_HEIGHT + GAP),
+        TILE_WIDTH, TILE_HEIGHT);
+  }
+
+  private static int columnsFor(int width) {
+    return Math.max(1, (width - GAP) / (TILE_WIDTH + GAP));
+  }
+
+  private int visibleTileCount() {
+    Rectangle visible = getVisibleRect();
+    int rows = visible.height / (TILE_HEIGHT + GAP) + 2;
+    return rows * columns;
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return new Dimension(6 * (TILE_WIDTH + GAP) + GAP, 4 * (TILE_HEIGHT + GAP) + GAP);
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return (orientation == SwingConstants.VERTICAL) ? (TILE_HEIGHT + GAP) / 4 : TILE_WIDTH;
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return (orientation == SwingConstants.VERTICAL) ? visibleRect.height : visibleRect.width;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return true;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    return false;
+  }
+
+  /**
+   * A rendered tile together with the pet state it shows.
+   */
+  private static class CachedTile {
+    private final PetSnapshot pet;
+    private final BufferedImage image;
+
+    CachedTile(PetSnapshot pet, BufferedImage image) {
+      this.pet = pet;
+      this.image = image;
+    }
+  }
+}
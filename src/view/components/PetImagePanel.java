@@ -1,5 +1,6 @@
 package view.components;
 
+import controller.LatencyTracer;
 import controller.PetController;
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -11,20 +12,11 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.RenderingHints;
 import java.awt.geom.RoundRectangle2D;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
-import javax.imageio.ImageIO;
+import java.util.Arrays;
 import javax.swing.BorderFactory;
-import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.SwingConstants;
-import javax.swing.SwingUtilities;
 import pet.enums.Action;
+import pet.model.PetSnapshot;
 
 /**
  * Panel for displaying the pet image based on its current state.
@@ -42,18 +34,26 @@ public class PetImagePanel extends JPanel {
   // Colors for styling
   private static final Color NAME_TAG_COLOR = new Color(255, 159, 127);
   private static final Color NAME_TEXT_COLOR = Color.WHITE;
+  private static final Font NAME_FONT = new Font("Arial", Font.BOLD, 20);
+  private static final int TAG_WIDTH = 120;
+  private static final int TAG_HEIGHT = 40;
+  private static final int TAG_MARGIN = 15;
+  private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 11);
+  private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 150);
 
   // Controller reference
   private PetController controller;
 
-  private Map<String, Image> imageCache;
-  private Image currentImage;
+  private final SpriteCache sprites = new SpriteCache(IMAGE_WIDTH, IMAGE_HEIGHT);
+  private String currentImageName;
   private JPanel nameTagPanel;
-  private JLabel nameLabel;
+  // Pre-rendered name tags, dropped whenever the pet name changes
+  private final DecorationCache nameTagCache = new DecorationCache(2);
+  private String cachedName;
 
   // Track temporary action state
   private Action currentAction = null;
-  private Timer actionTimer = null;
+  private Animation actionExpiry = null;
 
   /**
    * Creates a new pet image panel.
@@ -62,7 +62,6 @@ public class PetImagePanel extends JPanel {
    */
   public PetImagePanel(PetController controller) {
     this.controller = controller;
-    this.imageCache = new HashMap<>();
 
     setLayout(new BorderLayout(0, 10));
     // Remove the border to allow the background to fill the entire panel
@@ -90,9 +89,10 @@ public class PetImagePanel extends JPanel {
   public void setController(PetController controller) {
     this.controller = controller;
 
-    // Update name label with the pet name
-    if (nameLabel != null && controller != null) {
-      nameLabel.setText(controller.getPetName());
+    // The pet name may have changed, so the tag is repainted from scratch
+    nameTagCache.invalidate();
+    if (nameTagPanel != null) {
+      nameTagPanel.repaint();
     }
 
     // Load initial image
@@ -106,32 +106,52 @@ public class PetImagePanel extends JPanel {
     nameTagPanel = new JPanel() {
       @Override
       protected void paintComponent(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g.create();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Create rounded rectangle for name tag
-        RoundRectangle2D roundedRectangle = new RoundRectangle2D.Float(
-            0, 0, getWidth(), getHeight(), getHeight(), getHeight());
-
-        // Fill with name tag color
-        g2d.setColor(NAME_TAG_COLOR);
-        g2d.fill(roundedRectangle);
-
-        g2d.dispose();
-        super.paintComponent(g);
+        // Blit the pre-rendered tag at its logical size, which is device resolution
+        g.drawImage(getNameTag(getWidth(), getHeight()), 0, 0, getWidth(), getHeight(), null);
       }
     };
 
     nameTagPanel.setOpaque(false);
-    nameTagPanel.setPreferredSize(new Dimension(120, 40));
-    nameTagPanel.setLayout(new BorderLayout());
-
-    // Create pet name label - get name from controller if available
-    String petName = (controller != null) ? controller.getPetName() : "Pet";
-    nameLabel = new JLabel(petName, SwingConstants.CENTER);
-    nameLabel.setFont(new Font("Arial", Font.BOLD, 20)); // Smaller font
-    nameLabel.setForeground(NAME_TEXT_COLOR);
-    nameTagPanel.add(nameLabel, BorderLayout.CENTER);
+    nameTagPanel.setPreferredSize(new Dimension(TAG_WIDTH, TAG_HEIGHT));
+  }
+
+  /**
+   * Gets the pre-rendered name tag for the current pet name.
+   *
+   * @param width  The logical width of the tag
+   * @param height The logical height of the tag
+   * @return The rendered tag image
+   */
+  private Image getNameTag(int width, int height) {
+    String name = (controller != null) ? controller.getPetName() : "Pet";
+    if (!name.equals(cachedName)) {
+      nameTagCache.invalidate();
+      cachedName = name;
+    }
+    return nameTagCache.get(name, width, height, getGraphicsConfiguration(),
+        (g2d, w, h) -> paintNameTag(g2d, name, w, h));
+  }
+
+  /**
+   * Paints a rounded name tag with the name centered in it.
+   *
+   * @param g2d    The graphics to paint with
+   * @param name   The pet name
+   * @param width  The width of the tag
+   * @param height The height of the tag
+   */
+  static void paintNameTag(Graphics2D g2d, String name, int width, int height) {
+    // Create rounded rectangle for name tag
+    g2d.setColor(NAME_TAG_COLOR);
+    g2d.fill(new RoundRectangle2D.Float(0, 0, width, height, height, height));
+
+    // Draw name text
+    g2d.setFont(NAME_FONT);
+    g2d.setColor(NAME_TEXT_COLOR);
+    FontMetrics metrics = g2d.getFontMetrics();
+    int textX = (width - metrics.stringWidth(name)) / 2;
+    int textY = ((height - metrics.getHeight()) / 2) + metrics.getAscent();
+    g2d.drawString(name, textX, textY);
   }
 
   /**
@@ -145,10 +165,9 @@ public class PetImagePanel extends JPanel {
       updateImage();
       return;
     }
-    // Cancel existing timer if one is running
-    if (actionTimer != null) {
-      actionTimer.cancel();
-    }
+    // Cancel pending expiry if one is scheduled
+    AnimationClock clock = AnimationClock.getInstance();
+    clock.stop(actionExpiry);
 
     // Set current action
     this.currentAction = action;
@@ -156,30 +175,21 @@ public class PetImagePanel extends JPanel {
     // Update display with action image
     updateImage();
 
-    // Start timer to revert back to normal image
-    actionTimer = new Timer();
-    actionTimer.schedule(new TimerTask() {
-      @Override
-      public void run() {
-        // Reset the current action and update display
-        SwingUtilities.invokeLater(() -> {
-          currentAction = null;
-          updateImage();
-          actionTimer = null;
-        });
-      }
-    }, ACTION_IMAGE_DURATION);
+    // Revert back to normal image on the shared animation clock
+    actionExpiry = clock.after(ACTION_IMAGE_DURATION, () -> {
+      currentAction = null;
+      actionExpiry = null;
+      updateImage();
+    });
   }
 
   /**
    * Clears any active action image and shows the normal pet state.
    */
   public void clearActionImage() {
-    // Cancel existing timer if one is running
-    if (actionTimer != null) {
-      actionTimer.cancel();
-      actionTimer = null;
-    }
+    // Cancel pending expiry if one is scheduled
+    AnimationClock.getInstance().stop(actionExpiry);
+    actionExpiry = null;
 
     // Clear current action
     this.currentAction = null;
@@ -196,9 +206,10 @@ public class PetImagePanel extends JPanel {
       return;
     }
 
-    String imageName = getImageName();
-    currentImage = getImage(imageName);
-    repaint();
+    long traceStart = LatencyTracer.start();
+    currentImageName = getImageName();
+    AnimationClock.getInstance().requestRepaint(this);
+    LatencyTracer.end(LatencyTracer.Stage.PET_IMAGE, traceStart);
   }
 
   /**
@@ -212,99 +223,11 @@ public class PetImagePanel extends JPanel {
       return "neutral.png"; // Default image if no controller
     }
 
-    // If there's an active action, show that image
-    if (currentAction != null) {
-      switch (currentAction) {
-        case FEED:
-          return "feeding.png";
-        case PLAY:
-          return "playing.png";
-        case CLEAN:
-          return "cleaning.png";
-        case SLEEP:
-          return "sleeping.png";
-        default:
-          return "neutral.png"; // Default image if action is unknown
-      }
-    }
-
-    // No action or sleep action, show normal state image
-    if (!controller.isPetAlive()) {
-      return "dead.png";
-    }
-
-    if (controller.isPetAsleep()) {
-      return "sleeping.png";
-    }
-
-    switch (controller.getPetMood()) {
-      case HAPPY:
-        return "happy.png";
-      case SAD:
-        return "sad.png";
-      default:
-        return "neutral.png";
-    }
-  }
-
-  /**
-   * Gets the image from cache or loads it from disk.
-   *
-   * @param imageName The name of the image to get
-   * @return The image
-   */
-  private Image getImage(String imageName) {
-    // Check if the image is already in the cache
-    if (imageCache.containsKey(imageName)) {
-      return imageCache.get(imageName);
-    }
-
-    // Try to load the image
-    try {
-      File file = new File("res/images/" + imageName);
-      if (file.exists()) {
-        BufferedImage img = ImageIO.read(file);
-        Image scaledImage = getScaledImage(img);
-        imageCache.put(imageName, scaledImage);
-        return scaledImage;
-      } else {
-        System.err.println("Image file does not exist: res/images/" + imageName);
-      }
-    } catch (IOException e) {
-      System.err.println("Failed to load image: " + imageName);
-      e.printStackTrace();
-    }
-    return null;
-  }
-
-  /**
-   * Scales the image to fit the panel while maintaining aspect ratio.
-   *
-   * @param img The original image
-   * @return The scaled image
-   */
-  private Image getScaledImage(BufferedImage img) {
-    double originalWidth = img.getWidth();
-    double originalHeight = img.getHeight();
-    double ratio = originalWidth / originalHeight;
-
-    int targetWidth = IMAGE_WIDTH;
-    int targetHeight = IMAGE_HEIGHT;
-
-    // Adjust dimensions to maintain aspect ratio
-    if (ratio > 1) {
-      // Width is greater than height
-      targetHeight = (int) (IMAGE_WIDTH / ratio);
-    } else {
-      // Height is greater than or equal to width
-      targetWidth = (int) (IMAGE_HEIGHT * ratio);
-    }
-
-    // Scale the image
-    return img.getScaledInstance(targetWidth, targetHeight, Image.SCALE_SMOOTH);
+    PetSnapshot state = controller.getSnapshot();
+    return SpriteCache.imageName(currentAction, state.isAlive(), state.isAsleep(),
+        state.getMood());
   }
 
-
   @Override
   protected void paintComponent(Graphics g) {
     super.paintComponent(g);
@@ -314,6 +237,9 @@ public class PetImagePanel extends JPanel {
     int width = getWidth();
     int height = getHeight();
 
+    // Ask for the rendition matching this device's scale so the blit needs no resampling
+    Image currentImage = (currentImageName != null)
+        ? sprites.getSprite(currentImageName, g2d.getTransform()) : null;
     if (currentImage != null) {
       // Calculate position to center the image
       int imageWidth = currentImage.getWidth(this);
@@ -327,32 +253,51 @@ public class PetImagePanel extends JPanel {
 
     // Draw small name tag in top left corner
     if (nameTagPanel != null && !nameTagPanel.isShowing()) {
-      // Calculate position
-      int tagWidth = 120;
-      int tagHeight = 40;
-      int tagX = 15;
-      int tagY = 15;
-
-      // Draw rounded rectangle background
-      g2d.setColor(NAME_TAG_COLOR);
-      g2d.fillRoundRect(tagX, tagY, tagWidth, tagHeight, tagHeight, tagHeight);
-
-      // Draw name text
-      g2d.setFont(new Font("Arial", Font.BOLD, 20));
-      g2d.setColor(NAME_TEXT_COLOR);
-
-      FontMetrics metrics = g2d.getFontMetrics();
-      String name = (controller != null) ? controller.getPetName() : "Pet";
-      int textWidth = metrics.stringWidth(name);
-      int textX = tagX + (tagWidth - textWidth) / 2;
-      int textY = tagY + ((tagHeight - metrics.getHeight()) / 2) + metrics.getAscent();
-
-      g2d.drawString(name, textX, textY);
+      g2d.drawImage(getNameTag(TAG_WIDTH, TAG_HEIGHT), TAG_MARGIN, TAG_MARGIN, TAG_WIDTH,
+          TAG_HEIGHT, null);
+    }
+
+    // This frame shows the result of any traced input; close the trace and show the stats
+    if (LatencyTracer.isEnabled()) {
+      paintLatencyOverlay(g2d, height);
+      if (LatencyTracer.framePainted()) {
+        // Repaint once more so the overlay includes the trace just closed
+        AnimationClock.getInstance().requestRepaint(this);
+      }
     }
 
     g2d.dispose();
   }
 
+  /**
+   * Draws the latency tracer's percentiles and last stage spans in the bottom left corner,
+   * followed by the controller's command batching.
+   *
+   * @param g2d    The graphics context
+   * @param height The panel height
+   */
+  private void paintLatencyOverlay(Graphics2D g2d, int height) {
+    String[] lines = LatencyTracer.describe();
+    if (controller != null) {
+      lines = Arrays.copyOf(lines, lines.length + 1);
+      lines[lines.length - 1] = controller.describeCommandQueue();
+    }
+    g2d.setFont(OVERLAY_FONT);
+    FontMetrics metrics = g2d.getFontMetrics();
+    int lineHeight = metrics.getHeight();
+    int boxWidth = 0;
+    for (String line : lines) {
+      boxWidth = Math.max(boxWidth, metrics.stringWidth(line));
+    }
+    int top = height - lines.length * lineHeight - 8;
+    g2d.setColor(OVERLAY_BACKGROUND);
+    g2d.fillRect(4, top - 4, boxWidth + 8, lines.length * lineHeight + 8);
+    g2d.setColor(Color.WHITE);
+    for (int i = 0; i < lines.length; i++) {
+      g2d.drawString(lines[i], 8, top + i * lineHeight + metrics.getAscent());
+    }
+  }
+
   @Override
   public Dimension getPreferredSize() {
     // Increase the preferred size to accommodate taller images
@@ -1,28 +1,67 @@
 package view.components;
 
+import java.awt.AlphaComposite;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
 import java.awt.geom.RoundRectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
 import javax.swing.JPanel;
-import javax.swing.Timer;
 
 /**
  * SpeechBubble class to display a speech bubble with a message.
+ * Messages are queued by priority: identical consecutive messages extend the one showing,
+ * urgent messages preempt less urgent ones, and the rest wait their turn.
  */
 public class SpeechBubble extends JPanel {
+  private static final int FADE_IN_MILLIS = 150;
+  private static final int FADE_OUT_MILLIS = 300;
+  private static final int MAX_QUEUED = 4;
+  private static final int MAX_CACHED_LAYOUTS = 16;
+
+  private static final Color BUBBLE_COLOR = new Color(255, 255, 255, 230);
+  private static final Color BORDER_COLOR = new Color(200, 200, 200);
+  private static final Color TEXT_COLOR = new Color(80, 80, 80);
+  private static final Font TEXT_FONT = new Font("Arial", Font.BOLD, 14);
+
   private final int bubbleWidth = 150;
   private final int bubbleHeight = 80;
+  private final RoundRectangle2D bubbleShape = new RoundRectangle2D.Float(
+      0, 0, bubbleWidth - 20, bubbleHeight - 30, 20, 20);
   private String message;
+  private SpeechPriority priority = SpeechPriority.LOW;
   private int duration = 5000; // Display duration in ms
-  private Timer displayTimer;
   private Point targetPoint; // Point indicating where the bubble should point to
+  private int[] pointerX;
+  private final int[] pointerY = {bubbleHeight - 30, bubbleHeight - 10, bubbleHeight - 10};
+
+  // Messages waiting for the current one to finish
+  private final PriorityQueue<QueuedMessage> queue = new PriorityQueue<>();
+  private long nextSequence;
+
+  // Fade state, driven by the shared animation clock
+  private final Animation fadeAnimation = this::tickFade;
+  private long shownAt;
+  private float alpha = 0f;
+
+  // Laid-out glyphs of recently shown messages
+  private final Map<String, TextLayoutEntry> layoutCache =
+      new LinkedHashMap<String, TextLayoutEntry>(MAX_CACHED_LAYOUTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TextLayoutEntry> eldest) {
+          return size() > MAX_CACHED_LAYOUTS;
+        }
+      };
 
   /**
    * Constructor for SpeechBubble.
@@ -32,7 +71,7 @@ public class SpeechBubble extends JPanel {
     setLayout(new BorderLayout());
     setPreferredSize(new Dimension(bubbleWidth, bubbleHeight));
     setVisible(false);
-    targetPoint = new Point(bubbleWidth - 30, bubbleHeight); // Default pointing down-right
+    setTargetPoint(new Point(bubbleWidth - 30, bubbleHeight)); // Default pointing down-right
   }
 
   /**
@@ -53,26 +92,157 @@ public class SpeechBubble extends JPanel {
    * @param targetPoint Point that the bubble should point toward (relative to this panel)
    */
   public void showMessage(String message, int duration, Point targetPoint) {
-    this.message = message;
-    this.duration = duration;
-    this.targetPoint = targetPoint;
+    showMessage(message, duration, targetPoint, SpeechPriority.NORMAL);
+  }
+
+  /**
+   * Queues a message with a priority.
+   * A message identical to the one showing only extends its display time. A message of
+   * higher priority than the one showing replaces it right away; otherwise it waits.
+   *
+   * @param message     The message to display
+   * @param duration    Duration to display in milliseconds
+   * @param targetPoint Point that the bubble should point toward (relative to this panel)
+   * @param priority    How urgent the message is
+   */
+  public void showMessage(String message, int duration, Point targetPoint,
+                          SpeechPriority priority) {
+    if (isShowing(message)) {
+      // Same message again: keep it up without fading or re-laying it out
+      this.duration = duration;
+      shownAt = AnimationClock.now() - FADE_IN_MILLIS;
+      if (priority.compareTo(this.priority) > 0) {
+        this.priority = priority;
+      }
+      return;
+    }
+
+    if (!isShowingMessage() || priority.compareTo(this.priority) > 0) {
+      display(new QueuedMessage(message, duration, targetPoint, priority, nextSequence++));
+      return;
+    }
+
+    enqueue(new QueuedMessage(message, duration, targetPoint, priority, nextSequence++));
+  }
+
+  /**
+   * Gets the number of messages waiting to be shown.
+   *
+   * @return the queue depth
+   */
+  public int getQueuedCount() {
+    return queue.size();
+  }
+
+  /**
+   * Returns whether the bubble is currently showing any message.
+   */
+  private boolean isShowingMessage() {
+    return isVisible() && message != null;
+  }
 
-    // Cancel existing timer if running
-    if (displayTimer != null && displayTimer.isRunning()) {
-      displayTimer.stop();
+  /**
+   * Returns whether the given message is the one currently showing.
+   */
+  private boolean isShowing(String text) {
+    return isShowingMessage() && text.equals(message);
+  }
+
+  /**
+   * Adds a message to the waiting queue, dropping duplicates and the least urgent overflow.
+   */
+  private void enqueue(QueuedMessage queued) {
+    for (QueuedMessage waiting : queue) {
+      if (waiting.message.equals(queued.message)) {
+        if (queued.priority.compareTo(waiting.priority) > 0) {
+          queue.remove(waiting);
+          queue.add(queued);
+        }
+        return;
+      }
     }
 
-    // Show bubble
+    queue.add(queued);
+    if (queue.size() > MAX_QUEUED) {
+      QueuedMessage leastUrgent = null;
+      for (QueuedMessage waiting : queue) {
+        if (leastUrgent == null || waiting.compareTo(leastUrgent) > 0) {
+          leastUrgent = waiting;
+        }
+      }
+      queue.remove(leastUrgent);
+    }
+  }
+
+  /**
+   * Shows a message immediately, fading in unless a bubble is already up.
+   */
+  private void display(QueuedMessage queued) {
+    // Drop a waiting copy of the message we are about to show
+    queue.removeIf(waiting -> waiting.message.equals(queued.message));
+
+    this.message = queued.message;
+    this.duration = queued.duration;
+    this.priority = queued.priority;
+    setTargetPoint(queued.targetPoint);
+
+    // Keep a bubble that is already showing at full opacity instead of fading it in again
+    long now = AnimationClock.now();
+    if (isVisible() && alpha > 0f) {
+      shownAt = now - FADE_IN_MILLIS;
+    } else {
+      shownAt = now;
+      alpha = 0f;
+    }
+
+    // Show bubble and (re)start its fade on the shared clock
     setVisible(true);
-    repaint();
+    AnimationClock clock = AnimationClock.getInstance();
+    clock.start(fadeAnimation);
+    clock.requestRepaint(this);
+  }
+
+  /**
+   * Points the bubble at a new target, updating the pointer triangle.
+   */
+  private void setTargetPoint(Point targetPoint) {
+    this.targetPoint = targetPoint;
+    this.pointerX = new int[] {targetPoint.x - 10, targetPoint.x, targetPoint.x - 20};
+  }
+
+  /**
+   * Advances the fade in, hold and fade out of the bubble.
+   *
+   * @param now The frame time in milliseconds
+   * @return true while the bubble is still showing
+   */
+  private boolean tickFade(long now) {
+    long elapsed = now - shownAt;
+    float next;
+    if (elapsed < FADE_IN_MILLIS) {
+      next = elapsed / (float) FADE_IN_MILLIS;
+    } else if (elapsed < duration) {
+      next = 1f;
+    } else {
+      next = 1f - (elapsed - duration) / (float) FADE_OUT_MILLIS;
+    }
 
-    // Start timer to hide bubble
-    displayTimer = new Timer(duration, e -> {
+    if (next <= 0f) {
+      alpha = 0f;
+      QueuedMessage queued = queue.poll();
+      if (queued != null) {
+        display(queued);
+        return true;
+      }
+      message = null;
       setVisible(false);
-      repaint();
-    });
-    displayTimer.setRepeats(false);
-    displayTimer.start();
+      return false;
+    }
+    if (next != alpha) {
+      alpha = next;
+      AnimationClock.getInstance().requestRepaint(this);
+    }
+    return true;
   }
 
   /**
@@ -90,42 +260,88 @@ public class SpeechBubble extends JPanel {
 
     Graphics2D g2d = (Graphics2D) g.create();
     g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
 
     // Draw bubble background
-    g2d.setColor(new Color(255, 255, 255, 230));
-    RoundRectangle2D bubble = new RoundRectangle2D.Float(
-        0, 0, bubbleWidth - 20, bubbleHeight - 30, 20, 20);
-    g2d.fill(bubble);
+    g2d.setColor(BUBBLE_COLOR);
+    g2d.fill(bubbleShape);
 
     // Draw border
-    g2d.setColor(new Color(200, 200, 200));
-    g2d.draw(bubble);
-
-    // Calculate pointer position based on targetPoint
-    int[] xcoordinates = {targetPoint.x - 10, targetPoint.x, targetPoint.x - 20};
-    int[] ycoordinates = {bubbleHeight - 30, bubbleHeight - 10, bubbleHeight - 10};
+    g2d.setColor(BORDER_COLOR);
+    g2d.draw(bubbleShape);
 
     // Draw pointer triangle
-    g2d.setColor(new Color(255, 255, 255, 230));
-    g2d.fillPolygon(xcoordinates, ycoordinates, 3);
-    g2d.setColor(new Color(200, 200, 200));
-    g2d.drawPolygon(xcoordinates, ycoordinates, 3);
-
-    // Draw message text
-    g2d.setColor(new Color(80, 80, 80));
-    g2d.setFont(new Font("Arial", Font.BOLD, 14));
-
-    // Handle multiline text
-    FontMetrics fm = g2d.getFontMetrics();
-    int lineHeight = fm.getHeight();
-    String[] lines = message.split("\n");
-
-    for (int i = 0; i < lines.length; i++) {
-      int x = 10;
-      int y = 20 + (i * lineHeight);
-      g2d.drawString(lines[i], x, y);
+    g2d.setColor(BUBBLE_COLOR);
+    g2d.fillPolygon(pointerX, pointerY, 3);
+    g2d.setColor(BORDER_COLOR);
+    g2d.drawPolygon(pointerX, pointerY, 3);
+
+    // Draw message text from cached glyphs, one vector per line
+    g2d.setColor(TEXT_COLOR);
+    TextLayoutEntry layout = getLayout(message, g2d.getFontRenderContext());
+    for (int i = 0; i < layout.lines.length; i++) {
+      g2d.drawGlyphVector(layout.lines[i], 10, 20 + (i * layout.lineHeight));
     }
 
     g2d.dispose();
   }
-}
\ No newline at end of file
+
+  /**
+   * Gets the laid-out glyphs of a message, creating them only when the message or the
+   * rendering context changed.
+   */
+  private TextLayoutEntry getLayout(String text, FontRenderContext frc) {
+    TextLayoutEntry layout = layoutCache.get(text);
+    if (layout == null || !layout.frc.equals(frc)) {
+      layout = new TextLayoutEntry(text, frc);
+      layoutCache.put(text, layout);
+    }
+    return layout;
+  }
+
+  /**
+   * Glyph vectors of a multiline message for one rendering context.
+   */
+  private static class TextLayoutEntry {
+    private final FontRenderContext frc;
+    private final GlyphVector[] lines;
+    private final float lineHeight;
+
+    TextLayoutEntry(String text, FontRenderContext frc) {
+      this.frc = frc;
+      String[] parts = text.split("\n");
+      this.lines = new GlyphVector[parts.length];
+      for (int i = 0; i < parts.length; i++) {
+        lines[i] = TEXT_FONT.createGlyphVector(frc, parts[i]);
+      }
+      LineMetrics metrics = TEXT_FONT.getLineMetrics(text, frc);
+      this.lineHeight = metrics.getHeight();
+    }
+  }
+
+  /**
+   * A message waiting to be shown, ordered by priority and then by arrival.
+   */
+  private static class QueuedMessage implements Comparable<QueuedMessage> {
+    private final String message;
+    private final int duration;
+    private final Point targetPoint;
+    private final SpeechPriority priority;
+    private final long sequence;
+
+    QueuedMessage(String message, int duration, Point targetPoint, SpeechPriority priority,
+                  long sequence) {
+      this.message = message;
+      this.duration = duration;
+      this.targetPoint = targetPoint;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(QueuedMessage other) {
+      int byPriority = other.priority.compareTo(priority);
+      return (byPriority != 0) ? byPriority : Long.compare(sequence, other.sequence);
+    }
+  }
+}
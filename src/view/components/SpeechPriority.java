@@ -0,0 +1,12 @@
+package view.components;
+
+/**
+ * Enum representing how urgently a speech bubble message should be shown.
+ * Higher priorities preempt lower ones that are showing or waiting.
+ */
+public enum SpeechPriority {
+  LOW,
+  NORMAL,
+  HIGH,
+  URGENT
+}
@@ -0,0 +1,136 @@
+package view.components;
+
+import java.awt.Image;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import pet.enums.Action;
+import pet.enums.MoodEnum;
+
+/**
+ * Loads pet sprites from disk and keeps them scaled to a fixed bounding box,
+ * with a rendition per display scale so HiDPI screens draw them at native resolution.
+ * Not thread-safe; each rendering thread should use its own cache.
+ */
+public class SpriteCache {
+  private static final String IMAGE_DIRECTORY = "res/images/";
+
+  private final int maxWidth;
+  private final int maxHeight;
+  private final Map<String, MultiResolutionSprite> images = new HashMap<>();
+
+  /**
+   * Creates a sprite cache scaling images to fit the given box.
+   *
+   * @param maxWidth  the maximum sprite width
+   * @param maxHeight the maximum sprite height
+   */
+  public SpriteCache(int maxWidth, int maxHeight) {
+    this.maxWidth = maxWidth;
+    this.maxHeight = maxHeight;
+  }
+
+  /**
+   * Determines the sprite to show for a pet state.
+   *
+   * @param action the action currently being shown, or null
+   * @param alive  whether the pet is alive
+   * @param asleep whether the pet is asleep
+   * @param mood   the pet's mood
+   * @return the image name to use
+   */
+  public static String imageName(Action action, boolean alive, boolean asleep, MoodEnum mood) {
+    // If there's an active action, show that image
+    if (action != null) {
+      switch (action) {
+        case FEED:
+          return "feeding.png";
+        case PLAY:
+          return "playing.png";
+        case CLEAN:
+          return "cleaning.png";
+        case SLEEP:
+          return "sleeping.png";
+        default:
+          return "neutral.png"; // Default image if action is unknown
+      }
+    }
+
+    // No action or sleep action, show normal state image
+    if (!alive) {
+      return "dead.png";
+    }
+
+    if (asleep) {
+      return "sleeping.png";
+    }
+
+    switch (mood) {
+      case HAPPY:
+        return "happy.png";
+      case SAD:
+        return "sad.png";
+      default:
+        return "neutral.png";
+    }
+  }
+
+  /**
+   * Gets the image from cache or loads it from disk.
+   *
+   * @param imageName The name of the image to get
+   * @return The image at 1x, or null if it cannot be loaded
+   */
+  public Image getSprite(String imageName) {
+    MultiResolutionSprite sprite = getMultiResolutionSprite(imageName);
+    return (sprite != null) ? sprite.getImage() : null;
+  }
+
+  /**
+   * Gets the image with a rendition matching the scale of the graphics it is drawn on.
+   *
+   * @param imageName The name of the image to get
+   * @param transform The device transform of the target graphics
+   * @return The multi-resolution image, or null if it cannot be loaded
+   */
+  public Image getSprite(String imageName, AffineTransform transform) {
+    MultiResolutionSprite sprite = getMultiResolutionSprite(imageName);
+    return (sprite != null) ? sprite.getImage(transform) : null;
+  }
+
+  /**
+   * Gets the sprite from cache or loads it from disk.
+   *
+   * @param imageName The name of the image to get
+   * @return The sprite, or null if it cannot be loaded
+   */
+  private MultiResolutionSprite getMultiResolutionSprite(String imageName) {
+    // Check if the image is already in the cache
+    if (images.containsKey(imageName)) {
+      return images.get(imageName);
+    }
+
+    // Try to load the image
+    try {
+      File file = new File(IMAGE_DIRECTORY + imageName);
+      BufferedImage img = file.exists() ? ImageIO.read(file) : null;
+      if (img != null) {
+        // Renditions are scaled from the original the first time each display scale is seen
+        MultiResolutionSprite sprite = MultiResolutionSprite.fit(img, maxWidth, maxHeight);
+        images.put(imageName, sprite);
+        return sprite;
+      } else {
+        System.err.println("Image file does not exist or is unreadable: " + IMAGE_DIRECTORY
+            + imageName);
+      }
+    } catch (IOException e) {
+      System.err.println("Failed to load image: " + imageName);
+      e.printStackTrace();
+    }
+    return null;
+  }
+}
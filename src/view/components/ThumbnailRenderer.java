@@ -0,0 +1,291 @@
+package view.components;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import pet.enums.Action;
+import pet.enums.MoodEnum;
+import pet.model.HealthStatus;
+import pet.model.PetSnapshot;
+
+/**
+ * Renders pet status images without any window, for dashboards and notifications.
+ * Each image shows the same composition as {@link PetImagePanel} (the sprite for the pet's
+ * mood, state or current action, the name tag) plus the health bars. Works under
+ * {@code java.awt.headless=true}.
+ *
+ * <p>Batches are split across a thread pool and outputs are cached by pet state, so pets in
+ * the same state share one image. Returned images are shared and must not be modified.
+ */
+public class ThumbnailRenderer implements Closeable {
+  private static final Color BACKGROUND_COLOR = new Color(255, 245, 245);
+  private static final int MARGIN = 10;
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  private final int width;
+  private final int height;
+  private final int threads;
+  private final ExecutorService executor;
+  private final ThreadLocal<SpriteCache> sprites;
+
+  // Rendered images by pet state, least recently used first
+  private final Map<StateKey, BufferedImage> cache;
+
+  private final AtomicLong renderedCount = new AtomicLong();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong batchImages = new AtomicLong();
+  private final AtomicLong batchNanos = new AtomicLong();
+
+  /**
+   * Creates a renderer producing images of the given size.
+   *
+   * @param width     the image width
+   * @param height    the image height
+   * @param threads   the number of rendering threads
+   * @param cacheSize the maximum number of distinct states kept
+   */
+  public ThumbnailRenderer(int width, int height, int threads, int cacheSize) {
+    this.width = width;
+    this.height = height;
+    this.threads = Math.max(1, threads);
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+      Thread thread = new Thread(runnable, "pet-thumbnail-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    // Sprite caches are not thread-safe, so every rendering thread loads its own
+    int spriteWidth = width * 3 / 5;
+    int spriteHeight = height - tagHeight() - barsHeight() - MARGIN * 4;
+    this.sprites = ThreadLocal.withInitial(() -> new SpriteCache(spriteWidth, spriteHeight));
+
+    this.cache = new LinkedHashMap<StateKey, BufferedImage>(cacheSize, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<StateKey, BufferedImage> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Renders one pet, reusing the cached image if a pet in the same state was rendered.
+   *
+   * @param pet the pet state to render
+   * @return the status image
+   */
+  public BufferedImage render(PetSnapshot pet) {
+    return render(pet, null);
+  }
+
+  /**
+   * Renders one pet showing the image of an action, reusing cached images.
+   *
+   * @param pet    the pet state to render
+   * @param action the action being shown, or null for the pet's state image
+   * @return the status image
+   */
+  public BufferedImage render(PetSnapshot pet, Action action) {
+    StateKey key = new StateKey(pet, action);
+    synchronized (cache) {
+      BufferedImage cached = cache.get(key);
+      if (cached != null) {
+        cacheHits.incrementAndGet();
+        return cached;
+      }
+    }
+
+    // Render outside the lock; two threads racing on one state both produce the same image
+    BufferedImage image = draw(pet, action);
+    renderedCount.incrementAndGet();
+    synchronized (cache) {
+      cache.put(key, image);
+    }
+    return image;
+  }
+
+  /**
+   * Renders many pets across the thread pool.
+   *
+   * @param pets the pet states to render
+   * @return the status images, in the same order as the pets
+   */
+  public List<BufferedImage> renderAll(List<PetSnapshot> pets) {
+    long start = System.nanoTime();
+    BufferedImage[] images = new BufferedImage[pets.size()];
+    int chunkSize = Math.max(1, (pets.size() + threads * CHUNKS_PER_THREAD - 1)
+        / (threads * CHUNKS_PER_THREAD));
+
+    List<Future<?>> futures = new ArrayList<>();
+    for (int from = 0; from < pets.size(); from += chunkSize) {
+      int chunkStart = from;
+      int chunkEnd = Math.min(pets.size(), from + chunkSize);
+      futures.add(executor.submit(() -> {
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          images[i] = render(pets.get(i));
+        }
+      }));
+    }
+
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while rendering thumbnails", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to render thumbnails", e.getCause());
+    }
+
+    batchImages.addAndGet(images.length);
+    batchNanos.addAndGet(System.nanoTime() - start);
+    return Arrays.asList(images);
+  }
+
+  /**
+   * Gets the number of images actually drawn, excluding cache hits.
+   *
+   * @return the number of rendered images
+   */
+  public long getRenderedCount() {
+    return renderedCount.get();
+  }
+
+  /**
+   * Gets the number of requests served from the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  /**
+   * Gets the throughput of all batches so far, counting cached images.
+   *
+   * @return the images produced per second
+   */
+  public double getImagesPerSecond() {
+    long nanos = batchNanos.get();
+    return (nanos == 0) ? 0 : batchImages.get() * 1_000_000_000.0 / nanos;
+  }
+
+  /**
+   * Stops the rendering threads.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * Draws the status image of a pet.
+   */
+  private BufferedImage draw(PetSnapshot pet, Action action) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2d = image.createGraphics();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+    g2d.setColor(BACKGROUND_COLOR);
+    g2d.fill(new RoundRectangle2D.Float(0, 0, width, height, 20, 20));
+
+    // Sprite centered between the name tag and the health bars
+    int spriteTop = MARGIN * 2 + tagHeight();
+    int spriteBottom = height - barsHeight() - MARGIN * 2;
+    Image sprite = sprites.get().getSprite(SpriteCache.imageName(action, pet.isAlive(),
+        pet.isAsleep(), pet.getMood()));
+    if (sprite != null) {
+      int x = (width - sprite.getWidth(null)) / 2;
+      int y = spriteTop + (spriteBottom - spriteTop - sprite.getHeight(null)) / 2;
+      g2d.drawImage(sprite, x, y, null);
+    }
+
+    Graphics2D tag = (Graphics2D) g2d.create(MARGIN, MARGIN, tagWidth(), tagHeight());
+    PetImagePanel.paintNameTag(tag, pet.getName(), tagWidth(), tagHeight());
+    tag.dispose();
+
+    PetGridPanel.paintHealthBars(g2d, pet.getHealth(), MARGIN, height - barsHeight() - MARGIN,
+        width - MARGIN * 2, barHeight(), barGap());
+    g2d.dispose();
+    return image;
+  }
+
+  private int tagWidth() {
+    return Math.min(120, width / 2);
+  }
+
+  private int tagHeight() {
+    return tagWidth() / 3;
+  }
+
+  private int barHeight() {
+    return Math.max(4, height / 40);
+  }
+
+  private int barGap() {
+    return Math.max(2, barHeight() / 2);
+  }
+
+  private int barsHeight() {
+    return 4 * barHeight() + 3 * barGap();
+  }
+
+  /**
+   * The parts of a pet's state that affect its image.
+   */
+  private static final class StateKey {
+    private final String name;
+    private final Action action;
+    private final MoodEnum mood;
+    private final boolean alive;
+    private final boolean asleep;
+    private final int health;
+
+    StateKey(PetSnapshot pet, Action action) {
+      this.name = pet.getName();
+      this.action = action;
+      this.mood = pet.getMood();
+      this.alive = pet.isAlive();
+      this.asleep = pet.isAsleep();
+      // Each stat fits in a byte, so the four pack into one int
+      HealthStatus status = pet.getHealth();
+      this.health = (status.getHunger() & 0xFF) << 24 | (status.getHygiene() & 0xFF) << 16
+          | (status.getSocial() & 0xFF) << 8 | (status.getSleep() & 0xFF);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof StateKey)) {
+        return false;
+      }
+      StateKey other = (StateKey) o;
+      return health == other.health && alive == other.alive && asleep == other.asleep
+          && mood == other.mood && action == other.action && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, action, mood, alive, asleep, health);
+    }
+  }
+}
@@ -0,0 +1,404 @@
+package view.components;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import pet.enums.Action;
+import pet.enums.HealthStat;
+import pet.enums.MoodEnum;
+import pet.model.ActivityEvent;
+import pet.model.HealthHistory;
+import pet.model.HealthStatus;
+import pet.model.PetSnapshot;
+import pet.model.history.ActivityHistory;
+
+/**
+ * Exports a pet's life as an animated GIF with one frame per tick.
+ * Each frame is rebuilt from the recorded health history and activity events, and frames are
+ * streamed to the ImageIO GIF writer one at a time, so memory use does not grow with the
+ * length of the timeline. Runs of identical frames become a single frame with a longer delay.
+ *
+ * <p>GIF frames are compressed in sequence by the writer, so the parallel part is rendering
+ * and palette conversion: a bounded window of upcoming frames is prepared on a thread pool
+ * while the writer consumes them in order.
+ */
+public class TimelineGifExporter {
+  private static final int FRAME_WIDTH = 320;
+  private static final int FRAME_HEIGHT = 240;
+  private static final int FRAMES_PER_THREAD = 2;
+  // GIF delays are stored in hundredths of a second in an unsigned short
+  private static final int MAX_DELAY = 65535;
+
+  private final String petName;
+  private final int petId;
+  private final HealthHistory healthHistory;
+  private final ActivityHistory activityHistory;
+  private final long firstEvent;
+
+  /**
+   * Creates an exporter for one pet's recorded timeline.
+   *
+   * @param petName         the name shown on every frame
+   * @param petId           the id of the pet whose events are used
+   * @param healthHistory   the pet's per-tick health history
+   * @param activityHistory the activity history, or null to show health only
+   * @param firstEvent      the sequence number of the first event to consider
+   */
+  public TimelineGifExporter(String petName, int petId, HealthHistory healthHistory,
+                             ActivityHistory activityHistory, long firstEvent) {
+    this.petName = petName;
+    this.petId = petId;
+    this.healthHistory = healthHistory;
+    this.activityHistory = activityHistory;
+    this.firstEvent = firstEvent;
+  }
+
+  /**
+   * Writes the timeline to a GIF file.
+   *
+   * @param file        the file to write
+   * @param frameMillis how long each tick is shown, in milliseconds
+   * @param threads     the number of threads preparing frames
+   * @return the number of frames written after merging identical ones
+   * @throws IOException if the file cannot be written or the history cannot be read
+   */
+  public int export(File file, int frameMillis, int threads) throws IOException {
+    // Image output streams overwrite in place, so a longer old file would leave a stale tail
+    if (file.exists() && !file.delete()) {
+      throw new IOException("Cannot replace " + file);
+    }
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+    AtomicInteger threadNumber = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "pet-gif-frame-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    try (ThumbnailRenderer renderer = new ThumbnailRenderer(FRAME_WIDTH, FRAME_HEIGHT, 1,
+        threads * FRAMES_PER_THREAD * 4);
+         ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+      if (out == null) {
+        throw new IOException("Cannot write to " + file);
+      }
+      writer.setOutput(out);
+      writer.prepareWriteSequence(null);
+
+      // Frames in flight, oldest first; the writer always takes the head
+      Deque<PendingFrame> window = new ArrayDeque<>();
+      int written = 0;
+      FrameIterator frames = new FrameIterator();
+      Frame current = frames.hasNext() ? frames.next() : null;
+      while (current != null) {
+        int repeats = 1;
+        Frame next = frames.hasNext() ? frames.next() : null;
+        while (next != null && next.sameAs(current)) {
+          repeats++;
+          next = frames.hasNext() ? frames.next() : null;
+        }
+
+        Frame frame = current;
+        window.addLast(new PendingFrame(pool.submit(() -> toIndexed(
+            renderer.render(frame.pet, frame.action))), repeats));
+        if (window.size() >= threads * FRAMES_PER_THREAD) {
+          writeFrame(writer, window.removeFirst(), frameMillis, written++ == 0);
+        }
+        current = next;
+      }
+      while (!window.isEmpty()) {
+        writeFrame(writer, window.removeFirst(), frameMillis, written++ == 0);
+      }
+
+      writer.endWriteSequence();
+      return written;
+    } finally {
+      pool.shutdownNow();
+      writer.dispose();
+    }
+  }
+
+  /**
+   * Waits for a prepared frame and appends it to the GIF.
+   */
+  private void writeFrame(ImageWriter writer, PendingFrame pending, int frameMillis,
+                          boolean first) throws IOException {
+    BufferedImage image;
+    try {
+      image = pending.image.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while exporting", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to render frame", e.getCause());
+    }
+
+    // Delays too long for one frame are split over repeated copies
+    long delay = Math.max(1, (long) pending.repeats * frameMillis / 10);
+    boolean loop = first;
+    while (delay > 0) {
+      int frameDelay = (int) Math.min(MAX_DELAY, delay);
+      writer.writeToSequence(new IIOImage(image, null,
+          frameMetadata(writer, image, frameDelay, loop)), null);
+      delay -= frameDelay;
+      loop = false;
+    }
+  }
+
+  /**
+   * Builds the GIF metadata of a frame: its delay and, on the first frame, endless looping.
+   */
+  private static IIOMetadata frameMetadata(ImageWriter writer, BufferedImage image, int delay,
+                                           boolean loop) throws IOException {
+    ImageWriteParam param = writer.getDefaultWriteParam();
+    IIOMetadata metadata = writer.getDefaultImageMetadata(
+        ImageTypeSpecifier.createFromRenderedImage(image), param);
+    String format = metadata.getNativeMetadataFormatName();
+    IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+    IIOMetadataNode control = child(root, "GraphicControlExtension");
+    control.setAttribute("disposalMethod", "none");
+    control.setAttribute("userInputFlag", "FALSE");
+    control.setAttribute("transparentColorFlag", "FALSE");
+    control.setAttribute("transparentColorIndex", "0");
+    control.setAttribute("delayTime", Integer.toString(delay));
+
+    // Every frame carries its own palette
+    IndexColorModel colors = (IndexColorModel) image.getColorModel();
+    IIOMetadataNode table = child(root, "LocalColorTable");
+    table.setAttribute("sizeOfLocalColorTable", Integer.toString(colors.getMapSize()));
+    table.setAttribute("sortFlag", "FALSE");
+    for (int i = 0; i < colors.getMapSize(); i++) {
+      IIOMetadataNode entry = new IIOMetadataNode("ColorTableEntry");
+      entry.setAttribute("index", Integer.toString(i));
+      entry.setAttribute("red", Integer.toString(colors.getRed(i)));
+      entry.setAttribute("green", Integer.toString(colors.getGreen(i)));
+      entry.setAttribute("blue", Integer.toString(colors.getBlue(i)));
+      table.appendChild(entry);
+    }
+
+    if (loop) {
+      IIOMetadataNode application = new IIOMetadataNode("ApplicationExtension");
+      application.setAttribute("applicationID", "NETSCAPE");
+      application.setAttribute("authenticationCode", "2.0");
+      // Sub-block 1 with a loop count of 0 repeats forever
+      application.setUserObject(new byte[] {1, 0, 0});
+      child(root, "ApplicationExtensions").appendChild(application);
+    }
+
+    metadata.setFromTree(format, root);
+    return metadata;
+  }
+
+  private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+    for (int i = 0; i < parent.getLength(); i++) {
+      if (parent.item(i).getNodeName().equals(name)) {
+        return (IIOMetadataNode) parent.item(i);
+      }
+    }
+    IIOMetadataNode node = new IIOMetadataNode(name);
+    parent.appendChild(node);
+    return node;
+  }
+
+  /**
+   * Converts a frame to an indexed image with its own palette of the most common colors, so
+   * the writer does not build a palette itself and flat areas stay free of dithering.
+   */
+  private static BufferedImage toIndexed(BufferedImage image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+    // Flatten onto white and reduce to 5 bits per channel, counting each color
+    int[] counts = new int[1 << 15];
+    for (int i = 0; i < pixels.length; i++) {
+      int argb = pixels[i];
+      int alpha = argb >>> 24;
+      int red = blend((argb >> 16) & 0xFF, alpha);
+      int green = blend((argb >> 8) & 0xFF, alpha);
+      int blue = blend(argb & 0xFF, alpha);
+      int color = (red >> 3) << 10 | (green >> 3) << 5 | (blue >> 3);
+      pixels[i] = color;
+      counts[color]++;
+    }
+
+    // Most frequent colors first
+    int used = 0;
+    long[] ranked = new long[counts.length];
+    for (int color = 0; color < counts.length; color++) {
+      if (counts[color] > 0) {
+        ranked[used++] = (long) -counts[color] << 15 | color;
+      }
+    }
+    Arrays.sort(ranked, 0, used);
+
+    // GIF color tables hold a power of two entries; unused entries stay black
+    int paletteSize = Math.min(256, used);
+    byte[] reds = new byte[256];
+    byte[] greens = new byte[256];
+    byte[] blues = new byte[256];
+    int[] index = new int[counts.length];
+    Arrays.fill(index, -1);
+    for (int i = 0; i < paletteSize; i++) {
+      int color = (int) (ranked[i] & 0x7FFF);
+      reds[i] = (byte) expand(color >> 10);
+      greens[i] = (byte) expand((color >> 5) & 0x1F);
+      blues[i] = (byte) expand(color & 0x1F);
+      index[color] = i;
+    }
+
+    // Remaining colors map to their nearest palette entry
+    for (int i = paletteSize; i < used; i++) {
+      int color = (int) (ranked[i] & 0x7FFF);
+      int best = 0;
+      int bestDistance = Integer.MAX_VALUE;
+      for (int entry = 0; entry < paletteSize; entry++) {
+        int dr = expand(color >> 10) - (reds[entry] & 0xFF);
+        int dg = expand((color >> 5) & 0x1F) - (greens[entry] & 0xFF);
+        int db = expand(color & 0x1F) - (blues[entry] & 0xFF);
+        int distance = dr * dr + dg * dg + db * db;
+        if (distance < bestDistance) {
+          best = entry;
+          bestDistance = distance;
+        }
+      }
+      index[color] = best;
+    }
+
+    BufferedImage indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED,
+        new IndexColorModel(8, 256, reds, greens, blues));
+    byte[] data = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+    for (int i = 0; i < pixels.length; i++) {
+      data[i] = (byte) index[pixels[i]];
+    }
+    return indexed;
+  }
+
+  private static int blend(int channel, int alpha) {
+    return (channel * alpha + 255 * (255 - alpha)) / 255;
+  }
+
+  private static int expand(int fiveBits) {
+    return fiveBits << 3 | fiveBits >> 2;
+  }
+
+  /**
+   * The state shown in one frame.
+   */
+  private static final class Frame {
+    private final PetSnapshot pet;
+    private final Action action;
+
+    Frame(PetSnapshot pet, Action action) {
+      this.pet = pet;
+      this.action = action;
+    }
+
+    /**
+     * Returns whether two frames would render identically.
+     */
+    boolean sameAs(Frame other) {
+      HealthStatus a = pet.getHealth();
+      HealthStatus b = other.pet.getHealth();
+      return action == other.action && pet.getMood() == other.pet.getMood()
+          && pet.isAlive() == other.pet.isAlive() && pet.isAsleep() == other.pet.isAsleep()
+          && a.getHunger() == b.getHunger() && a.getHygiene() == b.getHygiene()
+          && a.getSocial() == b.getSocial() && a.getSleep() == b.getSleep();
+    }
+  }
+
+  /**
+   * A frame being prepared on the pool, with the number of ticks it stands for.
+   */
+  private static final class PendingFrame {
+    private final Future<BufferedImage> image;
+    private final int repeats;
+
+    PendingFrame(Future<BufferedImage> image, int repeats) {
+      this.image = image;
+      this.repeats = repeats;
+    }
+  }
+
+  /**
+   * Replays the recorded timeline tick by tick, applying each tick's events in order.
+   */
+  private final class FrameIterator {
+    private final int ticks = healthHistory.size();
+    private final long eventCount = (activityHistory != null) ? activityHistory.size() : 0;
+    private long nextEvent = firstEvent;
+    private ActivityEvent pending;
+    private int tick;
+    private MoodEnum mood = MoodEnum.NEUTRAL;
+    private boolean alive = true;
+    private boolean asleep;
+
+    FrameIterator() throws IOException {
+      pending = readNextEvent();
+    }
+
+    boolean hasNext() {
+      return tick < ticks;
+    }
+
+    Frame next() throws IOException {
+      Action action = null;
+      while (pending != null && pending.getTick() <= tick) {
+        mood = pending.getMoodAfter();
+        switch (pending.getType()) {
+          case ACTION:
+            action = pending.getAction();
+            asleep = asleep || action == Action.SLEEP;
+            break;
+          case WOKE_UP:
+            asleep = false;
+            break;
+          case DEATH:
+            alive = false;
+            break;
+          default:
+            break;
+        }
+        pending = readNextEvent();
+      }
+
+      HealthStatus health = new HealthStatus(healthHistory.get(HealthStat.HUNGER, tick),
+          healthHistory.get(HealthStat.HYGIENE, tick), healthHistory.get(HealthStat.SOCIAL, tick),
+          healthHistory.get(HealthStat.SLEEP, tick));
+      PetSnapshot pet = new PetSnapshot(petId, petName, tick, health, mood, alive, asleep);
+      tick++;
+      return new Frame(pet, alive ? action : null);
+    }
+
+    /**
+     * Reads the next event of this pet, or null at the end of the history.
+     */
+    private ActivityEvent readNextEvent() throws IOException {
+      while (nextEvent < eventCount) {
+        ActivityEvent event = activityHistory.read(nextEvent++);
+        if (event.getPetId() == petId) {
+          return event;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package view.scene;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.RoundRectangle2D;
+
+/**
+ * A rounded progress bar whose drawn value can glide toward its target value.
+ */
+public class BarNode extends SceneNode {
+  private final int maximum;
+  private final Color background;
+  private Color foreground;
+  private int value;
+  private double displayValue;
+  private double tweenFrom;
+  private long tweenStart;
+
+  /**
+   * Creates a bar.
+   *
+   * @param maximum    the value of a full bar
+   * @param background the color of the empty track
+   * @param foreground the color of the filled part
+   */
+  public BarNode(int maximum, Color background, Color foreground) {
+    this.maximum = maximum;
+    this.background = background;
+    this.foreground = foreground;
+  }
+
+  /**
+   * Sets the target value; call {@link #startTween(long)} and {@link #interpolate(double)} to
+   * animate toward it.
+   *
+   * @param value the new value
+   * @return true if the target changed
+   */
+  public boolean setValue(int value) {
+    if (value == this.value) {
+      return false;
+    }
+    this.value = value;
+    return true;
+  }
+
+  /**
+   * Gets the target value.
+   *
+   * @return the value
+   */
+  public int getValue() {
+    return value;
+  }
+
+  /**
+   * Changes the fill color, repainting only if it differs.
+   *
+   * @param color the new color
+   */
+  public void setForeground(Color color) {
+    if (!color.equals(foreground)) {
+      foreground = color;
+      repaint();
+    }
+  }
+
+  /**
+   * Starts a new interpolation from the currently drawn value to the target value.
+   *
+   * @param now the animation time in milliseconds
+   */
+  public void startTween(long now) {
+    tweenFrom = displayValue;
+    tweenStart = now;
+  }
+
+  /**
+   * Gets when the current interpolation started.
+   *
+   * @return the animation time in milliseconds
+   */
+  public long getTweenStart() {
+    return tweenStart;
+  }
+
+  /**
+   * Moves the drawn value along the interpolation, repainting the bar if it changed.
+   *
+   * @param fraction the eased progress between 0 and 1
+   */
+  public void interpolate(double fraction) {
+    double next = tweenFrom + (value - tweenFrom) * fraction;
+    if (next != displayValue) {
+      displayValue = next;
+      repaint();
+    }
+  }
+
+  @Override
+  protected void paintNode(Graphics2D g, int width, int height) {
+    g.setColor(background);
+    g.fill(new RoundRectangle2D.Float(0, 0, width, height, height, height));
+
+    int progressWidth = (int) (width * (displayValue / maximum));
+    if (progressWidth > 0) {
+      g.setColor(foreground);
+      g.fill(new RoundRectangle2D.Float(0, 0, progressWidth, height, height, height));
+    }
+  }
+}
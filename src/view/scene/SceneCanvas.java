@@ -0,0 +1,133 @@
+package view.scene;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JComponent;
+
+/**
+ * Opaque component drawing a retained scene of {@link SceneNode}s.
+ * Because it is opaque, Swing repaints it without painting the components behind it first.
+ * Changed nodes report their bounds, and the canvas keeps those rectangles separately rather
+ * than letting Swing merge them into one bounding box, so a paint touches only the pixels of
+ * the nodes that changed.
+ */
+public class SceneCanvas extends JComponent {
+  private final SceneNode root = new SceneNode() {
+    @Override
+    protected void paintNode(Graphics2D g, int width, int height) {
+      // The root only groups the scene
+    }
+  };
+
+  // Areas changed since the last paint, in scene coordinates
+  private final List<Rectangle> dirtyAreas = new ArrayList<>();
+  private long paintedPixels;
+
+  /**
+   * Creates an empty scene canvas.
+   */
+  public SceneCanvas() {
+    setOpaque(true);
+    root.attach(this);
+  }
+
+  /**
+   * Adds a top-level node to the scene.
+   *
+   * @param node the node to add
+   * @return the node, for chaining
+   */
+  public <T extends SceneNode> T add(T node) {
+    return root.add(node);
+  }
+
+  /**
+   * Drops every layer cache, for example after the canvas moved over a different backdrop.
+   */
+  public void invalidateLayers() {
+    root.invalidateLayers();
+    repaint();
+  }
+
+  /**
+   * Gets the number of pixels painted so far, for measuring how much a change repaints.
+   *
+   * @return the painted pixel count
+   */
+  public long getPaintedPixels() {
+    return paintedPixels;
+  }
+
+  /**
+   * Records a changed area and asks Swing to repaint it.
+   *
+   * @param area the changed area in scene coordinates
+   */
+  void markDirty(Rectangle area) {
+    Rectangle dirty = area.intersection(new Rectangle(0, 0, getWidth(), getHeight()));
+    if (dirty.isEmpty()) {
+      return;
+    }
+    // Fold the area into one it overlaps, otherwise track it on its own
+    for (Rectangle existing : dirtyAreas) {
+      if (existing.contains(dirty)) {
+        return;
+      }
+      if (existing.intersects(dirty)) {
+        existing.add(dirty);
+        repaint(existing);
+        return;
+      }
+    }
+    dirtyAreas.add(dirty);
+    repaint(dirty);
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+
+    // When Swing merged our dirty areas into one clip, paint each area on its own.
+    // Anything else, such as the window being exposed, repaints the whole clip.
+    List<Rectangle> areas = new ArrayList<>();
+    boolean onlyDirty = !dirtyAreas.isEmpty();
+    for (Rectangle area : dirtyAreas) {
+      if (!clip.contains(area)) {
+        onlyDirty = false;
+      }
+    }
+    if (onlyDirty) {
+      areas.addAll(dirtyAreas);
+    } else {
+      areas.add(clip);
+    }
+    dirtyAreas.removeIf(clip::contains);
+
+    for (Rectangle area : areas) {
+      Graphics2D g2d = (Graphics2D) g.create();
+      g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g2d.clipRect(area.x, area.y, area.width, area.height);
+      root.render(g2d, area);
+      g2d.dispose();
+      paintedPixels += (long) area.width * area.height;
+    }
+  }
+
+  @Override
+  public void setBounds(int x, int y, int width, int height) {
+    boolean resized = width != getWidth() || height != getHeight();
+    super.setBounds(x, y, width, height);
+    if (resized) {
+      root.invalidateLayers();
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package view.scene;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A node of a retained scene drawn by a {@link SceneCanvas}.
+ * Bounds are in scene coordinates. A node reports exactly its own bounds as dirty when it
+ * changes, and a cached node keeps its pixels in a layer image so repainting it is a blit.
+ */
+public abstract class SceneNode {
+  private final Rectangle bounds = new Rectangle();
+  private final List<SceneNode> children = new ArrayList<>();
+  private SceneCanvas canvas;
+  private boolean visible = true;
+
+  // Layer cache, rendered at the device scale it was last drawn with
+  private boolean cached;
+  private BufferedImage layer;
+  private double layerScaleX;
+  private double layerScaleY;
+
+  /**
+   * Paints the node's own content.
+   *
+   * @param g      the graphics, translated so the node's top left corner is the origin
+   * @param width  the node width
+   * @param height the node height
+   */
+  protected abstract void paintNode(Graphics2D g, int width, int height);
+
+  /**
+   * Adds a child painted above this node.
+   *
+   * @param child the child node
+   * @return the child, for chaining
+   */
+  public <T extends SceneNode> T add(T child) {
+    children.add(child);
+    child.attach(canvas);
+    child.repaint();
+    return child;
+  }
+
+  /**
+   * Moves or resizes the node, repainting both its old and new area.
+   *
+   * @param x      the x coordinate in the scene
+   * @param y      the y coordinate in the scene
+   * @param width  the width
+   * @param height the height
+   */
+  public void setBounds(int x, int y, int width, int height) {
+    if (bounds.x == x && bounds.y == y && bounds.width == width && bounds.height == height) {
+      return;
+    }
+    markDirty(bounds);
+    if (bounds.width != width || bounds.height != height) {
+      layer = null;
+    }
+    bounds.setBounds(x, y, width, height);
+    markDirty(bounds);
+  }
+
+  /**
+   * Gets the node bounds.
+   *
+   * @return a copy of the bounds in scene coordinates
+   */
+  public Rectangle getBounds() {
+    return new Rectangle(bounds);
+  }
+
+  /**
+   * Shows or hides the node and its children.
+   *
+   * @param visible true to show the node
+   */
+  public void setVisible(boolean visible) {
+    if (this.visible != visible) {
+      this.visible = visible;
+      markDirty(bounds);
+    }
+  }
+
+  /**
+   * Keeps the node's pixels in a layer image between changes.
+   * Suits nodes that are expensive to paint and change rarely, such as text.
+   *
+   * @param cached true to cache the node
+   */
+  public void setCached(boolean cached) {
+    this.cached = cached;
+    layer = null;
+  }
+
+  /**
+   * Marks the node's content as changed, dropping its layer and repainting its bounds.
+   */
+  public void repaint() {
+    layer = null;
+    markDirty(bounds);
+  }
+
+  /**
+   * Drops the layer caches of this node and all its children without marking them dirty.
+   */
+  void invalidateLayers() {
+    layer = null;
+    for (SceneNode child : children) {
+      child.invalidateLayers();
+    }
+  }
+
+  /**
+   * Connects the node and its children to the canvas showing them.
+   */
+  void attach(SceneCanvas canvas) {
+    this.canvas = canvas;
+    for (SceneNode child : children) {
+      child.attach(canvas);
+    }
+  }
+
+  /**
+   * Draws the node and its children where they intersect the clip.
+   */
+  void render(Graphics2D g, Rectangle clip) {
+    if (!visible) {
+      return;
+    }
+    if (bounds.intersects(clip) && bounds.width > 0 && bounds.height > 0) {
+      if (cached) {
+        g.drawImage(getLayer(g.getTransform()), bounds.x, bounds.y, bounds.width, bounds.height,
+            null);
+      } else {
+        Graphics2D nodeGraphics = (Graphics2D) g.create(bounds.x, bounds.y, bounds.width,
+            bounds.height);
+        paintNode(nodeGraphics, bounds.width, bounds.height);
+        nodeGraphics.dispose();
+      }
+    }
+    for (SceneNode child : children) {
+      child.render(g, clip);
+    }
+  }
+
+  /**
+   * Gets the layer image, rendering it again if the node or the device scale changed.
+   */
+  private BufferedImage getLayer(AffineTransform transform) {
+    double scaleX = Math.abs(transform.getScaleX());
+    double scaleY = Math.abs(transform.getScaleY());
+    if (layer == null || scaleX != layerScaleX || scaleY != layerScaleY) {
+      layer = new BufferedImage(Math.max(1, (int) Math.ceil(bounds.width * scaleX)),
+          Math.max(1, (int) Math.ceil(bounds.height * scaleY)), BufferedImage.TYPE_INT_ARGB_PRE);
+      Graphics2D g2d = layer.createGraphics();
+      g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g2d.scale(scaleX, scaleY);
+      paintNode(g2d, bounds.width, bounds.height);
+      g2d.dispose();
+      layerScaleX = scaleX;
+      layerScaleY = scaleY;
+    }
+    return layer;
+  }
+
+  private void markDirty(Rectangle area) {
+    if (canvas != null && !area.isEmpty()) {
+      canvas.markDirty(area);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package view.scene;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+
+/**
+ * A single line of text, vertically centered in its bounds.
+ * Text is cached as a layer since glyph rendering costs more than a blit.
+ */
+public class TextNode extends SceneNode {
+  private String text;
+  private Font font;
+  private Color color;
+
+  /**
+   * Creates a text node.
+   *
+   * @param text  the text to show
+   * @param font  the font
+   * @param color the text color
+   */
+  public TextNode(String text, Font font, Color color) {
+    this.text = text;
+    this.font = font;
+    this.color = color;
+    setCached(true);
+  }
+
+  /**
+   * Changes the text, repainting only if it differs.
+   *
+   * @param text the new text
+   */
+  public void setText(String text) {
+    if (!text.equals(this.text)) {
+      this.text = text;
+      repaint();
+    }
+  }
+
+  /**
+   * Changes the text color, repainting only if it differs.
+   *
+   * @param color the new color
+   */
+  public void setColor(Color color) {
+    if (!color.equals(this.color)) {
+      this.color = color;
+      repaint();
+    }
+  }
+
+  @Override
+  protected void paintNode(Graphics2D g, int width, int height) {
+    g.setFont(font);
+    g.setColor(color);
+    FontMetrics metrics = g.getFontMetrics();
+    g.drawString(text, 0, (height - metrics.getHeight()) / 2 + metrics.getAscent());
+  }
+}
@@ -0,0 +1,82 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import pet.enums.Action;
+import pet.enums.ActivityType;
+import pet.enums.BoxType;
+import pet.enums.MoodEnum;
+import pet.model.ActivityEvent;
+import pet.model.Pet;
+import pet.model.mystery.CommonBox;
+import pet.model.mystery.RareBox;
+
+/**
+ * JUnit test class for the ActivityEvent class.
+ */
+public class ActivityEventTest {
+
+  /**
+   * Test that action events are formatted with the pet name.
+   */
+  @Test
+  public void testActionFormatting() {
+    ActivityEvent event = new ActivityEvent(3, 0, ActivityType.ACTION,
+        Action.FEED.ordinal(), MoodEnum.NEUTRAL, MoodEnum.NEUTRAL);
+    assertEquals(Action.FEED, event.getAction());
+    assertEquals("Fed Rex", event.format("Rex"));
+  }
+
+  /**
+   * Test the formatting of sleep and wake events.
+   */
+  @Test
+  public void testSleepAndWakeFormatting() {
+    ActivityEvent sleep = new ActivityEvent(0, 0, ActivityType.ACTION,
+        Action.SLEEP.ordinal(), MoodEnum.NEUTRAL, MoodEnum.NEUTRAL);
+    ActivityEvent wake = new ActivityEvent(0, 0, ActivityType.WOKE_UP,
+        Action.SLEEP.ordinal(), MoodEnum.NEUTRAL, MoodEnum.NEUTRAL);
+    assertEquals("Rex is now sleeping", sleep.format("Rex"));
+    assertEquals("Rex woke up", wake.format("Rex"));
+    assertNull(wake.getAction());
+  }
+
+  /**
+   * Test that mystery box outcomes round-trip through the detail value.
+   */
+  @Test
+  public void testBoxOutcomeEncoding() {
+    int detail = ActivityEvent.boxDetail(BoxType.RARE, 2);
+    ActivityEvent event = new ActivityEvent(0, 0, ActivityType.MYSTERY_BOX, detail,
+        MoodEnum.SAD, MoodEnum.NEUTRAL);
+    assertEquals(BoxType.RARE, event.getBoxType());
+    assertEquals(2, event.getBoxOutcome());
+    assertEquals(new RareBox().describeOutcome(2), event.format("Rex"));
+  }
+
+  /**
+   * Test that opening a box reports an outcome matching its description.
+   */
+  @Test
+  public void testOpenOutcomeMatchesDescription() {
+    CommonBox box = new CommonBox();
+    int outcome = box.openOutcome(new Pet());
+    ActivityEvent event = new ActivityEvent(0, 0, ActivityType.MYSTERY_BOX,
+        ActivityEvent.boxDetail(box.getType(), outcome), MoodEnum.NEUTRAL, MoodEnum.NEUTRAL);
+    assertEquals(box.describeOutcome(outcome), event.format("Rex"));
+  }
+
+  /**
+   * Test that each step advances the pet tick.
+   */
+  @Test
+  public void testPetTickAdvancesOnStep() {
+    Pet pet = new Pet();
+    assertEquals(0, pet.getTick());
+    pet.step();
+    pet.step();
+    assertEquals(2, pet.getTick());
+  }
+}
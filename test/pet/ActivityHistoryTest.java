@@ -0,0 +1,148 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pet.enums.ActivityType;
+import pet.enums.MoodEnum;
+import pet.model.ActivityEvent;
+import pet.model.history.ActivityHistory;
+import pet.model.history.HistoryPage;
+
+/**
+ * JUnit test class for the ActivityHistory class.
+ */
+public class ActivityHistoryTest {
+  private File directory;
+
+  /**
+   * Creates an empty history directory for each test.
+   *
+   * @throws IOException if the directory cannot be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("history").toFile();
+  }
+
+  /**
+   * Deletes the history directory after each test.
+   */
+  @After
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  private static ActivityEvent event(long tick, ActivityType type) {
+    return new ActivityEvent(tick, 0, type, ActivityEvent.NO_DETAIL,
+        MoodEnum.NEUTRAL, MoodEnum.NEUTRAL);
+  }
+
+  /**
+   * Test that filtered pages are returned newest first and span segments.
+   *
+   * @throws IOException if the history cannot be accessed
+   */
+  @Test
+  public void testFilteredPagingAcrossSegments() throws IOException {
+    int total = 150000;
+    try (ActivityHistory history = new ActivityHistory(directory)) {
+      for (int i = 0; i < total; i++) {
+        ActivityType type = (i % 1000 == 0) ? ActivityType.DEATH : ActivityType.STEP;
+        history.append(event(i, type), i);
+      }
+      assertEquals(total, history.size());
+      assertEquals(150, history.count(EnumSet.of(ActivityType.DEATH)));
+
+      HistoryPage page = history.readPage(EnumSet.of(ActivityType.DEATH), history.size(), 100);
+      assertEquals(100, page.getEvents().size());
+      assertEquals(149000, page.getEvents().get(0).getTick());
+      assertEquals(50000, page.getEvents().get(99).getTick());
+      assertTrue(page.hasMore());
+
+      page = history.readPage(EnumSet.of(ActivityType.DEATH), page.getNextCursor(), 100);
+      assertEquals(50, page.getEvents().size());
+      assertEquals(0, page.getEvents().get(49).getTick());
+      assertFalse(page.hasMore());
+    }
+  }
+
+  /**
+   * Test that a reopened history keeps its events and indexes.
+   *
+   * @throws IOException if the history cannot be accessed
+   */
+  @Test
+  public void testReopenPreservesEvents() throws IOException {
+    try (ActivityHistory history = new ActivityHistory(directory)) {
+      for (int i = 0; i < 70000; i++) {
+        history.append(event(i, i == 42 ? ActivityType.MYSTERY_BOX : ActivityType.STEP), i);
+      }
+    }
+
+    try (ActivityHistory history = new ActivityHistory(directory)) {
+      assertEquals(70000, history.size());
+      HistoryPage page = history.readPage(EnumSet.of(ActivityType.MYSTERY_BOX),
+          history.size(), 10);
+      assertEquals(1, page.getEvents().size());
+      assertEquals(42, page.getEvents().get(0).getTick());
+      assertEquals(42, page.getTime(0));
+      assertEquals(66000, history.seekTime(66000));
+      assertEquals(1000, history.seekTick(1000));
+    }
+  }
+
+  /**
+   * Test that reopening a long history opens no sealed segment until it is read, and that
+   * reading all of it keeps only a few segment files open.
+   *
+   * @throws IOException if the history cannot be accessed
+   */
+  @Test
+  public void testSealedSegmentsOpenLazily() throws IOException {
+    int total = 10 * 65536 + 5;
+    try (ActivityHistory history = new ActivityHistory(directory)) {
+      for (int i = 0; i < total; i++) {
+        history.append(event(i, i % 5000 == 0 ? ActivityType.DEATH : ActivityType.STEP), i);
+      }
+      assertEquals(1, history.getOpenFileCount());
+    }
+
+    try (ActivityHistory history = new ActivityHistory(directory)) {
+      assertEquals(1, history.getOpenFileCount());
+      assertEquals(total, history.size());
+      assertEquals(132, history.count(EnumSet.of(ActivityType.DEATH)));
+      assertEquals(1, history.getOpenFileCount());
+
+      long cursor = history.size();
+      long expectedTick = 655000;
+      HistoryPage page;
+      do {
+        page = history.readPage(EnumSet.of(ActivityType.DEATH), cursor, 7);
+        for (ActivityEvent event : page.getEvents()) {
+          assertEquals(expectedTick, event.getTick());
+          expectedTick -= 5000;
+        }
+        cursor = page.getNextCursor();
+        assertTrue(history.getOpenFileCount() <= 9);
+      } while (page.hasMore());
+      assertEquals(-5000, expectedTick);
+      assertEquals(9, history.getOpenFileCount());
+      assertEquals(0, history.read(0).getTick());
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import controller.CommandPipeline;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pet.enums.Action;
+import pet.enums.ActivityType;
+import pet.model.ActivityEvent;
+import pet.model.Pet;
+import pet.model.history.ActivityHistory;
+
+/**
+ * JUnit test class for the CommandPipeline class.
+ */
+public class CommandPipelineTest {
+  private File directory;
+  private ActivityHistory journal;
+
+  /**
+   * Creates an empty journal for each test.
+   *
+   * @throws IOException if the journal cannot be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("pipeline").toFile();
+    journal = new ActivityHistory(directory);
+  }
+
+  /**
+   * Closes and deletes the journal after each test.
+   *
+   * @throws IOException if the journal cannot be closed
+   */
+  @After
+  public void tearDown() throws IOException {
+    journal.close();
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  /**
+   * Publishes a command that performs an action on the pet and reports it.
+   */
+  private static void publishAction(CommandPipeline pipeline, Pet pet, Action action) {
+    pipeline.publish(() -> {
+      pet.interactWith(action);
+      pipeline.emit(new ActivityEvent(pet.getTick(), pet.getId(), ActivityType.ACTION,
+          action.ordinal(), pet.getMood(), pet.getMood()));
+    });
+  }
+
+  /**
+   * Waits up to five seconds for a stage to finish a number of commands.
+   */
+  private static void awaitProcessed(CommandPipeline pipeline, CommandPipeline.Stage stage,
+                                     long count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (pipeline.getProcessedCount(stage) < count
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+  }
+
+  /**
+   * Test that the model, journal and view all see the commands in the order they were sent.
+   */
+  @Test
+  public void testStagesMatchPlainPet() throws Exception {
+    Pet expected = new Pet();
+    Pet pet = new Pet();
+    List<ActivityEvent> viewed = Collections.synchronizedList(new ArrayList<>());
+    CommandPipeline pipeline = new CommandPipeline(8, 0, null, viewed::addAll);
+    pipeline.setJournal(journal);
+    pipeline.start();
+
+    // A ring much smaller than the command count makes the producer wrap many times
+    int count = 500;
+    for (int i = 0; i < count; i++) {
+      if (i % 5 == 0) {
+        expected.step();
+        pipeline.publish(() -> {
+          pet.step();
+          pipeline.emit(new ActivityEvent(pet.getTick(), pet.getId(), ActivityType.STEP,
+              ActivityEvent.NO_DETAIL, pet.getMood(), pet.getMood()));
+        });
+      } else {
+        Action action = Action.values()[i % 3];
+        expected.interactWith(action);
+        publishAction(pipeline, pet, action);
+      }
+    }
+    pipeline.close();
+
+    assertEquals(expected.getTick(), pet.getTick());
+    assertEquals(expected.getHealth().getHunger(), pet.getHealth().getHunger());
+    assertEquals(expected.getHealth().getSleep(), pet.getHealth().getSleep());
+    assertEquals(expected.getMood(), pet.getMood());
+
+    assertEquals(count, journal.size());
+    assertEquals(count, viewed.size());
+    for (int i = 0; i < count; i++) {
+      ActivityType type = (i % 5 == 0) ? ActivityType.STEP : ActivityType.ACTION;
+      assertEquals(type, journal.read(i).getType());
+      assertEquals(type, viewed.get(i).getType());
+    }
+  }
+
+  /**
+   * Test that a slow view does not hold back the model while the ring has room.
+   */
+  @Test
+  public void testSlowViewDoesNotStallModel() throws Exception {
+    Object gate = new Object();
+    Pet pet = new Pet();
+    CommandPipeline pipeline = new CommandPipeline(64, 0, null, events -> {
+      synchronized (gate) {
+        // Blocks the view stage until the test releases it
+      }
+    });
+    synchronized (gate) {
+      pipeline.start();
+      for (int i = 0; i < 60; i++) {
+        publishAction(pipeline, pet, Action.FEED);
+      }
+      awaitProcessed(pipeline, CommandPipeline.Stage.MODEL, 60);
+      assertEquals(60, pipeline.getProcessedCount(CommandPipeline.Stage.MODEL));
+      assertTrue(pipeline.getProcessedCount(CommandPipeline.Stage.VIEW) < 60);
+    }
+    pipeline.close();
+    assertEquals(60, pipeline.getProcessedCount(CommandPipeline.Stage.VIEW));
+    assertTrue(pipeline.getBatchCount(CommandPipeline.Stage.VIEW) < 60);
+  }
+
+  /**
+   * Test that a blocked journal does not hold back the model, and catches up in batches.
+   */
+  @Test
+  public void testSlowJournalDoesNotStallModel() throws Exception {
+    Pet pet = new Pet();
+    CommandPipeline pipeline = new CommandPipeline(64, 0, null, null);
+    pipeline.setJournal(journal);
+    // The history's methods lock it, so holding the lock stalls the journal stage's writes
+    synchronized (journal) {
+      pipeline.start();
+      for (int i = 0; i < 60; i++) {
+        publishAction(pipeline, pet, Action.PLAY);
+      }
+      awaitProcessed(pipeline, CommandPipeline.Stage.MODEL, 60);
+      assertEquals(60, pipeline.getProcessedCount(CommandPipeline.Stage.MODEL));
+      assertTrue(pipeline.getProcessedCount(CommandPipeline.Stage.JOURNAL) < 60);
+    }
+    pipeline.close();
+    assertEquals(60, journal.size());
+    assertTrue(pipeline.getBatchCount(CommandPipeline.Stage.JOURNAL) < 60);
+  }
+}
@@ -0,0 +1,92 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+import org.junit.Test;
+import pet.enums.Action;
+import pet.enums.MoodEnum;
+import pet.model.ConcurrentPet;
+import pet.model.HealthStatus;
+import pet.model.Pet;
+
+/**
+ * JUnit test class for the ConcurrentPet class.
+ */
+public class ConcurrentPetTest {
+
+  /**
+   * Test that a single thread sees exactly the same behavior as the plain pet.
+   */
+  @Test
+  public void testMatchesPet() {
+    Random random = new Random(7);
+    for (int run = 0; run < 200; run++) {
+      Pet pet = new Pet();
+      ConcurrentPet concurrentPet = new ConcurrentPet();
+      for (int i = 0; i < 200; i++) {
+        int roll = random.nextInt(6);
+        if (roll < 2) {
+          pet.step();
+          concurrentPet.step();
+        } else {
+          Action action = Action.values()[random.nextInt(Action.values().length)];
+          pet.interactWith(action);
+          concurrentPet.interactWith(action);
+        }
+        assertSameHealth(pet.getHealth(), concurrentPet.getHealth());
+        assertEquals(pet.getMood(), concurrentPet.getMood());
+        assertEquals(pet.isAlive(), concurrentPet.isAlive());
+        assertEquals(pet.isAsleep(), concurrentPet.isAsleep());
+      }
+    }
+  }
+
+  /**
+   * Test that the pet dies of neglect like the plain pet.
+   */
+  @Test
+  public void testDiesOfNeglect() {
+    ConcurrentPet pet = new ConcurrentPet();
+    for (int i = 0; i < 100; i++) {
+      pet.step();
+    }
+    assertFalse(pet.isAlive());
+    assertEquals(MoodEnum.SAD, pet.getMood());
+  }
+
+  /**
+   * Test that concurrent health changes are never lost.
+   */
+  @Test
+  public void testNoLostUpdates() throws InterruptedException {
+    ConcurrentPet pet = new ConcurrentPet();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        // Each thread raises then lowers by the same amount, staying within the 0-100 range
+        for (int i = 0; i < 10; i++) {
+          for (int n = 0; n < 1000; n++) {
+            pet.applyHealthImpact(0, 1, 0, 0);
+            pet.applyHealthImpact(0, -1, 0, 0);
+          }
+          pet.applyHealthImpact(0, 0, 1, 0);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(50, pet.getHealth().getHygiene());
+    assertEquals(50 + threads.length * 10, pet.getHealth().getSocial());
+  }
+
+  private static void assertSameHealth(HealthStatus expected, HealthStatus actual) {
+    assertEquals(expected.getHunger(), actual.getHunger());
+    assertEquals(expected.getHygiene(), actual.getHygiene());
+    assertEquals(expected.getSocial(), actual.getSocial());
+    assertEquals(expected.getSleep(), actual.getSleep());
+  }
+}
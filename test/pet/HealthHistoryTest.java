@@ -0,0 +1,109 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import pet.enums.HealthStat;
+import pet.model.HealthHistory;
+import pet.model.HealthStatus;
+import pet.model.Pet;
+
+/**
+ * JUnit test class for the HealthHistory class.
+ */
+public class HealthHistoryTest {
+  private HealthHistory history;
+  private int[] hunger;
+
+  /**
+   * Records a long random history before each test.
+   */
+  @Before
+  public void setUp() {
+    history = new HealthHistory();
+    hunger = new int[100000];
+    Random random = new Random(42);
+    for (int i = 0; i < hunger.length; i++) {
+      hunger[i] = random.nextInt(101);
+      history.record(new HealthStatus(hunger[i], 50, 50, i % 101));
+    }
+  }
+
+  /**
+   * Test that every recorded value can be read back.
+   */
+  @Test
+  public void testRecordAndGet() {
+    assertEquals(hunger.length, history.size());
+    assertEquals(hunger[0], history.get(HealthStat.HUNGER, 0));
+    assertEquals(hunger[77777], history.get(HealthStat.HUNGER, 77777));
+    assertEquals(77777 % 101, history.get(HealthStat.SLEEP, 77777));
+    assertEquals(50, history.get(HealthStat.HYGIENE, 99999));
+  }
+
+  /**
+   * Test that bucketed minimums and maximums match a full scan.
+   */
+  @Test
+  public void testMinMaxMatchesScan() {
+    int from = 123;
+    int to = 98765;
+    int buckets = 300;
+    int[] min = new int[buckets];
+    int[] max = new int[buckets];
+    assertEquals(buckets, history.minMax(HealthStat.HUNGER, from, to, buckets, min, max));
+
+    long span = to - from;
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      int start = from + (int) (span * bucket / buckets);
+      int end = from + (int) (span * (bucket + 1) / buckets);
+      int expectedMin = Integer.MAX_VALUE;
+      int expectedMax = Integer.MIN_VALUE;
+      for (int i = start; i < end; i++) {
+        expectedMin = Math.min(expectedMin, hunger[i]);
+        expectedMax = Math.max(expectedMax, hunger[i]);
+      }
+      assertEquals(expectedMin, min[bucket]);
+      assertEquals(expectedMax, max[bucket]);
+    }
+  }
+
+  /**
+   * Test that short ranges produce one bucket per tick.
+   */
+  @Test
+  public void testShortRange() {
+    int[] min = new int[10];
+    int[] max = new int[10];
+    assertEquals(3, history.minMax(HealthStat.HUNGER, 5, 8, 10, min, max));
+    assertEquals(hunger[6], min[1]);
+    assertEquals(hunger[6], max[1]);
+  }
+
+  /**
+   * Test that a pet records no history by default.
+   */
+  @Test
+  public void testPetRecordsNothingByDefault() {
+    Pet pet = new Pet("Rex");
+    pet.step();
+    assertNull(pet.getHealthHistory());
+  }
+
+  /**
+   * Test that a pet records its health once when recording starts and once per step.
+   */
+  @Test
+  public void testPetRecordsEachStep() {
+    Pet pet = new Pet("Rex");
+    HealthHistory petHistory = pet.recordHealthHistory();
+    pet.step();
+    pet.step();
+    assertEquals(petHistory, pet.getHealthHistory());
+    assertEquals(3, petHistory.size());
+    assertEquals(pet.getHealth().getHunger(), petHistory.get(HealthStat.HUNGER, 2));
+  }
+}
@@ -0,0 +1,89 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import controller.PetActor;
+import controller.PetActorSystem;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+
+/**
+ * JUnit test class for the PetActor and PetActorSystem classes.
+ */
+public class PetActorTest {
+  private PetActorSystem system;
+
+  /**
+   * Creates a small actor system before each test.
+   */
+  @Before
+  public void setUp() {
+    system = new PetActorSystem(2, 1000, 4);
+  }
+
+  /**
+   * Shuts the actor system down after each test.
+   */
+  @After
+  public void tearDown() {
+    system.close();
+  }
+
+  /**
+   * Test that commands are applied in the order they were sent, as on a plain pet.
+   */
+  @Test
+  public void testCommandsAppliedInOrder() throws Exception {
+    Pet expected = new Pet();
+    PetActor actor = system.spawn(new Pet());
+    Action[] actions = {Action.FEED, Action.PLAY, Action.CLEAN, Action.SLEEP, Action.SLEEP};
+    for (int i = 0; i < 100; i++) {
+      Action action = actions[i % actions.length];
+      expected.interactWith(action);
+      assertTrue(actor.tell(action));
+      if (i % 7 == 0) {
+        expected.step();
+        assertTrue(actor.tellSteps(1));
+      }
+    }
+
+    PetSnapshot snapshot = actor.query().get(5, TimeUnit.SECONDS);
+    assertEquals(expected.getTick(), snapshot.getTick());
+    assertEquals(expected.getMood(), snapshot.getMood());
+    assertEquals(expected.getHealth().getHunger(), snapshot.getHealth().getHunger());
+    assertEquals(expected.getHealth().getSleep(), snapshot.getHealth().getSleep());
+  }
+
+  /**
+   * Test that the system counts every command applied by its actors.
+   */
+  @Test
+  public void testStatistics() throws Exception {
+    PetActor first = system.spawn(new Pet());
+    PetActor second = system.spawn(new Pet());
+    for (int i = 0; i < 50; i++) {
+      first.tell(Action.FEED);
+      second.tellSteps(2);
+    }
+    first.query().get(5, TimeUnit.SECONDS);
+    second.query().get(5, TimeUnit.SECONDS);
+    // A reply is sent before its command is counted, so wait for the counters to settle
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (system.getQueuedCount() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+
+    assertEquals(51, first.getProcessedCount());
+    assertEquals(51, second.getProcessedCount());
+    assertEquals(102, system.getProcessedCount());
+    assertEquals(0, system.getRejectedCount());
+    assertEquals(2, system.getActorCount());
+    assertTrue(system.getLatencyPercentile(99) >= system.getLatencyPercentile(50));
+  }
+}
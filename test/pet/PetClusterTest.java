@@ -0,0 +1,309 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import controller.EngineProcess;
+import controller.HashRing;
+import controller.PetClusterRouter;
+import controller.PetClusterRouter.Batch;
+import controller.PetProtocol;
+import controller.PetProtocolServer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import pet.enums.Action;
+import pet.enums.HealthStat;
+import pet.enums.MoodEnum;
+import pet.model.HealthStatus;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+
+/**
+ * JUnit test class for the HashRing and PetClusterRouter classes.
+ */
+public class PetClusterTest {
+  private final List<PetProtocolServer> servers = new ArrayList<>();
+  private PetClusterRouter router;
+
+  /**
+   * Disconnects the router and stops the servers after each test.
+   */
+  @After
+  public void tearDown() {
+    if (router != null) {
+      router.close();
+    }
+    for (PetProtocolServer server : servers) {
+      server.close();
+    }
+  }
+
+  private InetSocketAddress startServer() throws Exception {
+    PetProtocolServer server = new PetProtocolServer(0);
+    server.start();
+    servers.add(server);
+    return new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+  }
+
+  private static void assertSamePet(Pet expected, PetSnapshot actual) {
+    assertEquals(expected.getTick(), actual.getTick());
+    assertEquals(expected.getMood(), actual.getMood());
+    assertEquals(expected.isAlive(), actual.isAlive());
+    assertEquals(expected.isAsleep(), actual.isAsleep());
+    assertEquals(expected.getHealth().getHunger(), actual.getHealth().getHunger());
+    assertEquals(expected.getHealth().getHygiene(), actual.getHealth().getHygiene());
+    assertEquals(expected.getHealth().getSocial(), actual.getHealth().getSocial());
+    assertEquals(expected.getHealth().getSleep(), actual.getHealth().getSleep());
+  }
+
+  /**
+   * Test that adding a node to the ring only moves pets onto that node, about 1/N of them.
+   */
+  @Test
+  public void testRingMovesOnlyNewNodesShare() {
+    HashRing<String> ring = new HashRing<>(128);
+    for (int node = 0; node < 4; node++) {
+      ring.add("node" + node, "node" + node);
+    }
+    int count = 100_000;
+    String[] before = new String[count];
+    for (int id = 0; id < count; id++) {
+      before[id] = ring.owner(id);
+    }
+
+    ring.add("node4", "node4");
+    int moved = 0;
+    for (int id = 0; id < count; id++) {
+      String owner = ring.owner(id);
+      if (!owner.equals(before[id])) {
+        assertEquals("node4", owner);
+        moved++;
+      }
+    }
+    assertTrue("moved " + moved, moved > count / 10 && moved < count * 3 / 10);
+
+    ring.remove("node4");
+    for (int id = 0; id < count; id++) {
+      assertEquals(before[id], ring.owner(id));
+    }
+  }
+
+  /**
+   * Test that commands sent through the router give the same results as plain pets.
+   */
+  @Test
+  public void testRouterMatchesPlainPets() throws Exception {
+    router = new PetClusterRouter(Arrays.asList(startServer(), startServer(), startServer()));
+    int count = 300;
+    int first = router.createPets(count);
+    Pet[] expected = new Pet[count];
+    for (int i = 0; i < count; i++) {
+      expected[i] = new Pet();
+    }
+
+    Batch batch = new Batch(64);
+    for (int round = 0; round < 20; round++) {
+      batch.clear();
+      for (int i = 0; i < count; i++) {
+        Action action = Action.values()[(round + i) % Action.values().length];
+        expected[i].interactWith(action);
+        batch.act(first + i, action);
+        if ((round + i) % 3 == 0) {
+          expected[i].step();
+          batch.step(first + i, 1);
+        }
+      }
+      router.execute(batch);
+      for (int index = 0; index < batch.size(); index++) {
+        assertEquals(PetProtocol.STATUS_OK, batch.getStatus(index));
+      }
+    }
+
+    for (int i = 0; i < count; i++) {
+      assertSamePet(expected[i], router.getPet(first + i));
+    }
+    assertNull(router.getPet(first + count));
+    int total = 0;
+    for (PetProtocolServer server : servers) {
+      assertTrue(server.getPetCount() > 0);
+      total += server.getPetCount();
+    }
+    assertEquals(count, total);
+  }
+
+  private static ByteBuffer exchange(SocketChannel channel, ByteBuffer request, int responses)
+      throws Exception {
+    request.flip();
+    while (request.hasRemaining()) {
+      channel.write(request);
+    }
+    ByteBuffer response = ByteBuffer.allocate(responses * PetProtocol.RESPONSE_SIZE);
+    while (response.hasRemaining()) {
+      channel.read(response);
+    }
+    return response;
+  }
+
+  /**
+   * Test that out-of-range ids and bad state are refused without harming the server.
+   */
+  @Test
+  public void testServerRejectsHostileFrames() throws Exception {
+    try (SocketChannel channel = SocketChannel.open(startServer())) {
+      int taken = new Pet().getId() + 1;
+      ByteBuffer request = ByteBuffer.allocate(256);
+      PetProtocol.putRequest(request, PetProtocol.OP_CREATE, PetProtocol.CREATE_WITH_ID, 0,
+          Integer.MAX_VALUE);
+      PetProtocol.putRequest(request, PetProtocol.OP_CREATE, PetProtocol.CREATE_WITH_ID, 1,
+          taken);
+      PetProtocol.putRequest(request, PetProtocol.OP_CREATE, 0, 2, 0);
+      PetProtocol.putRequest(request, PetProtocol.OP_CREATE, 0, 3, 0);
+      ByteBuffer response = exchange(channel, request, 4);
+      for (int i = 0; i < 4; i++) {
+        assertEquals(PetProtocol.STATUS_OK,
+            PetProtocol.status(response, i * PetProtocol.RESPONSE_SIZE));
+      }
+      assertEquals(Integer.MAX_VALUE, PetProtocol.value(response, 0));
+      assertNotEquals(taken, PetProtocol.value(response, 2 * PetProtocol.RESPONSE_SIZE));
+      assertNotEquals(taken, PetProtocol.value(response, 3 * PetProtocol.RESPONSE_SIZE));
+      assertEquals(4, servers.get(0).getPetCount());
+
+      // An IMPORT whose mood byte names no mood
+      request.clear();
+      PetProtocol.putRequest(request, PetProtocol.OP_IMPORT, 0, 4, 7);
+      PetProtocol.putState(request, new Pet());
+      request.put(request.position() - PetProtocol.STATE_SIZE + 12, (byte) 3);
+      PetProtocol.putRequest(request, PetProtocol.OP_GET, 0, 5, Integer.MAX_VALUE);
+      response = exchange(channel, request, 2);
+      assertEquals(PetProtocol.STATUS_BAD_REQUEST, PetProtocol.status(response, 0));
+      assertEquals(PetProtocol.STATUS_OK,
+          PetProtocol.status(response, PetProtocol.RESPONSE_SIZE));
+      assertEquals(4, servers.get(0).getPetCount());
+
+      // IMPORTs whose health levels fall outside 0 to 100
+      for (byte level : new byte[] {-1, 101}) {
+        request.clear();
+        PetProtocol.putRequest(request, PetProtocol.OP_IMPORT, 0, 6, 8);
+        PetProtocol.putState(request, new Pet());
+        request.put(request.position() - PetProtocol.STATE_SIZE + 9, level);
+        response = exchange(channel, request, 1);
+        assertEquals(PetProtocol.STATUS_BAD_REQUEST, PetProtocol.status(response, 0));
+      }
+      assertEquals(4, servers.get(0).getPetCount());
+    }
+  }
+
+  /**
+   * Test that a BOX leaves a sleeping or dead pet unchanged and answers STATUS_BLOCKED.
+   */
+  @Test
+  public void testBoxBlockedForSleepingOrDeadPets() throws Exception {
+    try (SocketChannel channel = SocketChannel.open(startServer())) {
+      PetSnapshot dead = new PetSnapshot(11, "Rex", 40, new HealthStatus(100, 0, 0, 0),
+          MoodEnum.SAD, false, false);
+      ByteBuffer request = ByteBuffer.allocate(256);
+      PetProtocol.putRequest(request, PetProtocol.OP_CREATE, PetProtocol.CREATE_WITH_ID, 0, 10);
+      PetProtocol.putRequest(request, PetProtocol.OP_ACT, Action.SLEEP.ordinal(), 1, 10);
+      PetProtocol.putRequest(request, PetProtocol.OP_BOX, 0, 2, 10);
+      PetProtocol.putRequest(request, PetProtocol.OP_IMPORT, 0, 3, 11);
+      PetProtocol.putState(request, Pet.restore(dead, 0, false, false));
+      PetProtocol.putRequest(request, PetProtocol.OP_BOX, 0, 4, 11);
+      ByteBuffer response = exchange(channel, request, 5);
+
+      int asleep = PetProtocol.RESPONSE_SIZE;
+      int sleepingBox = 2 * PetProtocol.RESPONSE_SIZE;
+      assertTrue(PetProtocol.asleep(response, asleep));
+      assertEquals(PetProtocol.STATUS_BLOCKED, PetProtocol.status(response, sleepingBox));
+      assertTrue(PetProtocol.asleep(response, sleepingBox));
+      for (HealthStat stat : HealthStat.values()) {
+        assertEquals(PetProtocol.level(response, asleep, stat),
+            PetProtocol.level(response, sleepingBox, stat));
+      }
+
+      int deadBox = 4 * PetProtocol.RESPONSE_SIZE;
+      assertEquals(PetProtocol.STATUS_OK,
+          PetProtocol.status(response, 3 * PetProtocol.RESPONSE_SIZE));
+      assertEquals(PetProtocol.STATUS_BLOCKED, PetProtocol.status(response, deadBox));
+      assertFalse(PetProtocol.alive(response, deadBox));
+      assertEquals(40, PetProtocol.value(response, deadBox));
+      assertEquals(100, PetProtocol.level(response, deadBox, HealthStat.HUNGER));
+    }
+  }
+
+  /**
+   * Test that adding and removing engines moves pets with their state intact.
+   */
+  @Test
+  public void testRebalancingKeepsState() throws Exception {
+    InetSocketAddress firstEngine = startServer();
+    router = new PetClusterRouter(Arrays.asList(firstEngine, startServer()));
+    int count = 2000;
+    router.createPets(count);
+    Batch batch = new Batch(count);
+    for (int id = 0; id < count; id++) {
+      batch.act(id, Action.values()[id % Action.values().length]);
+      batch.step(id, 1 + id % 50);
+    }
+    router.execute(batch);
+    PetSnapshot[] before = new PetSnapshot[count];
+    for (int id = 0; id < count; id++) {
+      before[id] = router.getPet(id);
+    }
+
+    InetSocketAddress added = startServer();
+    int moved = router.addEngine(added);
+    assertEquals(router.countPets(added), moved);
+    assertTrue("moved " + moved, moved > count / 6 && moved < count / 2);
+    assertEquals(moved, servers.get(2).getPetCount());
+
+    moved = router.removeEngine(firstEngine);
+    assertEquals(0, servers.get(0).getPetCount());
+    assertEquals(2, router.getEngineCount());
+    assertTrue(moved > 0);
+
+    for (int id = 0; id < count; id++) {
+      PetSnapshot after = router.getPet(id);
+      assertEquals(before[id].getTick(), after.getTick());
+      assertEquals(before[id].getMood(), after.getMood());
+      assertEquals(before[id].isAlive(), after.isAlive());
+      assertEquals(before[id].getHealth().getHunger(), after.getHealth().getHunger());
+      assertEquals(before[id].getHealth().getSleep(), after.getHealth().getSleep());
+    }
+  }
+
+  /**
+   * Test that a cluster of engines in separate JVMs serves pets like a single one.
+   */
+  @Test
+  public void testEngineProcesses() throws Exception {
+    try (EngineProcess first = new EngineProcess(64);
+         EngineProcess second = new EngineProcess(64)) {
+      router = new PetClusterRouter(Arrays.asList(first.getAddress(), second.getAddress()));
+      router.createPets(100);
+      Pet expected = new Pet();
+      Batch batch = new Batch(16);
+      for (int round = 0; round < 10; round++) {
+        expected.interactWith(Action.PLAY);
+        expected.step();
+        batch.act(42, Action.PLAY);
+        batch.step(42, 1);
+      }
+      router.execute(batch);
+      assertSamePet(expected, router.getPet(42));
+      assertTrue(router.countPets(first.getAddress()) > 0);
+      assertTrue(router.countPets(second.getAddress()) > 0);
+      router.close();
+      router = null;
+    }
+  }
+}
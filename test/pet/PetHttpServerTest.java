@@ -0,0 +1,132 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import controller.PetHttpServer;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test class for the routes of the PetHttpServer class.
+ */
+public class PetHttpServerTest {
+  private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private PetHttpServer server;
+
+  /**
+   * Starts a server on a free port before each test.
+   */
+  @Before
+  public void setUp() throws Exception {
+    server = new PetHttpServer(0, 2, 2);
+    server.start();
+  }
+
+  /**
+   * Stops the server after each test.
+   */
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  private HttpResponse<String> send(String method, String path) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(
+            URI.create("http://127.0.0.1:" + server.getPort() + path))
+        .method(method, HttpRequest.BodyPublishers.noBody()).build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  /**
+   * Sends a request line as is, for targets that java.net.URI refuses to build.
+   */
+  private int sendRaw(String requestLine) throws Exception {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      OutputStream out = socket.getOutputStream();
+      out.write((requestLine + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: 0\r\n"
+          + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+      BufferedReader in = new BufferedReader(
+          new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      // "HTTP/1.1 400 Bad Request"
+      return Integer.parseInt(in.readLine().split(" ")[1]);
+    }
+  }
+
+  private int createPet() throws Exception {
+    HttpResponse<String> response = send("POST", "/pets?name=Rex");
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body(), response.body().contains("\"name\":\"Rex\""));
+    Matcher id = ID.matcher(response.body());
+    assertTrue(response.body(), id.find());
+    return Integer.parseInt(id.group(1));
+  }
+
+  /**
+   * Test that a pet can be created, acted on, stepped and read back.
+   */
+  @Test
+  public void testCreateActAndStep() throws Exception {
+    int id = createPet();
+
+    HttpResponse<String> response = send("POST", "/pets/" + id + "/act?action=feed");
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body(), response.body().contains("\"hunger\":40"));
+
+    response = send("POST", "/pets/" + id + "/step?steps=3");
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body(), response.body().contains("\"tick\":3"));
+
+    response = send("GET", "/pets/" + id);
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body(), response.body().contains("\"tick\":3"));
+  }
+
+  /**
+   * Test that bad requests are answered with the matching client error.
+   */
+  @Test
+  public void testClientErrors() throws Exception {
+    int id = createPet();
+
+    assertEquals(400, send("POST", "/pets/" + id + "/act?action=DANCE").statusCode());
+    // The JDK server refuses this target itself; the handler would also answer 400
+    assertEquals(400, sendRaw("POST /pets/" + id + "/act?action=%ZZ"));
+    assertEquals(400, send("POST", "/pets/" + id + "/step?steps=0").statusCode());
+    assertEquals(404, send("GET", "/pets/" + (id + 1_000_000)).statusCode());
+    assertEquals(404, send("POST", "/pets/" + id + "/dance").statusCode());
+    assertEquals(405, send("GET", "/pets/" + id + "/act?action=FEED").statusCode());
+    assertEquals(405, send("DELETE", "/pets/" + id).statusCode());
+  }
+
+  /**
+   * Test that a sleeping pet cannot open a mystery box and is left unchanged.
+   */
+  @Test
+  public void testBoxOnSleepingPet() throws Exception {
+    int id = createPet();
+    HttpResponse<String> asleep = send("POST", "/pets/" + id + "/act?action=SLEEP");
+    assertTrue(asleep.body(), asleep.body().contains("\"asleep\":true"));
+
+    HttpResponse<String> response = send("POST", "/pets/" + id + "/box");
+    assertEquals(409, response.statusCode());
+    assertTrue(response.body(), response.body().contains("asleep"));
+    assertEquals(asleep.body(), send("GET", "/pets/" + id).body());
+  }
+}
@@ -0,0 +1,104 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import controller.ShardedPetExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pet.enums.Action;
+import pet.model.Pet;
+import pet.model.PetSnapshot;
+
+/**
+ * JUnit test class for the ShardedPetExecutor class.
+ */
+public class ShardedPetExecutorTest {
+  private ShardedPetExecutor executor;
+
+  /**
+   * Creates an executor with a few shards before each test.
+   */
+  @Before
+  public void setUp() {
+    executor = new ShardedPetExecutor(3);
+  }
+
+  /**
+   * Stops the executor after each test.
+   */
+  @After
+  public void tearDown() {
+    executor.close();
+  }
+
+  /**
+   * Test that commands from several threads reach each pet in the order each thread sent them.
+   */
+  @Test
+  public void testCommandsMatchPlainPets() throws Exception {
+    int count = 12;
+    Pet[] expected = new Pet[count];
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      expected[i] = new Pet();
+      Pet pet = new Pet();
+      ids[i] = pet.getId();
+      executor.add(pet);
+    }
+
+    // Each sender owns a disjoint set of pets, so per-pet order is deterministic
+    Thread[] senders = new Thread[3];
+    for (int s = 0; s < senders.length; s++) {
+      int first = s;
+      senders[s] = new Thread(() -> {
+        for (int round = 0; round < 40; round++) {
+          for (int i = first; i < count; i += senders.length) {
+            Action action = Action.values()[(round + i) % 3];
+            expected[i].interactWith(action);
+            executor.interact(ids[i], action);
+            if (round % 5 == 0) {
+              expected[i].step();
+              executor.step(ids[i], 1);
+            }
+          }
+        }
+      });
+      senders[s].start();
+    }
+    for (Thread sender : senders) {
+      sender.join();
+    }
+
+    for (int i = 0; i < count; i++) {
+      PetSnapshot snapshot = executor.ask(ids[i], PetSnapshot::of).get(5, TimeUnit.SECONDS);
+      assertEquals(expected[i].getTick(), snapshot.getTick());
+      assertEquals(expected[i].getMood(), snapshot.getMood());
+      assertEquals(expected[i].getHealth().getHunger(), snapshot.getHealth().getHunger());
+      assertEquals(expected[i].getHealth().getSocial(), snapshot.getHealth().getSocial());
+    }
+  }
+
+  /**
+   * Test that published snapshots catch up with broadcast steps.
+   */
+  @Test
+  public void testSnapshotsPublishedAfterStepAll() throws Exception {
+    Pet pet = new Pet();
+    int id = pet.getId();
+    executor.add(pet);
+    assertEquals(0, executor.getSnapshot(id).getTick());
+
+    executor.stepAll(3);
+    assertEquals(3L, (long) executor.ask(id, Pet::getTick).get(5, TimeUnit.SECONDS));
+    // Snapshots are published at the end of the shard's batch, just after the reply
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (executor.getSnapshot(id).getTick() < 3 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(3, executor.getSnapshot(id).getTick());
+    assertNull(executor.getSnapshot(-1));
+  }
+}
@@ -0,0 +1,207 @@
+package pet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import controller.StateStream;
+import controller.StateStream.OverflowPolicy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pet.enums.MoodEnum;
+import pet.model.HealthStatus;
+import pet.model.PetSnapshot;
+import pet.model.PetStateChange;
+
+/**
+ * JUnit test class for the StateStream class.
+ */
+public class StateStreamTest {
+  private ExecutorService executor;
+
+  /**
+   * A subscriber that records what it receives and requests only when told to.
+   */
+  private static final class Recorder implements Flow.Subscriber<PetStateChange> {
+    private final List<PetStateChange> received = new CopyOnWriteArrayList<>();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean completed;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(PetStateChange item) {
+      received.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
+  /**
+   * Creates the delivery thread before each test.
+   */
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  /**
+   * Stops the delivery thread after each test.
+   */
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static PetStateChange change(int petId, long tick) {
+    PetSnapshot previous = (tick == 0) ? null : snapshot(petId, tick - 1);
+    return new PetStateChange(previous, snapshot(petId, tick));
+  }
+
+  private static PetSnapshot snapshot(int petId, long tick) {
+    return new PetSnapshot(petId, "Pet", tick, new HealthStatus(50, 50, 50, 50),
+        MoodEnum.NEUTRAL, true, false);
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+  }
+
+  /**
+   * Test that nothing is delivered beyond the demand the subscriber signalled.
+   */
+  @Test
+  public void testDeliversOnlyRequested() throws Exception {
+    StateStream stream = new StateStream(executor, 16, OverflowPolicy.DROP_OLDEST);
+    Recorder recorder = new Recorder();
+    stream.subscribe(recorder);
+    for (int tick = 0; tick < 10; tick++) {
+      stream.publish(change(1, tick));
+    }
+
+    recorder.subscription.request(3);
+    await(() -> recorder.received.size() >= 3);
+    Thread.sleep(20);
+    assertEquals(3, recorder.received.size());
+    assertEquals(0, recorder.received.get(0).getCurrent().getTick());
+
+    recorder.subscription.request(Long.MAX_VALUE);
+    await(() -> recorder.received.size() >= 10);
+    assertEquals(10, recorder.received.size());
+    assertEquals(9, recorder.received.get(9).getCurrent().getTick());
+  }
+
+  /**
+   * Test that a full buffer discards the oldest changes and counts them.
+   */
+  @Test
+  public void testDropOldestKeepsNewest() throws Exception {
+    StateStream stream = new StateStream(executor, 8, OverflowPolicy.DROP_OLDEST);
+    Recorder recorder = new Recorder();
+    stream.subscribe(recorder);
+    for (int tick = 0; tick < 100; tick++) {
+      stream.publish(change(1, tick));
+    }
+    assertEquals(92, stream.getDroppedCount());
+
+    recorder.subscription.request(Long.MAX_VALUE);
+    await(() -> recorder.received.size() >= 8);
+    assertEquals(8, recorder.received.size());
+    assertEquals(92, recorder.received.get(0).getCurrent().getTick());
+  }
+
+  /**
+   * Test that conflation keeps one change per pet spanning all of its buffered changes.
+   */
+  @Test
+  public void testConflateKeepsLatestPerPet() throws Exception {
+    StateStream stream = new StateStream(executor, 8, OverflowPolicy.CONFLATE);
+    Recorder recorder = new Recorder();
+    stream.subscribe(recorder);
+    for (int tick = 1; tick <= 50; tick++) {
+      stream.publish(change(1, tick));
+      stream.publish(change(2, tick));
+    }
+    assertEquals(98, stream.getConflatedCount());
+    assertEquals(0, stream.getDroppedCount());
+
+    recorder.subscription.request(Long.MAX_VALUE);
+    await(() -> recorder.received.size() >= 2);
+    assertEquals(2, recorder.received.size());
+    for (PetStateChange change : recorder.received) {
+      assertEquals(0, change.getPrevious().getTick());
+      assertEquals(50, change.getCurrent().getTick());
+    }
+  }
+
+  /**
+   * Test that a blocking subscription holds the publisher until it requests more.
+   */
+  @Test
+  public void testBlockWaitsForDemand() throws Exception {
+    StateStream stream = new StateStream(executor, 4, OverflowPolicy.BLOCK);
+    Recorder recorder = new Recorder();
+    stream.subscribe(recorder);
+    Thread publisher = new Thread(() -> {
+      for (int tick = 0; tick < 20; tick++) {
+        stream.publish(change(1, tick));
+      }
+    });
+    publisher.start();
+    publisher.join(200);
+    assertTrue(publisher.isAlive());
+
+    recorder.subscription.request(Long.MAX_VALUE);
+    publisher.join(5000);
+    assertFalse(publisher.isAlive());
+    await(() -> recorder.received.size() >= 20);
+    assertEquals(20, recorder.received.size());
+    assertEquals(0, stream.getDroppedCount());
+  }
+
+  /**
+   * Test that a per-pet publisher filters other pets and completes when the stream closes.
+   */
+  @Test
+  public void testForPetFiltersAndCompletes() throws Exception {
+    StateStream stream = new StateStream(executor, 16, OverflowPolicy.DROP_OLDEST);
+    Recorder recorder = new Recorder();
+    stream.forPet(2).subscribe(recorder);
+    recorder.subscription.request(Long.MAX_VALUE);
+    for (int tick = 0; tick < 5; tick++) {
+      stream.publish(change(1, tick));
+      stream.publish(change(2, tick));
+    }
+    stream.close();
+
+    await(() -> recorder.completed);
+    assertTrue(recorder.completed);
+    assertEquals(5, recorder.received.size());
+    for (PetStateChange change : recorder.received) {
+      assertEquals(2, change.getPetId());
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+  }
+}